@@ -19,7 +19,10 @@ public class SecurityConfig {
         http
             .csrf(AbstractHttpConfigurer::disable)
             .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/api/auth/.well-known/jwks.json").permitAll() // Claves públicas de verificación
                 .requestMatchers("/api/auth/validate").permitAll() // Permitir validación de token
+                .requestMatchers("/api/auth/validate/batch").permitAll() // Validación por lotes
+                .requestMatchers("/api/auth/logout", "/api/auth/revoke").permitAll() // Autenticadas con el propio JWT en el controlador
                 .anyRequest().authenticated() // Todas las demás rutas requieren autenticación
             )
             .sessionManagement(session -> session
@@ -1,17 +1,38 @@
 package com.microservices.auth.controller;
 
+import com.microservices.auth.dto.BatchTokenValidationRequest;
+import com.microservices.auth.dto.BatchTokenValidationResponse;
+import com.microservices.auth.dto.RevokeTokenRequest;
 import com.microservices.auth.dto.TokenValidationResponse;
 import com.microservices.auth.service.AuthService;
+import com.microservices.auth.service.JwksService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
 public class AuthController {
 
     private final AuthService authService;
+    private final JwksService jwksService;
+
+    /**
+     * Claves públicas de firma (JWKS) para que cada servicio verifique los tokens localmente
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                .body(jwksService.getJwks());
+    }
 
     @PostMapping("/validate")
     public ResponseEntity<TokenValidationResponse> validateToken(@RequestHeader("Authorization") String token) {
@@ -19,4 +40,46 @@ public class AuthController {
         TokenValidationResponse response = authService.validateToken(jwt);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Valida varios tokens en una sola llamada (gateway y servicios con micro-batching)
+     */
+    @PostMapping("/validate/batch")
+    public ResponseEntity<BatchTokenValidationResponse> validateTokens(@Valid @RequestBody BatchTokenValidationRequest request) {
+        BatchTokenValidationResponse response = BatchTokenValidationResponse.builder()
+                .results(authService.validateTokens(request.getTokens()))
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Cierra la sesión revocando el token del header Authorization
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader("Authorization") String token) {
+        String jwt = token.substring(7); // Remove "Bearer "
+        if (!authService.logout(jwt)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Revoca el token de otro usuario. Solo para administradores (rol del token del header Authorization).
+     */
+    @PostMapping("/revoke")
+    public ResponseEntity<Void> revokeToken(@RequestHeader("Authorization") String token,
+                                            @Valid @RequestBody RevokeTokenRequest request) {
+        TokenValidationResponse caller = authService.validateToken(token.substring(7));
+        if (!caller.isValid()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (!"ADMIN".equals(caller.getRole())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (!authService.revokeToken(request.getToken())) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,21 @@
+package com.microservices.auth.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchTokenValidationRequest {
+
+    @NotEmpty(message = "Debe enviar al menos un token")
+    @Size(max = 1000, message = "No se pueden validar más de 1000 tokens por petición")
+    private List<String> tokens; // Tokens JWT sin el prefijo "Bearer "
+}
@@ -0,0 +1,17 @@
+package com.microservices.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokeTokenRequest {
+
+    @NotBlank(message = "El token es obligatorio")
+    private String token; // Token JWT a revocar, sin el prefijo "Bearer "
+}
@@ -1,33 +1,52 @@
 package com.microservices.auth.service;
 
 import com.microservices.auth.dto.TokenValidationResponse;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuthService {
 
     private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
+
+    // Pool propio para la verificación en paralelo: no compite con el common pool de la JVM
+    private final ForkJoinPool validationPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    // Por debajo de este tamaño el reparto entre hilos cuesta más que la verificación
+    @Value("${jwt.batch.parallel-threshold:16}")
+    private int parallelThreshold;
 
+    /**
+     * Valida el token con una sola verificación de firma: las claims se leen del mismo parseo.
+     * Un token revocado (logout o revocación administrativa) es inválido aunque no haya expirado.
+     */
     public TokenValidationResponse validateToken(String token) {
         try {
-            // Extraer información del token
-            String userName = jwtService.extractUserName(token);
-            boolean isValid = !jwtService.isTokenExpired(token);
+            Claims claims = jwtService.parseClaims(token);
+            Date expiration = claims.getExpiration();
+            boolean isValid = expiration != null && expiration.after(new Date())
+                    && !tokenRevocationService.isRevoked(TokenRevocationService.tokenId(claims, token));
             
             if (isValid) {
-                // Extraer rol del token
-                String role = jwtService.extractClaim(token, claims -> claims.get("role", String.class));
-                Long userId = jwtService.extractClaim(token, claims -> claims.get("userId", Long.class));
-                
                 return TokenValidationResponse.builder()
                     .valid(true)
-                    .userName(userName)
-                    .role(role)
-                    .userId(userId)
+                    .userName(claims.getSubject())
+                    .role(claims.get("role", String.class))
+                    .userId(claims.get("userId", Long.class))
                     .build();
             } else {
                 return TokenValidationResponse.builder()
@@ -41,4 +60,60 @@ public class AuthService {
                 .build();
         }
     }
+
+    /**
+     * Valida varios tokens en una sola petición, verificándolos en paralelo entre los núcleos.
+     * Los tokens repetidos se verifican una sola vez.
+     * @return un resultado por token, en el mismo orden recibido
+     */
+    public List<TokenValidationResponse> validateTokens(List<String> tokens) {
+        List<String> distinct = List.copyOf(new LinkedHashSet<>(tokens.stream().map(token -> token == null ? "" : token).toList()));
+        Map<String, TokenValidationResponse> results = new ConcurrentHashMap<>();
+
+        if (distinct.size() < parallelThreshold) {
+            distinct.forEach(token -> results.put(token, validateToken(token)));
+        } else {
+            validationPool.submit(() -> distinct.parallelStream()
+                    .forEach(token -> results.put(token, validateToken(token))))
+                    .join();
+        }
+
+        return tokens.stream()
+                .map(token -> results.get(token == null ? "" : token))
+                .toList();
+    }
+
+    /**
+     * Cierra la sesión del portador revocando su propio token
+     * @return false si el token no es válido
+     */
+    public boolean logout(String token) {
+        return revokeToken(token);
+    }
+
+    /**
+     * Revoca el token hasta su expiración
+     * @return false si el token no es válido (mal formado, expirado o ya revocado)
+     */
+    public boolean revokeToken(String token) {
+        try {
+            Claims claims = jwtService.parseClaims(token);
+            Date expiration = claims.getExpiration();
+            String tokenId = TokenRevocationService.tokenId(claims, token);
+            if (expiration == null || !expiration.after(new Date()) || tokenRevocationService.isRevoked(tokenId)) {
+                return false;
+            }
+            tokenRevocationService.revoke(tokenId, expiration.getTime());
+            log.info("Token de {} revocado", claims.getSubject());
+            return true;
+        } catch (Exception e) {
+            log.debug("No se pudo revocar el token: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        validationPool.shutdown();
+    }
 }
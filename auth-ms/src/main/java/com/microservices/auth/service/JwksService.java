@@ -0,0 +1,162 @@
+package com.microservices.auth.service;
+
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.ProtectedHeader;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Claves públicas con las que se verifican los JWT emitidos por user-ms.
+ * Se leen de los archivos {kid}.pub del directorio compartido jwt.keys.dir (user-ms conserva las
+ * privadas) y se publican como JWKS para que el resto de servicios verifique sin llamar a auth-ms.
+ */
+@Service
+@Slf4j
+public class JwksService {
+
+    // Prefijo DER de una clave pública Ed25519 en X.509 (RFC 8410): le siguen los 32 bytes de la clave
+    private static final int ED25519_X509_PREFIX_LENGTH = 12;
+
+    private final Path directory;
+    private final long minReloadIntervalMs;
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile Map<String, Object> jwks = Map.of("keys", List.of());
+    private volatile long lastReloadAt;
+
+    public JwksService(@Value("${jwt.keys.dir:data/jwt-keys}") Path directory,
+                       @Value("${jwt.keys.min-reload-interval-ms:5000}") long minReloadIntervalMs) {
+        this.directory = directory;
+        this.minReloadIntervalMs = minReloadIntervalMs;
+    }
+
+    @PostConstruct
+    void init() {
+        reload();
+        log.info("Claves públicas JWT cargadas: {}", keys.size());
+    }
+
+    /**
+     * Relee el directorio para incorporar las claves nuevas y descartar las retiradas por user-ms
+     */
+    @Scheduled(fixedDelayString = "${jwt.keys.reload-ms:30000}")
+    public synchronized void reload() {
+        lastReloadAt = System.currentTimeMillis();
+        if (!Files.isDirectory(directory)) {
+            log.warn("Directorio de claves JWT inexistente: {}", directory);
+            return;
+        }
+
+        Map<String, PublicKey> loaded = new LinkedHashMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(".pub"))
+                    .sorted()
+                    .forEach(file -> {
+                        String kid = file.getFileName().toString().replace(".pub", "");
+                        try {
+                            loaded.put(kid, readPublicKey(kid, file));
+                        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+                            log.warn("Clave pública ignorada {}: {}", file.getFileName(), e.getMessage());
+                        }
+                    });
+        } catch (IOException e) {
+            // Se conservan las claves de la carga anterior
+            log.error("No se pudo leer el directorio de claves {}: {}", directory, e.getMessage());
+            return;
+        }
+
+        keys = Map.copyOf(loaded);
+        jwks = Map.of("keys", loaded.entrySet().stream()
+                .map(entry -> toJwk(entry.getKey(), entry.getValue()))
+                .toList());
+    }
+
+    /**
+     * Conjunto de claves públicas en formato JWKS (RFC 7517)
+     */
+    public Map<String, Object> getJwks() {
+        return jwks;
+    }
+
+    /**
+     * Localiza la clave pública por el kid del header. Un kid desconocido fuerza una recarga
+     * (como mucho una cada jwt.keys.min-reload-interval-ms) por si la clave acaba de publicarse.
+     * @return null si el kid no corresponde a ninguna clave
+     */
+    public Key locate(Header header) {
+        if (!(header instanceof ProtectedHeader protectedHeader) || protectedHeader.getKeyId() == null) {
+            return null;
+        }
+        String kid = protectedHeader.getKeyId();
+        PublicKey key = keys.get(kid);
+        if (key == null && System.currentTimeMillis() - lastReloadAt >= minReloadIntervalMs) {
+            reload();
+            key = keys.get(kid);
+        }
+        return key;
+    }
+
+    /**
+     * El kid generado por user-ms tiene la forma {activación}-{EdDSA|RS256}-{aleatorio}
+     */
+    private static PublicKey readPublicKey(String kid, Path file) throws IOException, GeneralSecurityException {
+        String algorithm = kid.split("-")[1];
+        String base64 = Files.readAllLines(file, StandardCharsets.US_ASCII).stream()
+                .filter(line -> !line.startsWith("-----"))
+                .collect(Collectors.joining());
+        KeyFactory factory = KeyFactory.getInstance("EdDSA".equals(algorithm) ? "Ed25519" : "RSA");
+        return factory.generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(base64)));
+    }
+
+    private static Map<String, Object> toJwk(String kid, PublicKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        if (key instanceof RSAPublicKey rsa) {
+            jwk.put("kty", "RSA");
+            jwk.put("kid", kid);
+            jwk.put("use", "sig");
+            jwk.put("alg", "RS256");
+            jwk.put("n", base64Url(rsa.getModulus()));
+            jwk.put("e", base64Url(rsa.getPublicExponent()));
+        } else {
+            byte[] encoded = key.getEncoded();
+            jwk.put("kty", "OKP");
+            jwk.put("kid", kid);
+            jwk.put("use", "sig");
+            jwk.put("alg", "EdDSA");
+            jwk.put("crv", "Ed25519");
+            jwk.put("x", Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(Arrays.copyOfRange(encoded, ED25519_X509_PREFIX_LENGTH, encoded.length)));
+        }
+        return jwk;
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length); // Sin el byte de signo
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
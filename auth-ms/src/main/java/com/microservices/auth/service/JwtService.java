@@ -1,29 +1,38 @@
 package com.microservices.auth.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.function.Function;
 
+/**
+ * Verificación de los JWT emitidos por user-ms. auth-ms no firma tokens: la clave pública de
+ * cada token se elige por su kid entre las publicadas en el JWKS (JwksService).
+ */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class JwtService {
 
-    @Value("${jwt.secret:404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970}")
-    private String secretKey;
+    private final JwksService jwksService;
 
-    @Value("${jwt.expiration:86400000}") // 24 horas por defecto
-    private long jwtExpiration;
+    // La clave se resuelve por kid en cada token; JwtParser es inmutable y thread-safe
+    private volatile JwtParser jwtParser;
+
+    /**
+     * Construye el parser al arrancar, fuera del camino de las peticiones
+     */
+    @PostConstruct
+    void init() {
+        getParser();
+    }
 
     /**
      * Extrae el nombre de usuario del token JWT
@@ -41,43 +50,19 @@ public class JwtService {
     }
 
     /**
-     * Genera un token JWT para un usuario
+     * Verifica firma y expiración del token en un único parseo y devuelve todas sus claims
+     * @throws io.jsonwebtoken.JwtException si la firma no es válida, el token expiró o está mal formado
      */
-    public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
-    }
-
-    /**
-     * Genera un token JWT con claims adicionales
-     */
-    public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return buildToken(extraClaims, userDetails, jwtExpiration);
-    }
-
-    /**
-     * Construye el token JWT
-     */
-    private String buildToken(
-            Map<String, Object> extraClaims,
-            UserDetails userDetails,
-            long expiration
-    ) {
-        return Jwts
-                .builder()
-                .claims(extraClaims)
-                .subject(userDetails.getUsername())
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey())
-                .compact();
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
     }
 
     /**
      * Valida si el token es válido para el usuario dado
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String userName = extractUserName(token);
-        return (userName.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        final Claims claims = extractAllClaims(token);
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 
     /**
@@ -98,19 +83,22 @@ public class JwtService {
      * Extrae todas las claims del token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSignInKey())
-                .build()
+        return getParser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
     /**
-     * Obtiene la clave de firma
+     * Obtiene el parser reutilizable (se construye la primera vez)
      */
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private JwtParser getParser() {
+        JwtParser parser = jwtParser;
+        if (parser == null) {
+            parser = Jwts.parser()
+                    .keyLocator(jwksService::locate)
+                    .build();
+            jwtParser = parser;
+        }
+        return parser;
     }
 }
@@ -0,0 +1,204 @@
+package com.microservices.auth.service;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lista de tokens revocados antes de su expiración.
+ * Cada validación consulta primero un filtro de Bloom (casi siempre responde "no revocado") y
+ * solo ante un posible positivo el mapa jti -> expiración; ambos en O(1) y sin base de datos.
+ * Las revocaciones se añaden a un archivo local de solo escritura al final, que se relee al
+ * arrancar; las entradas expiradas se purgan de memoria y del archivo.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private final Path file;
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private volatile RevokedTokenBloomFilter bloomFilter;
+    private BufferedWriter writer;
+    private int expiredSinceCompaction;
+
+    public TokenRevocationService(@Value("${jwt.revocation.file:data/revoked-tokens.log}") Path file,
+                                  @Value("${jwt.revocation.expected-revocations:100000}") int expectedRevocations,
+                                  @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.file = file;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.bloomFilter = new RevokedTokenBloomFilter(expectedRevocations, falsePositiveRate);
+    }
+
+    /**
+     * Carga las revocaciones vigentes del archivo y lo compacta
+     */
+    @PostConstruct
+    synchronized void init() {
+        long now = System.currentTimeMillis();
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split(" ");
+                    if (parts.length != 2) {
+                        continue; // Línea incompleta de una escritura interrumpida
+                    }
+                    try {
+                        long expiresAt = Long.parseLong(parts[1]);
+                        if (expiresAt > now) {
+                            revoked.put(parts[0], expiresAt);
+                        }
+                    } catch (NumberFormatException e) {
+                        log.warn("Línea inválida en {}: {}", file, line);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo leer el registro de revocaciones " + file, e);
+            }
+        }
+        compact();
+        log.info("Revocaciones vigentes cargadas: {}", revoked.size());
+    }
+
+    /**
+     * @param tokenId jti del token (o su hash si no tiene jti)
+     * @return true si el token fue revocado y aún no expiró
+     */
+    public boolean isRevoked(String tokenId) {
+        if (!bloomFilter.mightContain(tokenId)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(tokenId);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Revoca el token hasta su expiración; después ya no hace falta recordarlo
+     * @param tokenId jti del token (o su hash si no tiene jti)
+     * @param expiresAtMillis expiración del token
+     */
+    public synchronized void revoke(String tokenId, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis() || revoked.containsKey(tokenId)) {
+            return;
+        }
+        revoked.put(tokenId, expiresAtMillis);
+        bloomFilter.add(tokenId);
+        try {
+            writer.write(tokenId + " " + expiresAtMillis);
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            // La revocación sigue vigente en memoria; se perdería solo si el proceso reinicia
+            log.error("No se pudo persistir la revocación de {}: {}", tokenId, e.getMessage());
+        }
+        log.debug("Token revocado: {}", tokenId);
+    }
+
+    /**
+     * Elimina las revocaciones de tokens ya expirados. Como el filtro de Bloom no admite borrados,
+     * se reconstruye (y se compacta el archivo) cuando las entradas eliminadas son muchas.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-ms:60000}")
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        int removed = before - revoked.size();
+        if (removed == 0) {
+            return;
+        }
+
+        expiredSinceCompaction += removed;
+        if (expiredSinceCompaction >= Math.max(1000, revoked.size())) {
+            compact();
+        }
+        log.debug("Revocaciones expiradas purgadas: {} (vigentes: {})", removed, revoked.size());
+    }
+
+    /**
+     * Identificador de revocación del token: su jti, o el SHA-256 del token si fue emitido sin jti
+     */
+    public static String tokenId(Claims claims, String token) {
+        if (claims.getId() != null) {
+            return claims.getId();
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return "sha256:" + HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        closeWriter();
+    }
+
+    /**
+     * Reescribe el archivo con las revocaciones vigentes (reemplazo atómico) y reconstruye el filtro
+     */
+    private void compact() {
+        RevokedTokenBloomFilter rebuilt = new RevokedTokenBloomFilter(
+                Math.max(expectedRevocations, revoked.size() * 2), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::add);
+        bloomFilter = rebuilt;
+
+        closeWriter();
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "revoked-tokens", ".tmp");
+            try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Long> entry : revoked.entrySet()) {
+                    out.write(entry.getKey() + " " + entry.getValue());
+                    out.newLine();
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo compactar el registro de revocaciones " + file, e);
+        }
+        expiredSinceCompaction = 0;
+    }
+
+    private void closeWriter() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Error cerrando el registro de revocaciones: {}", e.getMessage());
+        }
+        writer = null;
+    }
+}
@@ -0,0 +1,117 @@
+package com.microservices.auth.benchmark;
+
+import com.microservices.auth.dto.TokenValidationResponse;
+import com.microservices.auth.service.AuthService;
+import com.microservices.auth.service.JwksService;
+import com.microservices.auth.service.JwtService;
+import com.microservices.auth.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Benchmark JMH de la validación de tokens EdDSA: validaciones por segundo con el esquema anterior
+ * (cuatro parseos, cada uno construyendo un parser) frente al parseo único con el parser cacheado,
+ * la clave localizada por kid y la consulta de revocación.
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenValidationBenchmark {
+
+    private static final String KID = "1700000000000-EdDSA-0a1b2c3d";
+
+    private PublicKey publicKey;
+
+    private AuthService authService;
+    private String token;
+
+    @Setup
+    public void setUp() throws IOException, GeneralSecurityException {
+        KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        publicKey = keyPair.getPublic();
+
+        Path keysDir = Files.createTempDirectory("benchmark-jwt-keys");
+        Files.writeString(keysDir.resolve(KID + ".pub"), "-----BEGIN PUBLIC KEY-----\n"
+                + Base64.getMimeEncoder().encodeToString(publicKey.getEncoded())
+                + "\n-----END PUBLIC KEY-----\n");
+        JwksService jwksService = new JwksService(keysDir, 5000L);
+        jwksService.reload();
+
+        TokenRevocationService tokenRevocationService =
+                new TokenRevocationService(keysDir.resolve("revoked-tokens.log"), 100000, 0.01);
+        authService = new AuthService(new JwtService(jwksService), tokenRevocationService);
+
+        token = Jwts.builder()
+                .header().keyId(KID).and()
+                .claims(Map.of("role", "USER", "userId", 123L))
+                .subject("benchmark")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 3600000L))
+                .signWith(keyPair.getPrivate(), Jwts.SIG.EdDSA)
+                .compact();
+    }
+
+    /**
+     * Validación antes del cambio: extractUserName, isTokenExpired y dos extractClaim,
+     * cada uno con su propio parser y verificación de firma
+     */
+    @Benchmark
+    public TokenValidationResponse legacyFourParses() {
+        String userName = legacyExtractClaim(token, Claims::getSubject);
+        boolean isValid = !legacyExtractClaim(token, Claims::getExpiration).before(new Date());
+        String role = legacyExtractClaim(token, claims -> claims.get("role", String.class));
+        Long userId = legacyExtractClaim(token, claims -> claims.get("userId", Long.class));
+        return TokenValidationResponse.builder()
+                .valid(isValid)
+                .userName(userName)
+                .role(role)
+                .userId(userId)
+                .build();
+    }
+
+    /**
+     * Validación actual: un único parseo con el parser construido una vez
+     */
+    @Benchmark
+    public TokenValidationResponse singleParse() {
+        return authService.validateToken(token);
+    }
+
+    private <T> T legacyExtractClaim(String token, Function<Claims, T> resolver) {
+        Claims claims = Jwts.parser()
+                .verifyWith(publicKey)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+        return resolver.apply(claims);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TokenValidationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -1,8 +1,11 @@
 package com.microservices.auth.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.auth.dto.BatchTokenValidationRequest;
+import com.microservices.auth.dto.RevokeTokenRequest;
 import com.microservices.auth.dto.TokenValidationResponse;
 import com.microservices.auth.service.AuthService;
+import com.microservices.auth.service.JwksService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,8 +16,13 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -24,6 +32,9 @@ class AuthControllerTest {
     @Mock
     private AuthService authService;
 
+    @Mock
+    private JwksService jwksService;
+
     @InjectMocks
     private AuthController authController;
 
@@ -335,4 +346,107 @@ class AuthControllerTest {
 
         verify(authService).validateToken(jwtToken);
     }
+
+    @Test
+    void testValidateTokens_Batch_ShouldReturnOneResultPerToken() throws Exception {
+        // Given
+        List<String> tokens = List.of("valid.jwt.token", "invalid.jwt.token");
+        when(authService.validateTokens(tokens)).thenReturn(List.of(
+                TokenValidationResponse.builder().valid(true).userName("testuser").role("USER").userId(123L).build(),
+                TokenValidationResponse.builder().valid(false).build()));
+
+        // When & Then
+        mockMvc.perform(post("/api/auth/validate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchTokenValidationRequest(tokens))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(2))
+                .andExpect(jsonPath("$.results[0].valid").value(true))
+                .andExpect(jsonPath("$.results[0].userName").value("testuser"))
+                .andExpect(jsonPath("$.results[1].valid").value(false));
+
+        verify(authService).validateTokens(tokens);
+    }
+
+    @Test
+    void testValidateTokens_EmptyBatch_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/auth/validate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchTokenValidationRequest(List.of()))))
+                .andExpect(status().isBadRequest());
+
+        verify(authService, never()).validateTokens(anyList());
+    }
+
+    @Test
+    void testLogout_ValidToken_ShouldReturnNoContent() throws Exception {
+        // Given
+        when(authService.logout("valid.jwt.token")).thenReturn(true);
+
+        // When & Then
+        mockMvc.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer valid.jwt.token"))
+                .andExpect(status().isNoContent());
+
+        verify(authService).logout("valid.jwt.token");
+    }
+
+    @Test
+    void testLogout_InvalidToken_ShouldReturnUnauthorized() throws Exception {
+        // Given
+        when(authService.logout("invalid.jwt.token")).thenReturn(false);
+
+        // When & Then
+        mockMvc.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer invalid.jwt.token"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testRevokeToken_AdminCaller_ShouldReturnNoContent() throws Exception {
+        // Given
+        when(authService.validateToken("admin.jwt.token")).thenReturn(
+                TokenValidationResponse.builder().valid(true).userName("admin").role("ADMIN").userId(1L).build());
+        when(authService.revokeToken("user.jwt.token")).thenReturn(true);
+
+        // When & Then
+        mockMvc.perform(post("/api/auth/revoke")
+                        .header("Authorization", "Bearer admin.jwt.token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RevokeTokenRequest("user.jwt.token"))))
+                .andExpect(status().isNoContent());
+
+        verify(authService).revokeToken("user.jwt.token");
+    }
+
+    @Test
+    void testRevokeToken_NonAdminCaller_ShouldReturnForbidden() throws Exception {
+        // Given
+        when(authService.validateToken("user.jwt.token")).thenReturn(
+                TokenValidationResponse.builder().valid(true).userName("testuser").role("USER").userId(123L).build());
+
+        // When & Then
+        mockMvc.perform(post("/api/auth/revoke")
+                        .header("Authorization", "Bearer user.jwt.token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RevokeTokenRequest("other.jwt.token"))))
+                .andExpect(status().isForbidden());
+
+        verify(authService, never()).revokeToken(anyString());
+    }
+
+    @Test
+    void testGetJwks_ShouldReturnPublicKeysWithCacheHeaders() throws Exception {
+        // Given
+        when(jwksService.getJwks()).thenReturn(Map.of("keys", List.of(
+                Map.of("kty", "OKP", "crv", "Ed25519", "kid", "1700000000000-EdDSA-0a1b2c3d", "x", "abc"))));
+
+        // When & Then
+        mockMvc.perform(get("/api/auth/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=300, public"))
+                .andExpect(jsonPath("$.keys[0].kid").value("1700000000000-EdDSA-0a1b2c3d"))
+                .andExpect(jsonPath("$.keys[0].kty").value("OKP"));
+    }
 }
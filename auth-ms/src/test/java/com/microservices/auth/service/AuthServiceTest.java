@@ -1,6 +1,10 @@
 package com.microservices.auth.service;
 
 import com.microservices.auth.dto.TokenValidationResponse;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,8 +12,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -19,6 +30,9 @@ class AuthServiceTest {
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
     @InjectMocks
     private AuthService authService;
 
@@ -33,12 +47,23 @@ class AuthServiceTest {
         // Setup común para todos los tests
     }
 
+    private Claims claims(String userName, String role, Long userId, Date expiration) {
+        return Jwts.claims()
+                .subject(userName)
+                .add("role", role)
+                .add("userId", userId)
+                .expiration(expiration)
+                .build();
+    }
+
+    private Date inOneHour() {
+        return new Date(System.currentTimeMillis() + 3600000L);
+    }
+
     @Test
     void testValidateToken_ValidToken_ShouldReturnValidResponse() {
         // Given
-        when(jwtService.extractUserName(VALID_TOKEN)).thenReturn(USERNAME);
-        when(jwtService.isTokenExpired(VALID_TOKEN)).thenReturn(false);
-        when(jwtService.extractClaim(eq(VALID_TOKEN), any())).thenReturn(ROLE).thenReturn(USER_ID);
+        when(jwtService.parseClaims(VALID_TOKEN)).thenReturn(claims(USERNAME, ROLE, USER_ID, inOneHour()));
 
         // When
         TokenValidationResponse response = authService.validateToken(VALID_TOKEN);
@@ -49,40 +74,28 @@ class AuthServiceTest {
         assertEquals(USERNAME, response.getUserName());
         assertEquals(ROLE, response.getRole());
         assertEquals(USER_ID, response.getUserId());
-
-        verify(jwtService).extractUserName(VALID_TOKEN);
-        verify(jwtService).isTokenExpired(VALID_TOKEN);
-        verify(jwtService, times(2)).extractClaim(eq(VALID_TOKEN), any());
     }
 
     @Test
-    void testValidateToken_ExpiredToken_ShouldReturnInvalidResponse() {
+    void testValidateToken_ValidToken_ShouldParseTokenOnlyOnce() {
         // Given
-        when(jwtService.extractUserName(VALID_TOKEN)).thenReturn(USERNAME);
-        when(jwtService.isTokenExpired(VALID_TOKEN)).thenReturn(true);
+        when(jwtService.parseClaims(VALID_TOKEN)).thenReturn(claims(USERNAME, ROLE, USER_ID, inOneHour()));
 
         // When
-        TokenValidationResponse response = authService.validateToken(VALID_TOKEN);
+        authService.validateToken(VALID_TOKEN);
 
         // Then
-        assertNotNull(response);
-        assertFalse(response.isValid());
-        assertNull(response.getUserName());
-        assertNull(response.getRole());
-        assertNull(response.getUserId());
-
-        verify(jwtService).extractUserName(VALID_TOKEN);
-        verify(jwtService).isTokenExpired(VALID_TOKEN);
-        verify(jwtService, never()).extractClaim(anyString(), any());
+        verify(jwtService, times(1)).parseClaims(VALID_TOKEN);
+        verifyNoMoreInteractions(jwtService);
     }
 
     @Test
-    void testValidateToken_InvalidToken_ShouldReturnInvalidResponse() {
+    void testValidateToken_ExpiredToken_ShouldReturnInvalidResponse() {
         // Given
-        when(jwtService.extractUserName(INVALID_TOKEN)).thenThrow(new RuntimeException("Invalid token"));
+        when(jwtService.parseClaims(VALID_TOKEN)).thenThrow(new ExpiredJwtException(null, null, "Token expirado"));
 
         // When
-        TokenValidationResponse response = authService.validateToken(INVALID_TOKEN);
+        TokenValidationResponse response = authService.validateToken(VALID_TOKEN);
 
         // Then
         assertNotNull(response);
@@ -90,105 +103,86 @@ class AuthServiceTest {
         assertNull(response.getUserName());
         assertNull(response.getRole());
         assertNull(response.getUserId());
-
-        verify(jwtService).extractUserName(INVALID_TOKEN);
-        verify(jwtService, never()).isTokenExpired(anyString());
-        verify(jwtService, never()).extractClaim(anyString(), any());
     }
 
     @Test
-    void testValidateToken_ValidTokenWithNullRole_ShouldReturnValidResponseWithNullRole() {
+    void testValidateToken_PastExpirationClaim_ShouldReturnInvalidResponse() {
         // Given
-        when(jwtService.extractUserName(VALID_TOKEN)).thenReturn(USERNAME);
-        when(jwtService.isTokenExpired(VALID_TOKEN)).thenReturn(false);
-        when(jwtService.extractClaim(eq(VALID_TOKEN), any())).thenReturn(null).thenReturn(USER_ID);
+        Date past = new Date(System.currentTimeMillis() - 1000L);
+        when(jwtService.parseClaims(VALID_TOKEN)).thenReturn(claims(USERNAME, ROLE, USER_ID, past));
 
         // When
         TokenValidationResponse response = authService.validateToken(VALID_TOKEN);
 
         // Then
-        assertNotNull(response);
-        assertTrue(response.isValid());
-        assertEquals(USERNAME, response.getUserName());
-        assertNull(response.getRole());
-        assertEquals(USER_ID, response.getUserId());
+        assertFalse(response.isValid());
+        assertNull(response.getUserName());
     }
 
     @Test
-    void testValidateToken_ValidTokenWithNullUserId_ShouldReturnValidResponseWithNullUserId() {
+    void testValidateToken_TokenWithoutExpiration_ShouldReturnInvalidResponse() {
         // Given
-        when(jwtService.extractUserName(VALID_TOKEN)).thenReturn(USERNAME);
-        when(jwtService.isTokenExpired(VALID_TOKEN)).thenReturn(false);
-        when(jwtService.extractClaim(eq(VALID_TOKEN), any())).thenReturn(ROLE).thenReturn(null);
+        when(jwtService.parseClaims(VALID_TOKEN)).thenReturn(claims(USERNAME, ROLE, USER_ID, null));
 
         // When
         TokenValidationResponse response = authService.validateToken(VALID_TOKEN);
 
         // Then
-        assertNotNull(response);
-        assertTrue(response.isValid());
-        assertEquals(USERNAME, response.getUserName());
-        assertEquals(ROLE, response.getRole());
-        assertNull(response.getUserId());
+        assertFalse(response.isValid());
     }
 
     @Test
-    void testValidateToken_ValidTokenWithEmptyUsername_ShouldReturnValidResponse() {
+    void testValidateToken_InvalidToken_ShouldReturnInvalidResponse() {
         // Given
-        when(jwtService.extractUserName(VALID_TOKEN)).thenReturn("");
-        when(jwtService.isTokenExpired(VALID_TOKEN)).thenReturn(false);
-        when(jwtService.extractClaim(eq(VALID_TOKEN), any())).thenReturn(ROLE).thenReturn(USER_ID);
+        when(jwtService.parseClaims(INVALID_TOKEN)).thenThrow(new MalformedJwtException("Invalid token"));
 
         // When
-        TokenValidationResponse response = authService.validateToken(VALID_TOKEN);
+        TokenValidationResponse response = authService.validateToken(INVALID_TOKEN);
 
         // Then
         assertNotNull(response);
-        assertTrue(response.isValid());
-        assertEquals("", response.getUserName());
-        assertEquals(ROLE, response.getRole());
-        assertEquals(USER_ID, response.getUserId());
+        assertFalse(response.isValid());
+        assertNull(response.getUserName());
+        assertNull(response.getRole());
+        assertNull(response.getUserId());
     }
 
     @Test
-    void testValidateToken_ExceptionDuringTokenValidation_ShouldReturnInvalidResponse() {
+    void testValidateToken_ValidTokenWithNullRole_ShouldReturnValidResponseWithNullRole() {
         // Given
-        when(jwtService.extractUserName(VALID_TOKEN)).thenThrow(new RuntimeException("Token validation error"));
+        when(jwtService.parseClaims(VALID_TOKEN)).thenReturn(claims(USERNAME, null, USER_ID, inOneHour()));
 
         // When
         TokenValidationResponse response = authService.validateToken(VALID_TOKEN);
 
         // Then
         assertNotNull(response);
-        assertFalse(response.isValid());
-        assertNull(response.getUserName());
+        assertTrue(response.isValid());
+        assertEquals(USERNAME, response.getUserName());
         assertNull(response.getRole());
-        assertNull(response.getUserId());
+        assertEquals(USER_ID, response.getUserId());
     }
 
     @Test
-    void testValidateToken_ExceptionDuringExpirationCheck_ShouldReturnInvalidResponse() {
+    void testValidateToken_ValidTokenWithNullUserId_ShouldReturnValidResponseWithNullUserId() {
         // Given
-        when(jwtService.extractUserName(VALID_TOKEN)).thenReturn(USERNAME);
-        when(jwtService.isTokenExpired(VALID_TOKEN)).thenThrow(new RuntimeException("Expiration check error"));
+        when(jwtService.parseClaims(VALID_TOKEN)).thenReturn(claims(USERNAME, ROLE, null, inOneHour()));
 
         // When
         TokenValidationResponse response = authService.validateToken(VALID_TOKEN);
 
         // Then
         assertNotNull(response);
-        assertFalse(response.isValid());
-        assertNull(response.getUserName());
-        assertNull(response.getRole());
+        assertTrue(response.isValid());
+        assertEquals(USERNAME, response.getUserName());
+        assertEquals(ROLE, response.getRole());
         assertNull(response.getUserId());
     }
 
     @Test
-    void testValidateToken_ExceptionDuringClaimExtraction_ShouldReturnInvalidResponse() {
+    void testValidateToken_ExceptionDuringTokenValidation_ShouldReturnInvalidResponse() {
         // Given
-        when(jwtService.extractUserName(VALID_TOKEN)).thenReturn(USERNAME);
-        when(jwtService.isTokenExpired(VALID_TOKEN)).thenReturn(false);
-        when(jwtService.extractClaim(eq(VALID_TOKEN), any())).thenThrow(new RuntimeException("Claim extraction error"));
+        when(jwtService.parseClaims(VALID_TOKEN)).thenThrow(new RuntimeException("Token validation error"));
 
         // When
         TokenValidationResponse response = authService.validateToken(VALID_TOKEN);
@@ -204,7 +198,7 @@ class AuthServiceTest {
     @Test
     void testValidateToken_NullToken_ShouldReturnInvalidResponse() {
         // Given
-        when(jwtService.extractUserName(null)).thenThrow(new RuntimeException("Null token"));
+        when(jwtService.parseClaims(null)).thenThrow(new IllegalArgumentException("Null token"));
 
         // When
         TokenValidationResponse response = authService.validateToken(null);
@@ -220,7 +214,7 @@ class AuthServiceTest {
     @Test
     void testValidateToken_EmptyToken_ShouldReturnInvalidResponse() {
         // Given
-        when(jwtService.extractUserName("")).thenThrow(new RuntimeException("Empty token"));
+        when(jwtService.parseClaims("")).thenThrow(new IllegalArgumentException("Empty token"));
 
         // When
         TokenValidationResponse response = authService.validateToken("");
@@ -237,9 +231,7 @@ class AuthServiceTest {
     void testValidateToken_ValidTokenWithSpecialCharacters_ShouldReturnValidResponse() {
         // Given
         String specialUsername = "user@domain.com";
-        when(jwtService.extractUserName(VALID_TOKEN)).thenReturn(specialUsername);
-        when(jwtService.isTokenExpired(VALID_TOKEN)).thenReturn(false);
-        when(jwtService.extractClaim(eq(VALID_TOKEN), any())).thenReturn(ROLE).thenReturn(USER_ID);
+        when(jwtService.parseClaims(VALID_TOKEN)).thenReturn(claims(specialUsername, ROLE, USER_ID, inOneHour()));
 
         // When
         TokenValidationResponse response = authService.validateToken(VALID_TOKEN);
@@ -258,10 +250,7 @@ class AuthServiceTest {
         String longUsername = "verylongusernamethatexceedsnormallength";
         String longRole = "VERY_LONG_ROLE_NAME_THAT_EXCEEDS_NORMAL_LENGTH";
         Long longUserId = Long.MAX_VALUE;
-
-        when(jwtService.extractUserName(VALID_TOKEN)).thenReturn(longUsername);
-        when(jwtService.isTokenExpired(VALID_TOKEN)).thenReturn(false);
-        when(jwtService.extractClaim(eq(VALID_TOKEN), any())).thenReturn(longRole).thenReturn(longUserId);
+        when(jwtService.parseClaims(VALID_TOKEN)).thenReturn(claims(longUsername, longRole, longUserId, inOneHour()));
 
         // When
         TokenValidationResponse response = authService.validateToken(VALID_TOKEN);
@@ -273,4 +262,128 @@ class AuthServiceTest {
         assertEquals(longRole, response.getRole());
         assertEquals(longUserId, response.getUserId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testValidateTokens_MixedTokens_ShouldReturnResultsInRequestOrder() {
+        // Given
+        when(jwtService.parseClaims(VALID_TOKEN)).thenReturn(claims(USERNAME, ROLE, USER_ID, inOneHour()));
+        when(jwtService.parseClaims(INVALID_TOKEN)).thenThrow(new MalformedJwtException("Invalid token"));
+
+        // When
+        List<TokenValidationResponse> responses = authService.validateTokens(List.of(INVALID_TOKEN, VALID_TOKEN));
+
+        // Then
+        assertEquals(2, responses.size());
+        assertFalse(responses.get(0).isValid());
+        assertTrue(responses.get(1).isValid());
+        assertEquals(USERNAME, responses.get(1).getUserName());
+    }
+
+    @Test
+    void testValidateTokens_DuplicatedTokens_ShouldParseEachTokenOnce() {
+        // Given
+        ReflectionTestUtils.setField(authService, "parallelThreshold", 16);
+        when(jwtService.parseClaims(VALID_TOKEN)).thenReturn(claims(USERNAME, ROLE, USER_ID, inOneHour()));
+
+        // When
+        List<TokenValidationResponse> responses = authService.validateTokens(List.of(VALID_TOKEN, VALID_TOKEN, VALID_TOKEN));
+
+        // Then
+        assertEquals(3, responses.size());
+        responses.forEach(response -> assertTrue(response.isValid()));
+        verify(jwtService, times(1)).parseClaims(VALID_TOKEN);
+    }
+
+    @Test
+    void testValidateTokens_LargeBatch_ShouldValidateAllTokensInParallel() {
+        // Given
+        ReflectionTestUtils.setField(authService, "parallelThreshold", 4);
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String token = "token-" + i;
+            tokens.add(token);
+            when(jwtService.parseClaims(token)).thenReturn(claims("user" + i, ROLE, (long) i, inOneHour()));
+        }
+
+        // When
+        List<TokenValidationResponse> responses = authService.validateTokens(tokens);
+
+        // Then
+        assertEquals(50, responses.size());
+        for (int i = 0; i < 50; i++) {
+            assertTrue(responses.get(i).isValid());
+            assertEquals("user" + i, responses.get(i).getUserName());
+            assertEquals(Long.valueOf(i), responses.get(i).getUserId());
+        }
+    }
+
+    @Test
+    void testValidateTokens_NullToken_ShouldReturnInvalidResultForThatPosition() {
+        // Given
+        when(jwtService.parseClaims(VALID_TOKEN)).thenReturn(claims(USERNAME, ROLE, USER_ID, inOneHour()));
+        when(jwtService.parseClaims("")).thenThrow(new IllegalArgumentException("Empty token"));
+
+        // When
+        List<TokenValidationResponse> responses = authService.validateTokens(Arrays.asList(VALID_TOKEN, null));
+
+        // Then
+        assertTrue(responses.get(0).isValid());
+        assertFalse(responses.get(1).isValid());
+    }
+
+    @Test
+    void testValidateToken_RevokedToken_ShouldReturnInvalidResponse() {
+        // Given
+        when(jwtService.parseClaims(VALID_TOKEN)).thenReturn(claims(USERNAME, ROLE, USER_ID, inOneHour()));
+        when(tokenRevocationService.isRevoked(anyString())).thenReturn(true);
+
+        // When
+        TokenValidationResponse response = authService.validateToken(VALID_TOKEN);
+
+        // Then
+        assertFalse(response.isValid());
+        assertNull(response.getUserName());
+    }
+
+    @Test
+    void testRevokeToken_ValidToken_ShouldRevokeUntilExpiration() {
+        // Given
+        Claims claims = Jwts.claims().subject(USERNAME).id("jti-1").expiration(inOneHour()).build();
+        when(jwtService.parseClaims(VALID_TOKEN)).thenReturn(claims);
+
+        // When
+        boolean revoked = authService.revokeToken(VALID_TOKEN);
+
+        // Then: exp se guarda en segundos enteros, se compara con el valor ya truncado de los claims
+        assertTrue(revoked);
+        verify(tokenRevocationService).revoke("jti-1", claims.getExpiration().getTime());
+    }
+
+    @Test
+    void testRevokeToken_AlreadyRevokedToken_ShouldReturnFalse() {
+        // Given
+        Claims claims = Jwts.claims().subject(USERNAME).id("jti-1").expiration(inOneHour()).build();
+        when(jwtService.parseClaims(VALID_TOKEN)).thenReturn(claims);
+        when(tokenRevocationService.isRevoked("jti-1")).thenReturn(true);
+
+        // When
+        boolean revoked = authService.revokeToken(VALID_TOKEN);
+
+        // Then
+        assertFalse(revoked);
+        verify(tokenRevocationService, never()).revoke(anyString(), anyLong());
+    }
+
+    @Test
+    void testLogout_InvalidToken_ShouldReturnFalse() {
+        // Given
+        when(jwtService.parseClaims(INVALID_TOKEN)).thenThrow(new MalformedJwtException("Token malformado"));
+
+        // When
+        boolean loggedOut = authService.logout(INVALID_TOKEN);
+
+        // Then
+        assertFalse(loggedOut);
+        verify(tokenRevocationService, never()).revoke(anyString(), anyLong());
+    }
+}
@@ -0,0 +1,96 @@
+package com.microservices.auth.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwksServiceTest {
+
+    @TempDir
+    Path keysDir;
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> keys(JwksService jwksService) {
+        return (List<Map<String, Object>>) jwksService.getJwks().get("keys");
+    }
+
+    @Test
+    void testGetJwks_Ed25519Key_ShouldPublishOkpJwk() throws Exception {
+        // Given
+        KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        JwtServiceTest.writePublicKey(keysDir, "1700000000000-EdDSA-0a1b2c3d", keyPair.getPublic());
+        JwksService jwksService = new JwksService(keysDir, 0L);
+
+        // When
+        jwksService.reload();
+
+        // Then
+        List<Map<String, Object>> keys = keys(jwksService);
+        assertEquals(1, keys.size());
+        assertEquals("OKP", keys.get(0).get("kty"));
+        assertEquals("Ed25519", keys.get(0).get("crv"));
+        assertEquals("EdDSA", keys.get(0).get("alg"));
+        assertEquals("1700000000000-EdDSA-0a1b2c3d", keys.get(0).get("kid"));
+        assertEquals(32, Base64.getUrlDecoder().decode((String) keys.get(0).get("x")).length);
+    }
+
+    @Test
+    void testGetJwks_RsaKey_ShouldPublishModulusAndExponent() throws Exception {
+        // Given
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        JwtServiceTest.writePublicKey(keysDir, "1700000000000-RS256-0a1b2c3d", keyPair.getPublic());
+        JwksService jwksService = new JwksService(keysDir, 0L);
+
+        // When
+        jwksService.reload();
+
+        // Then
+        Map<String, Object> jwk = keys(jwksService).get(0);
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        assertEquals("RSA", jwk.get("kty"));
+        assertEquals("RS256", jwk.get("alg"));
+        assertEquals(publicKey.getModulus(), new BigInteger(1, Base64.getUrlDecoder().decode((String) jwk.get("n"))));
+        assertEquals(publicKey.getPublicExponent(), new BigInteger(1, Base64.getUrlDecoder().decode((String) jwk.get("e"))));
+    }
+
+    @Test
+    void testReload_RetiredKey_ShouldBeRemovedFromJwks() throws Exception {
+        // Given
+        KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        JwtServiceTest.writePublicKey(keysDir, "1700000000000-EdDSA-0a1b2c3d", keyPair.getPublic());
+        JwksService jwksService = new JwksService(keysDir, 0L);
+        jwksService.reload();
+
+        // When
+        Files.delete(keysDir.resolve("1700000000000-EdDSA-0a1b2c3d.pub"));
+        jwksService.reload();
+
+        // Then
+        assertTrue(keys(jwksService).isEmpty());
+    }
+
+    @Test
+    void testReload_MissingDirectory_ShouldPublishEmptyJwks() {
+        // Given
+        JwksService jwksService = new JwksService(keysDir.resolve("missing"), 0L);
+
+        // When
+        jwksService.reload();
+
+        // Then
+        assertTrue(keys(jwksService).isEmpty());
+    }
+}
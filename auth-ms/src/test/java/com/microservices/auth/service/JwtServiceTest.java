@@ -1,39 +1,50 @@
 package com.microservices.auth.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.junit.jupiter.MockitoExtension;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.util.ReflectionTestUtils;
 
-import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@ExtendWith(MockitoExtension.class)
 class JwtServiceTest {
 
-    @InjectMocks
+    @TempDir
+    Path keysDir;
+
     private JwtService jwtService;
+    private KeyPair keyPair;
 
-    private final String SECRET_KEY = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private final String KID = "1700000000000-EdDSA-0a1b2c3d"; // Mismo formato que los kid de user-ms
     private final long EXPIRATION = 86400000L; // 24 horas
 
     private UserDetails userDetails;
 
     @BeforeEach
-    void setUp() {
-        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET_KEY);
-        ReflectionTestUtils.setField(jwtService, "jwtExpiration", EXPIRATION);
+    void setUp() throws Exception {
+        keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        writePublicKey(keysDir, KID, keyPair.getPublic());
+        JwksService jwksService = new JwksService(keysDir, 0L);
+        jwksService.reload();
+        jwtService = new JwtService(jwksService);
         
         userDetails = User.builder()
                 .username("testuser")
@@ -42,10 +53,38 @@ class JwtServiceTest {
                 .build();
     }
 
+    /**
+     * Escribe la clave pública como lo hace user-ms en el directorio compartido
+     */
+    static void writePublicKey(Path directory, String kid, PublicKey publicKey) throws IOException {
+        String pem = "-----BEGIN PUBLIC KEY-----\n"
+                + Base64.getMimeEncoder().encodeToString(publicKey.getEncoded())
+                + "\n-----END PUBLIC KEY-----\n";
+        Files.writeString(directory.resolve(kid + ".pub"), pem);
+    }
+
+    /**
+     * Firma un token como lo hace user-ms (auth-ms solo verifica)
+     */
+    private String generateToken(Map<String, Object> extraClaims, UserDetails user, long expiration) {
+        return Jwts.builder()
+                .header().keyId(KID).and()
+                .claims(extraClaims)
+                .subject(user.getUsername())
+                .issuedAt(new Date(System.currentTimeMillis()))
+                .expiration(new Date(System.currentTimeMillis() + expiration))
+                .signWith(keyPair.getPrivate(), Jwts.SIG.EdDSA)
+                .compact();
+    }
+
+    private String generateToken(UserDetails user) {
+        return generateToken(new HashMap<>(), user, EXPIRATION);
+    }
+
     @Test
     void testExtractUserName_ValidToken_ShouldReturnUsername() {
         // Given
-        String token = jwtService.generateToken(userDetails);
+        String token = generateToken(userDetails);
 
         // When
         String extractedUsername = jwtService.extractUserName(token);
@@ -66,7 +105,7 @@ class JwtServiceTest {
     @Test
     void testExtractClaim_ValidToken_ShouldReturnClaim() {
         // Given
-        String token = jwtService.generateToken(userDetails);
+        String token = generateToken(userDetails);
 
         // When
         String subject = jwtService.extractClaim(token, Claims::getSubject);
@@ -85,9 +124,9 @@ class JwtServiceTest {
     }
 
     @Test
-    void testGenerateToken_WithUserDetails_ShouldGenerateValidToken() {
+    void testParseClaims_TokenFromUserDetails_ShouldBeVerified() {
         // When
-        String token = jwtService.generateToken(userDetails);
+        String token = generateToken(userDetails);
 
         // Then
         assertNotNull(token);
@@ -96,14 +135,14 @@ class JwtServiceTest {
     }
 
     @Test
-    void testGenerateToken_WithExtraClaims_ShouldGenerateTokenWithClaims() {
+    void testExtractClaim_TokenWithExtraClaims_ShouldReturnClaims() {
         // Given
         Map<String, Object> extraClaims = new HashMap<>();
         extraClaims.put("role", "ADMIN");
         extraClaims.put("userId", 123L);
 
         // When
-        String token = jwtService.generateToken(extraClaims, userDetails);
+        String token = generateToken(extraClaims, userDetails, EXPIRATION);
 
         // Then
         assertNotNull(token);
@@ -116,7 +155,7 @@ class JwtServiceTest {
     @Test
     void testIsTokenValid_ValidTokenAndUser_ShouldReturnTrue() {
         // Given
-        String token = jwtService.generateToken(userDetails);
+        String token = generateToken(userDetails);
 
         // When
         boolean isValid = jwtService.isTokenValid(token, userDetails);
@@ -128,7 +167,7 @@ class JwtServiceTest {
     @Test
     void testIsTokenValid_ValidTokenButDifferentUser_ShouldReturnFalse() {
         // Given
-        String token = jwtService.generateToken(userDetails);
+        String token = generateToken(userDetails);
         UserDetails differentUser = User.builder()
                 .username("differentuser")
                 .password("password")
@@ -145,8 +184,7 @@ class JwtServiceTest {
     @Test
     void testIsTokenValid_ExpiredToken_ShouldReturnFalse() {
         // Given
-        ReflectionTestUtils.setField(jwtService, "jwtExpiration", -1000L); // Token expirado
-        String expiredToken = jwtService.generateToken(userDetails);
+        String expiredToken = generateToken(new HashMap<>(), userDetails, -1000L); // Token expirado
 
         // When & Then
         assertThrows(Exception.class, () -> jwtService.isTokenValid(expiredToken, userDetails));
@@ -155,7 +193,7 @@ class JwtServiceTest {
     @Test
     void testIsTokenExpired_ValidToken_ShouldReturnFalse() {
         // Given
-        String token = jwtService.generateToken(userDetails);
+        String token = generateToken(userDetails);
 
         // When
         boolean isExpired = jwtService.isTokenExpired(token);
@@ -167,8 +205,7 @@ class JwtServiceTest {
     @Test
     void testIsTokenExpired_ExpiredToken_ShouldReturnTrue() {
         // Given
-        ReflectionTestUtils.setField(jwtService, "jwtExpiration", -1000L); // Token expirado
-        String expiredToken = jwtService.generateToken(userDetails);
+        String expiredToken = generateToken(new HashMap<>(), userDetails, -1000L); // Token expirado
 
         // When & Then
         assertThrows(Exception.class, () -> jwtService.isTokenExpired(expiredToken));
@@ -186,7 +223,7 @@ class JwtServiceTest {
     @Test
     void testExtractExpiration_ValidToken_ShouldReturnFutureDate() {
         // Given
-        String token = jwtService.generateToken(userDetails);
+        String token = generateToken(userDetails);
 
         // When
         Date expiration = jwtService.extractClaim(token, Claims::getExpiration);
@@ -199,7 +236,7 @@ class JwtServiceTest {
     @Test
     void testExtractAllClaims_ValidToken_ShouldReturnClaims() {
         // Given
-        String token = jwtService.generateToken(userDetails);
+        String token = generateToken(userDetails);
 
         // When
         Claims extractedClaims = jwtService.extractClaim(token, claims -> claims);
@@ -212,23 +249,47 @@ class JwtServiceTest {
     }
 
     @Test
-    void testGetSignInKey_ShouldReturnValidSecretKey() {
+    void testParseClaims_UnknownKid_ShouldThrowJwtException() throws NoSuchAlgorithmException {
+        // Given
+        KeyPair unpublished = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        String token = Jwts.builder()
+                .header().keyId("1700000000000-EdDSA-ffffffff").and()
+                .subject("testuser")
+                .expiration(new Date(System.currentTimeMillis() + EXPIRATION))
+                .signWith(unpublished.getPrivate(), Jwts.SIG.EdDSA)
+                .compact();
+
+        // When & Then
+        assertThrows(JwtException.class, () -> jwtService.parseClaims(token));
+    }
+
+    @Test
+    void testParseClaims_KeyPublishedAfterStartup_ShouldBeFoundByReload() throws Exception {
+        // Given
+        KeyPair rotated = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        String rotatedKid = "1800000000000-EdDSA-0f0f0f0f";
+        writePublicKey(keysDir, rotatedKid, rotated.getPublic());
+        String token = Jwts.builder()
+                .header().keyId(rotatedKid).and()
+                .subject("testuser")
+                .expiration(new Date(System.currentTimeMillis() + EXPIRATION))
+                .signWith(rotated.getPrivate(), Jwts.SIG.EdDSA)
+                .compact();
+
         // When
-        SecretKey signInKey = (SecretKey) ReflectionTestUtils.invokeMethod(jwtService, "getSignInKey");
+        Claims claims = jwtService.parseClaims(token);
 
         // Then
-        assertNotNull(signInKey);
-        assertEquals("HmacSHA384", signInKey.getAlgorithm());
+        assertEquals("testuser", claims.getSubject());
     }
 
     @Test
     void testTokenGeneration_WithDifferentExpirationTimes_ShouldGenerateCorrectTokens() {
         // Given
         long shortExpiration = 1000L; // 1 segundo
-        ReflectionTestUtils.setField(jwtService, "jwtExpiration", shortExpiration);
 
         // When
-        String token = jwtService.generateToken(userDetails);
+        String token = generateToken(new HashMap<>(), userDetails, shortExpiration);
 
         // Then
         assertNotNull(token);
@@ -253,7 +314,7 @@ class JwtServiceTest {
                 .build();
 
         // When
-        String token = jwtService.generateToken(specialUser);
+        String token = generateToken(specialUser);
 
         // Then
         assertNotNull(token);
@@ -266,7 +327,7 @@ class JwtServiceTest {
         Map<String, Object> emptyClaims = new HashMap<>();
 
         // When
-        String token = jwtService.generateToken(emptyClaims, userDetails);
+        String token = generateToken(emptyClaims, userDetails, EXPIRATION);
 
         // Then
         assertNotNull(token);
@@ -276,10 +337,67 @@ class JwtServiceTest {
     @Test
     void testTokenWithNullClaims_ShouldGenerateValidToken() {
         // When
-        String token = jwtService.generateToken(null, userDetails);
+        String token = generateToken(null, userDetails, EXPIRATION);
 
         // Then
         assertNotNull(token);
         assertEquals("testuser", jwtService.extractUserName(token));
     }
+
+    @Test
+    void testParseClaims_ValidToken_ShouldReturnAllClaimsInOneParse() {
+        // Given
+        Map<String, Object> extraClaims = new HashMap<>();
+        extraClaims.put("role", "ADMIN");
+        extraClaims.put("userId", 123L);
+        String token = generateToken(extraClaims, userDetails, EXPIRATION);
+
+        // When
+        Claims claims = jwtService.parseClaims(token);
+
+        // Then
+        assertEquals("testuser", claims.getSubject());
+        assertEquals("ADMIN", claims.get("role", String.class));
+        assertEquals(Long.valueOf(123L), claims.get("userId", Long.class));
+        assertTrue(claims.getExpiration().after(new Date()));
+    }
+
+    @Test
+    void testParseClaims_ExpiredToken_ShouldThrowExpiredJwtException() {
+        // Given
+        String expiredToken = generateToken(new HashMap<>(), userDetails, -1000L);
+
+        // When & Then
+        assertThrows(ExpiredJwtException.class, () -> jwtService.parseClaims(expiredToken));
+    }
+
+    @Test
+    void testParseClaims_TokenSignedWithAnotherKey_ShouldThrowJwtException() throws NoSuchAlgorithmException {
+        // Given
+        KeyPair otherKey = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        String foreignToken = Jwts.builder()
+                .header().keyId(KID).and() // kid válido, pero firmado con otra clave
+                .subject("testuser")
+                .expiration(new Date(System.currentTimeMillis() + EXPIRATION))
+                .signWith(otherKey.getPrivate(), Jwts.SIG.EdDSA)
+                .compact();
+
+        // When & Then
+        assertThrows(JwtException.class, () -> jwtService.parseClaims(foreignToken));
+    }
+
+    @Test
+    void testParseClaims_MultipleCalls_ShouldReuseParser() {
+        // Given
+        String token = generateToken(userDetails);
+        jwtService.parseClaims(token);
+        Object parser = ReflectionTestUtils.getField(jwtService, "jwtParser");
+
+        // When
+        jwtService.parseClaims(token);
+
+        // Then
+        assertNotNull(parser);
+        assertSame(parser, ReflectionTestUtils.getField(jwtService, "jwtParser"));
+    }
 }
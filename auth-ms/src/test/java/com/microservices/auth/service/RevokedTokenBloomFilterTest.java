@@ -0,0 +1,42 @@
+package com.microservices.auth.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevokedTokenBloomFilterTest {
+
+    @Test
+    void testMightContain_AddedValues_ShouldNeverReturnFalseNegatives() {
+        // Given
+        RevokedTokenBloomFilter filter = new RevokedTokenBloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.add("jti-" + i);
+        }
+
+        // When & Then
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("jti-" + i));
+        }
+    }
+
+    @Test
+    void testMightContain_UnknownValues_ShouldKeepFalsePositiveRateNearConfigured() {
+        // Given
+        RevokedTokenBloomFilter filter = new RevokedTokenBloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.add("jti-" + i);
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertTrue(falsePositives < 300, "Falsos positivos: " + falsePositives);
+    }
+}
@@ -0,0 +1,124 @@
+package com.microservices.auth.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path file;
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        file = tempDir.resolve("revoked-tokens.log");
+        tokenRevocationService = new TokenRevocationService(file, 1000, 0.01);
+        tokenRevocationService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tokenRevocationService.close();
+    }
+
+    private long inOneHour() {
+        return System.currentTimeMillis() + 3600000L;
+    }
+
+    @Test
+    void testIsRevoked_RevokedToken_ShouldReturnTrue() {
+        // Given
+        tokenRevocationService.revoke("jti-1", inOneHour());
+
+        // When & Then
+        assertTrue(tokenRevocationService.isRevoked("jti-1"));
+        assertFalse(tokenRevocationService.isRevoked("jti-2"));
+    }
+
+    @Test
+    void testRevoke_ExpiredToken_ShouldBeIgnored() {
+        // When
+        tokenRevocationService.revoke("jti-1", System.currentTimeMillis() - 1000L);
+
+        // Then
+        assertFalse(tokenRevocationService.isRevoked("jti-1"));
+        assertEquals(0, tokenRevocationService.size());
+    }
+
+    @Test
+    void testInit_ExistingLog_ShouldReloadRevocations() {
+        // Given
+        tokenRevocationService.revoke("jti-1", inOneHour());
+        tokenRevocationService.close();
+
+        // When
+        TokenRevocationService reloaded = new TokenRevocationService(file, 1000, 0.01);
+        reloaded.init();
+
+        // Then
+        assertTrue(reloaded.isRevoked("jti-1"));
+        reloaded.close();
+    }
+
+    @Test
+    void testInit_LogWithExpiredAndCorruptLines_ShouldLoadOnlyActiveRevocations() throws IOException {
+        // Given
+        tokenRevocationService.close();
+        Files.write(file, List.of(
+                "jti-active " + inOneHour(),
+                "jti-expired " + (System.currentTimeMillis() - 1000L),
+                "jti-incompl"));
+
+        // When
+        TokenRevocationService reloaded = new TokenRevocationService(file, 1000, 0.01);
+        reloaded.init();
+
+        // Then
+        assertTrue(reloaded.isRevoked("jti-active"));
+        assertFalse(reloaded.isRevoked("jti-expired"));
+        assertEquals(1, reloaded.size());
+        assertEquals(1, Files.readAllLines(file).size());
+        reloaded.close();
+    }
+
+    @Test
+    void testPurgeExpired_ExpiredRevocation_ShouldBeRemoved() throws InterruptedException {
+        // Given
+        tokenRevocationService.revoke("jti-short", System.currentTimeMillis() + 50L);
+        tokenRevocationService.revoke("jti-long", inOneHour());
+        Thread.sleep(100L);
+
+        // When
+        tokenRevocationService.purgeExpired();
+
+        // Then
+        assertEquals(1, tokenRevocationService.size());
+        assertTrue(tokenRevocationService.isRevoked("jti-long"));
+        assertFalse(tokenRevocationService.isRevoked("jti-short"));
+    }
+
+    @Test
+    void testTokenId_TokenWithoutJti_ShouldUseTokenHash() {
+        // Given
+        Claims withId = Jwts.claims().id("jti-1").build();
+        Claims withoutId = Jwts.claims().subject("testuser").build();
+
+        // When & Then
+        assertEquals("jti-1", TokenRevocationService.tokenId(withId, "a.b.c"));
+        assertTrue(TokenRevocationService.tokenId(withoutId, "a.b.c").startsWith("sha256:"));
+        assertEquals(TokenRevocationService.tokenId(withoutId, "a.b.c"), TokenRevocationService.tokenId(withoutId, "a.b.c"));
+    }
+}
@@ -0,0 +1,150 @@
+package com.microservices.cache;
+
+import com.microservices.config.ReplicaRoutingContext;
+import com.microservices.dto.BrandResponseDTO;
+import com.microservices.dto.CategoryResponseDTO;
+import com.microservices.mapper.BrandMapper;
+import com.microservices.mapper.CategoryMapper;
+import com.microservices.repository.BrandRepository;
+import com.microservices.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Diccionario en memoria de categorías y marcas (copy-on-write).
+ * Cada tabla se publica como una instantánea inmutable en un campo volatile: las lecturas
+ * no toman locks y las escrituras de CategoryServiceImpl y BrandServiceImpl reconstruyen
+ * la instantánea completa tras el commit. Un refresco periódico recoge los cambios hechos
+ * por otras instancias.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogDictionary {
+
+    private final CategoryRepository categoryRepository;
+    private final BrandRepository brandRepository;
+    private final CategoryMapper categoryMapper;
+    private final BrandMapper brandMapper;
+
+    private volatile Snapshot<CategoryResponseDTO> categories;
+    private volatile Snapshot<BrandResponseDTO> brands;
+
+    /**
+     * Instantánea inmutable de una tabla del diccionario
+     * @param items elementos ordenados por nombre
+     * @param byId elementos indexados por ID
+     * @param etag hash del contenido, igual en todas las instancias con los mismos datos
+     */
+    public record Snapshot<T>(List<T> items, Map<Long, T> byId, String etag) {
+    }
+
+    public Snapshot<CategoryResponseDTO> categories() {
+        Snapshot<CategoryResponseDTO> snapshot = categories;
+        return snapshot != null ? snapshot : reloadCategories();
+    }
+
+    public Snapshot<BrandResponseDTO> brands() {
+        Snapshot<BrandResponseDTO> snapshot = brands;
+        return snapshot != null ? snapshot : reloadBrands();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reloadCategories();
+        reloadBrands();
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.dictionary.refresh-ms:60000}",
+               initialDelayString = "${catalog.dictionary.refresh-ms:60000}")
+    public void refresh() {
+        reloadCategories();
+        reloadBrands();
+    }
+
+    /**
+     * Reconstruye las categorías leyendo siempre de la primaria: se llama justo después de un commit
+     * y una réplica podría no tener todavía el cambio
+     */
+    public synchronized Snapshot<CategoryResponseDTO> reloadCategories() {
+        List<CategoryResponseDTO> items = ReplicaRoutingContext.onPrimary(
+                () -> categoryMapper.toResponseDTOList(categoryRepository.findAllByOrderByNombreCategoriaAsc()));
+        Snapshot<CategoryResponseDTO> snapshot = buildSnapshot(items, CategoryResponseDTO::getIdCategoria,
+                category -> category.getIdCategoria() + ":" + category.getNombreCategoria());
+        categories = snapshot;
+        log.debug("Diccionario de categorías recargado: {} elementos", items.size());
+        return snapshot;
+    }
+
+    public synchronized Snapshot<BrandResponseDTO> reloadBrands() {
+        List<BrandResponseDTO> items = ReplicaRoutingContext.onPrimary(
+                () -> brandMapper.toResponseDTOList(brandRepository.findAllByOrderByNombreMarcaAsc()));
+        Snapshot<BrandResponseDTO> snapshot = buildSnapshot(items, BrandResponseDTO::getMarcaId,
+                brand -> brand.getMarcaId() + ":" + brand.getNombreMarca());
+        brands = snapshot;
+        log.debug("Diccionario de marcas recargado: {} elementos", items.size());
+        return snapshot;
+    }
+
+    /**
+     * Reconstruye las categorías cuando la transacción actual confirma (o de inmediato si no hay transacción)
+     */
+    public void reloadCategoriesAfterCommit() {
+        afterCommit(this::reloadCategories);
+    }
+
+    /**
+     * Reconstruye las marcas cuando la transacción actual confirma (o de inmediato si no hay transacción)
+     */
+    public void reloadBrandsAfterCommit() {
+        afterCommit(this::reloadBrands);
+    }
+
+    private void afterCommit(Runnable reload) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload.run();
+            }
+        });
+    }
+
+    private <T> Snapshot<T> buildSnapshot(List<T> items, Function<T, Long> idOf, Function<T, String> keyOf) {
+        Map<Long, T> byId = new LinkedHashMap<>();
+        MessageDigest digest = sha256();
+        for (T item : items) {
+            byId.put(idOf.apply(item), item);
+            digest.update(keyOf.apply(item).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        String etag = HexFormat.of().formatHex(digest.digest(), 0, 16);
+        return new Snapshot<>(List.copyOf(items), Map.copyOf(byId), etag);
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
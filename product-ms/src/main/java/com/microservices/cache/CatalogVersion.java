@@ -0,0 +1,157 @@
+package com.microservices.cache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+
+/**
+ * Contador de cambios del catálogo, compartido por todas las instancias mediante la secuencia
+ * catalog_version_seq. Se incrementa después del commit de cada escritura (así una versión nunca
+ * se publica antes que los datos que representa) y cada instancia lo consulta periódicamente
+ * para detectar cambios hechos en otras. Sirve como ETag y Last-Modified de las lecturas del catálogo.
+ * Al ser una secuencia, el incremento no toma locks de fila entre escrituras concurrentes.
+ */
+@Component
+@Slf4j
+public class CatalogVersion {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductCache productCache;
+    private final CatalogDictionary catalogDictionary;
+    private final SecondLevelCacheEvictor secondLevelCacheEvictor;
+    private final List<LongConsumer> localChangeListeners = new CopyOnWriteArrayList<>();
+
+    private volatile Snapshot state = new Snapshot(0L, System.currentTimeMillis());
+
+    /**
+     * Versión y Last-Modified leídos juntos: el ETag anunciado y la versión exigida a la réplica
+     * que atiende la lectura deben ser la misma
+     */
+    public record Snapshot(long version, long lastModifiedMillis) {
+
+        public String etag() {
+            return "\"catalog-" + version + "\"";
+        }
+    }
+
+    public CatalogVersion(DataSource dataSource, ProductCache productCache, CatalogDictionary catalogDictionary,
+                          SecondLevelCacheEvictor secondLevelCacheEvictor) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.productCache = productCache;
+        this.catalogDictionary = catalogDictionary;
+        this.secondLevelCacheEvictor = secondLevelCacheEvictor;
+    }
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS catalog_version_seq");
+        state = new Snapshot(readVersion(), System.currentTimeMillis());
+    }
+
+    /**
+     * @return versión actual del catálogo junto con su Last-Modified
+     */
+    public Snapshot snapshot() {
+        return state;
+    }
+
+    /**
+     * @return versión actual del catálogo
+     */
+    public long version() {
+        return state.version();
+    }
+
+    /**
+     * @return ETag de la versión actual del catálogo
+     */
+    public String etag() {
+        return state.etag();
+    }
+
+    /**
+     * @return instante (ms) en que esta instancia observó el último cambio del catálogo
+     */
+    public long lastModified() {
+        return state.lastModifiedMillis();
+    }
+
+    /**
+     * Registra un cambio del catálogo. Dentro de una transacción el incremento se hace al confirmarla;
+     * las sincronizaciones registradas antes (p. ej. invalidaciones de ProductCache) se ejecutan primero.
+     */
+    public void markChanged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    increment();
+                }
+            }
+        });
+    }
+
+    /**
+     * Registra una acción que recibe cada versión generada por una escritura de esta instancia.
+     * Se invoca en el hilo que confirmó la escritura, antes de que la petición escriba su respuesta.
+     */
+    public void addLocalChangeListener(LongConsumer listener) {
+        localChangeListeners.add(listener);
+    }
+
+    /**
+     * Detecta cambios hechos por otras instancias. Antes de publicar la nueva versión se vacían
+     * las cachés locales, para no asociar la versión nueva a datos anteriores.
+     */
+    @Scheduled(fixedDelayString = "${catalog.version.poll-ms:1000}")
+    public void poll() {
+        long current = readVersion();
+        if (current == state.version()) {
+            return;
+        }
+        secondLevelCacheEvictor.evictAll();
+        productCache.evictAll();
+        catalogDictionary.reloadCategories();
+        catalogDictionary.reloadBrands();
+        publish(current);
+        log.debug("Cambio del catálogo detectado, versión {}", current);
+    }
+
+    private void increment() {
+        try {
+            Long next = jdbcTemplate.queryForObject("SELECT nextval('catalog_version_seq')", Long.class);
+            publish(next);
+            localChangeListeners.forEach(listener -> listener.accept(next));
+        } catch (RuntimeException e) {
+            // El próximo sondeo publicará la versión correcta
+            log.warn("No se pudo incrementar la versión del catálogo: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void publish(long version) {
+        // Las versiones solo avanzan, aunque un sondeo lento llegue después de un incremento local
+        if (version > state.version()) {
+            state = new Snapshot(version, System.currentTimeMillis());
+        }
+    }
+
+    private long readVersion() {
+        // Con is_called = false la secuencia aún no entregó last_value
+        Long version = jdbcTemplate.queryForObject(
+                "SELECT CASE WHEN is_called THEN last_value ELSE 0 END FROM catalog_version_seq", Long.class);
+        return version != null ? version : 0L;
+    }
+}
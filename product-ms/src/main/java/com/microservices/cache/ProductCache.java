@@ -0,0 +1,95 @@
+package com.microservices.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservices.dto.ProductResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Caché local de productos por ID (ya mapeados a ProductResponseDTO).
+ * Las escrituras de ProductServiceImpl invalidan la entrada al momento y otra vez tras el commit,
+ * para que una lectura concurrente no vuelva a cachear el estado anterior a la transacción.
+ * El TTL acota la desactualización entre instancias y ante cambios de nombre de categorías o marcas.
+ */
+@Component
+public class ProductCache {
+
+    private final Cache<Long, ProductResponseDTO> cache;
+
+    public ProductCache(MeterRegistry meterRegistry,
+                        @Value("${product.cache.max-size:50000}") long maxSize,
+                        @Value("${product.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    /**
+     * Obtiene un producto de la caché
+     * @param productId ID del producto
+     * @return producto o null si no está en caché
+     */
+    public ProductResponseDTO get(Long productId) {
+        return cache.getIfPresent(productId);
+    }
+
+    /**
+     * Obtiene los productos presentes en la caché
+     * @param productIds IDs de los productos
+     * @return productos encontrados indexados por ID (los ausentes no aparecen)
+     */
+    public Map<Long, ProductResponseDTO> getAll(Collection<Long> productIds) {
+        return cache.getAllPresent(productIds);
+    }
+
+    public void put(ProductResponseDTO product) {
+        cache.put(product.getProductId(), product);
+    }
+
+    public void putAll(Collection<ProductResponseDTO> products) {
+        products.forEach(this::put);
+    }
+
+    /**
+     * Invalida un producto ahora y, si hay una transacción activa, también después del commit
+     * @param productId ID del producto modificado
+     */
+    public void evict(Long productId) {
+        cache.invalidate(productId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(productId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Elimina todas las entradas (p. ej. al renombrar una categoría o una marca)
+     */
+    public void evictAll() {
+        cache.invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.microservices.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Invalidación de la caché de segundo nivel para los cambios que Hibernate no ve:
+ * inserciones por JDBC (importación masiva) y escrituras de otras instancias.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SecondLevelCacheEvictor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Descarta los resultados de consultas cacheadas; las entidades siguen siendo válidas
+     */
+    public void evictQueryResults() {
+        cache().evictQueryRegions();
+        log.debug("Resultados de consultas eliminados de la caché de segundo nivel");
+    }
+
+    /**
+     * Descarta entidades y resultados de consultas
+     */
+    public void evictAll() {
+        Cache cache = cache();
+        cache.evictAllRegions();
+        cache.evictQueryRegions();
+        log.debug("Caché de segundo nivel vaciada");
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
@@ -1,7 +1,9 @@
 package com.microservices.client;
 
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 
 @FeignClient(name = "auth-ms", url = "${microservices.auth-ms.url}")
@@ -9,4 +11,12 @@ public interface AuthClient {
     
     @PostMapping("/api/auth/validate")
     TokenValidationResponse validateToken(@RequestHeader("Authorization") String token);
+    
+    // Validación por lotes; la usa AuthValidationBatcher para agrupar validaciones concurrentes
+    @PostMapping("/api/auth/validate/batch")
+    BatchTokenValidationResponse validateTokens(@RequestBody BatchTokenValidationRequest request);
+
+    // Claves públicas de firma; las cachea JwksKeyCache para verificar tokens localmente
+    @GetMapping("/api/auth/.well-known/jwks.json")
+    JsonWebKeySet getJwks();
 }
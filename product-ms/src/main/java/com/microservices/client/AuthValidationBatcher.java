@@ -0,0 +1,171 @@
+package com.microservices.client;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Agrupa las validaciones remotas concurrentes en una sola llamada a POST /api/auth/validate/batch.
+ * La primera validación abre una ventana corta (window-ms); las que lleguen durante ella, hasta
+ * max-size, viajan en el mismo lote. Con tráfico bajo cada lote lleva un token y la latencia
+ * añadida es como mucho la ventana; en picos el número de llamadas a auth-ms cae en proporción
+ * al tamaño de los lotes.
+ */
+@Component
+@Slf4j
+public class AuthValidationBatcher implements DisposableBean {
+
+    private final AuthClient authClient;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxSize;
+    private final long timeoutMs;
+    private final BlockingQueue<PendingValidation> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService sender;
+    private final Thread collector;
+    private final DistributionSummary batchSizeSummary;
+
+    private volatile boolean batchEndpointAvailable = true;
+    private volatile boolean running = true;
+
+    public AuthValidationBatcher(AuthClient authClient,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${microservices.auth-ms.batch.enabled:true}") boolean enabled,
+                                 @Value("${microservices.auth-ms.batch.window-ms:2}") long windowMs,
+                                 @Value("${microservices.auth-ms.batch.max-size:100}") int maxSize,
+                                 @Value("${microservices.auth-ms.batch.max-in-flight:4}") int maxInFlight,
+                                 @Value("${microservices.auth-ms.batch.timeout-ms:5000}") long timeoutMs) {
+        this.authClient = authClient;
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.maxSize = maxSize;
+        this.timeoutMs = timeoutMs;
+        this.sender = Executors.newFixedThreadPool(maxInFlight, runnable -> {
+            Thread thread = new Thread(runnable, "auth-batch-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchSizeSummary = DistributionSummary.builder("auth.token.remote.batch.size")
+                .description("Tokens por llamada de validación por lotes a auth-ms")
+                .register(meterRegistry);
+
+        this.collector = new Thread(this::collect, "auth-batch-collector");
+        this.collector.setDaemon(true);
+        if (enabled) {
+            this.collector.start();
+        }
+    }
+
+    /**
+     * Valida el token en auth-ms, compartiendo la llamada con otras validaciones concurrentes
+     * @param token token JWT sin el prefijo "Bearer "
+     */
+    public TokenValidationResponse validate(String token) {
+        if (!enabled || !batchEndpointAvailable) {
+            return authClient.validateToken("Bearer " + token);
+        }
+
+        PendingValidation pending = new PendingValidation(token, new CompletableFuture<>());
+        queue.add(pending);
+        try {
+            return pending.result().get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Tiempo de espera agotado validando el token en auth-ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Validación del token interrumpida", e);
+        }
+    }
+
+    private void collect() {
+        while (running) {
+            try {
+                PendingValidation first = queue.take();
+                List<PendingValidation> batch = new ArrayList<>(Math.min(maxSize, 16));
+                batch.add(first);
+
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        queue.drainTo(batch, maxSize - batch.size());
+                        break;
+                    }
+                    PendingValidation next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                sender.execute(() -> send(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Error agrupando validaciones de tokens: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void send(List<PendingValidation> batch) {
+        batchSizeSummary.record(batch.size());
+        try {
+            List<String> tokens = batch.stream().map(PendingValidation::token).toList();
+            List<TokenValidationResponse> results = authClient.validateTokens(new BatchTokenValidationRequest(tokens)).getResults();
+            if (results == null || results.size() != batch.size()) {
+                throw new IllegalStateException("auth-ms devolvió " + (results == null ? 0 : results.size())
+                        + " resultados para " + batch.size() + " tokens");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(results.get(i));
+            }
+        } catch (FeignException.NotFound e) {
+            // auth-ms sin el endpoint de lotes: se valida de uno en uno a partir de ahora
+            log.warn("auth-ms no expone /api/auth/validate/batch, se usa la validación individual");
+            batchEndpointAvailable = false;
+            batch.forEach(this::sendSingle);
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+
+    private void sendSingle(PendingValidation pending) {
+        try {
+            pending.result().complete(authClient.validateToken("Bearer " + pending.token()));
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        collector.interrupt();
+        sender.shutdown();
+    }
+
+    private record PendingValidation(String token, CompletableFuture<TokenValidationResponse> result) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.microservices.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchTokenValidationRequest {
+
+    private List<String> tokens; // Tokens JWT sin el prefijo "Bearer "
+}
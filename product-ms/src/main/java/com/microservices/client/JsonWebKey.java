@@ -0,0 +1,25 @@
+package com.microservices.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Clave pública de firma publicada por auth-ms (RFC 7517); solo los campos de RSA y Ed25519
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JsonWebKey {
+
+    private String kty; // "RSA" u "OKP"
+    private String kid;
+    private String use;
+    private String alg; // "RS256" o "EdDSA"
+    private String crv; // "Ed25519" (OKP)
+    private String x; // Clave pública Ed25519 en base64url (OKP)
+    private String n; // Módulo en base64url (RSA)
+    private String e; // Exponente en base64url (RSA)
+}
@@ -0,0 +1,171 @@
+package com.microservices.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caché local de resultados de validación de tokens contra auth-ms.
+ * Las entradas se indexan por el hash SHA-256 del token (nunca se guarda el token en claro),
+ * la caché está acotada en tamaño y cada entrada expira en min(exp del token, TTL configurado).
+ * Las peticiones concurrentes con el mismo token comparten una única llamada remota, y las de
+ * tokens distintos se agrupan en lotes (AuthValidationBatcher).
+ */
+@Component
+@Slf4j
+public class TokenValidationCache {
+
+    private final AuthValidationBatcher authValidationBatcher;
+    private final ObjectMapper objectMapper;
+    private final long ttlMillis;
+    private final Cache<String, CachedValidation> cache;
+    private final ConcurrentHashMap<String, CompletableFuture<TokenValidationResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Timer remoteValidationTimer;
+    private final Counter coalescedCounter;
+
+    public TokenValidationCache(AuthValidationBatcher authValidationBatcher,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${microservices.auth-ms.token-cache.max-size:10000}") long maxSize,
+                                @Value("${microservices.auth-ms.token-cache.ttl-seconds:900}") long ttlSeconds) {
+        this.authValidationBatcher = authValidationBatcher;
+        this.objectMapper = objectMapper;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ValidationExpiry())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tokenValidation");
+        this.remoteValidationTimer = Timer.builder("auth.token.remote.validation")
+                .description("Latencia de la validación remota de tokens en auth-ms")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("auth.token.remote.coalesced")
+                .description("Validaciones que reutilizaron una llamada remota en curso")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Valida el token usando la caché local y, si no está, auth-ms
+     * @param authHeader header Authorization completo ("Bearer ...")
+     * @return resultado de la validación
+     */
+    public TokenValidationResponse validate(String authHeader) {
+        String token = authHeader.substring(7);
+        String key = hash(token);
+
+        CachedValidation cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.response();
+        }
+
+        CompletableFuture<TokenValidationResponse> call = new CompletableFuture<>();
+        CompletableFuture<TokenValidationResponse> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalescedCounter.increment();
+            return await(existing);
+        }
+
+        try {
+            TokenValidationResponse response = remoteValidationTimer.record(() -> authValidationBatcher.validate(token));
+            if (response != null && response.isValid()) {
+                long expiresAt = Math.min(extractExpirationMillis(token), System.currentTimeMillis() + ttlMillis);
+                if (expiresAt > System.currentTimeMillis()) {
+                    cache.put(key, new CachedValidation(response, expiresAt));
+                }
+            }
+            call.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Elimina todas las entradas de la caché
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private TokenValidationResponse await(CompletableFuture<TokenValidationResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Lee la claim exp del payload. La firma ya fue verificada por auth-ms, aquí solo
+     * se usa para no mantener en caché un token más allá de su expiración.
+     */
+    private long extractExpirationMillis(String token) {
+        try {
+            String[] parts = token.split("\\.");
+            JsonNode payload = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+            JsonNode exp = payload.get("exp");
+            return exp != null ? TimeUnit.SECONDS.toMillis(exp.asLong()) : 0L;
+        } catch (Exception e) {
+            log.debug("No se pudo leer la expiración del token: {}", e.getMessage());
+            return 0L;
+        }
+    }
+
+    private String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private record CachedValidation(TokenValidationResponse response, long expiresAtMillis) {
+    }
+
+    private static class ValidationExpiry implements Expiry<String, CachedValidation> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedValidation value, long currentTime) {
+            long remainingMillis = Math.max(0L, value.expiresAtMillis() - System.currentTimeMillis());
+            return TimeUnit.MILLISECONDS.toNanos(remainingMillis);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedValidation value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedValidation value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.microservices.config;
 
-import com.microservices.client.AuthClient;
+import com.microservices.client.TokenValidationCache;
 import com.microservices.client.TokenValidationResponse;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -8,6 +8,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -24,7 +25,16 @@ import java.io.IOException;
 @Slf4j
 public class AutoJwtValidationFilter extends OncePerRequestFilter {
 
-    private final AuthClient authClient;
+    private final TokenValidationCache tokenValidationCache;
+    private final LocalJwtVerifier localJwtVerifier;
+
+    // remote: cada token se valida contra auth-ms (con caché); local: firma y expiración se verifican aquí
+    @Value("${jwt.validation-mode:remote}")
+    private String validationMode;
+
+    // En modo local, consultar también a auth-ms para detectar tokens revocados
+    @Value("${jwt.revocation-check:false}")
+    private boolean revocationCheck;
 
     @Override
     protected void doFilterInternal(
@@ -43,8 +53,8 @@ public class AutoJwtValidationFilter extends OncePerRequestFilter {
         }
 
         try {
-            // Validar token automáticamente con auth-ms
-            TokenValidationResponse validation = authClient.validateToken(authHeader);
+            // Validar token según el modo configurado (local o remoto con caché)
+            TokenValidationResponse validation = validateToken(authHeader);
             
             if (validation.isValid()) {
                 // Agregar información del usuario al request
@@ -82,12 +92,39 @@ public class AutoJwtValidationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * En modo local verifica firma y expiración sin red; auth-ms solo se consulta para revocación.
+     * Si auth-ms no responde durante la comprobación de revocación se acepta la verificación local.
+     */
+    private TokenValidationResponse validateToken(String authHeader) {
+        if (!"local".equalsIgnoreCase(validationMode)) {
+            return tokenValidationCache.validate(authHeader);
+        }
+        
+        TokenValidationResponse localValidation = localJwtVerifier.verify(authHeader.substring(7));
+        if (!localValidation.isValid() || !revocationCheck) {
+            return localValidation;
+        }
+        
+        try {
+            TokenValidationResponse remoteValidation = tokenValidationCache.validate(authHeader);
+            return remoteValidation.isValid() ? localValidation : remoteValidation;
+        } catch (Exception e) {
+            log.warn("auth-ms no disponible para comprobar revocación, se usa la verificación local: {}", e.getMessage());
+            return localValidation;
+        }
+    }
+    
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         // No filtrar endpoints públicos
         String path = request.getRequestURI();
         String method = request.getMethod();
         return path.startsWith("/h2-console") ||
+               path.equals("/actuator/health") ||
+               path.startsWith("/images") ||
+               (path.matches("/api/products/\\d+/image/[^/]+") && "GET".equals(method)) ||
+               path.startsWith("/api/products/events") ||
                path.startsWith("/api/products/search") ||
                path.startsWith("/api/products/by-status") ||
                path.startsWith("/api/products/by-category") ||
@@ -0,0 +1,33 @@
+package com.microservices.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registra las peticiones condicionales (ETag / Last-Modified) en las lecturas de productos.
+ * Categorías y marcas usan el ETag por contenido de su diccionario en memoria.
+ * Con réplicas de lectura activas registra también la lectura de las propias escrituras.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class CatalogCacheConfig implements WebMvcConfigurer {
+
+    private final CatalogConditionalRequestInterceptor catalogConditionalRequestInterceptor;
+    private final ObjectProvider<ReadYourWritesInterceptor> readYourWritesInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(catalogConditionalRequestInterceptor)
+                .addPathPatterns("/api/products", "/api/products/**")
+                // Exportación en streaming, estado de subidas, derivados, histogramas, eventos y sugerencias tienen su propio manejo
+                .excludePathPatterns("/api/products/export", "/api/products/image-uploads/**",
+                        "/api/products/*/image/*", "/api/products/price-buckets",
+                        "/api/products/events", "/api/products/events/**", "/api/products/search/suggest");
+
+        readYourWritesInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor)
+                .addPathPatterns("/api/**"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.microservices.config;
+
+import com.microservices.cache.CatalogVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Resuelve If-None-Match / If-Modified-Since de las lecturas de productos antes de llegar al controlador.
+ * Si la versión del catálogo no cambió se responde 304 sin consultar la base ni serializar la respuesta.
+ * Si no, el cuerpo se etiqueta con la versión actual y solo puede leerse de una réplica que ya la haya
+ * aplicado: una réplica atrasada devolvería filas anteriores bajo el ETag nuevo y los clientes recibirían
+ * 304 sobre ese cuerpo obsoleto hasta el siguiente cambio del catálogo. Si ninguna la aplicó aún, la
+ * lectura va a la primaria.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogConditionalRequestInterceptor implements AsyncHandlerInterceptor {
+
+    private final CatalogVersion catalogVersion;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request,
+                             @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return true;
+        }
+
+        // Los clientes deben revalidar siempre; la revalidación es barata
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+
+        // checkNotModified agrega los headers ETag y Last-Modified y, si corresponde, el estado 304
+        CatalogVersion.Snapshot snapshot = catalogVersion.snapshot();
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        if (webRequest.checkNotModified(snapshot.etag(), snapshot.lastModifiedMillis())) {
+            return false;
+        }
+        ReplicaRoutingContext.requireCatalogVersion(snapshot.version());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request,
+                                               @NonNull HttpServletResponse response,
+                                               @NonNull Object handler) {
+        ReplicaRoutingContext.clear();
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request,
+                                @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        ReplicaRoutingContext.clear();
+    }
+}
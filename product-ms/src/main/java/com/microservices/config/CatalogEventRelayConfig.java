@@ -0,0 +1,29 @@
+package com.microservices.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuración del hilo dedicado al relay de eventos del catálogo.
+ * Los envíos SSE bloquean mientras el cliente no lee; si se hicieran en el planificador compartido,
+ * un suscriptor lento retrasaría el resto de tareas programadas (medición del retraso de réplicas,
+ * sondeo de la versión del catálogo, JWKS...). Un solo hilo conserva el orden de entrega.
+ */
+@Configuration
+@Slf4j
+public class CatalogEventRelayConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor catalogEventRelayExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0); // Con una ronda en curso la siguiente se omite, no se encola
+        executor.setThreadNamePrefix("catalog-event-relay-");
+
+        log.info("Executor del relay de eventos del catálogo configurado con un hilo");
+        return executor;
+    }
+}
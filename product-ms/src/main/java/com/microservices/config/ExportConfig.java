@@ -0,0 +1,36 @@
+package com.microservices.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuración del executor dedicado a las exportaciones del catálogo.
+ * ExportResponseStreamer escribe las exportaciones en este pool, de modo que una exportación
+ * lenta no ocupa los hilos de Tomcat que atienden el tráfico interactivo. No se registra como
+ * executor asíncrono global de Spring MVC: el resto de respuestas asíncronas conservan el suyo.
+ */
+@Configuration
+@Slf4j
+public class ExportConfig {
+
+    @Value("${export.pool-size:2}")
+    private int poolSize;
+
+    @Value("${export.queue-capacity:10}")
+    private int queueCapacity;
+
+    @Bean
+    public ThreadPoolTaskExecutor exportTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("product-export-");
+
+        log.info("Executor de exportación configurado con {} hilos y cola de {}", poolSize, queueCapacity);
+        return executor;
+    }
+}
@@ -0,0 +1,37 @@
+package com.microservices.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuración del pool de workers que suben las imágenes de productos.
+ * El pool y su cola están acotados; los trabajos rechazados quedan PENDING
+ * y los retoma el barrido periódico de ImageUploadServiceImpl.
+ */
+@Configuration
+@Slf4j
+public class ImageUploadConfig {
+
+    @Value("${image.upload.pool-size:4}")
+    private int poolSize;
+
+    @Value("${image.upload.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Bean
+    public ThreadPoolTaskExecutor imageUploadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-upload-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+
+        log.info("Executor de subida de imágenes configurado con {} hilos y cola de {}", poolSize, queueCapacity);
+        return executor;
+    }
+}
@@ -0,0 +1,114 @@
+package com.microservices.config;
+
+import com.microservices.client.AuthClient;
+import com.microservices.client.JsonWebKey;
+import com.microservices.client.JsonWebKeySet;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.ProtectedHeader;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Caché local de las claves públicas de firma (JWKS) publicadas por auth-ms.
+ * Se refresca en segundo plano, así que verificar un token no requiere llamadas de red; solo un
+ * kid desconocido (clave recién rotada) provoca un refresco inmediato, limitado en frecuencia.
+ * Si auth-ms no responde se siguen usando las últimas claves obtenidas.
+ */
+@Component
+@Slf4j
+public class JwksKeyCache {
+
+    // Prefijo DER de una clave pública Ed25519 en X.509 (RFC 8410); le siguen los 32 bytes de "x"
+    private static final byte[] ED25519_X509_PREFIX = HexFormat.of().parseHex("302a300506032b6570032100");
+
+    private final AuthClient authClient;
+    private final long minRefreshIntervalMs;
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile long lastRefreshAt;
+
+    public JwksKeyCache(AuthClient authClient,
+                        @Value("${jwt.jwks.min-refresh-interval-ms:10000}") long minRefreshIntervalMs) {
+        this.authClient = authClient;
+        this.minRefreshIntervalMs = minRefreshIntervalMs;
+    }
+
+    @PostConstruct
+    void init() {
+        refresh();
+    }
+
+    /**
+     * Descarga el JWKS de auth-ms y reemplaza las claves en caché
+     */
+    @Scheduled(fixedDelayString = "${jwt.jwks.refresh-ms:300000}", initialDelayString = "${jwt.jwks.refresh-ms:300000}")
+    public synchronized void refresh() {
+        lastRefreshAt = System.currentTimeMillis();
+        try {
+            JsonWebKeySet jwks = authClient.getJwks();
+            Map<String, PublicKey> loaded = new HashMap<>();
+            if (jwks != null && jwks.getKeys() != null) {
+                for (JsonWebKey jwk : jwks.getKeys()) {
+                    try {
+                        loaded.put(jwk.getKid(), toPublicKey(jwk));
+                    } catch (GeneralSecurityException | RuntimeException e) {
+                        log.warn("Clave JWKS ignorada {}: {}", jwk.getKid(), e.getMessage());
+                    }
+                }
+            }
+            keys = Map.copyOf(loaded);
+            log.debug("JWKS actualizado: {} claves", loaded.size());
+        } catch (Exception e) {
+            log.warn("No se pudo actualizar el JWKS desde auth-ms, se mantienen {} claves: {}", keys.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Localiza la clave pública por el kid del header del token
+     * @return null si el kid no corresponde a ninguna clave publicada
+     */
+    public Key locate(Header header) {
+        if (!(header instanceof ProtectedHeader protectedHeader) || protectedHeader.getKeyId() == null) {
+            return null;
+        }
+        String kid = protectedHeader.getKeyId();
+        PublicKey key = keys.get(kid);
+        if (key == null && System.currentTimeMillis() - lastRefreshAt >= minRefreshIntervalMs) {
+            refresh();
+            key = keys.get(kid);
+        }
+        return key;
+    }
+
+    private static PublicKey toPublicKey(JsonWebKey jwk) throws GeneralSecurityException {
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        if ("RSA".equals(jwk.getKty())) {
+            BigInteger modulus = new BigInteger(1, decoder.decode(jwk.getN()));
+            BigInteger exponent = new BigInteger(1, decoder.decode(jwk.getE()));
+            return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(modulus, exponent));
+        }
+        if ("OKP".equals(jwk.getKty()) && "Ed25519".equals(jwk.getCrv())) {
+            byte[] x = decoder.decode(jwk.getX());
+            byte[] encoded = new byte[ED25519_X509_PREFIX.length + x.length];
+            System.arraycopy(ED25519_X509_PREFIX, 0, encoded, 0, ED25519_X509_PREFIX.length);
+            System.arraycopy(x, 0, encoded, ED25519_X509_PREFIX.length, x.length);
+            return KeyFactory.getInstance("Ed25519").generatePublic(new X509EncodedKeySpec(encoded));
+        }
+        throw new GeneralSecurityException("Tipo de clave no soportado: " + jwk.getKty());
+    }
+}
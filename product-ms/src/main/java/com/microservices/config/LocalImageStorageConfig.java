@@ -0,0 +1,27 @@
+package com.microservices.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.nio.file.Paths;
+
+/**
+ * Publica bajo /images/** las imágenes guardadas por LocalImageStorageService
+ */
+@Configuration
+@ConditionalOnProperty(name = "image.storage.type", havingValue = "local")
+public class LocalImageStorageConfig implements WebMvcConfigurer {
+
+    @Value("${image.storage.local.base-dir}")
+    private String baseDir;
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        String location = Paths.get(baseDir).toAbsolutePath().normalize().toUri().toString();
+        registry.addResourceHandler("/images/**")
+                .addResourceLocations(location.endsWith("/") ? location : location + "/");
+    }
+}
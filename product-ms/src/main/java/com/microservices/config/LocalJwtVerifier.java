@@ -0,0 +1,49 @@
+package com.microservices.config;
+
+import com.microservices.client.TokenValidationResponse;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Verificación local de tokens JWT (firma asimétrica y expiración) sin llamar a auth-ms.
+ * La clave pública se elige por el kid del token entre las del JWKS cacheado (JwksKeyCache).
+ * El parser se construye una sola vez; JwtParser es inmutable y thread-safe.
+ */
+@Component
+@Slf4j
+public class LocalJwtVerifier {
+
+    private final JwtParser jwtParser;
+
+    public LocalJwtVerifier(JwksKeyCache jwksKeyCache) {
+        this.jwtParser = Jwts.parser()
+                .keyLocator(jwksKeyCache::locate)
+                .build();
+    }
+
+    /**
+     * Verifica firma y expiración del token y extrae sus datos en un único parseo
+     * @param token token JWT sin el prefijo "Bearer "
+     * @return resultado de la validación (valid=false si la firma o la expiración no son válidas)
+     */
+    public TokenValidationResponse verify(String token) {
+        try {
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            return TokenValidationResponse.builder()
+                    .valid(true)
+                    .userName(claims.getSubject())
+                    .role(claims.get("role", String.class))
+                    .userId(claims.get("userId", Long.class))
+                    .build();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token rechazado en verificación local: {}", e.getMessage());
+            return TokenValidationResponse.builder()
+                    .valid(false)
+                    .build();
+        }
+    }
+}
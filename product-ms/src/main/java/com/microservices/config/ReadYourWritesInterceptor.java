@@ -0,0 +1,109 @@
+package com.microservices.config;
+
+import com.microservices.cache.CatalogVersion;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Lectura de las propias escrituras, limitada al cliente que escribió: cuando una petición cambia el
+ * catálogo, su respuesta lleva una cookie con la versión generada y, mientras la cookie siga vigente,
+ * las lecturas de ese cliente solo se sirven desde réplicas que ya aplicaron esa versión (o desde la
+ * primaria). Las lecturas del resto de clientes siguen repartiéndose entre todas las réplicas sanas.
+ * Una réplica puede retrasarse hasta max-lag-ms más un intervalo de medición antes de salir de la
+ * rotación, así que la vigencia de la cookie debe cubrir al menos esa suma; se comprueba al arrancar.
+ */
+@Component
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    static final String WRITTEN_VERSION_COOKIE = "catalog-written-version";
+
+    private final CatalogVersion catalogVersion;
+
+    @Value("${datasource.replicas.read-your-writes-ms:7000}")
+    private long readYourWritesMs;
+
+    @Value("${datasource.replicas.max-lag-ms:5000}")
+    private long maxLagMs;
+
+    @Value("${datasource.replicas.lag-check-ms:2000}")
+    private long lagCheckMs;
+
+    @PostConstruct
+    public void validateWindow() {
+        if (readYourWritesMs < maxLagMs + lagCheckMs) {
+            throw new IllegalStateException("datasource.replicas.read-your-writes-ms (" + readYourWritesMs
+                    + ") debe ser al menos max-lag-ms + lag-check-ms (" + (maxLagMs + lagCheckMs) + ")");
+        }
+        catalogVersion.addLocalChangeListener(this::rememberWrite);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long writtenVersion = writtenVersion(request);
+        if (writtenVersion > 0) {
+            ReplicaRoutingContext.requireCatalogVersion(writtenVersion);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Exportaciones y streams SSE liberan el hilo sin pasar por afterCompletion
+        ReplicaRoutingContext.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReplicaRoutingContext.clear();
+    }
+
+    /**
+     * Se ejecuta tras el commit de una escritura, en el hilo de la petición y antes de escribir su respuesta.
+     * Escrituras sin petición (importaciones y subidas en segundo plano) no dejan cookie
+     */
+    private void rememberWrite(long version) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        HttpServletResponse response = attributes.getResponse();
+        if (response == null || response.isCommitted()) {
+            return;
+        }
+        Cookie cookie = new Cookie(WRITTEN_VERSION_COOKIE, Long.toString(version));
+        cookie.setPath("/api");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1L, (readYourWritesMs + 999) / 1000));
+        response.addCookie(cookie);
+    }
+
+    private long writtenVersion(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0L;
+        }
+        for (Cookie cookie : cookies) {
+            if (WRITTEN_VERSION_COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    log.debug("Cookie {} con valor no numérico ignorada", WRITTEN_VERSION_COOKIE);
+                    return 0L;
+                }
+            }
+        }
+        return 0L;
+    }
+}
@@ -0,0 +1,83 @@
+package com.microservices.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Datasource con réplicas de lectura. Se activa con datasource.replicas.enabled=true;
+ * sin esa propiedad se usa el datasource único autoconfigurado por Spring Boot.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+@Slf4j
+public class ReplicaDataSourceConfig {
+
+    @Value("${datasource.replicas.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${datasource.replicas.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${datasource.replicas.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${datasource.replicas.max-lag-ms:5000}")
+    private long maxLagMs;
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        // El monitor también consulta la primaria (versión del catálogo y posición del WAL)
+        HikariDataSource primary = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("product-primary");
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(replicaUrls.get(i).trim())
+                    .username(replicaUsername)
+                    .password(replicaPassword)
+                    .build();
+            replica.setPoolName("product-replica-" + i);
+            replica.setReadOnly(true);
+            replicas.put("replica-" + i, replica);
+        }
+        log.info("Réplicas de lectura configuradas: {}", replicaUrls);
+        return new ReplicaLagMonitor(primary, replicas, maxLagMs, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaLagMonitor replicaLagMonitor) {
+        DataSource primary = replicaLagMonitor.getPrimary();
+
+        Map<Object, Object> targets = new HashMap<>(replicaLagMonitor.getReplicas());
+        targets.put(ReplicaRoutingDataSource.PRIMARY, primary);
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(replicaLagMonitor);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+
+        // La conexión se obtiene en la primera sentencia, cuando ya se conoce si la transacción es readOnly
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,205 @@
+package com.microservices.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mide periódicamente el retraso de replicación de cada réplica y publica la lista de réplicas sanas.
+ * Una réplica inaccesible o con más retraso que max-lag-ms sale de la rotación hasta recuperarse;
+ * si ninguna está sana, las lecturas van a la primaria.
+ * En cada medición anota la versión del catálogo de la primaria y, después, su posición del WAL:
+ * una réplica que ya reprodujo esa posición tiene aplicados los datos de esa versión. El retraso se
+ * mide contra esas anotaciones y no contra lo que la réplica recibió, de modo que una réplica que dejó
+ * de recibir WAL cuenta como atrasada aunque haya aplicado todo lo recibido.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements DisposableBean {
+
+    private static final String PRIMARY_VERSION_SQL =
+            "SELECT CASE WHEN is_called THEN last_value ELSE 0 END FROM catalog_version_seq";
+    private static final String PRIMARY_LSN_SQL = "SELECT (pg_current_wal_lsn() - '0/0'::pg_lsn)::bigint";
+    private static final String REPLAY_LSN_SQL =
+            "SELECT (CASE WHEN pg_is_in_recovery() THEN pg_last_wal_replay_lsn() ELSE pg_current_wal_lsn() END " +
+            "- '0/0'::pg_lsn)::bigint";
+
+    // Cota de las anotaciones guardadas; una réplica más atrasada que todas ellas no sirve ninguna versión exigida
+    private static final int MAX_CHECKPOINTS = 1000;
+
+    private final DataSource primary;
+    private final JdbcTemplate primaryTemplate;
+    private final Map<String, DataSource> replicas;
+    private final Map<String, JdbcTemplate> templates = new ConcurrentHashMap<>();
+    private final Map<String, Double> lagMillis = new ConcurrentHashMap<>();
+    private final Map<String, Long> appliedCatalogVersions = new ConcurrentHashMap<>();
+    private final Deque<Checkpoint> checkpoints = new ArrayDeque<>(); // Solo lo usa check(), de más antigua a más reciente
+    private final long maxLagMs;
+
+    private volatile List<String> healthyReplicas = List.of();
+
+    private record Checkpoint(long catalogVersion, long lsn, long takenAtMillis) {
+    }
+
+    public ReplicaLagMonitor(DataSource primary, Map<String, DataSource> replicas, long maxLagMs, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.primaryTemplate = new JdbcTemplate(primary);
+        this.primaryTemplate.setQueryTimeout(2);
+        this.replicas = replicas;
+        this.maxLagMs = maxLagMs;
+        replicas.forEach((name, dataSource) -> {
+            JdbcTemplate template = new JdbcTemplate(dataSource);
+            template.setQueryTimeout(2);
+            templates.put(name, template);
+            lagMillis.put(name, Double.NaN);
+            Gauge.builder("datasource.replica.lag", lagMillis, lag -> lag.getOrDefault(name, Double.NaN))
+                    .description("Retraso de replicación medido (ms)")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    /**
+     * @return última versión del catálogo que la réplica tiene aplicada con certeza (-1 si se desconoce)
+     */
+    public long getAppliedCatalogVersion(String replica) {
+        return appliedCatalogVersions.getOrDefault(replica, -1L);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.lag-check-ms:2000}")
+    public void check() {
+        recordCheckpoint();
+        List<String> healthy = new ArrayList<>();
+        long slowestReplayLsn = Long.MAX_VALUE;
+        for (Map.Entry<String, JdbcTemplate> entry : templates.entrySet()) {
+            String name = entry.getKey();
+            JdbcTemplate template = entry.getValue();
+
+            Long replayLsn = readReplayLsn(template);
+            Checkpoint replayed = replayLsn != null ? latestReplayed(replayLsn) : null;
+            appliedCatalogVersions.put(name, replayed != null ? replayed.catalogVersion() : -1L);
+            slowestReplayLsn = Math.min(slowestReplayLsn, replayLsn != null ? replayLsn : Long.MIN_VALUE);
+
+            if (replayLsn == null) {
+                lagMillis.put(name, Double.NaN);
+                log.warn("Réplica {} inaccesible, fuera de rotación", name);
+                continue;
+            }
+            double lag = estimateLag(replayLsn, replayed);
+            lagMillis.put(name, lag);
+            if (lag <= maxLagMs) {
+                healthy.add(name);
+            } else {
+                log.warn("Réplica {} fuera de rotación: retraso de {} ms", name, Double.isNaN(lag) ? "desconocido" : (long) lag);
+            }
+        }
+        healthy.sort(null);
+        healthyReplicas = List.copyOf(healthy);
+        pruneCheckpoints(slowestReplayLsn);
+    }
+
+    private void recordCheckpoint() {
+        try {
+            // Primero la versión y después la posición del WAL: los datos de esa versión ya se confirmaron antes
+            Long version = primaryTemplate.queryForObject(PRIMARY_VERSION_SQL, Long.class);
+            Long lsn = primaryTemplate.queryForObject(PRIMARY_LSN_SQL, Long.class);
+            if (version != null && lsn != null) {
+                checkpoints.addLast(new Checkpoint(version, lsn, System.currentTimeMillis()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudo leer la posición del WAL de la primaria: {}", e.getMessage());
+        }
+    }
+
+    private Long readReplayLsn(JdbcTemplate template) {
+        try {
+            return template.queryForObject(REPLAY_LSN_SQL, Long.class);
+        } catch (RuntimeException e) {
+            log.debug("No se pudo leer la posición reproducida de una réplica: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 0 si la réplica alcanzó la posición más reciente de la primaria; si no, tiempo desde la anotación más
+     * reciente que ya reprodujo (todo lo confirmado antes de ese instante es visible en ella).
+     * NaN si no reprodujo ninguna de las anotaciones guardadas
+     */
+    private double estimateLag(long replayLsn, Checkpoint replayed) {
+        Checkpoint newest = checkpoints.peekLast();
+        if (newest != null && replayLsn >= newest.lsn()) {
+            return 0d;
+        }
+        if (replayed == null) {
+            return Double.NaN;
+        }
+        return System.currentTimeMillis() - replayed.takenAtMillis();
+    }
+
+    /**
+     * Anotación más reciente cuya posición del WAL ya reprodujo la réplica
+     */
+    private Checkpoint latestReplayed(long replayLsn) {
+        Iterator<Checkpoint> newestFirst = checkpoints.descendingIterator();
+        while (newestFirst.hasNext()) {
+            Checkpoint checkpoint = newestFirst.next();
+            if (checkpoint.lsn() <= replayLsn) {
+                return checkpoint;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Descarta las anotaciones anteriores a la más reciente que reprodujo la réplica más atrasada
+     */
+    private void pruneCheckpoints(long slowestReplayLsn) {
+        while (checkpoints.size() > MAX_CHECKPOINTS) {
+            checkpoints.removeFirst();
+        }
+        while (checkpoints.size() > 1) {
+            Iterator<Checkpoint> oldestFirst = checkpoints.iterator();
+            oldestFirst.next();
+            if (oldestFirst.next().lsn() > slowestReplayLsn) {
+                return;
+            }
+            checkpoints.removeFirst();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (primary instanceof HikariDataSource hikari) {
+            hikari.close();
+        }
+        replicas.values().forEach(dataSource -> {
+            if (dataSource instanceof HikariDataSource hikari) {
+                hikari.close();
+            }
+        });
+    }
+}
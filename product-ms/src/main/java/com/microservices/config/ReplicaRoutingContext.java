@@ -0,0 +1,62 @@
+package com.microservices.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Marcas del hilo actual para el enrutado de lecturas: forzar la base primaria aunque la transacción sea
+ * de solo lectura, o exigir que la réplica ya haya aplicado una versión mínima del catálogo.
+ * Sin réplicas configuradas no tienen efecto.
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+    private static final ThreadLocal<Long> MIN_CATALOG_VERSION = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    /**
+     * @return versión del catálogo que debe haber aplicado la réplica que atienda la lectura (0 = cualquiera)
+     */
+    public static long requiredCatalogVersion() {
+        Long version = MIN_CATALOG_VERSION.get();
+        return version != null ? version : 0L;
+    }
+
+    /**
+     * Exige que la réplica haya aplicado al menos esa versión; si ya se exigía una mayor, se conserva
+     */
+    public static void requireCatalogVersion(long version) {
+        if (version > requiredCatalogVersion()) {
+            MIN_CATALOG_VERSION.set(version);
+        }
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+        MIN_CATALOG_VERSION.remove();
+    }
+
+    /**
+     * Ejecuta la acción contra la base primaria y restaura el estado anterior del hilo
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        boolean previous = isPrimaryRequired();
+        requirePrimary();
+        try {
+            return action.get();
+        } finally {
+            if (!previous) {
+                PRIMARY_REQUIRED.remove();
+            }
+        }
+    }
+}
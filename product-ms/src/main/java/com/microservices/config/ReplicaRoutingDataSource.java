@@ -0,0 +1,44 @@
+package com.microservices.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envía las transacciones de solo lectura a una réplica sana (round-robin) y todo lo demás a la primaria.
+ * Si la petición exige una versión mínima del catálogo, solo se eligen réplicas que ya la aplicaron.
+ * Debe envolverse en LazyConnectionDataSourceProxy: la marca readOnly de la transacción se publica
+ * después de que el gestor de transacciones pide la conexión.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReplicaRoutingContext.isPrimaryRequired()) {
+            return PRIMARY;
+        }
+
+        List<String> healthy = lagMonitor.getHealthyReplicas();
+        long requiredVersion = ReplicaRoutingContext.requiredCatalogVersion();
+        if (requiredVersion > 0) {
+            healthy = healthy.stream()
+                    .filter(name -> lagMonitor.getAppliedCatalogVersion(name) >= requiredVersion)
+                    .toList();
+        }
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+}
@@ -0,0 +1,84 @@
+package com.microservices.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caché de segundo nivel de Hibernate (JCache sobre Caffeine) para Product, Category y Brand,
+ * más la caché de consultas. Las regiones se crean aquí con tamaño y TTL acotados, en lugar
+ * de las regiones ilimitadas que Hibernate crearía por defecto.
+ * El CacheManager es propio de este contexto (URI única): el CacheManager por defecto del proveedor
+ * es compartido por toda la JVM y cerrarlo al parar el contexto afectaría a cualquier otro usuario.
+ */
+@Configuration
+@Slf4j
+public class SecondLevelCacheConfig {
+
+    public static final String PRODUCT_REGION = "product";
+    public static final String CATEGORY_REGION = "category";
+    public static final String BRAND_REGION = "brand";
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Value("${second-level-cache.product.max-entries:20000}")
+    private long productMaxEntries;
+
+    @Value("${second-level-cache.dictionary.max-entries:2000}")
+    private long dictionaryMaxEntries;
+
+    @Value("${second-level-cache.query.max-entries:5000}")
+    private long queryMaxEntries;
+
+    @Value("${second-level-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        URI uri = URI.create("product-ms-second-level-cache-" + UUID.randomUUID());
+        CacheManager cacheManager = provider.getCacheManager(uri, getClass().getClassLoader());
+        createRegion(cacheManager, PRODUCT_REGION, productMaxEntries, ttlSeconds);
+        createRegion(cacheManager, CATEGORY_REGION, dictionaryMaxEntries, ttlSeconds);
+        createRegion(cacheManager, BRAND_REGION, dictionaryMaxEntries, ttlSeconds);
+        createRegion(cacheManager, QUERY_RESULTS_REGION, queryMaxEntries, ttlSeconds);
+        // Una entrada por tabla; no debe expirar antes que los resultados que invalida
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, 1000, 0);
+
+        log.info("Caché de segundo nivel configurada: {} productos, {} categorías/marcas, {} consultas, TTL {}s",
+                productMaxEntries, dictionaryMaxEntries, queryMaxEntries, ttlSeconds);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private void createRegion(CacheManager cacheManager, String name, long maxEntries, long ttlSeconds) {
+        cacheManager.createCache(name, region(maxEntries, ttlSeconds));
+    }
+
+    private CaffeineConfiguration<Object, Object> region(long maxEntries, long ttlSeconds) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        if (ttlSeconds > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        }
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,68 @@
+package com.microservices.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estadísticas por región de la caché de segundo nivel en /actuator/l2cache.
+ * Los contadores agregados también se publican como métricas hibernate.* en /actuator/metrics.
+ * Como el resto de actuator salvo /actuator/health, requiere un token con rol ADMIN (SecurityConfig).
+ */
+@Component
+@Endpoint(id = "l2cache")
+@RequiredArgsConstructor
+public class SecondLevelCacheEndpoint {
+
+    private static final List<String> ENTITY_REGIONS = List.of(
+            SecondLevelCacheConfig.PRODUCT_REGION,
+            SecondLevelCacheConfig.CATEGORY_REGION,
+            SecondLevelCacheConfig.BRAND_REGION);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : ENTITY_REGIONS) {
+            regions.put(region, describe(statistics.getDomainDataRegionStatistics(region)));
+        }
+        regions.put(SecondLevelCacheConfig.QUERY_RESULTS_REGION,
+                describe(statistics.getQueryRegionStatistics(SecondLevelCacheConfig.QUERY_RESULTS_REGION)));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        result.put("hitCount", statistics.getSecondLevelCacheHitCount());
+        result.put("missCount", statistics.getSecondLevelCacheMissCount());
+        result.put("putCount", statistics.getSecondLevelCachePutCount());
+        result.put("queryCacheHitCount", statistics.getQueryCacheHitCount());
+        result.put("queryCacheMissCount", statistics.getQueryCacheMissCount());
+        result.put("regions", regions);
+        return result;
+    }
+
+    private Map<String, Object> describe(CacheRegionStatistics region) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (region == null) {
+            return values;
+        }
+        long requests = region.getHitCount() + region.getMissCount();
+        values.put("hitCount", region.getHitCount());
+        values.put("missCount", region.getMissCount());
+        values.put("putCount", region.getPutCount());
+        values.put("hitRatio", requests == 0 ? 0d : (double) region.getHitCount() / requests);
+        values.put("elementCountInMemory", region.getElementCountInMemory());
+        return values;
+    }
+}
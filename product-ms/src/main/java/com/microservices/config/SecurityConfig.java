@@ -3,6 +3,7 @@ package com.microservices.config;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -23,7 +24,18 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
+                // Exportación e importación del catálogo (deben ir antes de /api/products/{id})
+                .requestMatchers("/api/products/export").authenticated()
+                .requestMatchers("/api/products/import").authenticated()
+                
+                // Actuator: solo la salud es pública; métricas y el resto de endpoints quedan para ADMIN
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
+                
                 // Endpoints públicos
+                .requestMatchers("/images/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/products/{id}/image/{variant}").permitAll()
+                .requestMatchers("/api/products/events", "/api/products/events/**").permitAll()
                 .requestMatchers("/api/products/search/**").permitAll()
                 .requestMatchers("/api/products/by-status/**").permitAll()
                 .requestMatchers("/api/products/by-category/**").permitAll()
@@ -2,9 +2,11 @@ package com.microservices.controller;
 
 import com.microservices.dto.BrandRequestDTO;
 import com.microservices.dto.BrandResponseDTO;
+import com.microservices.dto.VersionedListDTO;
 import com.microservices.service.BrandService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -44,12 +46,20 @@ public class BrandController {
     /**
      * Listar todas las marcas
      * GET /api/brands
-     * Retorna: Lista de BrandResponseDTO ordenadas por nombre
+     * Retorna: Lista de BrandResponseDTO ordenadas por nombre, con ETag.
+     * Si If-None-Match coincide con la versión actual (o If-Modified-Since es posterior al último
+     * cambio del catálogo) responde 304 Not Modified sin cuerpo.
      */
     @GetMapping
     public ResponseEntity<List<BrandResponseDTO>> getAllBrands() {
-        List<BrandResponseDTO> response = brandService.getAllBrands();
-        return ResponseEntity.ok(response);
+        VersionedListDTO<BrandResponseDTO> response = brandService.getAllBrandsVersioned();
+        
+        // Spring compara el ETag con If-None-Match y resuelve el 304
+        return ResponseEntity.ok()
+                .eTag(response.getVersion())
+                .lastModified(response.getLastModified())
+                .cacheControl(CacheControl.noCache())
+                .body(response.getItems());
     }
     
     /**
@@ -2,9 +2,11 @@ package com.microservices.controller;
 
 import com.microservices.dto.CategoryRequestDTO;
 import com.microservices.dto.CategoryResponseDTO;
+import com.microservices.dto.VersionedListDTO;
 import com.microservices.service.CategoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -44,12 +46,20 @@ public class CategoryController {
     /**
      * Listar todas las categorías
      * GET /api/categories
-     * Retorna: Lista de CategoryResponseDTO ordenadas por nombre
+     * Retorna: Lista de CategoryResponseDTO ordenadas por nombre, con ETag.
+     * Si If-None-Match coincide con la versión actual (o If-Modified-Since es posterior al último
+     * cambio del catálogo) responde 304 Not Modified sin cuerpo.
      */
     @GetMapping
     public ResponseEntity<List<CategoryResponseDTO>> getAllCategories() {
-        List<CategoryResponseDTO> response = categoryService.getAllCategories();
-        return ResponseEntity.ok(response);
+        VersionedListDTO<CategoryResponseDTO> response = categoryService.getAllCategoriesVersioned();
+        
+        // Spring compara el ETag con If-None-Match y resuelve el 304
+        return ResponseEntity.ok()
+                .eTag(response.getVersion())
+                .lastModified(response.getLastModified())
+                .cacheControl(CacheControl.noCache())
+                .body(response.getItems());
     }
     
     /**
@@ -1,22 +1,44 @@
 package com.microservices.controller;
 
+import com.microservices.config.ExportResponseStreamer;
 import com.microservices.dto.*;
 import com.microservices.entity.ProductStatus;
+import com.microservices.exception.ValidationException;
+import com.microservices.service.CatalogEventService;
+import com.microservices.service.CatalogEventStreamService;
+import com.microservices.service.ImageDerivativeCacheService;
+import com.microservices.service.ImageStorageService;
+import com.microservices.service.ImageUploadService;
+import com.microservices.service.ProductExportService;
+import com.microservices.service.ProductImportService;
+import com.microservices.service.PriceHistogramService;
+import com.microservices.service.ProductFacetService;
 import com.microservices.service.ProductService;
-import com.microservices.service.CloudinaryService;
+import com.microservices.service.ProductSuggestionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.net.URI;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/products")
@@ -24,7 +46,17 @@ import java.util.List;
 public class ProductController {
     
     private final ProductService productService;
-    private final CloudinaryService cloudinaryService;
+    private final ImageUploadService imageUploadService;
+    private final ImageStorageService imageStorageService;
+    private final ImageDerivativeCacheService imageDerivativeCacheService;
+    private final ProductExportService productExportService;
+    private final ProductImportService productImportService;
+    private final PriceHistogramService priceHistogramService;
+    private final ProductFacetService productFacetService;
+    private final CatalogEventService catalogEventService;
+    private final CatalogEventStreamService catalogEventStreamService;
+    private final ProductSuggestionService productSuggestionService;
+    private final ExportResponseStreamer exportResponseStreamer;
     
     // ==================== CRUD BÁSICO ====================
     
@@ -51,12 +83,25 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Obtener varios productos por sus IDs en una sola llamada (carrito, recomendaciones)
+     * GET /api/products/batch?ids=1,2,3
+     * Parámetros:
+     * - ids: IDs de los productos (máximo product.batch.max-ids, default: 100)
+     * Retorna: ProductBatchResponseDTO con los productos en el orden solicitado y los IDs inexistentes
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<ProductBatchResponseDTO> getProductsByIds(@RequestParam List<Long> ids) {
+        ProductBatchResponseDTO response = productService.getProductsByIds(ids);
+        return ResponseEntity.ok(response);
+    }
+    
     /**
      * Listar todos los productos con paginación opcional
      * GET /api/products?page=0&size=10&sortBy=name&sortDirection=asc
      * Parámetros:
      * - page: Número de página (default: 0)
-     * - size: Elementos por página (default: 10, 0 = sin paginación)
+     * - size: Elementos por página (default: 10, debe ser mayor a 0; para el catálogo completo usar /api/products/export)
      * - sortBy: Campo para ordenar (default: name)
      * - sortDirection: Dirección del ordenamiento (asc/desc, default: asc)
      * Retorna: Lista de ProductResponseDTO
@@ -68,16 +113,9 @@ public class ProductController {
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDirection) {
         
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
-        Pageable pageable = PageRequest.of(page, size, sort);
-        
-        if (size == 0) {
-            List<ProductResponseDTO> response = productService.getAllProducts();
-            return ResponseEntity.ok(response);
-        } else {
-            Page<ProductResponseDTO> response = productService.getAllProducts(pageable);
-            return ResponseEntity.ok(response.getContent());
-        }
+        Pageable pageable = buildPageable(page, size, sortBy, sortDirection);
+        Page<ProductResponseDTO> response = productService.getAllProducts(pageable);
+        return ResponseEntity.ok(response.getContent());
     }
     
     /**
@@ -122,16 +160,9 @@ public class ProductController {
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDirection) {
         
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
-        Pageable pageable = PageRequest.of(page, size, sort);
-        
-        if (size == 0) {
-            List<ProductResponseDTO> response = productService.getProductsByStatus(status);
-            return ResponseEntity.ok(response);
-        } else {
-            Page<ProductResponseDTO> response = productService.getProductsByStatus(status, pageable);
-            return ResponseEntity.ok(response.getContent());
-        }
+        Pageable pageable = buildPageable(page, size, sortBy, sortDirection);
+        Page<ProductResponseDTO> response = productService.getProductsByStatus(status, pageable);
+        return ResponseEntity.ok(response.getContent());
     }
     
     /**
@@ -150,16 +181,9 @@ public class ProductController {
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDirection) {
         
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
-        Pageable pageable = PageRequest.of(page, size, sort);
-        
-        if (size == 0) {
-            List<ProductResponseDTO> response = productService.getProductsByCategory(categoryId);
-            return ResponseEntity.ok(response);
-        } else {
-            Page<ProductResponseDTO> response = productService.getProductsByCategory(categoryId, pageable);
-            return ResponseEntity.ok(response.getContent());
-        }
+        Pageable pageable = buildPageable(page, size, sortBy, sortDirection);
+        Page<ProductResponseDTO> response = productService.getProductsByCategory(categoryId, pageable);
+        return ResponseEntity.ok(response.getContent());
     }
     
     /**
@@ -178,16 +202,9 @@ public class ProductController {
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDirection) {
         
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
-        Pageable pageable = PageRequest.of(page, size, sort);
-        
-        if (size == 0) {
-            List<ProductResponseDTO> response = productService.getProductsByBrand(brandId);
-            return ResponseEntity.ok(response);
-        } else {
-            Page<ProductResponseDTO> response = productService.getProductsByBrand(brandId, pageable);
-            return ResponseEntity.ok(response.getContent());
-        }
+        Pageable pageable = buildPageable(page, size, sortBy, sortDirection);
+        Page<ProductResponseDTO> response = productService.getProductsByBrand(brandId, pageable);
+        return ResponseEntity.ok(response.getContent());
     }
     
     /**
@@ -208,16 +225,26 @@ public class ProductController {
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDirection) {
         
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
-        Pageable pageable = PageRequest.of(page, size, sort);
+        Pageable pageable = buildPageable(page, size, sortBy, sortDirection);
+        Page<ProductResponseDTO> response = productService.getProductsByPriceRange(minPrice, maxPrice, pageable);
+        return ResponseEntity.ok(response.getContent());
+    }
+    
+    /**
+     * Sugerencias de nombres para la caja de búsqueda (typeahead)
+     * GET /api/products/search/suggest?q=ipho&limit=10
+     * Parámetros:
+     * - q: Texto escrito hasta ahora (sin distinguir mayúsculas ni acentos)
+     * - limit: Máximo de sugerencias (por defecto 10)
+     * Retorna: productos activos cuyo nombre o alguna de sus palabras empieza por q,
+     * resueltos desde un índice en memoria sin consultar la base de datos
+     */
+    @GetMapping("/search/suggest")
+    public ResponseEntity<List<ProductSuggestionDTO>> suggestProducts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
         
-        if (size == 0) {
-            List<ProductResponseDTO> response = productService.getProductsByPriceRange(minPrice, maxPrice);
-            return ResponseEntity.ok(response);
-        } else {
-            Page<ProductResponseDTO> response = productService.getProductsByPriceRange(minPrice, maxPrice, pageable);
-            return ResponseEntity.ok(response.getContent());
-        }
+        return ResponseEntity.ok(productSuggestionService.suggest(q, limit));
     }
     
     /**
@@ -236,16 +263,9 @@ public class ProductController {
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDirection) {
         
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
-        Pageable pageable = PageRequest.of(page, size, sort);
-        
-        if (size == 0) {
-            List<ProductResponseDTO> response = productService.searchProductsByName(name);
-            return ResponseEntity.ok(response);
-        } else {
-            Page<ProductResponseDTO> response = productService.searchProductsByName(name, pageable);
-            return ResponseEntity.ok(response.getContent());
-        }
+        Pageable pageable = buildPageable(page, size, sortBy, sortDirection);
+        Page<ProductResponseDTO> response = productService.searchProductsByName(name, pageable);
+        return ResponseEntity.ok(response.getContent());
     }
     
     /**
@@ -264,16 +284,9 @@ public class ProductController {
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDirection) {
         
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
-        Pageable pageable = PageRequest.of(page, size, sort);
-        
-        if (size == 0) {
-            List<ProductResponseDTO> response = productService.searchProductsByText(searchText);
-            return ResponseEntity.ok(response);
-        } else {
-            Page<ProductResponseDTO> response = productService.searchProductsByText(searchText, pageable);
-            return ResponseEntity.ok(response.getContent());
-        }
+        Pageable pageable = buildPageable(page, size, sortBy, sortDirection);
+        Page<ProductResponseDTO> response = productService.searchProductsByText(searchText, pageable);
+        return ResponseEntity.ok(response.getContent());
     }
     
     // ==================== BÚSQUEDAS COMBINADAS ====================
@@ -298,16 +311,9 @@ public class ProductController {
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDirection) {
         
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
-        Pageable pageable = PageRequest.of(page, size, sort);
-        
-        if (size == 0) {
-            List<ProductResponseDTO> response = productService.getProductsByCategoryAndPriceRange(categoryId, minPrice, maxPrice);
-            return ResponseEntity.ok(response);
-        } else {
-            Page<ProductResponseDTO> response = productService.getProductsByCategoryAndPriceRange(categoryId, minPrice, maxPrice, pageable);
-            return ResponseEntity.ok(response.getContent());
-        }
+        Pageable pageable = buildPageable(page, size, sortBy, sortDirection);
+        Page<ProductResponseDTO> response = productService.getProductsByCategoryAndPriceRange(categoryId, minPrice, maxPrice, pageable);
+        return ResponseEntity.ok(response.getContent());
     }
     
     /**
@@ -330,16 +336,9 @@ public class ProductController {
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDirection) {
         
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
-        Pageable pageable = PageRequest.of(page, size, sort);
-        
-        if (size == 0) {
-            List<ProductResponseDTO> response = productService.getProductsByBrandAndPriceRange(brandId, minPrice, maxPrice);
-            return ResponseEntity.ok(response);
-        } else {
-            Page<ProductResponseDTO> response = productService.getProductsByBrandAndPriceRange(brandId, minPrice, maxPrice, pageable);
-            return ResponseEntity.ok(response.getContent());
-        }
+        Pageable pageable = buildPageable(page, size, sortBy, sortDirection);
+        Page<ProductResponseDTO> response = productService.getProductsByBrandAndPriceRange(brandId, minPrice, maxPrice, pageable);
+        return ResponseEntity.ok(response.getContent());
     }
     
     /**
@@ -364,16 +363,9 @@ public class ProductController {
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDirection) {
         
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
-        Pageable pageable = PageRequest.of(page, size, sort);
-        
-        if (size == 0) {
-            List<ProductResponseDTO> response = productService.getProductsByCategoryAndBrandAndPriceRange(categoryId, brandId, minPrice, maxPrice);
-            return ResponseEntity.ok(response);
-        } else {
-            Page<ProductResponseDTO> response = productService.getProductsByCategoryAndBrandAndPriceRange(categoryId, brandId, minPrice, maxPrice, pageable);
-            return ResponseEntity.ok(response.getContent());
-        }
+        Pageable pageable = buildPageable(page, size, sortBy, sortDirection);
+        Page<ProductResponseDTO> response = productService.getProductsByCategoryAndBrandAndPriceRange(categoryId, brandId, minPrice, maxPrice, pageable);
+        return ResponseEntity.ok(response.getContent());
     }
     
     /**
@@ -394,16 +386,9 @@ public class ProductController {
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDirection) {
         
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
-        Pageable pageable = PageRequest.of(page, size, sort);
-        
-        if (size == 0) {
-            List<ProductResponseDTO> response = productService.getProductsByStatusAndCategory(status, categoryId);
-            return ResponseEntity.ok(response);
-        } else {
-            Page<ProductResponseDTO> response = productService.getProductsByStatusAndCategory(status, categoryId, pageable);
-            return ResponseEntity.ok(response.getContent());
-        }
+        Pageable pageable = buildPageable(page, size, sortBy, sortDirection);
+        Page<ProductResponseDTO> response = productService.getProductsByStatusAndCategory(status, categoryId, pageable);
+        return ResponseEntity.ok(response.getContent());
     }
     
     /**
@@ -424,16 +409,67 @@ public class ProductController {
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDirection) {
         
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
-        Pageable pageable = PageRequest.of(page, size, sort);
+        Pageable pageable = buildPageable(page, size, sortBy, sortDirection);
+        Page<ProductResponseDTO> response = productService.getProductsByStatusAndBrand(status, brandId, pageable);
+        return ResponseEntity.ok(response.getContent());
+    }
+    
+    // ==================== FACETAS ====================
+    
+    /**
+     * Conteo de productos activos por tramo de precio (facetas de la tienda)
+     * GET /api/products/price-buckets?categoryId=1&brandId=1
+     * Parámetros:
+     * - categoryId, brandId: Filtros opcionales
+     * Retorna: PriceHistogramDTO precalculado en memoria (no recorre la tabla de productos),
+     * con ETag de la versión del catálogo con la que se calculó
+     */
+    @GetMapping("/price-buckets")
+    public ResponseEntity<PriceHistogramDTO> getPriceBuckets(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long brandId) {
         
-        if (size == 0) {
-            List<ProductResponseDTO> response = productService.getProductsByStatusAndBrand(status, brandId);
-            return ResponseEntity.ok(response);
-        } else {
-            Page<ProductResponseDTO> response = productService.getProductsByStatusAndBrand(status, brandId, pageable);
-            return ResponseEntity.ok(response.getContent());
-        }
+        PriceHistogramDTO response = priceHistogramService.getPriceHistogram(categoryId, brandId);
+        return ResponseEntity.ok()
+                .eTag("buckets-" + response.getVersion())
+                .lastModified(response.getComputedAt())
+                .cacheControl(CacheControl.noCache())
+                .body(response);
+    }
+    
+    // ==================== EVENTOS DEL CATÁLOGO ====================
+    
+    /**
+     * Stream SSE de cambios del catálogo para réplicas locales en otros servicios
+     * GET /api/products/events?since=120
+     * Parámetros:
+     * - since: Último offset recibido (opcional; sin él solo llegan eventos nuevos)
+     * - Header Last-Event-ID: Tiene prioridad sobre since al reconectar
+     * Retorna: eventos PRODUCT_* con id = offset; un evento "reset" indica que el offset ya se
+     * purgó y el consumidor debe recargar el catálogo completo
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCatalogEvents(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        
+        return catalogEventStreamService.subscribe(lastEventId != null ? lastEventId : since);
+    }
+    
+    /**
+     * Lectura paginada de los cambios del catálogo (alternativa al stream SSE)
+     * GET /api/products/events/log?since=120&limit=100
+     * Parámetros:
+     * - since: Último offset procesado (por defecto 0, el evento más antiguo conservado)
+     * - limit: Máximo de eventos (por defecto 100)
+     * Retorna: CatalogEventPageDTO con los eventos y el offset para la siguiente consulta
+     */
+    @GetMapping("/events/log")
+    public ResponseEntity<CatalogEventPageDTO> getCatalogEvents(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int limit) {
+        
+        return ResponseEntity.ok(catalogEventService.getEventsSince(since, limit));
     }
     
     // ==================== BÚSQUEDA AVANZADA ====================
@@ -455,13 +491,30 @@ public class ProductController {
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDirection) {
         
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
-        Pageable pageable = PageRequest.of(page, size, sort);
-        
+        Pageable pageable = buildPageable(page, size, sortBy, sortDirection);
         Page<ProductResponseDTO> response = productService.searchProducts(searchDTO, pageable);
         return ResponseEntity.ok(response.getContent());
     }
     
+    /**
+     * Búsqueda con facetas: resultados y conteos en una sola llamada
+     * POST /api/products/search/faceted?page=0&size=10&sortBy=name&sortDirection=asc
+     * Body: ProductSearchDTO con criterios de búsqueda (searchText, categoryId, brandId, status, minPrice, maxPrice)
+     * Retorna: FacetedSearchResponseDTO con la página de resultados, el total y los conteos
+     * por categoría, marca, estado y tramo de precio de la búsqueda actual
+     */
+    @PostMapping("/search/faceted")
+    public ResponseEntity<FacetedSearchResponseDTO> searchProductsWithFacets(
+            @RequestBody(required = false) ProductSearchDTO searchDTO,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection) {
+        
+        FacetedSearchResponseDTO response = productFacetService.search(searchDTO, page, size, sortBy, sortDirection);
+        return ResponseEntity.ok(response);
+    }
+    
     // ==================== GESTIÓN DE ESTADO ====================
     
     /**
@@ -506,30 +559,96 @@ public class ProductController {
         return getProductsByStatus(ProductStatus.ACTIVE, page, size, sortBy, sortDirection);
     }
     
+    // ==================== EXPORTACIÓN ====================
+    
+    /**
+     * Exportar el catálogo completo (o filtrado) en streaming
+     * GET /api/products/export?format=ndjson&status=ACTIVE&categoryId=1&brandId=1
+     * Parámetros:
+     * - format: Formato de salida (ndjson o csv, default: ndjson)
+     * - status, categoryId, brandId: Filtros opcionales
+     * Retorna: Productos escritos directamente desde un cursor de base de datos,
+     * sin cargar el catálogo completo en memoria. Se ejecuta en el executor de exportación.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<ResponseBodyEmitter> exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) ProductStatus status,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long brandId) {
+        
+        ProductExportFormat exportFormat = parseExportFormat(format);
+        MediaType mediaType = MediaType.parseMediaType(exportFormat.getContentType());
+        ResponseBodyEmitter body = exportResponseStreamer.stream(mediaType, outputStream ->
+                productExportService.exportProducts(exportFormat, status, categoryId, brandId, outputStream));
+        
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"products." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+    
+    // ==================== IMPORTACIÓN MASIVA ====================
+    
+    /**
+     * Importar productos desde un arreglo JSON
+     * POST /api/products/import
+     * Requiere: lista de ProductRequestDTO
+     * Retorna: ProductImportResultDTO con el total importado y los errores por fila.
+     * Las filas inválidas no detienen la importación del resto.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductImportResultDTO> importProducts(@RequestBody List<ProductRequestDTO> products) {
+        ProductImportResultDTO response = productImportService.importProducts(products);
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Importar productos desde un archivo CSV
+     * POST /api/products/import
+     * Content-Type: multipart/form-data
+     * Parámetros:
+     * - file: CSV en UTF-8 con cabecera name,description,categoryId,brandId,unitPrice[,imageUrl]
+     * Retorna: ProductImportResultDTO con el total importado y los errores por fila
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ProductImportResultDTO> importProductsCsv(@RequestParam("file") MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new ValidationException("El archivo no puede estar vacío");
+        }
+        
+        try (InputStream inputStream = file.getInputStream()) {
+            ProductImportResultDTO response = productImportService.importCsv(inputStream);
+            return ResponseEntity.ok(response);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer el archivo CSV: " + e.getMessage(), e);
+        }
+    }
+    
     // ==================== GESTIÓN DE IMÁGENES ====================
     
     /**
-     * Subir imagen a un producto existente
+     * Subir imagen a un producto existente (asíncrono)
      * POST /api/products/{id}/upload-image
      * Content-Type: multipart/form-data
      * Parámetros:
      * - id: ID del producto
      * - file: archivo de imagen (JPEG, PNG, GIF, WebP, máx 5MB)
-     * Retorna: ProductResponseDTO con la URL de la imagen actualizada
+     * Retorna: 202 Accepted con ImageUploadJobDTO; la URL se asigna al producto al completarse el trabajo
      */
     @PostMapping("/{id}/upload-image")
-    public ResponseEntity<ProductResponseDTO> uploadProductImage(
+    public ResponseEntity<ImageUploadJobDTO> uploadProductImage(
             @PathVariable Long id,
             @RequestParam("file") MultipartFile file) {
         
         try {
-            // Subir imagen a Cloudinary
-            String imageUrl = cloudinaryService.uploadProductImage(file);
+            // Guardar la imagen en disco y encolar la subida
+            ImageUploadJobDTO job = imageUploadService.submitProductImage(id, file);
             
-            // Actualizar producto con la nueva URL de imagen
-            ProductResponseDTO response = productService.updateProductImage(id, imageUrl);
-            
-            return ResponseEntity.ok(response);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/products/image-uploads/" + job.getJobId()))
+                    .body(job);
             
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
@@ -538,6 +657,44 @@ public class ProductController {
         }
     }
     
+    /**
+     * Consultar el estado de una subida de imagen
+     * GET /api/products/image-uploads/{jobId}
+     * Retorna: ImageUploadJobDTO con el estado (PENDING, UPLOADING, COMPLETED, FAILED) y la URL final
+     */
+    @GetMapping("/image-uploads/{jobId}")
+    public ResponseEntity<ImageUploadJobDTO> getImageUploadJob(@PathVariable String jobId) {
+        ImageUploadJobDTO response = imageUploadService.getJob(jobId);
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Obtener un derivado de la imagen de un producto, servido desde la caché en disco
+     * GET /api/products/{id}/image/{variant}
+     * Parámetros:
+     * - id: ID del producto
+     * - variant: thumbnail, card o detail
+     * Retorna: bytes de la imagen redimensionada, o 404 si el producto no tiene ese derivado
+     */
+    @GetMapping("/{id}/image/{variant}")
+    public ResponseEntity<byte[]> getProductImageVariant(@PathVariable Long id, @PathVariable String variant) {
+        ImageVariant imageVariant = parseImageVariant(variant);
+        ProductResponseDTO product = productService.getProductById(id);
+        
+        String derivativeUrl = imageVariant.urlOf(product);
+        if (derivativeUrl == null || derivativeUrl.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        byte[] content = imageDerivativeCacheService.getDerivative(derivativeUrl);
+        
+        // La URL del derivado cambia con cada subida, por lo que la respuesta puede cachearse
+        return ResponseEntity.ok()
+                .contentType(MediaTypeFactory.getMediaType(derivativeUrl).orElse(MediaType.IMAGE_JPEG))
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic())
+                .body(content);
+    }
+    
     /**
      * Eliminar imagen de un producto
      * DELETE /api/products/{id}/image
@@ -552,12 +709,15 @@ public class ProductController {
             ProductResponseDTO currentProduct = productService.getProductById(id);
             
             if (currentProduct.getImageUrl() != null && !currentProduct.getImageUrl().isEmpty()) {
-                // Extraer public ID de Cloudinary
-                String publicId = cloudinaryService.extractPublicId(currentProduct.getImageUrl());
-                
-                if (publicId != null) {
-                    // Eliminar imagen de Cloudinary
-                    cloudinaryService.deleteImage(publicId);
+                // Eliminar imagen del almacenamiento
+                imageStorageService.delete(currentProduct.getImageUrl());
+            }
+            
+            // Eliminar los derivados de la imagen
+            for (ImageVariant variant : ImageVariant.values()) {
+                String derivativeUrl = variant.urlOf(currentProduct);
+                if (derivativeUrl != null && !derivativeUrl.isEmpty()) {
+                    imageStorageService.delete(derivativeUrl);
                 }
             }
             
@@ -584,7 +744,8 @@ public class ProductController {
      * - brandId: ID de la marca
      * - unitPrice: precio unitario
      * - file: archivo de imagen (opcional)
-     * Retorna: ProductResponseDTO con el producto creado
+     * Retorna: ProductResponseDTO con el producto creado. Si se envía imagen, se sube de forma
+     * asíncrona y el ID del trabajo se informa en el header X-Image-Upload-Job-Id
      */
     @PostMapping("/with-image")
     public ResponseEntity<ProductResponseDTO> createProductWithImage(
@@ -596,11 +757,11 @@ public class ProductController {
             @RequestParam(value = "file", required = false) MultipartFile file) {
         
         try {
-            String imageUrl = null;
+            boolean hasImage = file != null && !file.isEmpty();
             
-            // Subir imagen si se proporciona
-            if (file != null && !file.isEmpty()) {
-                imageUrl = cloudinaryService.uploadProductImage(file);
+            // Validar la imagen antes de crear el producto
+            if (hasImage) {
+                imageUploadService.validateImage(file);
             }
             
             // Crear DTO de producto
@@ -610,13 +771,21 @@ public class ProductController {
                     .categoryId(categoryId)
                     .brandId(brandId)
                     .unitPrice(unitPrice)
-                    .imageUrl(imageUrl)
                     .build();
             
             // Crear producto
             ProductResponseDTO response = productService.createProduct(requestDTO);
             
-            return new ResponseEntity<>(response, HttpStatus.CREATED);
+            if (!hasImage) {
+                return new ResponseEntity<>(response, HttpStatus.CREATED);
+            }
+            
+            // Encolar la subida de la imagen
+            ImageUploadJobDTO job = imageUploadService.submitProductImage(response.getProductId(), file);
+            
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header("X-Image-Upload-Job-Id", job.getJobId())
+                    .body(response);
             
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
@@ -624,4 +793,34 @@ public class ProductController {
                     .build();
         }
     }
+    
+    // ==================== MÉTODOS AUXILIARES ====================
+    
+    /**
+     * Construye el Pageable de los listados. El tamaño de página debe ser mayor a 0:
+     * el catálogo completo solo se entrega en streaming mediante /api/products/export
+     */
+    private Pageable buildPageable(int page, int size, String sortBy, String sortDirection) {
+        if (size < 1) {
+            throw new ValidationException("El tamaño de página debe ser mayor a 0. Para obtener el catálogo completo use /api/products/export");
+        }
+        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
+        return PageRequest.of(page, size, sort);
+    }
+    
+    private ProductExportFormat parseExportFormat(String format) {
+        try {
+            return ProductExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Formato de exportación no soportado: " + format + ". Use ndjson o csv");
+        }
+    }
+    
+    private ImageVariant parseImageVariant(String variant) {
+        try {
+            return ImageVariant.valueOf(variant.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Variante de imagen no soportada: " + variant + ". Use thumbnail, card o detail");
+        }
+    }
 }
@@ -0,0 +1,19 @@
+package com.microservices.dto;
+
+import com.microservices.entity.CatalogEventType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogEventDTO {
+    
+    private Long offset;                 // Posición en el stream; se usa para reanudar (Last-Event-ID)
+    private CatalogEventType type;
+    private Long productId;
+    private ProductResponseDTO product;  // Estado del producto tras el cambio; null en PRODUCT_DELETED
+    private LocalDateTime occurredAt;
+}
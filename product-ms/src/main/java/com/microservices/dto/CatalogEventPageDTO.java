@@ -0,0 +1,18 @@
+package com.microservices.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogEventPageDTO {
+    
+    private List<CatalogEventDTO> events;
+    private Long nextOffset;     // Offset a enviar en la siguiente consulta
+    private Long oldestOffset;   // Evento más antiguo conservado (null si no hay eventos)
+    private long purgedOffset;   // Mayor offset purgado (0 si nunca se purgó); se reanuda desde aquí tras un reset
+    private boolean reset;       // true si el offset pedido ya fue purgado: el consumidor debe resincronizar
+}
@@ -0,0 +1,14 @@
+package com.microservices.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacetCountDTO {
+    
+    private String value;   // ID de categoría/marca o nombre del estado
+    private String label;   // Nombre para mostrar
+    private long count;
+}
@@ -0,0 +1,23 @@
+package com.microservices.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacetedSearchResponseDTO {
+    
+    private List<ProductResponseDTO> content;   // Página solicitada de resultados
+    private int page;
+    private int size;
+    private long totalElements;
+    
+    // Conteos de la búsqueda actual
+    private List<FacetCountDTO> categories;
+    private List<FacetCountDTO> brands;
+    private List<FacetCountDTO> statuses;
+    private List<PriceBucketDTO> priceBuckets;
+}
@@ -0,0 +1,22 @@
+package com.microservices.dto;
+
+import com.microservices.entity.ImageUploadStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImageUploadJobDTO {
+    
+    private String jobId;
+    private Long productId;
+    private ImageUploadStatus status;
+    private int attempts;
+    private String imageUrl;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
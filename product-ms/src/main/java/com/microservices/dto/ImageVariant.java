@@ -0,0 +1,30 @@
+package com.microservices.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ImageVariant {
+    // Tamaños derivados de la imagen de un producto (caja máxima, se conserva la proporción)
+
+    THUMBNAIL(150, 150),
+    CARD(400, 400),
+    DETAIL(1024, 1024);
+
+    private final int maxWidth;
+    private final int maxHeight;
+
+    /**
+     * Obtiene la URL de este derivado en un producto
+     * @param product producto
+     * @return URL del derivado o null si el producto no lo tiene
+     */
+    public String urlOf(ProductResponseDTO product) {
+        return switch (this) {
+            case THUMBNAIL -> product.getThumbnailUrl();
+            case CARD -> product.getCardImageUrl();
+            case DETAIL -> product.getDetailImageUrl();
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package com.microservices.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceBucketDTO {
+    
+    private BigDecimal minPrice;   // Inclusivo; null en el primer tramo
+    private BigDecimal maxPrice;   // Exclusivo; null en el último tramo
+    private long count;            // Productos activos en el tramo
+}
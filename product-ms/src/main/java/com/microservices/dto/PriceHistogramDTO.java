@@ -0,0 +1,19 @@
+package com.microservices.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceHistogramDTO {
+    
+    private Long categoryId;
+    private Long brandId;
+    private long totalCount;
+    private List<PriceBucketDTO> buckets;
+    private long version;       // Versión del catálogo con la que se calculó el histograma
+    private long computedAt;    // Instante del cálculo (ms)
+}
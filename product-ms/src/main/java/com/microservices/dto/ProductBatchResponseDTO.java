@@ -0,0 +1,15 @@
+package com.microservices.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductBatchResponseDTO {
+    
+    private List<ProductResponseDTO> products;   // En el mismo orden de los IDs solicitados
+    private List<Long> missingIds;               // IDs que no corresponden a ningún producto
+}
@@ -0,0 +1,14 @@
+package com.microservices.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportErrorDTO {
+    
+    private int row;          // Número de fila dentro del archivo (la primera fila de datos es 1)
+    private String name;      // Nombre del producto de la fila, si se pudo leer
+    private String message;
+}
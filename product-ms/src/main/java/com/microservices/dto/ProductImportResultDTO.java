@@ -0,0 +1,18 @@
+package com.microservices.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportResultDTO {
+    
+    private int totalRows;
+    private int importedCount;
+    private int failedCount;
+    private long durationMs;
+    private List<ProductImportErrorDTO> errors;
+}
@@ -18,6 +18,9 @@ public class ProductResponseDTO {
     private String categoryName;
     private BigDecimal unitPrice;
     private String imageUrl;
+    private String thumbnailUrl;
+    private String cardImageUrl;
+    private String detailImageUrl;
     private Long brandId;
     private String brandName;
     private ProductStatus status;
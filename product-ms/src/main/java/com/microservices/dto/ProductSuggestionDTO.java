@@ -0,0 +1,13 @@
+package com.microservices.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSuggestionDTO {
+    
+    private Long productId;
+    private String name;
+}
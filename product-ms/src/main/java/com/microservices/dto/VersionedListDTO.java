@@ -0,0 +1,16 @@
+package com.microservices.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VersionedListDTO<T> {
+    
+    private List<T> items;
+    private String version;       // Cambia cuando cambia el contenido; se usa como ETag
+    private long lastModified;    // Último cambio del catálogo (ms); se usa como Last-Modified
+}
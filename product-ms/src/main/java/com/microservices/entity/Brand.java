@@ -3,10 +3,14 @@ package com.microservices.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "brand")
 @Table(name = "brands",
        uniqueConstraints = {
            @UniqueConstraint(columnNames = "nombre_marca")
@@ -0,0 +1,10 @@
+package com.microservices.entity;
+
+public enum CatalogEventType {
+    PRODUCT_CREATED,       // Producto creado (alta individual o importación)
+    PRODUCT_UPDATED,       // Datos del producto modificados
+    PRODUCT_ACTIVATED,     // Producto activado
+    PRODUCT_DEACTIVATED,   // Producto desactivado
+    PRODUCT_IMAGE_UPDATED, // Imagen principal o derivados cambiados
+    PRODUCT_DELETED        // Producto eliminado (sin datos del producto)
+}
@@ -0,0 +1,28 @@
+package com.microservices.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "catalog_outbox_cursors")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = {"consumerName"})
+@ToString
+public class CatalogOutboxCursor {
+    // Último offset entregado a cada adaptador de broker, para reanudar tras un reinicio
+
+    @Id
+    @Column(name = "consumer_name", length = 100)
+    private String consumerName;
+
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
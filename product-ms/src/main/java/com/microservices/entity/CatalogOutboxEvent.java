@@ -0,0 +1,46 @@
+package com.microservices.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "catalog_outbox",
+       indexes = {
+           @Index(name = "idx_catalog_outbox_created_at", columnList = "created_at")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = {"eventId"})
+@ToString(exclude = {"payload"})
+public class CatalogOutboxEvent {
+    // Evento del catálogo escrito en la misma transacción que el cambio; su ID es el offset del stream
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private CatalogEventType eventType;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "payload", columnDefinition = "TEXT")
+    private String payload; // ProductResponseDTO en JSON; null en eliminaciones
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.microservices.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "catalog_outbox_watermark")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = {"watermarkId"})
+@ToString
+public class CatalogOutboxWatermark {
+    // Fila única con el mayor event_id purgado: todos los eventos hasta él ya no existen,
+    // aunque el outbox haya quedado vacío tras la purga
+
+    public static final int SINGLETON_ID = 1;
+
+    @Id
+    @Column(name = "watermark_id")
+    private Integer watermarkId;
+
+    @Column(name = "max_purged_event_id", nullable = false)
+    private Long maxPurgedEventId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,69 @@
+package com.microservices.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "image_upload_jobs",
+       indexes = {
+           @Index(name = "idx_image_upload_jobs_status", columnList = "status")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = {"jobId"})
+@ToString
+public class ImageUploadJob {
+    // Trabajo de subida de imagen persistido para poder reanudarlo tras un reinicio
+
+    @Id
+    @Column(name = "job_id", length = 36)
+    private String jobId; // UUID generado al encolar el trabajo
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "spool_path", nullable = false, length = 500)
+    private String spoolPath; // Archivo local donde se guardó la imagen recibida
+
+    @Column(name = "original_filename", length = 255)
+    private String originalFilename;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private ImageUploadStatus status = ImageUploadStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "image_url", length = 500)
+    private String imageUrl; // URL final una vez subida
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,25 @@
+package com.microservices.entity;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ImageUploadStatus {
+    // Estados de un trabajo de subida de imagen
+
+    PENDING("Pendiente"),
+    UPLOADING("Subiendo"),
+    COMPLETED("Completado"),
+    FAILED("Fallido");
+
+    private final String displayName;
+
+    /**
+     * Verifica si el trabajo ya terminó (con éxito o con error)
+     * @return true si está COMPLETED o FAILED
+     */
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
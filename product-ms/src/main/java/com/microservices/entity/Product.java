@@ -3,13 +3,24 @@ package com.microservices.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
 @Table(name = "products",
        uniqueConstraints = {
            @UniqueConstraint(columnNames = "product_id")
+       },
+       indexes = {
+           // Filtros por precio: solos o combinados con categoría / marca (igualdad primero, rango al final)
+           @Index(name = "idx_products_unit_price", columnList = "unit_price"),
+           @Index(name = "idx_products_category_price", columnList = "category_id, unit_price"),
+           @Index(name = "idx_products_brand_price", columnList = "brand_id, unit_price"),
+           @Index(name = "idx_products_category_brand_price", columnList = "category_id, brand_id, unit_price")
        })
 @Data
 @NoArgsConstructor
@@ -50,6 +61,18 @@ public class Product {
     @Pattern(regexp = "^(https?://.*|)$", message = "La URL de la imagen debe ser válida o estar vacía")
     private String imageUrl; // URL del link firmado de la imagen
 
+    @Column(name = "thumbnail_url", length = 500)
+    @Size(max = 500, message = "La URL de la miniatura no puede exceder 500 caracteres")
+    private String thumbnailUrl; // Derivado THUMBNAIL generado al subir la imagen
+
+    @Column(name = "card_image_url", length = 500)
+    @Size(max = 500, message = "La URL de la imagen de tarjeta no puede exceder 500 caracteres")
+    private String cardImageUrl; // Derivado CARD generado al subir la imagen
+
+    @Column(name = "detail_image_url", length = 500)
+    @Size(max = 500, message = "La URL de la imagen de detalle no puede exceder 500 caracteres")
+    private String detailImageUrl; // Derivado DETAIL generado al subir la imagen
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "brand_id", nullable = false)
     @NotNull(message = "La marca es obligatoria")
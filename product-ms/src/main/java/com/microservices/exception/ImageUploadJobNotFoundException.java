@@ -0,0 +1,12 @@
+package com.microservices.exception;
+
+public class ImageUploadJobNotFoundException extends RuntimeException {
+    
+    public ImageUploadJobNotFoundException(String message) {
+        super(message);
+    }
+    
+    public ImageUploadJobNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
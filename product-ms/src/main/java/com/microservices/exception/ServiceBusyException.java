@@ -0,0 +1,22 @@
+package com.microservices.exception;
+
+/**
+ * Excepción lanzada cuando un recurso acotado está saturado y la petición debe reintentarse más tarde
+ */
+public class ServiceBusyException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+    
+    public static ServiceBusyException exportPoolSaturated() {
+        return new ServiceBusyException("Demasiadas exportaciones en curso. Intente nuevamente en unos segundos.", 5);
+    }
+}
@@ -1,7 +1,10 @@
 package com.microservices.repository;
 
 import com.microservices.entity.Brand;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,12 +14,14 @@ import java.util.Optional;
 public interface BrandRepository extends JpaRepository<Brand, Long> {
     
     // Buscar por nombre
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Brand> findByNombreMarca(String nombreMarca);
     
     // Verificar si existe una marca con el mismo nombre
     boolean existsByNombreMarca(String nombreMarca);
     
     // Buscar todas las marcas ordenadas por nombre
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Brand> findAllByOrderByNombreMarcaAsc();
     
     // Buscar marcas que contengan un texto en el nombre
@@ -0,0 +1,20 @@
+package com.microservices.repository;
+
+import com.microservices.entity.CatalogOutboxCursor;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CatalogOutboxCursorRepository extends JpaRepository<CatalogOutboxCursor, String> {
+    
+    // Bloquea el offset de un adaptador; si otra instancia lo tiene bloqueado no devuelve nada (SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    Optional<CatalogOutboxCursor> findLockedByConsumerName(String consumerName);
+}
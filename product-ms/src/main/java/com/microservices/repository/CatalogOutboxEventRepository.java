@@ -0,0 +1,35 @@
+package com.microservices.repository;
+
+import com.microservices.entity.CatalogOutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CatalogOutboxEventRepository extends JpaRepository<CatalogOutboxEvent, Long> {
+    
+    // Eventos posteriores a un offset, en orden
+    List<CatalogOutboxEvent> findByEventIdGreaterThanOrderByEventIdAsc(Long eventId, Limit limit);
+    
+    // Offset más antiguo y más reciente conservados
+    @Query("SELECT MIN(e.eventId) FROM CatalogOutboxEvent e")
+    Long findMinEventId();
+    
+    @Query("SELECT MAX(e.eventId) FROM CatalogOutboxEvent e")
+    Long findMaxEventId();
+    
+    // Mayor offset fuera del periodo de retención
+    @Query("SELECT MAX(e.eventId) FROM CatalogOutboxEvent e WHERE e.createdAt < :before")
+    Long findMaxEventIdCreatedBefore(@Param("before") LocalDateTime before);
+    
+    // Purga de un prefijo de offsets: todo lo anterior a la marca de purga deja de existir
+    @Modifying
+    @Query("DELETE FROM CatalogOutboxEvent e WHERE e.eventId <= :eventId")
+    int deleteByEventIdLessThanEqual(@Param("eventId") Long eventId);
+}
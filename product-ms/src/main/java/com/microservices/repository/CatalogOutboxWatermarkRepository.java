@@ -0,0 +1,17 @@
+package com.microservices.repository;
+
+import com.microservices.entity.CatalogOutboxWatermark;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CatalogOutboxWatermarkRepository extends JpaRepository<CatalogOutboxWatermark, Integer> {
+    
+    // Bloquea la marca durante la purga, para que dos instancias no la hagan retroceder
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<CatalogOutboxWatermark> findLockedByWatermarkId(Integer watermarkId);
+}
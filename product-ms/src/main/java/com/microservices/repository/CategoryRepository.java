@@ -1,7 +1,10 @@
 package com.microservices.repository;
 
 import com.microservices.entity.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,12 +14,14 @@ import java.util.Optional;
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     
     // Buscar por nombre
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Category> findByNombreCategoria(String nombreCategoria);
     
     // Verificar si existe una categoría con el mismo nombre
     boolean existsByNombreCategoria(String nombreCategoria);
     
     // Buscar todas las categorías ordenadas por nombre
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Category> findAllByOrderByNombreCategoriaAsc();
     
     // Buscar categorías que contengan un texto en el nombre
@@ -0,0 +1,38 @@
+package com.microservices.repository;
+
+import com.microservices.entity.ImageUploadJob;
+import com.microservices.entity.ImageUploadStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImageUploadJobRepository extends JpaRepository<ImageUploadJob, String> {
+    
+    // Buscar trabajos por estado (para reanudar pendientes)
+    List<ImageUploadJob> findByStatusIn(Collection<ImageUploadStatus> statuses);
+    
+    // Buscar trabajos sin avance desde una fecha (pendientes rechazados o interrumpidos)
+    List<ImageUploadJob> findByStatusInAndUpdatedAtBefore(Collection<ImageUploadStatus> statuses, LocalDateTime updatedAt);
+    
+    // Reclamar un trabajo pendiente: solo una instancia obtiene 1 fila actualizada
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImageUploadJob j SET j.status = com.microservices.entity.ImageUploadStatus.UPLOADING, j.updatedAt = :now " +
+           "WHERE j.jobId = :jobId AND j.status = com.microservices.entity.ImageUploadStatus.PENDING")
+    int claim(@Param("jobId") String jobId, @Param("now") LocalDateTime now);
+    
+    // Devolver a PENDING los trabajos en UPLOADING sin avance desde una fecha (instancia caída)
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImageUploadJob j SET j.status = com.microservices.entity.ImageUploadStatus.PENDING " +
+           "WHERE j.status = com.microservices.entity.ImageUploadStatus.UPLOADING AND j.updatedAt < :before")
+    int requeueStale(@Param("before") LocalDateTime before);
+}
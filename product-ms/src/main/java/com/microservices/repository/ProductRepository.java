@@ -4,20 +4,29 @@ import com.microservices.entity.Product;
 import com.microservices.entity.ProductStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     
+    // Búsqueda por lote de IDs con categoría y marca en la misma consulta
+    @Query("SELECT p FROM Product p JOIN FETCH p.category JOIN FETCH p.brand WHERE p.productId IN :ids")
+    List<Product> findAllWithCategoryAndBrandByIdIn(@Param("ids") Collection<Long> ids);
+    
     // Buscar por estado
     List<Product> findByStatus(ProductStatus status);
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Page<Product> findByStatus(ProductStatus status, Pageable pageable);
     
     // Buscar por categoría
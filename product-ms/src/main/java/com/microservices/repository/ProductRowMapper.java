@@ -0,0 +1,43 @@
+package com.microservices.repository;
+
+import com.microservices.dto.ProductResponseDTO;
+import com.microservices.entity.ProductStatus;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Mapea filas de SELECT_PRODUCTS a ProductResponseDTO, para las consultas JDBC
+ * que no pasan por JPA (exportación y búsqueda con facetas)
+ */
+public class ProductRowMapper implements RowMapper<ProductResponseDTO> {
+
+    public static final ProductRowMapper INSTANCE = new ProductRowMapper();
+
+    public static final String SELECT_PRODUCTS =
+            "SELECT p.product_id, p.name, p.description, p.category_id, c.nombre_categoria, p.unit_price, " +
+            "p.image_url, p.thumbnail_url, p.card_image_url, p.detail_image_url, p.brand_id, b.nombre_marca, p.status " +
+            "FROM products p " +
+            "JOIN categories c ON c.idcategoria = p.category_id " +
+            "JOIN brands b ON b.marcaid = p.brand_id";
+
+    @Override
+    public ProductResponseDTO mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return ProductResponseDTO.builder()
+                .productId(rs.getLong("product_id"))
+                .name(rs.getString("name"))
+                .description(rs.getString("description"))
+                .categoryId(rs.getLong("category_id"))
+                .categoryName(rs.getString("nombre_categoria"))
+                .unitPrice(rs.getBigDecimal("unit_price"))
+                .imageUrl(rs.getString("image_url"))
+                .thumbnailUrl(rs.getString("thumbnail_url"))
+                .cardImageUrl(rs.getString("card_image_url"))
+                .detailImageUrl(rs.getString("detail_image_url"))
+                .brandId(rs.getLong("brand_id"))
+                .brandName(rs.getString("nombre_marca"))
+                .status(ProductStatus.valueOf(rs.getString("status")))
+                .build();
+    }
+}
@@ -2,6 +2,7 @@ package com.microservices.service;
 
 import com.microservices.dto.BrandRequestDTO;
 import com.microservices.dto.BrandResponseDTO;
+import com.microservices.dto.VersionedListDTO;
 import com.microservices.entity.Brand;
 
 import java.util.List;
@@ -11,6 +12,7 @@ public interface BrandService {
     BrandResponseDTO createBrand(BrandRequestDTO requestDTO);
     BrandResponseDTO getBrandById(Long id);
     List<BrandResponseDTO> getAllBrands();
+    VersionedListDTO<BrandResponseDTO> getAllBrandsVersioned();
     BrandResponseDTO updateBrand(Long id, BrandRequestDTO requestDTO);
     void deleteBrand(Long id);
     
@@ -0,0 +1,23 @@
+package com.microservices.service;
+
+import com.microservices.dto.CatalogEventDTO;
+
+import java.util.List;
+
+/**
+ * Adaptador hacia un broker de mensajería (Kafka, RabbitMQ, ...). Cada bean que implemente
+ * esta interfaz recibe todos los eventos en orden, al menos una vez: su offset se guarda
+ * después de que publish retorna sin error.
+ */
+public interface CatalogEventPublisher {
+    
+    /**
+     * @return nombre único del adaptador; identifica su offset guardado
+     */
+    String getName();
+    
+    /**
+     * Publica un lote de eventos consecutivos. Si lanza una excepción el lote se reintenta.
+     */
+    void publish(List<CatalogEventDTO> events);
+}
@@ -0,0 +1,39 @@
+package com.microservices.service;
+
+import com.microservices.dto.CatalogEventPageDTO;
+import com.microservices.dto.ProductResponseDTO;
+import com.microservices.entity.CatalogEventType;
+
+import java.util.List;
+
+/**
+ * Outbox transaccional de cambios del catálogo
+ */
+public interface CatalogEventService {
+    
+    /**
+     * Registra un evento en la transacción en curso; se publica solo si esa transacción confirma
+     * @param type tipo de cambio
+     * @param productId producto afectado
+     * @param product estado del producto tras el cambio (null en eliminaciones)
+     */
+    void record(CatalogEventType type, Long productId, ProductResponseDTO product);
+    
+    /**
+     * Registra un evento del mismo tipo por cada producto, en la transacción en curso
+     */
+    void recordAll(CatalogEventType type, List<ProductResponseDTO> products);
+    
+    /**
+     * Lee los eventos posteriores a un offset
+     * @param offset último offset procesado por el consumidor (0 para empezar por el más antiguo conservado)
+     * @param limit máximo de eventos a devolver
+     * @return eventos en orden, siguiente offset y si el consumidor debe resincronizar
+     */
+    CatalogEventPageDTO getEventsSince(long offset, int limit);
+    
+    /**
+     * @return offset del último evento registrado (0 si no hay eventos)
+     */
+    long getLatestOffset();
+}
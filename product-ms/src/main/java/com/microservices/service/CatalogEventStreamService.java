@@ -0,0 +1,22 @@
+package com.microservices.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Entrega de los eventos del catálogo a suscriptores SSE y adaptadores de broker
+ */
+public interface CatalogEventStreamService {
+    
+    /**
+     * Abre una suscripción SSE. Cada evento lleva su offset como id, de modo que el cliente
+     * reanuda enviando Last-Event-ID al reconectar.
+     * @param since último offset recibido; null para recibir solo eventos nuevos
+     * @return emisor SSE de la suscripción
+     */
+    SseEmitter subscribe(Long since);
+    
+    /**
+     * Entrega los eventos pendientes a suscriptores y adaptadores
+     */
+    void dispatch();
+}
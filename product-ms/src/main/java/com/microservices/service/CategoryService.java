@@ -2,6 +2,7 @@ package com.microservices.service;
 
 import com.microservices.dto.CategoryRequestDTO;
 import com.microservices.dto.CategoryResponseDTO;
+import com.microservices.dto.VersionedListDTO;
 import com.microservices.entity.Category;
 
 import java.util.List;
@@ -11,6 +12,7 @@ public interface CategoryService {
     CategoryResponseDTO createCategory(CategoryRequestDTO requestDTO);
     CategoryResponseDTO getCategoryById(Long id);
     List<CategoryResponseDTO> getAllCategories();
+    VersionedListDTO<CategoryResponseDTO> getAllCategoriesVersioned();
     CategoryResponseDTO updateCategory(Long id, CategoryRequestDTO requestDTO);
     void deleteCategory(Long id);
     
@@ -2,6 +2,8 @@ package com.microservices.service;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.File;
+
 /**
  * Servicio para manejo de imágenes con Cloudinary
  */
@@ -16,6 +18,15 @@ public interface CloudinaryService {
      */
     String uploadImage(MultipartFile file, String folder);
     
+    /**
+     * Sube una imagen a Cloudinary leyéndola desde un archivo local (streaming, sin cargarla en memoria)
+     * @param file archivo local de imagen ya validado
+     * @param folder carpeta donde se almacenará la imagen
+     * @return URL pública de la imagen subida
+     * @throws RuntimeException si ocurre un error durante la subida
+     */
+    String uploadImage(File file, String folder);
+    
     /**
      * Sube una imagen a Cloudinary en la carpeta de productos
      * @param file archivo de imagen a subir
@@ -0,0 +1,15 @@
+package com.microservices.service;
+
+/**
+ * Caché en disco (LRU por bytes) de los derivados de imágenes más solicitados
+ */
+public interface ImageDerivativeCacheService {
+    
+    /**
+     * Obtiene el contenido de un derivado desde la caché local, descargándolo si no está
+     * @param imageUrl URL pública del derivado en el almacenamiento
+     * @return contenido del derivado
+     * @throws RuntimeException si no se puede descargar el derivado
+     */
+    byte[] getDerivative(String imageUrl);
+}
@@ -0,0 +1,30 @@
+package com.microservices.service;
+
+import com.microservices.dto.ImageVariant;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Servicio de generación de derivados de imágenes (miniatura, tarjeta y detalle)
+ */
+public interface ImageProcessingService {
+    
+    /**
+     * Derivado generado en un archivo temporal
+     * @param variant tamaño del derivado
+     * @param file archivo temporal con la imagen redimensionada
+     * @param contentType tipo MIME del derivado
+     */
+    record ImageDerivative(ImageVariant variant, Path file, String contentType) {
+    }
+    
+    /**
+     * Genera todos los derivados de una imagen decodificándola una sola vez.
+     * El llamador es responsable de eliminar los archivos temporales generados.
+     * @param source archivo con la imagen original
+     * @return derivados generados, uno por cada ImageVariant
+     * @throws RuntimeException si la imagen no se puede decodificar o procesar
+     */
+    List<ImageDerivative> generateDerivatives(Path source);
+}
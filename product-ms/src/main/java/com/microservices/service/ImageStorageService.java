@@ -0,0 +1,27 @@
+package com.microservices.service;
+
+import java.nio.file.Path;
+
+/**
+ * Abstracción del almacenamiento de imágenes (Cloudinary, sistema de archivos local, etc.)
+ * Se selecciona con la propiedad image.storage.type
+ */
+public interface ImageStorageService {
+    
+    /**
+     * Almacena una imagen leyéndola desde un archivo local (sin cargarla completa en memoria)
+     * @param file archivo local con la imagen
+     * @param folder carpeta lógica de destino
+     * @param contentType tipo MIME de la imagen
+     * @return URL pública de la imagen almacenada
+     * @throws RuntimeException si ocurre un error durante el almacenamiento
+     */
+    String store(Path file, String folder, String contentType);
+    
+    /**
+     * Elimina una imagen a partir de su URL pública
+     * @param imageUrl URL pública de la imagen
+     * @return true si se eliminó correctamente, false en caso contrario
+     */
+    boolean delete(String imageUrl);
+}
@@ -0,0 +1,34 @@
+package com.microservices.service;
+
+import com.microservices.dto.ImageUploadJobDTO;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Servicio de subida asíncrona de imágenes de productos.
+ * La imagen se guarda en un archivo temporal local, se registra un trabajo persistido
+ * y un pool acotado de workers la sube al almacenamiento con reintentos.
+ */
+public interface ImageUploadService {
+    
+    /**
+     * Valida que el archivo sea una imagen permitida (tipo y tamaño)
+     * @param file archivo recibido
+     * @throws com.microservices.exception.ValidationException si el archivo no es válido
+     */
+    void validateImage(MultipartFile file);
+    
+    /**
+     * Encola la subida de la imagen de un producto
+     * @param productId ID del producto
+     * @param file archivo de imagen recibido
+     * @return trabajo creado (estado PENDING)
+     */
+    ImageUploadJobDTO submitProductImage(Long productId, MultipartFile file);
+    
+    /**
+     * Obtiene el estado de un trabajo de subida
+     * @param jobId ID del trabajo
+     * @return estado actual del trabajo
+     */
+    ImageUploadJobDTO getJob(String jobId);
+}
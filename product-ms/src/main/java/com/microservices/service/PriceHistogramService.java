@@ -0,0 +1,22 @@
+package com.microservices.service;
+
+import com.microservices.dto.PriceHistogramDTO;
+
+/**
+ * Servicio de histogramas de precios precalculados por categoría y marca
+ */
+public interface PriceHistogramService {
+    
+    /**
+     * Obtiene los conteos por tramo de precio de los productos activos, sin consultar la tabla de productos
+     * @param categoryId filtro opcional por categoría
+     * @param brandId filtro opcional por marca
+     * @return histograma con un conteo por cada tramo configurado
+     */
+    PriceHistogramDTO getPriceHistogram(Long categoryId, Long brandId);
+    
+    /**
+     * Recalcula el histograma si el catálogo cambió desde el último cálculo
+     */
+    void refreshIfChanged();
+}
@@ -0,0 +1,25 @@
+package com.microservices.service;
+
+import com.microservices.dto.ProductExportFormat;
+import com.microservices.entity.ProductStatus;
+
+import java.io.OutputStream;
+
+/**
+ * Servicio de exportación masiva del catálogo de productos
+ */
+public interface ProductExportService {
+
+    /**
+     * Escribe los productos que cumplan los filtros directamente en el stream de salida,
+     * leyendo desde un cursor JDBC sin materializar el catálogo completo en memoria
+     * @param format formato de salida (NDJSON o CSV)
+     * @param status estado del producto (opcional)
+     * @param categoryId ID de la categoría (opcional)
+     * @param brandId ID de la marca (opcional)
+     * @param outputStream stream donde se escriben los productos
+     * @return cantidad de productos exportados
+     */
+    long exportProducts(ProductExportFormat format, ProductStatus status, Long categoryId, Long brandId,
+                        OutputStream outputStream);
+}
@@ -0,0 +1,22 @@
+package com.microservices.service;
+
+import com.microservices.dto.FacetedSearchResponseDTO;
+import com.microservices.dto.ProductSearchDTO;
+
+/**
+ * Servicio de búsqueda con facetas del catálogo
+ */
+public interface ProductFacetService {
+    
+    /**
+     * Busca productos y calcula los conteos por categoría, marca, estado y tramo de precio
+     * @param searchDTO criterios de búsqueda (searchText, categoryId, brandId, status, minPrice, maxPrice)
+     * @param page número de página (desde 0)
+     * @param size tamaño de página
+     * @param sortBy campo de ordenamiento (name, unitPrice, productId, status)
+     * @param sortDirection asc o desc
+     * @return página de resultados junto con todas las facetas
+     * @throws com.microservices.exception.ValidationException si el orden o la paginación no son válidos
+     */
+    FacetedSearchResponseDTO search(ProductSearchDTO searchDTO, int page, int size, String sortBy, String sortDirection);
+}
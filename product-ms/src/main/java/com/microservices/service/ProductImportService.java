@@ -0,0 +1,30 @@
+package com.microservices.service;
+
+import com.microservices.dto.ProductImportResultDTO;
+import com.microservices.dto.ProductRequestDTO;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Servicio de importación masiva de productos
+ */
+public interface ProductImportService {
+    
+    /**
+     * Importa una lista de productos. Las filas inválidas se informan en el resultado
+     * sin detener la importación del resto.
+     * @param products productos a importar
+     * @return resumen de la importación con los errores por fila
+     * @throws com.microservices.exception.ValidationException si la lista supera el máximo de filas permitido
+     */
+    ProductImportResultDTO importProducts(List<ProductRequestDTO> products);
+    
+    /**
+     * Importa productos desde un CSV con cabecera name,description,categoryId,brandId,unitPrice[,imageUrl]
+     * @param inputStream contenido del CSV en UTF-8
+     * @return resumen de la importación con los errores por fila
+     * @throws com.microservices.exception.ValidationException si la cabecera es inválida o se supera el máximo de filas
+     */
+    ProductImportResultDTO importCsv(InputStream inputStream);
+}
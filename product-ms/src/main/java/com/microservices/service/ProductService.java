@@ -8,12 +8,14 @@ import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 public interface ProductService {
     
     // CRUD básico
     ProductResponseDTO createProduct(ProductRequestDTO requestDTO);
     ProductResponseDTO getProductById(Long id);
+    ProductBatchResponseDTO getProductsByIds(List<Long> ids);
     List<ProductResponseDTO> getAllProducts();
     Page<ProductResponseDTO> getAllProducts(Pageable pageable);
     ProductResponseDTO updateProduct(Long id, ProductUpdateDTO updateDTO);
@@ -63,4 +65,5 @@ public interface ProductService {
     
     // Gestión de imágenes
     ProductResponseDTO updateProductImage(Long id, String imageUrl);
+    ProductResponseDTO updateProductImages(Long id, String imageUrl, Map<ImageVariant, String> derivativeUrls);
 }
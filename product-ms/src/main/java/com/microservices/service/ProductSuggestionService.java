@@ -0,0 +1,26 @@
+package com.microservices.service;
+
+import com.microservices.dto.ProductSuggestionDTO;
+
+import java.util.List;
+
+/**
+ * Servicio de sugerencias (typeahead) de nombres de productos desde un índice en memoria
+ */
+public interface ProductSuggestionService {
+    
+    /**
+     * Sugiere productos activos cuyo nombre, o alguna de sus palabras, empieza por el texto
+     * (sin distinguir mayúsculas ni acentos). No consulta la base de datos.
+     * @param query texto escrito por el usuario
+     * @param limit máximo de sugerencias
+     * @return primero los nombres que empiezan por el texto y después los que lo tienen al inicio
+     * de una palabra interior, cada grupo en orden alfabético
+     */
+    List<ProductSuggestionDTO> suggest(String query, int limit);
+    
+    /**
+     * Aplica al índice los eventos del catálogo registrados desde la última actualización
+     */
+    void refresh();
+}
@@ -1,7 +1,11 @@
 package com.microservices.service.impl;
 
+import com.microservices.cache.CatalogDictionary;
+import com.microservices.cache.CatalogVersion;
+import com.microservices.cache.ProductCache;
 import com.microservices.dto.BrandRequestDTO;
 import com.microservices.dto.BrandResponseDTO;
+import com.microservices.dto.VersionedListDTO;
 import com.microservices.entity.Brand;
 import com.microservices.exception.BrandAlreadyExistsException;
 import com.microservices.exception.BrandNotFoundException;
@@ -10,6 +14,7 @@ import com.microservices.repository.BrandRepository;
 import com.microservices.service.BrandService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -21,6 +26,9 @@ public class BrandServiceImpl implements BrandService {
     
     private final BrandRepository brandRepository;
     private final BrandMapper brandMapper;
+    private final ProductCache productCache;
+    private final CatalogDictionary catalogDictionary;
+    private final CatalogVersion catalogVersion;
     
     @Override
     public BrandResponseDTO createBrand(BrandRequestDTO requestDTO) {
@@ -31,22 +39,41 @@ public class BrandServiceImpl implements BrandService {
         
         Brand brand = brandMapper.toEntity(requestDTO);
         Brand savedBrand = brandRepository.save(brand);
+        catalogDictionary.reloadBrandsAfterCommit();
+        catalogVersion.markChanged();
         return brandMapper.toResponseDTO(savedBrand);
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public BrandResponseDTO getBrandById(Long id) {
+        BrandResponseDTO cached = catalogDictionary.brands().byId().get(id);
+        if (cached != null) {
+            return cached;
+        }
+        
+        // Puede haber sido creada en otra instancia después del último refresco
         Brand brand = brandRepository.findById(id)
                 .orElseThrow(() -> new BrandNotFoundException("Marca no encontrada con ID: " + id));
+        catalogDictionary.reloadBrands();
         return brandMapper.toResponseDTO(brand);
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<BrandResponseDTO> getAllBrands() {
-        List<Brand> brands = brandRepository.findAllByOrderByNombreMarcaAsc();
-        return brandMapper.toResponseDTOList(brands);
+        return catalogDictionary.brands().items();
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public VersionedListDTO<BrandResponseDTO> getAllBrandsVersioned() {
+        CatalogDictionary.Snapshot<BrandResponseDTO> snapshot = catalogDictionary.brands();
+        return VersionedListDTO.<BrandResponseDTO>builder()
+                .items(snapshot.items())
+                .version(snapshot.etag())
+                .lastModified(catalogVersion.lastModified())
+                .build();
     }
     
     @Override
@@ -62,6 +89,10 @@ public class BrandServiceImpl implements BrandService {
         
         brandMapper.updateEntityFromDTO(requestDTO, brand);
         Brand savedBrand = brandRepository.save(brand);
+        // Los productos en caché incluyen el nombre de la marca
+        productCache.evictAll();
+        catalogDictionary.reloadBrandsAfterCommit();
+        catalogVersion.markChanged();
         return brandMapper.toResponseDTO(savedBrand);
     }
     
@@ -70,13 +101,29 @@ public class BrandServiceImpl implements BrandService {
         Brand brand = brandRepository.findById(id)
                 .orElseThrow(() -> new BrandNotFoundException("Marca no encontrada con ID: " + id));
         brandRepository.delete(brand);
+        catalogDictionary.reloadBrandsAfterCommit();
+        catalogVersion.markChanged();
     }
     
+    /**
+     * Resuelve la marca desde el diccionario sin consultar la base. Devuelve una instancia
+     * desacoplada (solo ID y nombre), suficiente para asignar la relación de un producto.
+     */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Brand getBrandEntityById(Long id) {
-        return brandRepository.findById(id)
+        BrandResponseDTO cached = catalogDictionary.brands().byId().get(id);
+        if (cached != null) {
+            return Brand.builder()
+                    .marcaId(cached.getMarcaId())
+                    .nombreMarca(cached.getNombreMarca())
+                    .build();
+        }
+        
+        Brand brand = brandRepository.findById(id)
                 .orElseThrow(() -> new BrandNotFoundException("Marca no encontrada con ID: " + id));
+        catalogDictionary.reloadBrands();
+        return brand;
     }
 }
 
@@ -0,0 +1,205 @@
+package com.microservices.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.dto.CatalogEventDTO;
+import com.microservices.dto.CatalogEventPageDTO;
+import com.microservices.dto.ProductResponseDTO;
+import com.microservices.entity.CatalogEventType;
+import com.microservices.entity.CatalogOutboxEvent;
+import com.microservices.entity.CatalogOutboxWatermark;
+import com.microservices.exception.ValidationException;
+import com.microservices.repository.CatalogOutboxEventRepository;
+import com.microservices.repository.CatalogOutboxWatermarkRepository;
+import com.microservices.service.CatalogEventService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Slf4j
+public class CatalogEventServiceImpl implements CatalogEventService {
+
+    // Serializa las escrituras al outbox hasta el commit: los IDs quedan en orden de commit
+    // y un consumidor que lee "event_id > offset" nunca salta un evento confirmado más tarde
+    private static final long OUTBOX_LOCK_KEY = 0x43415441L;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO catalog_outbox (event_type, product_id, payload, created_at) VALUES (?, ?, ?, ?)";
+
+    private final CatalogOutboxEventRepository outboxRepository;
+    private final CatalogOutboxWatermarkRepository watermarkRepository;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxPageSize;
+    private final long retentionHours;
+
+    public CatalogEventServiceImpl(DataSource dataSource,
+                                   CatalogOutboxEventRepository outboxRepository,
+                                   CatalogOutboxWatermarkRepository watermarkRepository,
+                                   ObjectMapper objectMapper,
+                                   @Value("${catalog.events.max-page-size:1000}") int maxPageSize,
+                                   @Value("${catalog.events.retention-hours:72}") long retentionHours) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.outboxRepository = outboxRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+        this.retentionHours = retentionHours;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(CatalogEventType type, Long productId, ProductResponseDTO product) {
+        lockOutbox();
+        outboxRepository.save(CatalogOutboxEvent.builder()
+                .eventType(type)
+                .productId(productId)
+                .payload(product != null ? toJson(product) : null)
+                .build());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(CatalogEventType type, List<ProductResponseDTO> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        lockOutbox();
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(products.size());
+        for (ProductResponseDTO product : products) {
+            args.add(new Object[]{type.name(), product.getProductId(), toJson(product), now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, args, new int[]{Types.VARCHAR, Types.BIGINT, Types.VARCHAR, Types.TIMESTAMP});
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CatalogEventPageDTO getEventsSince(long offset, int limit) {
+        if (offset < 0) {
+            throw new ValidationException("El offset no puede ser negativo");
+        }
+        if (limit < 1 || limit > maxPageSize) {
+            throw new ValidationException("El límite debe estar entre 1 y " + maxPageSize);
+        }
+
+        long purged = watermarkRepository.findById(CatalogOutboxWatermark.SINGLETON_ID)
+                .map(CatalogOutboxWatermark::getMaxPurgedEventId)
+                .orElse(0L);
+        Long oldest = outboxRepository.findMinEventId();
+        List<CatalogEventDTO> events = outboxRepository
+                .findByEventIdGreaterThanOrderByEventIdAsc(offset, Limit.of(limit))
+                .stream()
+                .map(this::toDTO)
+                .toList();
+
+        return CatalogEventPageDTO.builder()
+                .events(events)
+                .nextOffset(events.isEmpty() ? offset : events.get(events.size() - 1).getOffset())
+                .oldestOffset(oldest)
+                .purgedOffset(purged)
+                .reset(isPurged(offset, oldest, purged))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getLatestOffset() {
+        Long latest = outboxRepository.findMaxEventId();
+        return latest != null ? latest : 0L;
+    }
+
+    /**
+     * Elimina los eventos fuera del periodo de retención y guarda el mayor offset purgado.
+     * Un consumidor que vuelva con un offset purgado recibe reset=true y debe recargar el catálogo
+     * completo, también cuando la purga dejó el outbox vacío y ya no hay un evento más antiguo.
+     */
+    @Scheduled(fixedDelayString = "${catalog.events.purge-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        Long maxExpired = outboxRepository.findMaxEventIdCreatedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (maxExpired == null) {
+            return;
+        }
+
+        CatalogOutboxWatermark watermark = watermarkRepository.findLockedByWatermarkId(CatalogOutboxWatermark.SINGLETON_ID)
+                .orElseGet(() -> CatalogOutboxWatermark.builder()
+                        .watermarkId(CatalogOutboxWatermark.SINGLETON_ID)
+                        .maxPurgedEventId(0L)
+                        .build());
+        if (maxExpired > watermark.getMaxPurgedEventId()) {
+            watermark.setMaxPurgedEventId(maxExpired);
+        }
+        watermark.setUpdatedAt(LocalDateTime.now());
+        watermarkRepository.save(watermark);
+
+        // Se purga un prefijo de offsets, así la marca cubre exactamente los eventos eliminados
+        int deleted = outboxRepository.deleteByEventIdLessThanEqual(watermark.getMaxPurgedEventId());
+        if (deleted > 0) {
+            log.info("Eventos del catálogo purgados: {} (hasta el offset {})", deleted, watermark.getMaxPurgedEventId());
+        }
+    }
+
+    /**
+     * Un offset 0 significa "desde el más antiguo conservado"; cualquier otro offset anterior a la
+     * marca de purga (o al más antiguo conservado) indica que el consumidor perdió eventos
+     */
+    static boolean isPurged(long offset, Long oldest, long purged) {
+        if (offset <= 0) {
+            return false;
+        }
+        return offset < purged || (oldest != null && offset < oldest - 1);
+    }
+
+    /**
+     * Offset desde el que sigue un consumidor tras recargar el catálogo por un reset
+     */
+    static long resumeOffset(Long oldest, long purged) {
+        return oldest != null ? Math.max(purged, oldest - 1) : purged;
+    }
+
+    private void lockOutbox() {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", (ResultSetExtractor<Void>) rs -> null, OUTBOX_LOCK_KEY);
+    }
+
+    private CatalogEventDTO toDTO(CatalogOutboxEvent event) {
+        return CatalogEventDTO.builder()
+                .offset(event.getEventId())
+                .type(event.getEventType())
+                .productId(event.getProductId())
+                .product(event.getPayload() != null ? fromJson(event.getPayload()) : null)
+                .occurredAt(event.getCreatedAt())
+                .build();
+    }
+
+    private String toJson(ProductResponseDTO product) {
+        try {
+            return objectMapper.writeValueAsString(product);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento del producto " + product.getProductId(), e);
+        }
+    }
+
+    private ProductResponseDTO fromJson(String payload) {
+        try {
+            return objectMapper.readValue(payload, ProductResponseDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo leer el evento del catálogo", e);
+        }
+    }
+}
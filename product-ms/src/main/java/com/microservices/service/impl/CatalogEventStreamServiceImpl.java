@@ -0,0 +1,255 @@
+package com.microservices.service.impl;
+
+import com.microservices.dto.CatalogEventDTO;
+import com.microservices.dto.CatalogEventPageDTO;
+import com.microservices.entity.CatalogOutboxCursor;
+import com.microservices.repository.CatalogOutboxCursorRepository;
+import com.microservices.service.CatalogEventPublisher;
+import com.microservices.service.CatalogEventService;
+import com.microservices.service.CatalogEventStreamService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Relay del outbox del catálogo. Cada ronda lee el outbox una vez desde el offset del suscriptor
+ * más atrasado y reparte los eventos a cada suscriptor SSE; los adaptadores de broker avanzan con
+ * su propio offset persistido. La tarea programada solo lanza la ronda en el hilo dedicado del relay,
+ * de modo que un suscriptor lento no bloquea el planificador compartido.
+ */
+@Service
+@Slf4j
+public class CatalogEventStreamServiceImpl implements CatalogEventStreamService {
+
+    // Rondas de lectura por ejecución, para que un suscriptor muy atrasado no acapare el relay
+    private static final int MAX_PAGES_PER_DISPATCH = 10;
+
+    private final CatalogEventService catalogEventService;
+    private final List<CatalogEventPublisher> publishers;
+    private final CatalogOutboxCursorRepository cursorRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor relayExecutor;
+    private final AtomicBoolean relayRunning = new AtomicBoolean();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    @Value("${catalog.events.batch-size:500}")
+    private int batchSize;
+
+    @Value("${catalog.events.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${catalog.events.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    private long lastHeartbeat = System.currentTimeMillis(); // Solo lo usa el hilo del relay
+
+    public CatalogEventStreamServiceImpl(CatalogEventService catalogEventService,
+                                         List<CatalogEventPublisher> publishers,
+                                         CatalogOutboxCursorRepository cursorRepository,
+                                         PlatformTransactionManager transactionManager,
+                                         @Qualifier("catalogEventRelayExecutor") ThreadPoolTaskExecutor relayExecutor) {
+        this.catalogEventService = catalogEventService;
+        this.publishers = publishers;
+        this.cursorRepository = cursorRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.relayExecutor = relayExecutor;
+        publishers.forEach(publisher -> log.info("Adaptador de eventos del catálogo registrado: {}", publisher.getName()));
+    }
+
+    @Override
+    public SseEmitter subscribe(Long since) {
+        long offset = since != null ? since : catalogEventService.getLatestOffset();
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, offset);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> {
+            subscribers.remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        subscribers.add(subscriber);
+        log.debug("Suscriptor SSE del catálogo conectado desde el offset {} ({} activos)", offset, subscribers.size());
+        return emitter;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${catalog.events.poll-ms:500}")
+    public void dispatch() {
+        // Si la ronda anterior sigue en curso (suscriptor lento) esta se omite; la siguiente recoge lo pendiente
+        if (!relayRunning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            relayExecutor.execute(() -> {
+                try {
+                    relay();
+                } finally {
+                    relayRunning.set(false);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            relayRunning.set(false);
+            log.debug("Ronda del relay de eventos omitida: {}", e.getMessage());
+        }
+    }
+
+    private void relay() {
+        try {
+            dispatchToSubscribers();
+        } catch (RuntimeException e) {
+            log.warn("Error al entregar eventos del catálogo a suscriptores SSE: {}", e.getMessage());
+        }
+        publishers.forEach(this::dispatchToPublisher);
+    }
+
+    private void dispatchToSubscribers() {
+        boolean sent = false;
+        for (int page = 0; page < MAX_PAGES_PER_DISPATCH && !subscribers.isEmpty(); page++) {
+            long from = subscribers.stream().mapToLong(Subscriber::offset).min().orElse(0L);
+            CatalogEventPageDTO events = catalogEventService.getEventsSince(from, batchSize);
+
+            for (Subscriber subscriber : subscribers) {
+                sent |= deliver(subscriber, events);
+            }
+            if (events.getEvents().size() < batchSize) {
+                break;
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        if (sent) {
+            lastHeartbeat = now;
+        } else if (now - lastHeartbeat >= heartbeatMs) {
+            // Mantiene abiertas las conexiones a través de proxies sin tráfico
+            subscribers.forEach(subscriber -> send(subscriber, SseEmitter.event().comment("heartbeat")));
+            lastHeartbeat = now;
+        }
+    }
+
+    private boolean deliver(Subscriber subscriber, CatalogEventPageDTO page) {
+        boolean sent = false;
+        if (CatalogEventServiceImpl.isPurged(subscriber.offset(), page.getOldestOffset(), page.getPurgedOffset())) {
+            // El cliente debe recargar el catálogo completo; después sigue desde el primer evento conservado
+            long resumeFrom = CatalogEventServiceImpl.resumeOffset(page.getOldestOffset(), page.getPurgedOffset());
+            if (!send(subscriber, SseEmitter.event().name("reset").data(Map.of("offset", resumeFrom), MediaType.APPLICATION_JSON))) {
+                return false;
+            }
+            subscriber.offset(resumeFrom);
+            sent = true;
+        }
+
+        for (CatalogEventDTO event : page.getEvents()) {
+            if (event.getOffset() <= subscriber.offset()) {
+                continue;
+            }
+            SseEmitter.SseEventBuilder sse = SseEmitter.event()
+                    .id(String.valueOf(event.getOffset()))
+                    .name(event.getType().name())
+                    .data(event, MediaType.APPLICATION_JSON);
+            if (!send(subscriber, sse)) {
+                return sent;
+            }
+            subscriber.offset(event.getOffset());
+            sent = true;
+        }
+        return sent;
+    }
+
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter().send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Suscriptor SSE del catálogo desconectado: {}", e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.emitter().completeWithError(e);
+            return false;
+        }
+    }
+
+    /**
+     * Entrega un lote al adaptador con su offset bloqueado (SKIP LOCKED): con varias instancias
+     * solo una publica a la vez y el offset avanza en la misma transacción
+     */
+    private void dispatchToPublisher(CatalogEventPublisher publisher) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Optional<CatalogOutboxCursor> locked = cursorRepository.findLockedByConsumerName(publisher.getName());
+                if (locked.isEmpty()) {
+                    if (!cursorRepository.existsById(publisher.getName())) {
+                        cursorRepository.save(CatalogOutboxCursor.builder()
+                                .consumerName(publisher.getName())
+                                .lastEventId(0L)
+                                .updatedAt(LocalDateTime.now())
+                                .build());
+                    }
+                    return;
+                }
+
+                CatalogOutboxCursor cursor = locked.get();
+                CatalogEventPageDTO page = catalogEventService.getEventsSince(cursor.getLastEventId(), batchSize);
+                if (page.isReset()) {
+                    long resumeFrom = CatalogEventServiceImpl.resumeOffset(page.getOldestOffset(), page.getPurgedOffset());
+                    log.warn("El adaptador {} perdió eventos purgados hasta el offset {}", publisher.getName(), resumeFrom);
+                    // Sin esto, con el outbox vacío el offset quedaría atascado y el aviso se repetiría en cada ronda
+                    cursor.setLastEventId(resumeFrom);
+                    cursor.setUpdatedAt(LocalDateTime.now());
+                }
+                if (page.getEvents().isEmpty()) {
+                    return;
+                }
+                publisher.publish(page.getEvents());
+                cursor.setLastEventId(page.getNextOffset());
+                cursor.setUpdatedAt(LocalDateTime.now());
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia creó el offset a la vez; se usa en la siguiente ronda
+            log.debug("Offset del adaptador {} creado por otra instancia", publisher.getName());
+        } catch (RuntimeException e) {
+            log.warn("Error al publicar eventos del catálogo en {}: {}", publisher.getName(), e.getMessage());
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private volatile long offset;
+
+        private Subscriber(SseEmitter emitter, long offset) {
+            this.emitter = emitter;
+            this.offset = offset;
+        }
+
+        SseEmitter emitter() {
+            return emitter;
+        }
+
+        long offset() {
+            return offset;
+        }
+
+        void offset(long offset) {
+            this.offset = offset;
+        }
+    }
+}
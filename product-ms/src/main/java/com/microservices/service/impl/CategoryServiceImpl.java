@@ -1,7 +1,11 @@
 package com.microservices.service.impl;
 
+import com.microservices.cache.CatalogDictionary;
+import com.microservices.cache.CatalogVersion;
+import com.microservices.cache.ProductCache;
 import com.microservices.dto.CategoryRequestDTO;
 import com.microservices.dto.CategoryResponseDTO;
+import com.microservices.dto.VersionedListDTO;
 import com.microservices.entity.Category;
 import com.microservices.exception.CategoryAlreadyExistsException;
 import com.microservices.exception.CategoryNotFoundException;
@@ -10,6 +14,7 @@ import com.microservices.repository.CategoryRepository;
 import com.microservices.service.CategoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -21,6 +26,9 @@ public class CategoryServiceImpl implements CategoryService {
     
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final ProductCache productCache;
+    private final CatalogDictionary catalogDictionary;
+    private final CatalogVersion catalogVersion;
     
     @Override
     public CategoryResponseDTO createCategory(CategoryRequestDTO requestDTO) {
@@ -31,22 +39,41 @@ public class CategoryServiceImpl implements CategoryService {
         
         Category category = categoryMapper.toEntity(requestDTO);
         Category savedCategory = categoryRepository.save(category);
+        catalogDictionary.reloadCategoriesAfterCommit();
+        catalogVersion.markChanged();
         return categoryMapper.toResponseDTO(savedCategory);
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public CategoryResponseDTO getCategoryById(Long id) {
+        CategoryResponseDTO cached = catalogDictionary.categories().byId().get(id);
+        if (cached != null) {
+            return cached;
+        }
+        
+        // Puede haber sido creada en otra instancia después del último refresco
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new CategoryNotFoundException("Categoría no encontrada con ID: " + id));
+        catalogDictionary.reloadCategories();
         return categoryMapper.toResponseDTO(category);
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<CategoryResponseDTO> getAllCategories() {
-        List<Category> categories = categoryRepository.findAllByOrderByNombreCategoriaAsc();
-        return categoryMapper.toResponseDTOList(categories);
+        return catalogDictionary.categories().items();
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public VersionedListDTO<CategoryResponseDTO> getAllCategoriesVersioned() {
+        CatalogDictionary.Snapshot<CategoryResponseDTO> snapshot = catalogDictionary.categories();
+        return VersionedListDTO.<CategoryResponseDTO>builder()
+                .items(snapshot.items())
+                .version(snapshot.etag())
+                .lastModified(catalogVersion.lastModified())
+                .build();
     }
     
     @Override
@@ -62,6 +89,10 @@ public class CategoryServiceImpl implements CategoryService {
         
         categoryMapper.updateEntityFromDTO(requestDTO, category);
         Category savedCategory = categoryRepository.save(category);
+        // Los productos en caché incluyen el nombre de la categoría
+        productCache.evictAll();
+        catalogDictionary.reloadCategoriesAfterCommit();
+        catalogVersion.markChanged();
         return categoryMapper.toResponseDTO(savedCategory);
     }
     
@@ -70,13 +101,29 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new CategoryNotFoundException("Categoría no encontrada con ID: " + id));
         categoryRepository.delete(category);
+        catalogDictionary.reloadCategoriesAfterCommit();
+        catalogVersion.markChanged();
     }
     
+    /**
+     * Resuelve la categoría desde el diccionario sin consultar la base. Devuelve una instancia
+     * desacoplada (solo ID y nombre), suficiente para asignar la relación de un producto.
+     */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Category getCategoryEntityById(Long id) {
-        return categoryRepository.findById(id)
+        CategoryResponseDTO cached = catalogDictionary.categories().byId().get(id);
+        if (cached != null) {
+            return Category.builder()
+                    .idCategoria(cached.getIdCategoria())
+                    .nombreCategoria(cached.getNombreCategoria())
+                    .build();
+        }
+        
+        Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new CategoryNotFoundException("Categoría no encontrada con ID: " + id));
+        catalogDictionary.reloadCategories();
+        return category;
     }
 }
 
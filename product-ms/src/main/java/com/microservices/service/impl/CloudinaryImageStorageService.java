@@ -0,0 +1,36 @@
+package com.microservices.service.impl;
+
+import com.microservices.service.CloudinaryService;
+import com.microservices.service.ImageStorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+
+/**
+ * Almacenamiento de imágenes en Cloudinary (implementación por defecto)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "image.storage.type", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryImageStorageService implements ImageStorageService {
+
+    private final CloudinaryService cloudinaryService;
+
+    @Override
+    public String store(Path file, String folder, String contentType) {
+        return cloudinaryService.uploadImage(file.toFile(), folder);
+    }
+
+    @Override
+    public boolean delete(String imageUrl) {
+        String publicId = cloudinaryService.extractPublicId(imageUrl);
+        if (publicId == null) {
+            return false;
+        }
+        return cloudinaryService.deleteImage(publicId);
+    }
+}
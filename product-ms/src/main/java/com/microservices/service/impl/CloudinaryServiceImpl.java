@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
@@ -72,6 +73,30 @@ public class CloudinaryServiceImpl implements CloudinaryService {
         }
     }
 
+    @Override
+    public String uploadImage(File file, String folder) {
+        try {
+            log.info("Subiendo imagen desde archivo: {} a la carpeta: {}", file.getName(), folder);
+            
+            Map<String, Object> uploadParams = ObjectUtils.asMap(
+                "upload_preset", uploadPreset,
+                "folder", folder,
+                "timeout", 60000 // 60 segundos timeout
+            );
+            
+            Map<?, ?> uploadResult = cloudinary.uploader().upload(file, uploadParams);
+            
+            String imageUrl = (String) uploadResult.get("secure_url");
+            log.info("Imagen subida exitosamente. URL: {}", imageUrl);
+            
+            return imageUrl;
+            
+        } catch (IOException e) {
+            log.error("Error de IO al subir imagen: {}", e.getMessage(), e);
+            throw new RuntimeException("Error de conectividad al subir la imagen: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public String uploadProductImage(MultipartFile file) {
         return uploadImage(file, "products");
@@ -0,0 +1,187 @@
+package com.microservices.service.impl;
+
+import com.microservices.service.ImageDerivativeCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Implementación de la caché de derivados en disco.
+ * Cada derivado se guarda con el hash de su URL como nombre, de modo que al cambiar la imagen
+ * de un producto la entrada anterior simplemente deja de usarse y sale por LRU.
+ * El índice en memoria mantiene el orden de acceso y el total de bytes ocupados.
+ */
+@Service
+@Slf4j
+public class ImageDerivativeCacheServiceImpl implements ImageDerivativeCacheService {
+
+    private final Path cacheDir;
+    private final long maxBytes;
+    private final HttpClient httpClient;
+
+    // clave -> tamaño en bytes, en orden de acceso (el primero es el menos usado)
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    public ImageDerivativeCacheServiceImpl(@Value("${image.derivatives.cache-dir}") String cacheDir,
+                                           @Value("${image.derivatives.cache-max-bytes:268435456}") long maxBytes) {
+        this.cacheDir = Paths.get(cacheDir).toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        loadIndex();
+    }
+
+    @Override
+    public byte[] getDerivative(String imageUrl) {
+        String key = hash(imageUrl);
+        Path file = cacheDir.resolve(key);
+
+        if (touch(key)) {
+            try {
+                return Files.readAllBytes(file);
+            } catch (NoSuchFileException e) {
+                // Se expulsó entre la consulta y la lectura; se vuelve a descargar
+                remove(key);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        byte[] content = download(imageUrl);
+        store(key, content);
+        return content;
+    }
+
+    private byte[] download(String imageUrl) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(imageUrl))
+                    .timeout(Duration.ofSeconds(15))
+                    .GET()
+                    .build();
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("No se pudo descargar el derivado (HTTP " + response.statusCode() + ")");
+            }
+            return response.body();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al descargar el derivado: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Descarga del derivado interrumpida", e);
+        }
+    }
+
+    private void store(String key, byte[] content) {
+        if (content.length > maxBytes) {
+            return;
+        }
+        try {
+            Path tmp = Files.createTempFile(cacheDir, key, ".tmp");
+            Files.write(tmp, content);
+            Files.move(tmp, cacheDir.resolve(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("No se pudo guardar el derivado en la caché: {}", e.getMessage());
+            return;
+        }
+        add(key, content.length);
+    }
+
+    private synchronized boolean touch(String key) {
+        return index.get(key) != null;
+    }
+
+    private synchronized void add(String key, long size) {
+        Long previous = index.put(key, size);
+        totalBytes += size - (previous != null ? previous : 0L);
+        evict();
+    }
+
+    private synchronized void remove(String key) {
+        Long size = index.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> iterator = index.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            try {
+                Files.deleteIfExists(cacheDir.resolve(eldest.getKey()));
+            } catch (IOException e) {
+                log.warn("No se pudo eliminar el derivado {} de la caché: {}", eldest.getKey(), e.getMessage());
+            }
+            totalBytes -= eldest.getValue();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Reconstruye el índice con los archivos existentes, del más antiguo al más reciente
+     */
+    private void loadIndex() {
+        try {
+            Files.createDirectories(cacheDir);
+            try (Stream<Path> files = Files.list(cacheDir)) {
+                files.filter(Files::isRegularFile)
+                        .filter(file -> !file.getFileName().toString().endsWith(".tmp"))
+                        .sorted(Comparator.comparingLong(this::lastModified))
+                        .forEach(file -> add(file.getFileName().toString(), size(file)));
+            }
+            log.info("Caché de derivados en {} con {} archivos ({} bytes)", cacheDir, index.size(), totalBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo inicializar la caché de derivados: " + e.getMessage(), e);
+        }
+    }
+
+    private long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
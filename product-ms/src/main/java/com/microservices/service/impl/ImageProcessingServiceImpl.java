@@ -0,0 +1,143 @@
+package com.microservices.service.impl;
+
+import com.microservices.dto.ImageVariant;
+import com.microservices.service.ImageProcessingService;
+import lombok.extern.slf4j.Slf4j;
+import net.coobird.thumbnailator.Thumbnails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Generación de derivados con Thumbnailator (Java puro).
+ * Se escribe WebP cuando hay un ImageWriter de WebP registrado en ImageIO; si no, JPEG.
+ * La lectura de WebP la aporta el plugin TwelveMonkeys.
+ * Las dimensiones se leen de la cabecera antes de decodificar: se rechazan las imágenes que superan
+ * max-pixels y el resto se decodifica submuestreado a poco más del doble del derivado más grande.
+ */
+@Service
+@Slf4j
+public class ImageProcessingServiceImpl implements ImageProcessingService {
+
+    private final String outputFormat;
+    private final String outputContentType;
+    private final double quality;
+    private final long maxPixels;
+    private final int largestVariantWidth;
+    private final int largestVariantHeight;
+
+    public ImageProcessingServiceImpl(@Value("${image.derivatives.quality:0.8}") double quality,
+                                      @Value("${image.derivatives.max-pixels:50000000}") long maxPixels) {
+        this.quality = quality;
+        this.maxPixels = maxPixels;
+        this.largestVariantWidth = Arrays.stream(ImageVariant.values()).mapToInt(ImageVariant::getMaxWidth).max().orElse(1);
+        this.largestVariantHeight = Arrays.stream(ImageVariant.values()).mapToInt(ImageVariant::getMaxHeight).max().orElse(1);
+        if (ImageIO.getImageWritersByFormatName("webp").hasNext()) {
+            this.outputFormat = "webp";
+            this.outputContentType = "image/webp";
+        } else {
+            this.outputFormat = "jpg";
+            this.outputContentType = "image/jpeg";
+        }
+        log.info("Derivados de imágenes en formato {} con calidad {}", outputFormat, quality);
+    }
+
+    @Override
+    public List<ImageDerivative> generateDerivatives(Path source) {
+        List<ImageDerivative> derivatives = new ArrayList<>();
+        try {
+            BufferedImage original = readBounded(source);
+            
+            for (ImageVariant variant : ImageVariant.values()) {
+                Path target = Files.createTempFile("derivative-" + variant.name().toLowerCase() + "-", "." + outputFormat);
+                derivatives.add(new ImageDerivative(variant, target, outputContentType));
+                resize(original, variant).toFile(target.toFile());
+            }
+            return derivatives;
+            
+        } catch (IOException e) {
+            derivatives.forEach(derivative -> deleteQuietly(derivative.file()));
+            throw new UncheckedIOException("Error al generar derivados de la imagen: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            derivatives.forEach(derivative -> deleteQuietly(derivative.file()));
+            throw e;
+        }
+    }
+
+    /**
+     * Decodifica la primera imagen del archivo comprobando antes sus dimensiones declaradas
+     * @param source archivo de la imagen
+     * @return imagen decodificada, submuestreada si es mucho mayor que el derivado más grande
+     * @throws IllegalArgumentException si el formato no está soportado o supera max-pixels
+     */
+    private BufferedImage readBounded(Path source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Formato de imagen no soportado para generar derivados");
+            }
+            
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (width <= 0 || height <= 0 || (long) width * height > maxPixels) {
+                    throw new IllegalArgumentException("La imagen declara " + width + "x" + height
+                            + " píxeles y el máximo permitido es " + maxPixels);
+                }
+                
+                // Se conserva al menos el doble de la caja más grande para que el reescalado final filtre bien
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width / largestVariantWidth, height / largestVariantHeight) / 2);
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private Thumbnails.Builder<BufferedImage> resize(BufferedImage original, ImageVariant variant) {
+        Thumbnails.Builder<BufferedImage> builder = Thumbnails.of(original);
+        
+        // No se amplían imágenes más pequeñas que la caja del derivado
+        if (original.getWidth() <= variant.getMaxWidth() && original.getHeight() <= variant.getMaxHeight()) {
+            builder.scale(1.0);
+        } else {
+            builder.size(variant.getMaxWidth(), variant.getMaxHeight());
+        }
+        
+        // JPEG no admite canal alfa
+        if ("jpg".equals(outputFormat)) {
+            builder.imageType(BufferedImage.TYPE_INT_RGB);
+        }
+        
+        return builder
+                .outputFormat(outputFormat)
+                .outputQuality(quality);
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el archivo temporal {}: {}", file, e.getMessage());
+        }
+    }
+}
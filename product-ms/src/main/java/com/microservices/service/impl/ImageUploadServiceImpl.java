@@ -0,0 +1,385 @@
+package com.microservices.service.impl;
+
+import com.microservices.dto.ImageUploadJobDTO;
+import com.microservices.dto.ImageVariant;
+import com.microservices.dto.ProductResponseDTO;
+import com.microservices.entity.ImageUploadJob;
+import com.microservices.entity.ImageUploadStatus;
+import com.microservices.exception.ImageUploadJobNotFoundException;
+import com.microservices.exception.ProductNotFoundException;
+import com.microservices.exception.ValidationException;
+import com.microservices.repository.ImageUploadJobRepository;
+import com.microservices.service.ImageProcessingService;
+import com.microservices.service.ImageProcessingService.ImageDerivative;
+import com.microservices.service.ImageStorageService;
+import com.microservices.service.ImageUploadService;
+import com.microservices.service.ProductService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementación de la subida asíncrona de imágenes.
+ * Los trabajos se persisten en image_upload_jobs junto con la ruta del archivo temporal,
+ * por lo que los que quedaron pendientes o interrumpidos se reanudan al arrancar.
+ * Cada trabajo se reclama con un UPDATE condicional PENDING -> UPLOADING, de modo que con
+ * varias instancias solo una lo procesa; los que llevan más de stale-after-ms en UPLOADING
+ * (instancia caída a mitad de subida) vuelven a PENDING.
+ */
+@Service
+@Slf4j
+public class ImageUploadServiceImpl implements ImageUploadService {
+
+    // Formatos de imagen permitidos
+    private static final List<String> ALLOWED_IMAGE_TYPES = Arrays.asList(
+        "image/jpeg", "image/jpg", "image/png", "image/gif", "image/webp"
+    );
+
+    // Tamaño máximo del archivo en bytes (5MB)
+    private static final long MAX_FILE_SIZE = 5 * 1024 * 1024;
+
+    private static final String PRODUCT_FOLDER = "products";
+    private static final String DERIVATIVES_FOLDER = "products/derivatives";
+
+    private final ImageUploadJobRepository jobRepository;
+    private final ImageStorageService imageStorageService;
+    private final ImageProcessingService imageProcessingService;
+    private final ProductService productService;
+    private final ThreadPoolTaskExecutor imageUploadExecutor;
+    private final Path spoolDir;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long sweepIntervalMs;
+    private final long staleAfterMs;
+
+    // Trabajos ya encolados en el executor de esta instancia, para no despacharlos dos veces.
+    // Solo deduplica localmente; entre instancias lo garantiza claimJob
+    private final Set<String> scheduledJobs = ConcurrentHashMap.newKeySet();
+
+    public ImageUploadServiceImpl(ImageUploadJobRepository jobRepository,
+                                  ImageStorageService imageStorageService,
+                                  ImageProcessingService imageProcessingService,
+                                  ProductService productService,
+                                  @Qualifier("imageUploadExecutor") ThreadPoolTaskExecutor imageUploadExecutor,
+                                  @Value("${image.upload.spool-dir}") String spoolDir,
+                                  @Value("${image.upload.max-attempts:3}") int maxAttempts,
+                                  @Value("${image.upload.retry-backoff-ms:2000}") long retryBackoffMs,
+                                  @Value("${image.upload.sweep-interval-ms:30000}") long sweepIntervalMs,
+                                  @Value("${image.upload.stale-after-ms:600000}") long staleAfterMs) {
+        this.jobRepository = jobRepository;
+        this.imageStorageService = imageStorageService;
+        this.imageProcessingService = imageProcessingService;
+        this.productService = productService;
+        this.imageUploadExecutor = imageUploadExecutor;
+        this.spoolDir = Paths.get(spoolDir).toAbsolutePath().normalize();
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.sweepIntervalMs = sweepIntervalMs;
+        this.staleAfterMs = staleAfterMs;
+    }
+
+    @Override
+    public void validateImage(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new ValidationException("El archivo no puede estar vacío");
+        }
+
+        if (file.getSize() > MAX_FILE_SIZE) {
+            throw new ValidationException("El archivo es demasiado grande. Máximo permitido: 5MB");
+        }
+
+        String contentType = file.getContentType();
+        if (contentType == null || !ALLOWED_IMAGE_TYPES.contains(contentType.toLowerCase())) {
+            throw new ValidationException("Tipo de archivo no permitido. Solo se permiten: JPEG, PNG, GIF, WebP");
+        }
+    }
+
+    @Override
+    public ImageUploadJobDTO submitProductImage(Long productId, MultipartFile file) {
+        validateImage(file);
+        // Falla rápido si el producto no existe
+        productService.getProductById(productId);
+
+        String jobId = UUID.randomUUID().toString();
+        Path spoolFile = spoolDir.resolve(jobId + ".upload");
+
+        try {
+            Files.createDirectories(spoolDir);
+            // transferTo copia en streaming al disco, sin cargar la imagen en memoria
+            file.transferTo(spoolFile);
+        } catch (IOException e) {
+            log.error("Error al guardar la imagen en el directorio temporal: {}", e.getMessage(), e);
+            throw new UncheckedIOException("Error al recibir la imagen: " + e.getMessage(), e);
+        }
+
+        ImageUploadJob job = ImageUploadJob.builder()
+                .jobId(jobId)
+                .productId(productId)
+                .spoolPath(spoolFile.toString())
+                .originalFilename(file.getOriginalFilename())
+                .contentType(file.getContentType())
+                .status(ImageUploadStatus.PENDING)
+                .build();
+        ImageUploadJob savedJob = jobRepository.save(job);
+
+        log.info("Trabajo de subida {} encolado para el producto {}", jobId, productId);
+        dispatch(jobId);
+        return toDTO(savedJob);
+    }
+
+    @Override
+    public ImageUploadJobDTO getJob(String jobId) {
+        ImageUploadJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new ImageUploadJobNotFoundException("Trabajo de subida no encontrado con ID: " + jobId));
+        return toDTO(job);
+    }
+
+    /**
+     * Al arrancar, reanuda los trabajos pendientes y los que quedaron a medio subir.
+     * Un UPLOADING reciente puede estar procesándolo otra instancia, así que solo se
+     * devuelven a PENDING los que superan stale-after-ms
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingJobs() {
+        requeueStaleJobs();
+        List<ImageUploadJob> jobs = jobRepository.findByStatusIn(List.of(ImageUploadStatus.PENDING));
+
+        if (!jobs.isEmpty()) {
+            log.info("Reanudando {} trabajos de subida de imágenes", jobs.size());
+        }
+        jobs.forEach(job -> dispatch(job.getJobId()));
+    }
+
+    /**
+     * Reintenta despachar los trabajos que el executor rechazó por estar saturado
+     * y los abandonados por una instancia caída
+     */
+    @Scheduled(fixedDelayString = "${image.upload.sweep-interval-ms:30000}")
+    public void sweepPendingJobs() {
+        requeueStaleJobs();
+        LocalDateTime threshold = LocalDateTime.now().minus(Duration.ofMillis(sweepIntervalMs));
+        jobRepository.findByStatusInAndUpdatedAtBefore(List.of(ImageUploadStatus.PENDING), threshold)
+                .forEach(job -> dispatch(job.getJobId()));
+    }
+
+    private void requeueStaleJobs() {
+        int requeued = jobRepository.requeueStale(LocalDateTime.now().minus(Duration.ofMillis(staleAfterMs)));
+        if (requeued > 0) {
+            log.warn("{} trabajos de subida sin avance en UPLOADING vuelven a PENDING", requeued);
+        }
+    }
+
+    private void dispatch(String jobId) {
+        if (!scheduledJobs.add(jobId)) {
+            return;
+        }
+
+        try {
+            imageUploadExecutor.execute(() -> {
+                try {
+                    process(jobId);
+                } finally {
+                    scheduledJobs.remove(jobId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // El trabajo queda PENDING y lo retoma el barrido periódico
+            scheduledJobs.remove(jobId);
+            log.warn("Pool de subida saturado, el trabajo {} se reintentará más tarde", jobId);
+        }
+    }
+
+    private void process(String jobId) {
+        ImageUploadJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus().isFinished()) {
+            return;
+        }
+
+        Path spoolFile = Paths.get(job.getSpoolPath());
+        if (!Files.exists(spoolFile)) {
+            markFailed(job, "El archivo temporal de la imagen ya no existe");
+            return;
+        }
+
+        // Reclamo atómico: si otra instancia ya lo pasó a UPLOADING, no se procesa aquí
+        if (jobRepository.claim(jobId, LocalDateTime.now()) == 0) {
+            log.debug("El trabajo de subida {} ya lo reclamó otra instancia", jobId);
+            return;
+        }
+        job.setStatus(ImageUploadStatus.UPLOADING);
+
+        while (true) {
+            job.setAttempts(job.getAttempts() + 1);
+            // Imágenes subidas en este intento que aún no están asignadas al producto
+            List<String> storedUrls = new ArrayList<>();
+            try {
+                String imageUrl = imageStorageService.store(spoolFile, PRODUCT_FOLDER, job.getContentType());
+                storedUrls.add(imageUrl);
+                Map<ImageVariant, String> derivativeUrls = storeDerivatives(jobId, spoolFile);
+                storedUrls.addAll(derivativeUrls.values());
+                List<String> replacedUrls = currentImageUrls(job.getProductId());
+                productService.updateProductImages(job.getProductId(), imageUrl, derivativeUrls);
+                // Ya pertenecen al producto: un fallo posterior no debe borrarlas
+                storedUrls.clear();
+                // La imagen anterior y sus derivados ya no los referencia el producto
+                deleteStored(replacedUrls);
+
+                job.setImageUrl(imageUrl);
+                job.setErrorMessage(null);
+                job.setStatus(ImageUploadStatus.COMPLETED);
+                jobRepository.save(job);
+                deleteSpoolFile(spoolFile);
+
+                log.info("Trabajo de subida {} completado en {} intento(s): {}", jobId, job.getAttempts(), imageUrl);
+                return;
+
+            } catch (ProductNotFoundException e) {
+                // El producto se eliminó mientras se subía: las imágenes quedarían huérfanas
+                deleteStored(storedUrls);
+                markFailed(job, e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Intento {} del trabajo de subida {} falló: {}", job.getAttempts(), jobId, e.getMessage());
+                // El siguiente intento sube un original nuevo; sin esto se acumularían en el almacenamiento
+                deleteStored(storedUrls);
+
+                if (job.getAttempts() >= maxAttempts) {
+                    markFailed(job, e.getMessage());
+                    return;
+                }
+
+                job.setErrorMessage(truncate(e.getMessage()));
+                job = jobRepository.save(job);
+
+                try {
+                    // Backoff exponencial entre intentos
+                    Thread.sleep(retryBackoffMs * (1L << (job.getAttempts() - 1)));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    job.setStatus(ImageUploadStatus.PENDING);
+                    jobRepository.save(job);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Genera y sube los derivados de la imagen. Es best-effort: si falla, el producto
+     * conserva la imagen original y los clientes siguen usando imageUrl.
+     */
+    private Map<ImageVariant, String> storeDerivatives(String jobId, Path spoolFile) {
+        Map<ImageVariant, String> derivativeUrls = new EnumMap<>(ImageVariant.class);
+        List<ImageDerivative> derivatives;
+        try {
+            derivatives = imageProcessingService.generateDerivatives(spoolFile);
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron generar los derivados del trabajo {}: {}", jobId, e.getMessage());
+            return derivativeUrls;
+        }
+
+        try {
+            for (ImageDerivative derivative : derivatives) {
+                String url = imageStorageService.store(derivative.file(), DERIVATIVES_FOLDER, derivative.contentType());
+                derivativeUrls.put(derivative.variant(), url);
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron subir los derivados del trabajo {}: {}", jobId, e.getMessage());
+            derivativeUrls.values().forEach(imageStorageService::delete);
+            derivativeUrls.clear();
+        } finally {
+            derivatives.forEach(derivative -> deleteSpoolFile(derivative.file()));
+        }
+        return derivativeUrls;
+    }
+
+    /**
+     * URLs de la imagen actual del producto y de sus derivados, que se reemplazarán
+     */
+    private List<String> currentImageUrls(Long productId) {
+        ProductResponseDTO currentProduct = productService.getProductById(productId);
+        List<String> urls = new ArrayList<>();
+        if (currentProduct.getImageUrl() != null && !currentProduct.getImageUrl().isEmpty()) {
+            urls.add(currentProduct.getImageUrl());
+        }
+        for (ImageVariant variant : ImageVariant.values()) {
+            String derivativeUrl = variant.urlOf(currentProduct);
+            if (derivativeUrl != null && !derivativeUrl.isEmpty()) {
+                urls.add(derivativeUrl);
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * Borra imágenes del almacenamiento sin interrumpir el trabajo si alguna falla
+     */
+    private void deleteStored(List<String> urls) {
+        for (String url : urls) {
+            try {
+                imageStorageService.delete(url);
+            } catch (RuntimeException e) {
+                log.warn("No se pudo eliminar la imagen {}: {}", url, e.getMessage());
+            }
+        }
+    }
+
+    private void markFailed(ImageUploadJob job, String errorMessage) {
+        job.setStatus(ImageUploadStatus.FAILED);
+        job.setErrorMessage(truncate(errorMessage));
+        jobRepository.save(job);
+        deleteSpoolFile(Paths.get(job.getSpoolPath()));
+        log.error("Trabajo de subida {} falló definitivamente: {}", job.getJobId(), errorMessage);
+    }
+
+    private String truncate(String message) {
+        if (message == null || message.length() <= 1000) {
+            return message;
+        }
+        return message.substring(0, 1000);
+    }
+
+    private void deleteSpoolFile(Path spoolFile) {
+        try {
+            Files.deleteIfExists(spoolFile);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el archivo temporal {}: {}", spoolFile, e.getMessage());
+        }
+    }
+
+    private ImageUploadJobDTO toDTO(ImageUploadJob job) {
+        return ImageUploadJobDTO.builder()
+                .jobId(job.getJobId())
+                .productId(job.getProductId())
+                .status(job.getStatus())
+                .attempts(job.getAttempts())
+                .imageUrl(job.getImageUrl())
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .build();
+    }
+}
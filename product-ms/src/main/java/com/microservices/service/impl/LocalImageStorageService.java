@@ -0,0 +1,86 @@
+package com.microservices.service.impl;
+
+import com.microservices.service.ImageStorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * Almacenamiento de imágenes en el sistema de archivos local.
+ * Pensado para desarrollo y tests, reemplaza a Cloudinary con image.storage.type=local.
+ * Las imágenes se sirven bajo /images/** (ver LocalImageStorageConfig).
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "image.storage.type", havingValue = "local")
+public class LocalImageStorageService implements ImageStorageService {
+
+    private final Path baseDir;
+    private final String baseUrl;
+
+    public LocalImageStorageService(@Value("${image.storage.local.base-dir}") String baseDir,
+                                    @Value("${image.storage.local.base-url}") String baseUrl) {
+        this.baseDir = Paths.get(baseDir).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    @Override
+    public String store(Path file, String folder, String contentType) {
+        try {
+            Path targetDir = baseDir.resolve(folder).normalize();
+            Files.createDirectories(targetDir);
+            
+            String fileName = UUID.randomUUID() + extensionFor(contentType);
+            Files.copy(file, targetDir.resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
+            
+            String imageUrl = baseUrl + "/" + folder + "/" + fileName;
+            log.info("Imagen almacenada localmente: {}", imageUrl);
+            return imageUrl;
+            
+        } catch (IOException e) {
+            log.error("Error al almacenar imagen localmente: {}", e.getMessage(), e);
+            throw new UncheckedIOException("Error al almacenar la imagen: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean delete(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(baseUrl + "/")) {
+            return false;
+        }
+        
+        Path target = baseDir.resolve(imageUrl.substring(baseUrl.length() + 1)).normalize();
+        if (!target.startsWith(baseDir)) {
+            return false;
+        }
+        
+        try {
+            return Files.deleteIfExists(target);
+        } catch (IOException e) {
+            log.error("Error al eliminar imagen local: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private String extensionFor(String contentType) {
+        if (contentType == null) {
+            return "";
+        }
+        return switch (contentType.toLowerCase()) {
+            case "image/jpeg", "image/jpg" -> ".jpg";
+            case "image/png" -> ".png";
+            case "image/gif" -> ".gif";
+            case "image/webp" -> ".webp";
+            default -> "";
+        };
+    }
+}
@@ -0,0 +1,152 @@
+package com.microservices.service.impl;
+
+import com.microservices.cache.CatalogVersion;
+import com.microservices.dto.PriceBucketDTO;
+import com.microservices.dto.PriceHistogramDTO;
+import com.microservices.entity.ProductStatus;
+import com.microservices.service.PriceHistogramService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementación de los histogramas de precios.
+ * Una única consulta agrupada por (categoría, marca, tramo) alimenta en memoria los conteos
+ * globales, por categoría, por marca y por ambas. Se recalcula en segundo plano cuando cambia
+ * la versión del catálogo, de modo que las peticiones de la tienda nunca recorren products.
+ */
+@Service
+@Slf4j
+public class PriceHistogramServiceImpl implements PriceHistogramService {
+
+    private static final String HISTOGRAM_SQL =
+            "SELECT category_id, brand_id, width_bucket(unit_price, ?) AS bucket, count(*) AS total " +
+            "FROM products WHERE status = ? " +
+            "GROUP BY category_id, brand_id, bucket";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogVersion catalogVersion;
+    private final List<BigDecimal> bounds;
+
+    private volatile Histogram histogram;
+
+    /**
+     * Conteos precalculados; cada arreglo tiene bounds.size() + 1 tramos
+     */
+    private record Histogram(long version, long computedAt, long[] total,
+                             Map<Long, long[]> byCategory, Map<Long, long[]> byBrand,
+                             Map<List<Long>, long[]> byCategoryAndBrand) {
+    }
+
+    public PriceHistogramServiceImpl(DataSource dataSource,
+                                     CatalogVersion catalogVersion,
+                                     @Value("${catalog.price-histogram.bounds:10,25,50,100,250,500,1000}") List<BigDecimal> bounds) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.catalogVersion = catalogVersion;
+        this.bounds = bounds.stream().sorted().distinct().toList();
+    }
+
+    @Override
+    public PriceHistogramDTO getPriceHistogram(Long categoryId, Long brandId) {
+        Histogram current = histogram;
+        if (current == null) {
+            current = compute();
+        }
+
+        long[] counts;
+        if (categoryId != null && brandId != null) {
+            counts = current.byCategoryAndBrand().get(List.of(categoryId, brandId));
+        } else if (categoryId != null) {
+            counts = current.byCategory().get(categoryId);
+        } else if (brandId != null) {
+            counts = current.byBrand().get(brandId);
+        } else {
+            counts = current.total();
+        }
+        if (counts == null) {
+            counts = new long[bounds.size() + 1];
+        }
+
+        List<PriceBucketDTO> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            buckets.add(PriceBucketDTO.builder()
+                    .minPrice(i == 0 ? null : bounds.get(i - 1))
+                    .maxPrice(i == bounds.size() ? null : bounds.get(i))
+                    .count(counts[i])
+                    .build());
+        }
+
+        return PriceHistogramDTO.builder()
+                .categoryId(categoryId)
+                .brandId(brandId)
+                .totalCount(Arrays.stream(counts).sum())
+                .buckets(buckets)
+                .version(current.version())
+                .computedAt(current.computedAt())
+                .build();
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${catalog.price-histogram.refresh-ms:30000}")
+    public void refreshIfChanged() {
+        Histogram current = histogram;
+        if (current == null || current.version() != catalogVersion.version()) {
+            compute();
+        }
+    }
+
+    private synchronized Histogram compute() {
+        // La versión se lee antes de la consulta: si el catálogo cambia durante el cálculo,
+        // el próximo refresco lo vuelve a calcular
+        long version = catalogVersion.version();
+        Histogram current = histogram;
+        if (current != null && current.version() == version) {
+            return current;
+        }
+
+        long start = System.currentTimeMillis();
+        int bucketCount = bounds.size() + 1;
+        long[] total = new long[bucketCount];
+        Map<Long, long[]> byCategory = new HashMap<>();
+        Map<Long, long[]> byBrand = new HashMap<>();
+        Map<List<Long>, long[]> byCategoryAndBrand = new HashMap<>();
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(HISTOGRAM_SQL);
+            ps.setArray(1, connection.createArrayOf("numeric", bounds.toArray()));
+            ps.setString(2, ProductStatus.ACTIVE.name());
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            long categoryId = rs.getLong("category_id");
+            long brandId = rs.getLong("brand_id");
+            int bucket = rs.getInt("bucket");
+            long count = rs.getLong("total");
+
+            total[bucket] += count;
+            byCategory.computeIfAbsent(categoryId, id -> new long[bucketCount])[bucket] += count;
+            byBrand.computeIfAbsent(brandId, id -> new long[bucketCount])[bucket] += count;
+            byCategoryAndBrand.computeIfAbsent(List.of(categoryId, brandId), id -> new long[bucketCount])[bucket] += count;
+        });
+
+        Histogram computed = new Histogram(version, System.currentTimeMillis(), total,
+                Map.copyOf(byCategory), Map.copyOf(byBrand), Map.copyOf(byCategoryAndBrand));
+        histogram = computed;
+        log.debug("Histograma de precios calculado para la versión {} en {} ms", version, computed.computedAt() - start);
+        return computed;
+    }
+}
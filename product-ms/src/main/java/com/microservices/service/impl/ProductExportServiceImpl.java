@@ -0,0 +1,134 @@
+package com.microservices.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.dto.ProductExportFormat;
+import com.microservices.dto.ProductResponseDTO;
+import com.microservices.entity.ProductStatus;
+import com.microservices.repository.ProductRowMapper;
+import com.microservices.service.ProductExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementación de la exportación del catálogo mediante un cursor JDBC.
+ * La transacción de solo lectura es necesaria para que PostgreSQL respete el fetch size
+ * (con autocommit activo el driver trae el resultado completo de una vez).
+ */
+@Service
+@Slf4j
+public class ProductExportServiceImpl implements ProductExportService {
+
+    private static final String CSV_HEADER =
+            "productId,name,description,categoryId,categoryName,unitPrice,imageUrl,brandId,brandName,status\n";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ProductExportServiceImpl(DataSource dataSource,
+                                    ObjectMapper objectMapper,
+                                    @Value("${export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportProducts(ProductExportFormat format, ProductStatus status, Long categoryId, Long brandId,
+                               OutputStream outputStream) {
+        StringBuilder sql = new StringBuilder(ProductRowMapper.SELECT_PRODUCTS);
+        List<Object> args = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+
+        if (status != null) {
+            conditions.add("p.status = ?");
+            args.add(status.name());
+        }
+        if (categoryId != null) {
+            conditions.add("p.category_id = ?");
+            args.add(categoryId);
+        }
+        if (brandId != null) {
+            conditions.add("p.brand_id = ?");
+            args.add(brandId);
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY p.product_id");
+
+        BufferedOutputStream out = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+        AtomicLong count = new AtomicLong();
+
+        try {
+            if (format == ProductExportFormat.CSV) {
+                out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+            }
+
+            jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> {
+                ProductResponseDTO product = ProductRowMapper.INSTANCE.mapRow(rs, 0);
+                try {
+                    if (format == ProductExportFormat.CSV) {
+                        out.write(toCsvLine(product).getBytes(StandardCharsets.UTF_8));
+                    } else {
+                        out.write(objectMapper.writeValueAsBytes(product));
+                        out.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count.incrementAndGet();
+            }, args.toArray());
+
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        log.info("Exportación {} finalizada: {} productos", format, count.get());
+        return count.get();
+    }
+
+    private String toCsvLine(ProductResponseDTO product) {
+        return String.join(",",
+                String.valueOf(product.getProductId()),
+                escapeCsv(product.getName()),
+                escapeCsv(product.getDescription()),
+                String.valueOf(product.getCategoryId()),
+                escapeCsv(product.getCategoryName()),
+                product.getUnitPrice() != null ? product.getUnitPrice().toPlainString() : "",
+                escapeCsv(product.getImageUrl()),
+                String.valueOf(product.getBrandId()),
+                escapeCsv(product.getBrandName()),
+                product.getStatus().name()) + "\n";
+    }
+
+    /**
+     * Escapa un valor según RFC 4180 (comillas dobles si contiene separadores o saltos de línea)
+     */
+    private String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
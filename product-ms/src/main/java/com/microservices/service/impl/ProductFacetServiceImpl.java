@@ -0,0 +1,213 @@
+package com.microservices.service.impl;
+
+import com.microservices.cache.CatalogDictionary;
+import com.microservices.dto.BrandResponseDTO;
+import com.microservices.dto.CategoryResponseDTO;
+import com.microservices.dto.FacetCountDTO;
+import com.microservices.dto.FacetedSearchResponseDTO;
+import com.microservices.dto.PriceBucketDTO;
+import com.microservices.dto.ProductResponseDTO;
+import com.microservices.dto.ProductSearchDTO;
+import com.microservices.entity.ProductStatus;
+import com.microservices.exception.ValidationException;
+import com.microservices.repository.ProductRowMapper;
+import com.microservices.service.ProductFacetService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementación de la búsqueda con facetas.
+ * Todas las facetas salen de una sola pasada con GROUPING SETS sobre los productos filtrados;
+ * el conjunto vacío () da el total, por lo que la página de resultados no necesita su propio COUNT.
+ * Los conteos son de la búsqueda actual (cada faceta respeta también su propio filtro).
+ */
+@Service
+@Slf4j
+public class ProductFacetServiceImpl implements ProductFacetService {
+
+    private static final String FACETS_SQL =
+            "SELECT category_id, brand_id, status, bucket, " +
+            "GROUPING(category_id, brand_id, status, bucket) AS grp, count(*) AS total " +
+            "FROM (SELECT p.category_id, p.brand_id, p.status, width_bucket(p.unit_price, ?) AS bucket " +
+            "      FROM products p%s) f " +
+            "GROUP BY GROUPING SETS ((category_id), (brand_id), (status), (bucket), ())";
+
+    // Máscaras de GROUPING(category_id, brand_id, status, bucket): bit en 1 = columna no agrupada
+    private static final int BY_CATEGORY = 0b0111;
+    private static final int BY_BRAND = 0b1011;
+    private static final int BY_STATUS = 0b1101;
+    private static final int BY_BUCKET = 0b1110;
+    private static final int TOTAL = 0b1111;
+
+    // Campos de ordenamiento permitidos -> columna SQL
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "name", "p.name",
+            "unitPrice", "p.unit_price",
+            "productId", "p.product_id",
+            "status", "p.status"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogDictionary catalogDictionary;
+    private final List<BigDecimal> bounds;
+
+    @Value("${catalog.facets.max-page-size:100}")
+    private int maxPageSize;
+
+    public ProductFacetServiceImpl(DataSource dataSource,
+                                   CatalogDictionary catalogDictionary,
+                                   @Value("${catalog.price-histogram.bounds:10,25,50,100,250,500,1000}") List<BigDecimal> bounds) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.catalogDictionary = catalogDictionary;
+        this.bounds = bounds.stream().sorted().distinct().toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public FacetedSearchResponseDTO search(ProductSearchDTO searchDTO, int page, int size, String sortBy, String sortDirection) {
+        if (page < 0 || size < 1 || size > maxPageSize) {
+            throw new ValidationException("Paginación inválida: page >= 0 y size entre 1 y " + maxPageSize);
+        }
+        String sortColumn = SORT_COLUMNS.get(sortBy);
+        if (sortColumn == null) {
+            throw new ValidationException("Campo de ordenamiento no soportado: " + sortBy);
+        }
+        String direction = "desc".equalsIgnoreCase(sortDirection) ? "DESC" : "ASC";
+
+        List<Object> args = new ArrayList<>();
+        String where = buildWhere(searchDTO != null ? searchDTO : new ProductSearchDTO(), args);
+
+        // Facetas y total en una sola pasada
+        long[] total = new long[1];
+        long[] bucketCounts = new long[bounds.size() + 1];
+        List<FacetCountDTO> categories = new ArrayList<>();
+        List<FacetCountDTO> brands = new ArrayList<>();
+        List<FacetCountDTO> statuses = new ArrayList<>();
+        Map<Long, CategoryResponseDTO> categoryNames = catalogDictionary.categories().byId();
+        Map<Long, BrandResponseDTO> brandNames = catalogDictionary.brands().byId();
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(String.format(FACETS_SQL, where));
+            ps.setArray(1, connection.createArrayOf("numeric", bounds.toArray()));
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 2, args.get(i));
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            long count = rs.getLong("total");
+            switch (rs.getInt("grp")) {
+                case BY_CATEGORY -> {
+                    long id = rs.getLong("category_id");
+                    CategoryResponseDTO category = categoryNames.get(id);
+                    categories.add(facet(String.valueOf(id), category != null ? category.getNombreCategoria() : null, count));
+                }
+                case BY_BRAND -> {
+                    long id = rs.getLong("brand_id");
+                    BrandResponseDTO brand = brandNames.get(id);
+                    brands.add(facet(String.valueOf(id), brand != null ? brand.getNombreMarca() : null, count));
+                }
+                case BY_STATUS -> {
+                    ProductStatus status = ProductStatus.valueOf(rs.getString("status"));
+                    statuses.add(facet(status.name(), status.getDisplayName(), count));
+                }
+                case BY_BUCKET -> bucketCounts[rs.getInt("bucket")] = count;
+                case TOTAL -> total[0] = count;
+                default -> log.warn("Conjunto de agrupación inesperado en facetas: {}", rs.getInt("grp"));
+            }
+        });
+
+        // Página de resultados (solo si existe)
+        List<ProductResponseDTO> content = List.of();
+        long offset = (long) page * size;
+        if (offset < total[0]) {
+            String pageSql = ProductRowMapper.SELECT_PRODUCTS + where +
+                    " ORDER BY " + sortColumn + " " + direction + ", p.product_id LIMIT ? OFFSET ?";
+            List<Object> pageArgs = new ArrayList<>(args);
+            pageArgs.add(size);
+            pageArgs.add(offset);
+            content = jdbcTemplate.query(pageSql, ProductRowMapper.INSTANCE, pageArgs.toArray());
+        }
+
+        Comparator<FacetCountDTO> byCountDesc = Comparator.comparingLong(FacetCountDTO::getCount).reversed();
+        categories.sort(byCountDesc);
+        brands.sort(byCountDesc);
+        statuses.sort(byCountDesc);
+
+        return FacetedSearchResponseDTO.builder()
+                .content(content)
+                .page(page)
+                .size(size)
+                .totalElements(total[0])
+                .categories(categories)
+                .brands(brands)
+                .statuses(statuses)
+                .priceBuckets(toPriceBuckets(bucketCounts))
+                .build();
+    }
+
+    private String buildWhere(ProductSearchDTO searchDTO, List<Object> args) {
+        List<String> conditions = new ArrayList<>();
+
+        if (searchDTO.getSearchText() != null && !searchDTO.getSearchText().trim().isEmpty()) {
+            // Misma semántica que searchProductsByText
+            String pattern = "%" + searchDTO.getSearchText().trim().toLowerCase() + "%";
+            conditions.add("(LOWER(p.name) LIKE ? OR LOWER(p.description) LIKE ?)");
+            args.add(pattern);
+            args.add(pattern);
+        }
+        if (searchDTO.getCategoryId() != null) {
+            conditions.add("p.category_id = ?");
+            args.add(searchDTO.getCategoryId());
+        }
+        if (searchDTO.getBrandId() != null) {
+            conditions.add("p.brand_id = ?");
+            args.add(searchDTO.getBrandId());
+        }
+        if (searchDTO.getStatus() != null) {
+            conditions.add("p.status = ?");
+            args.add(searchDTO.getStatus().name());
+        }
+        if (searchDTO.getMinPrice() != null) {
+            conditions.add("p.unit_price >= ?");
+            args.add(searchDTO.getMinPrice());
+        }
+        if (searchDTO.getMaxPrice() != null) {
+            conditions.add("p.unit_price <= ?");
+            args.add(searchDTO.getMaxPrice());
+        }
+
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private FacetCountDTO facet(String value, String label, long count) {
+        return FacetCountDTO.builder()
+                .value(value)
+                .label(label)
+                .count(count)
+                .build();
+    }
+
+    private List<PriceBucketDTO> toPriceBuckets(long[] counts) {
+        List<PriceBucketDTO> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            buckets.add(PriceBucketDTO.builder()
+                    .minPrice(i == 0 ? null : bounds.get(i - 1))
+                    .maxPrice(i == bounds.size() ? null : bounds.get(i))
+                    .count(counts[i])
+                    .build());
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,475 @@
+package com.microservices.service.impl;
+
+import com.microservices.cache.CatalogVersion;
+import com.microservices.cache.SecondLevelCacheEvictor;
+import com.microservices.dto.ProductImportErrorDTO;
+import com.microservices.dto.ProductImportResultDTO;
+import com.microservices.dto.ProductRequestDTO;
+import com.microservices.dto.ProductResponseDTO;
+import com.microservices.entity.CatalogEventType;
+import com.microservices.entity.ProductStatus;
+import com.microservices.exception.ValidationException;
+import com.microservices.repository.ProductRowMapper;
+import com.microservices.service.CatalogEventService;
+import com.microservices.service.ProductImportService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Implementación de la importación masiva de productos.
+ * En lugar de las tres consultas por producto de createProduct, se resuelven todas las
+ * categorías, marcas y nombres existentes con una consulta cada una, se reservan los IDs
+ * de la secuencia de products en un único viaje y se inserta con batching JDBC.
+ * Cada lote se confirma en su propia transacción, así un lote fallido no descarta a los demás;
+ * si el batch falla se reintenta fila a fila con un savepoint por fila, de modo que solo las
+ * filas rechazadas por la base (SKU repetido, clave foránea, check) se informan como error.
+ */
+@Service
+@Slf4j
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO products (product_id, name, description, category_id, brand_id, unit_price, image_url, status) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int[] INSERT_TYPES = {
+            Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.BIGINT,
+            Types.NUMERIC, Types.VARCHAR, Types.VARCHAR
+    };
+
+    private static final String RESERVE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('products', 'product_id')) FROM generate_series(1, ?)";
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "categoryId", "brandId", "unitPrice");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate savepointTemplate;
+    private final Validator validator;
+    private final CatalogVersion catalogVersion;
+    private final SecondLevelCacheEvictor secondLevelCacheEvictor;
+    private final CatalogEventService catalogEventService;
+    private final int batchSize;
+    private final int maxRows;
+
+    public ProductImportServiceImpl(DataSource dataSource,
+                                    PlatformTransactionManager transactionManager,
+                                    Validator validator,
+                                    CatalogVersion catalogVersion,
+                                    SecondLevelCacheEvictor secondLevelCacheEvictor,
+                                    CatalogEventService catalogEventService,
+                                    @Value("${import.batch-size:1000}") int batchSize,
+                                    @Value("${import.max-rows:200000}") int maxRows) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.savepointTemplate = new TransactionTemplate(transactionManager);
+        this.savepointTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        this.validator = validator;
+        this.catalogVersion = catalogVersion;
+        this.secondLevelCacheEvictor = secondLevelCacheEvictor;
+        this.catalogEventService = catalogEventService;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+    }
+
+    @Override
+    public ProductImportResultDTO importProducts(List<ProductRequestDTO> products) {
+        if (products == null || products.isEmpty()) {
+            throw new ValidationException("La importación no contiene productos");
+        }
+        checkMaxRows(products.size());
+
+        List<ImportRow> rows = new ArrayList<>(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            ImportRow row = new ImportRow(i + 1);
+            if (products.get(i) == null) {
+                row.error = "La fila está vacía";
+            } else {
+                row.product = products.get(i);
+            }
+            rows.add(row);
+        }
+        return importRows(rows);
+    }
+
+    @Override
+    public ProductImportResultDTO importCsv(InputStream inputStream) {
+        List<ImportRow> rows = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            List<String> header = readRecord(reader);
+            if (header == null) {
+                throw new ValidationException("El archivo CSV está vacío");
+            }
+            Map<String, Integer> columns = parseHeader(header);
+
+            List<String> record;
+            while ((record = readRecord(reader)) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue; // líneas en blanco
+                }
+                checkMaxRows(rows.size() + 1);
+                rows.add(toImportRow(rows.size() + 1, record, columns));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer el archivo CSV: " + e.getMessage(), e);
+        }
+
+        if (rows.isEmpty()) {
+            throw new ValidationException("El archivo CSV no contiene productos");
+        }
+        return importRows(rows);
+    }
+
+    private ProductImportResultDTO importRows(List<ImportRow> rows) {
+        long start = System.currentTimeMillis();
+
+        validateRows(rows);
+        checkReferences(rows);
+
+        List<ImportRow> validRows = rows.stream().filter(row -> row.error == null).toList();
+        int imported = insertRows(validRows);
+        if (imported > 0) {
+            // Los INSERT por JDBC no pasan por Hibernate: las consultas cacheadas quedarían incompletas
+            secondLevelCacheEvictor.evictQueryResults();
+            catalogVersion.markChanged();
+        }
+
+        List<ProductImportErrorDTO> errors = rows.stream()
+                .filter(row -> row.error != null)
+                .sorted(Comparator.comparingInt(row -> row.rowNumber))
+                .map(row -> ProductImportErrorDTO.builder()
+                        .row(row.rowNumber)
+                        .name(row.product != null ? row.product.getName() : null)
+                        .message(row.error)
+                        .build())
+                .toList();
+
+        long duration = System.currentTimeMillis() - start;
+        log.info("Importación de productos finalizada: {} filas, {} importadas, {} con error en {} ms",
+                rows.size(), imported, errors.size(), duration);
+
+        return ProductImportResultDTO.builder()
+                .totalRows(rows.size())
+                .importedCount(imported)
+                .failedCount(errors.size())
+                .durationMs(duration)
+                .errors(errors)
+                .build();
+    }
+
+    /**
+     * Aplica las mismas validaciones de ProductRequestDTO que POST /api/products
+     * y detecta nombres repetidos dentro de la misma importación
+     */
+    private void validateRows(List<ImportRow> rows) {
+        Map<String, Integer> seenNames = new HashMap<>();
+
+        for (ImportRow row : rows) {
+            if (row.error != null) {
+                continue;
+            }
+
+            Set<ConstraintViolation<ProductRequestDTO>> violations = validator.validate(row.product);
+            if (!violations.isEmpty()) {
+                row.error = violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                continue;
+            }
+
+            Integer firstRow = seenNames.putIfAbsent(row.product.getName(), row.rowNumber);
+            if (firstRow != null) {
+                row.error = "Nombre repetido en la importación (ya aparece en la fila " + firstRow + ")";
+            }
+        }
+    }
+
+    /**
+     * Verifica nombres, categorías y marcas contra la base con una consulta por cada uno
+     */
+    private void checkReferences(List<ImportRow> rows) {
+        Set<String> names = new HashSet<>();
+        Set<Long> categoryIds = new HashSet<>();
+        Set<Long> brandIds = new HashSet<>();
+        for (ImportRow row : rows) {
+            if (row.error == null) {
+                names.add(row.product.getName());
+                categoryIds.add(row.product.getCategoryId());
+                brandIds.add(row.product.getBrandId());
+            }
+        }
+
+        Set<String> existingNames = queryExisting(
+                "SELECT name FROM products WHERE name = ANY(?)", "varchar", names, String.class);
+        Set<Long> existingCategories = queryExisting(
+                "SELECT idcategoria FROM categories WHERE idcategoria = ANY(?)", "bigint", categoryIds, Long.class);
+        Set<Long> existingBrands = queryExisting(
+                "SELECT marcaid FROM brands WHERE marcaid = ANY(?)", "bigint", brandIds, Long.class);
+
+        for (ImportRow row : rows) {
+            if (row.error != null) {
+                continue;
+            }
+            ProductRequestDTO product = row.product;
+            if (existingNames.contains(product.getName())) {
+                row.error = "Ya existe un producto con el nombre: " + product.getName();
+            } else if (!existingCategories.contains(product.getCategoryId())) {
+                row.error = "Categoría no encontrada con ID: " + product.getCategoryId();
+            } else if (!existingBrands.contains(product.getBrandId())) {
+                row.error = "Marca no encontrada con ID: " + product.getBrandId();
+            }
+        }
+    }
+
+    private <T> Set<T> queryExisting(String sql, String arrayType, Collection<?> values, Class<T> type) {
+        Set<T> result = new HashSet<>();
+        if (values.isEmpty()) {
+            return result;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setArray(1, connection.createArrayOf(arrayType, values.toArray()));
+            return ps;
+        }, (RowCallbackHandler) rs -> result.add(rs.getObject(1, type)));
+        return result;
+    }
+
+    /**
+     * Reserva los IDs de la secuencia e inserta por lotes; si un lote falla, se reintenta
+     * fila a fila para importar las válidas e informar solo las rechazadas
+     */
+    private int insertRows(List<ImportRow> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList(RESERVE_IDS_SQL, Long.class, rows.size());
+        int imported = 0;
+
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<ImportRow> batch = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            List<Long> batchIds = ids.subList(from, from + batch.size());
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertBatch(batch, batchIds));
+                imported += batch.size();
+            } catch (DataAccessException e) {
+                log.warn("Falló el lote de importación de las filas {} a {}, se reintenta fila a fila: {}",
+                        batch.get(0).rowNumber, batch.get(batch.size() - 1).rowNumber, e.getMessage());
+                imported += insertRowByRow(batch, batchIds);
+            }
+        }
+        return imported;
+    }
+
+    private void insertBatch(List<ImportRow> batch, List<Long> ids) {
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            args.add(insertArgs(batch.get(i).product, ids.get(i)));
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, args, INSERT_TYPES);
+        recordCreated(ids);
+    }
+
+    /**
+     * Inserta un lote fallido fila a fila en una sola transacción, con un savepoint por fila:
+     * una fila rechazada se revierte hasta su savepoint y se informa, el resto se confirma
+     */
+    private int insertRowByRow(List<ImportRow> batch, List<Long> ids) {
+        List<ImportRow> insertedRows = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> insertedIds = new ArrayList<>();
+                for (int i = 0; i < batch.size(); i++) {
+                    ImportRow row = batch.get(i);
+                    Object[] args = insertArgs(row.product, ids.get(i));
+                    try {
+                        savepointTemplate.executeWithoutResult(savepoint -> jdbcTemplate.update(INSERT_SQL, args, INSERT_TYPES));
+                        insertedRows.add(row);
+                        insertedIds.add(ids.get(i));
+                    } catch (DataAccessException e) {
+                        row.error = "Error al insertar la fila: " + e.getMostSpecificCause().getMessage();
+                    }
+                }
+                if (!insertedIds.isEmpty()) {
+                    recordCreated(insertedIds);
+                }
+            });
+        } catch (DataAccessException e) {
+            // Falló la transacción completa (p. ej. conexión): nada del lote quedó confirmado
+            log.warn("Falló la inserción fila a fila de las filas {} a {}: {}",
+                    batch.get(0).rowNumber, batch.get(batch.size() - 1).rowNumber, e.getMessage());
+            String message = "Error al insertar el lote: " + e.getMostSpecificCause().getMessage();
+            insertedRows.forEach(row -> row.error = message);
+            batch.stream().filter(row -> row.error == null).forEach(row -> row.error = message);
+            return 0;
+        }
+        return insertedRows.size();
+    }
+
+    private Object[] insertArgs(ProductRequestDTO product, Long id) {
+        String imageUrl = product.getImageUrl() == null || product.getImageUrl().isEmpty() ? null : product.getImageUrl();
+        return new Object[]{
+                id,
+                product.getName(),
+                product.getDescription(),
+                product.getCategoryId(),
+                product.getBrandId(),
+                product.getUnitPrice(),
+                imageUrl,
+                ProductStatus.ACTIVE.name()
+        };
+    }
+
+    /**
+     * Eventos de alta en la misma transacción del lote, con los nombres de categoría y marca
+     */
+    private void recordCreated(List<Long> ids) {
+        List<ProductResponseDTO> created = jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(ProductRowMapper.SELECT_PRODUCTS +
+                    " WHERE p.product_id = ANY(?) ORDER BY p.product_id");
+            ps.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, ProductRowMapper.INSTANCE);
+        catalogEventService.recordAll(CatalogEventType.PRODUCT_CREATED, created);
+    }
+
+    private void checkMaxRows(int rows) {
+        if (rows > maxRows) {
+            throw new ValidationException("La importación supera el máximo de " + maxRows + " productos");
+        }
+    }
+
+    private Map<String, Integer> parseHeader(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // Se ignora un posible BOM de UTF-8 al inicio del archivo
+            columns.put(header.get(i).replace("\uFEFF", "").trim(), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new ValidationException("Faltan columnas en la cabecera del CSV: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private ImportRow toImportRow(int rowNumber, List<String> record, Map<String, Integer> columns) {
+        ImportRow row = new ImportRow(rowNumber);
+        ProductRequestDTO product = ProductRequestDTO.builder()
+                .name(column(record, columns, "name"))
+                .description(column(record, columns, "description"))
+                .imageUrl(column(record, columns, "imageUrl"))
+                .build();
+        row.product = product;
+
+        try {
+            product.setCategoryId(parseLong(column(record, columns, "categoryId")));
+            product.setBrandId(parseLong(column(record, columns, "brandId")));
+            String unitPrice = column(record, columns, "unitPrice");
+            product.setUnitPrice(unitPrice != null ? new BigDecimal(unitPrice) : null);
+        } catch (NumberFormatException e) {
+            row.error = "Valor numérico inválido en la fila";
+        }
+        return row;
+    }
+
+    private String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private Long parseLong(String value) {
+        return value != null ? Long.valueOf(value) : null;
+    }
+
+    /**
+     * Lee un registro CSV según RFC 4180 (campos entre comillas pueden contener comas,
+     * comillas dobles escapadas y saltos de línea)
+     * @return campos del registro o null al final del archivo
+     */
+    private List<String> readRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static final class ImportRow {
+        private final int rowNumber;
+        private ProductRequestDTO product;
+        private String error;
+
+        private ImportRow(int rowNumber) {
+            this.rowNumber = rowNumber;
+        }
+    }
+}
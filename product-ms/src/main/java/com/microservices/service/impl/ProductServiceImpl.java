@@ -1,5 +1,7 @@
 package com.microservices.service.impl;
 
+import com.microservices.cache.CatalogVersion;
+import com.microservices.cache.ProductCache;
 import com.microservices.dto.*;
 import com.microservices.entity.*;
 import com.microservices.exception.*;
@@ -7,15 +9,22 @@ import com.microservices.mapper.ProductMapper;
 import com.microservices.repository.ProductRepository;
 import com.microservices.service.CategoryService;
 import com.microservices.service.BrandService;
+import com.microservices.service.CatalogEventService;
 import com.microservices.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -26,6 +35,13 @@ public class ProductServiceImpl implements ProductService {
     private final CategoryService categoryService;
     private final BrandService brandService;
     private final ProductMapper productMapper;
+    private final ProductCache productCache;
+    private final CatalogVersion catalogVersion;
+    private final CatalogEventService catalogEventService;
+    
+    // Máximo de IDs aceptados por GET /api/products/batch
+    @Value("${product.batch.max-ids:100}")
+    private int batchMaxIds;
     
     @Override
     public ProductResponseDTO createProduct(ProductRequestDTO requestDTO) {
@@ -45,15 +61,67 @@ public class ProductServiceImpl implements ProductService {
         product.setStatus(ProductStatus.ACTIVE);
         
         Product savedProduct = productRepository.save(product);
-        return productMapper.toResponseDTO(savedProduct);
+        catalogVersion.markChanged();
+        return recordEvent(CatalogEventType.PRODUCT_CREATED, savedProduct);
     }
     
     @Override
     @Transactional(readOnly = true)
     public ProductResponseDTO getProductById(Long id) {
+        ProductResponseDTO cached = productCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException("Producto no encontrado con ID: " + id));
-        return productMapper.toResponseDTO(product);
+        ProductResponseDTO response = productMapper.toResponseDTO(product);
+        productCache.put(response);
+        return response;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public ProductBatchResponseDTO getProductsByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new ValidationException("Debe indicar al menos un ID de producto");
+        }
+        
+        // Se eliminan duplicados conservando el orden solicitado
+        Set<Long> requestedIds = new LinkedHashSet<>(ids);
+        requestedIds.remove(null);
+        if (requestedIds.size() > batchMaxIds) {
+            throw new ValidationException("Se permiten como máximo " + batchMaxIds + " IDs por consulta");
+        }
+        
+        // Primero la caché; los faltantes se resuelven en una sola consulta con categoría y marca
+        Map<Long, ProductResponseDTO> found = new HashMap<>(productCache.getAll(requestedIds));
+        List<Long> missingFromCache = requestedIds.stream()
+                .filter(id -> !found.containsKey(id))
+                .toList();
+        
+        if (!missingFromCache.isEmpty()) {
+            List<ProductResponseDTO> loaded = productMapper.toResponseDTOList(
+                    productRepository.findAllWithCategoryAndBrandByIdIn(missingFromCache));
+            productCache.putAll(loaded);
+            loaded.forEach(product -> found.put(product.getProductId(), product));
+        }
+        
+        List<ProductResponseDTO> products = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requestedIds) {
+            ProductResponseDTO product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        
+        return ProductBatchResponseDTO.builder()
+                .products(products)
+                .missingIds(missingIds)
+                .build();
     }
     
     @Override
@@ -96,7 +164,9 @@ public class ProductServiceImpl implements ProductService {
         }
         
         Product savedProduct = productRepository.save(product);
-        return productMapper.toResponseDTO(savedProduct);
+        productCache.evict(id);
+        catalogVersion.markChanged();
+        return recordEvent(CatalogEventType.PRODUCT_UPDATED, savedProduct);
     }
     
     @Override
@@ -104,6 +174,9 @@ public class ProductServiceImpl implements ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException("Producto no encontrado con ID: " + id));
         productRepository.delete(product);
+        productCache.evict(id);
+        catalogVersion.markChanged();
+        catalogEventService.record(CatalogEventType.PRODUCT_DELETED, id, null);
     }
     
     @Override
@@ -301,7 +374,9 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new ProductNotFoundException("Producto no encontrado con ID: " + id));
         product.activate();
         Product savedProduct = productRepository.save(product);
-        return productMapper.toResponseDTO(savedProduct);
+        productCache.evict(id);
+        catalogVersion.markChanged();
+        return recordEvent(CatalogEventType.PRODUCT_ACTIVATED, savedProduct);
     }
     
     @Override
@@ -310,16 +385,38 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new ProductNotFoundException("Producto no encontrado con ID: " + id));
         product.deactivate();
         Product savedProduct = productRepository.save(product);
-        return productMapper.toResponseDTO(savedProduct);
+        productCache.evict(id);
+        catalogVersion.markChanged();
+        return recordEvent(CatalogEventType.PRODUCT_DEACTIVATED, savedProduct);
     }
     
     @Override
     public ProductResponseDTO updateProductImage(Long id, String imageUrl) {
+        // Los derivados de la imagen anterior dejan de ser válidos
+        return updateProductImages(id, imageUrl, Map.of());
+    }
+    
+    @Override
+    public ProductResponseDTO updateProductImages(Long id, String imageUrl, Map<ImageVariant, String> derivativeUrls) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException("Producto no encontrado con ID: " + id));
         
         product.setImageUrl(imageUrl);
+        product.setThumbnailUrl(derivativeUrls.get(ImageVariant.THUMBNAIL));
+        product.setCardImageUrl(derivativeUrls.get(ImageVariant.CARD));
+        product.setDetailImageUrl(derivativeUrls.get(ImageVariant.DETAIL));
         Product savedProduct = productRepository.save(product);
-        return productMapper.toResponseDTO(savedProduct);
+        productCache.evict(id);
+        catalogVersion.markChanged();
+        return recordEvent(CatalogEventType.PRODUCT_IMAGE_UPDATED, savedProduct);
+    }
+    
+    /**
+     * Registra el cambio en el outbox del catálogo, en la misma transacción que la escritura
+     */
+    private ProductResponseDTO recordEvent(CatalogEventType type, Product product) {
+        ProductResponseDTO response = productMapper.toResponseDTO(product);
+        catalogEventService.record(type, product.getProductId(), response);
+        return response;
     }
 }
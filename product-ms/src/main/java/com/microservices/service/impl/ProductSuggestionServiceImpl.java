@@ -0,0 +1,192 @@
+package com.microservices.service.impl;
+
+import com.microservices.dto.CatalogEventDTO;
+import com.microservices.dto.CatalogEventPageDTO;
+import com.microservices.dto.ProductResponseDTO;
+import com.microservices.dto.ProductSuggestionDTO;
+import com.microservices.entity.ProductStatus;
+import com.microservices.exception.ValidationException;
+import com.microservices.service.CatalogEventService;
+import com.microservices.service.ProductSuggestionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Implementación del typeahead de productos.
+ * Los nombres normalizados se guardan en mapas ordenados (skip lists) y cada prefijo se resuelve
+ * con una búsqueda de rango, O(log n + k), sin bloquear a los lectores. El índice se carga una vez
+ * y después se mantiene aplicando los eventos del outbox del catálogo, de modo que recoge
+ * también los cambios de otras instancias y de las importaciones masivas.
+ */
+@Service
+@Slf4j
+public class ProductSuggestionServiceImpl implements ProductSuggestionService {
+
+    private static final String ACTIVE_NAMES_SQL = "SELECT product_id, name FROM products WHERE status = ?";
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    // Separa el nombre del ID en la clave, para que productos con el mismo nombre no colisionen
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogEventService catalogEventService;
+    private final int maxLimit;
+    private final int batchSize;
+
+    private volatile Index index;
+    private long offset;
+
+    public ProductSuggestionServiceImpl(DataSource dataSource,
+                                        CatalogEventService catalogEventService,
+                                        @Value("${catalog.typeahead.max-limit:20}") int maxLimit,
+                                        @Value("${catalog.events.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.catalogEventService = catalogEventService;
+        this.maxLimit = maxLimit;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public List<ProductSuggestionDTO> suggest(String query, int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new ValidationException("El límite debe estar entre 1 y " + maxLimit);
+        }
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+
+        Index current = index;
+        if (current == null) {
+            current = rebuild();
+        }
+
+        Map<Long, ProductSuggestionDTO> results = new LinkedHashMap<>();
+        collect(current.names(), prefix, limit, results);
+        if (results.size() < limit) {
+            collect(current.words(), prefix, limit, results);
+        }
+        return new ArrayList<>(results.values());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${catalog.typeahead.refresh-ms:500}",
+               initialDelayString = "${catalog.typeahead.refresh-ms:500}")
+    public synchronized void refresh() {
+        if (index == null) {
+            rebuild();
+            return;
+        }
+
+        CatalogEventPageDTO page;
+        do {
+            page = catalogEventService.getEventsSince(offset, batchSize);
+            if (page.isReset()) {
+                log.info("Eventos del catálogo purgados antes de aplicarlos, se reconstruye el índice de sugerencias");
+                rebuild();
+                return;
+            }
+            page.getEvents().forEach(this::apply);
+            offset = page.getNextOffset();
+        } while (page.getEvents().size() == batchSize);
+    }
+
+    private synchronized Index rebuild() {
+        // El offset se toma antes de leer la tabla: los eventos posteriores se vuelven a aplicar (son idempotentes)
+        long latest = catalogEventService.getLatestOffset();
+        Index rebuilt = new Index(new ConcurrentSkipListMap<>(), new ConcurrentSkipListMap<>(), new ConcurrentHashMap<>());
+        jdbcTemplate.query(ACTIVE_NAMES_SQL, (RowCallbackHandler) rs ->
+                rebuilt.add(rs.getLong("product_id"), rs.getString("name")), ProductStatus.ACTIVE.name());
+
+        index = rebuilt;
+        offset = latest;
+        log.debug("Índice de sugerencias construido: {} productos, offset {}", rebuilt.indexedNames().size(), latest);
+        return rebuilt;
+    }
+
+    private void apply(CatalogEventDTO event) {
+        ProductResponseDTO product = event.getProduct();
+        if (product != null && product.getStatus() == ProductStatus.ACTIVE) {
+            index.remove(event.getProductId());
+            index.add(event.getProductId(), product.getName());
+        } else {
+            // Eliminado, desactivado o sin datos
+            index.remove(event.getProductId());
+        }
+    }
+
+    private void collect(NavigableMap<String, ProductSuggestionDTO> keys, String prefix, int limit,
+                         Map<Long, ProductSuggestionDTO> results) {
+        for (ProductSuggestionDTO suggestion : keys.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            results.putIfAbsent(suggestion.getProductId(), suggestion);
+            if (results.size() >= limit) {
+                return;
+            }
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String withoutAccents = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(withoutAccents.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * names: nombre completo normalizado; words: el nombre desde cada palabra interior
+     * ("funda iphone 15" también se encuentra por "iphone 15" y "15")
+     */
+    private record Index(ConcurrentSkipListMap<String, ProductSuggestionDTO> names,
+                         ConcurrentSkipListMap<String, ProductSuggestionDTO> words,
+                         ConcurrentHashMap<Long, String> indexedNames) {
+
+        void add(Long productId, String name) {
+            if (name == null) {
+                return;
+            }
+            ProductSuggestionDTO suggestion = ProductSuggestionDTO.builder().productId(productId).name(name).build();
+            String normalized = normalize(name);
+            names.put(normalized + KEY_SEPARATOR + productId, suggestion);
+            for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+                words.put(normalized.substring(i + 1) + KEY_SEPARATOR + productId, suggestion);
+            }
+            indexedNames.put(productId, name);
+        }
+
+        void remove(Long productId) {
+            String name = indexedNames.remove(productId);
+            if (name == null) {
+                return;
+            }
+            String normalized = normalize(name);
+            names.remove(normalized + KEY_SEPARATOR + productId);
+            for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+                words.remove(normalized.substring(i + 1) + KEY_SEPARATOR + productId);
+            }
+        }
+    }
+}
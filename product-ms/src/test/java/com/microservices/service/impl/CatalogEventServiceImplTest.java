@@ -0,0 +1,141 @@
+package com.microservices.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.dto.CatalogEventPageDTO;
+import com.microservices.entity.CatalogOutboxWatermark;
+import com.microservices.repository.CatalogOutboxEventRepository;
+import com.microservices.repository.CatalogOutboxWatermarkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para CatalogEventServiceImpl - Detección de offsets purgados del outbox
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CatalogEventServiceImpl Tests")
+class CatalogEventServiceImplTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private CatalogOutboxEventRepository outboxRepository;
+
+    @Mock
+    private CatalogOutboxWatermarkRepository watermarkRepository;
+
+    private CatalogEventServiceImpl catalogEventService;
+
+    @BeforeEach
+    void setUp() {
+        catalogEventService = new CatalogEventServiceImpl(dataSource, outboxRepository, watermarkRepository,
+                new ObjectMapper(), 1000, 72L);
+    }
+
+    private static CatalogOutboxWatermark watermark(long maxPurgedEventId) {
+        return CatalogOutboxWatermark.builder()
+                .watermarkId(CatalogOutboxWatermark.SINGLETON_ID)
+                .maxPurgedEventId(maxPurgedEventId)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should report reset for a stale offset when the purge emptied the outbox")
+    void shouldReportResetWhenPurgeEmptiedOutbox() {
+        // Given: se purgaron los eventos 1..500 y no queda ninguno
+        when(watermarkRepository.findById(CatalogOutboxWatermark.SINGLETON_ID)).thenReturn(Optional.of(watermark(500L)));
+        when(outboxRepository.findMinEventId()).thenReturn(null);
+        when(outboxRepository.findByEventIdGreaterThanOrderByEventIdAsc(anyLong(), any(Limit.class))).thenReturn(List.of());
+
+        // When
+        CatalogEventPageDTO page = catalogEventService.getEventsSince(100L, 100);
+
+        // Then
+        assertTrue(page.isReset());
+        assertNull(page.getOldestOffset());
+        assertEquals(500L, page.getPurgedOffset());
+        assertEquals(500L, CatalogEventServiceImpl.resumeOffset(page.getOldestOffset(), page.getPurgedOffset()));
+    }
+
+    @Test
+    @DisplayName("Should not report reset for a consumer already at the purge watermark")
+    void shouldNotReportResetAtWatermark() {
+        // Given
+        when(watermarkRepository.findById(CatalogOutboxWatermark.SINGLETON_ID)).thenReturn(Optional.of(watermark(500L)));
+        when(outboxRepository.findMinEventId()).thenReturn(null);
+        when(outboxRepository.findByEventIdGreaterThanOrderByEventIdAsc(anyLong(), any(Limit.class))).thenReturn(List.of());
+
+        // When
+        CatalogEventPageDTO page = catalogEventService.getEventsSince(500L, 100);
+
+        // Then
+        assertFalse(page.isReset());
+    }
+
+    @Test
+    @DisplayName("Should detect purged offsets against the watermark and the oldest retained event")
+    void shouldDetectPurgedOffsets() {
+        // Offset 0: desde el más antiguo conservado, nunca es reset
+        assertFalse(CatalogEventServiceImpl.isPurged(0L, null, 500L));
+        // Outbox vacío tras la purga
+        assertTrue(CatalogEventServiceImpl.isPurged(499L, null, 500L));
+        assertFalse(CatalogEventServiceImpl.isPurged(500L, null, 500L));
+        // Outbox con eventos conservados desde el 501
+        assertTrue(CatalogEventServiceImpl.isPurged(100L, 501L, 500L));
+        assertFalse(CatalogEventServiceImpl.isPurged(500L, 501L, 500L));
+        // Sin marca (purgas anteriores a guardarla): se usa el evento más antiguo conservado
+        assertTrue(CatalogEventServiceImpl.isPurged(10L, 50L, 0L));
+        assertFalse(CatalogEventServiceImpl.isPurged(10L, null, 0L));
+    }
+
+    @Test
+    @DisplayName("Should store the highest purged offset and delete up to it")
+    void shouldStoreWatermarkOnPurge() {
+        // Given
+        when(outboxRepository.findMaxEventIdCreatedBefore(any(LocalDateTime.class))).thenReturn(42L);
+        when(watermarkRepository.findLockedByWatermarkId(CatalogOutboxWatermark.SINGLETON_ID)).thenReturn(Optional.empty());
+        when(outboxRepository.deleteByEventIdLessThanEqual(42L)).thenReturn(42);
+
+        // When
+        catalogEventService.purgeExpired();
+
+        // Then
+        ArgumentCaptor<CatalogOutboxWatermark> saved = ArgumentCaptor.forClass(CatalogOutboxWatermark.class);
+        verify(watermarkRepository).save(saved.capture());
+        assertEquals(42L, saved.getValue().getMaxPurgedEventId());
+        verify(outboxRepository).deleteByEventIdLessThanEqual(42L);
+    }
+
+    @Test
+    @DisplayName("Should never move the watermark backwards")
+    void shouldNotMoveWatermarkBackwards() {
+        // Given: otra instancia ya purgó hasta el 100
+        when(outboxRepository.findMaxEventIdCreatedBefore(any(LocalDateTime.class))).thenReturn(42L);
+        when(watermarkRepository.findLockedByWatermarkId(CatalogOutboxWatermark.SINGLETON_ID))
+                .thenReturn(Optional.of(watermark(100L)));
+
+        // When
+        catalogEventService.purgeExpired();
+
+        // Then
+        verify(outboxRepository).deleteByEventIdLessThanEqual(100L);
+        verify(outboxRepository, never()).deleteByEventIdLessThanEqual(42L);
+    }
+}
@@ -8,6 +8,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -25,6 +26,15 @@ import java.io.IOException;
 public class AutoJwtValidationFilter extends OncePerRequestFilter {
 
     private final AuthClient authClient;
+    private final LocalJwtVerifier localJwtVerifier;
+
+    // remote: cada token se valida contra auth-ms; local: firma y expiración se verifican aquí
+    @Value("${jwt.validation-mode:remote}")
+    private String validationMode;
+
+    // En modo local, consultar también a auth-ms para detectar tokens revocados
+    @Value("${jwt.revocation-check:false}")
+    private boolean revocationCheck;
 
     @Override
     protected void doFilterInternal(
@@ -43,8 +53,8 @@ public class AutoJwtValidationFilter extends OncePerRequestFilter {
         }
 
         try {
-            // Validar token automáticamente con auth-ms
-            TokenValidationResponse validation = authClient.validateToken(authHeader);
+            // Validar token según el modo configurado (local o remoto)
+            TokenValidationResponse validation = validateToken(authHeader);
             
             if (validation.isValid()) {
                 // Agregar información del usuario al request
@@ -82,13 +92,37 @@ public class AutoJwtValidationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * En modo local verifica firma y expiración sin red; auth-ms solo se consulta para revocación.
+     * Si auth-ms no responde durante la comprobación de revocación se acepta la verificación local.
+     */
+    private TokenValidationResponse validateToken(String authHeader) {
+        if (!"local".equalsIgnoreCase(validationMode)) {
+            return authClient.validateToken(authHeader);
+        }
+        
+        TokenValidationResponse localValidation = localJwtVerifier.verify(authHeader.substring(7));
+        if (!localValidation.isValid() || !revocationCheck) {
+            return localValidation;
+        }
+        
+        try {
+            TokenValidationResponse remoteValidation = authClient.validateToken(authHeader);
+            return remoteValidation.isValid() ? localValidation : remoteValidation;
+        } catch (Exception e) {
+            log.warn("auth-ms no disponible para comprobar revocación, se usa la verificación local: {}", e.getMessage());
+            return localValidation;
+        }
+    }
+    
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         // No filtrar endpoints públicos
         String path = request.getRequestURI();
         String method = request.getMethod();
         return path.equals("/api/users/login") || 
+               path.equals("/api/users/refresh") || path.equals("/api/users/logout") || // Usan el refresh token
                (path.equals("/api/users") && "POST".equals(method)) || // Crear usuario (POST)
-               path.startsWith("/h2-console");
+               path.startsWith("/h2-console") || path.equals("/actuator/health");
     }
 }
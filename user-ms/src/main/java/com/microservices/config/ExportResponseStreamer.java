@@ -0,0 +1,96 @@
+package com.microservices.config;
+
+import com.microservices.exception.ServiceBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Ejecuta las exportaciones del listado de usuarios en exportTaskExecutor y las escribe a través de un
+ * ResponseBodyEmitter con su propio timeout. El executor y el timeout asíncronos globales de
+ * Spring MVC no se tocan, así que SSE, Callable y StreamingResponseBody no comparten este pool.
+ */
+@Component
+@Slf4j
+public class ExportResponseStreamer {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final ThreadPoolTaskExecutor exportTaskExecutor;
+    private final long timeoutMs;
+
+    public ExportResponseStreamer(@Qualifier("exportTaskExecutor") ThreadPoolTaskExecutor exportTaskExecutor,
+                                  @Value("${export.timeout-ms:600000}") long timeoutMs) {
+        this.exportTaskExecutor = exportTaskExecutor;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Lanza la exportación en el pool dedicado y devuelve el emitter que la transmite.
+     * Cada envío escribe en el socket, por lo que un cliente lento frena al hilo exportador
+     * en lugar de acumular datos en memoria.
+     * @throws ServiceBusyException (429 con Retry-After) si el pool y su cola están llenos
+     */
+    public ResponseBodyEmitter stream(MediaType mediaType, ExportWriter writer) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMs);
+        try {
+            exportTaskExecutor.execute(() -> export(emitter, mediaType, writer));
+        } catch (TaskRejectedException e) {
+            log.warn("Pool de exportación saturado, se rechaza la exportación");
+            throw ServiceBusyException.exportPoolSaturated();
+        }
+        return emitter;
+    }
+
+    private void export(ResponseBodyEmitter emitter, MediaType mediaType, ExportWriter writer) {
+        try (OutputStream outputStream = new BufferedOutputStream(new EmitterOutputStream(emitter, mediaType), CHUNK_SIZE)) {
+            writer.writeTo(outputStream);
+        } catch (Exception e) {
+            log.warn("Exportación interrumpida: {}", e.getMessage());
+            emitter.completeWithError(e);
+            return;
+        }
+        emitter.complete();
+    }
+
+    @FunctionalInterface
+    public interface ExportWriter {
+        void writeTo(OutputStream outputStream) throws IOException;
+    }
+
+    /**
+     * Adapta el emitter a OutputStream: cada bloque del buffer se envía como bytes sin convertir
+     */
+    private static final class EmitterOutputStream extends OutputStream {
+
+        private final ResponseBodyEmitter emitter;
+        private final MediaType mediaType;
+
+        private EmitterOutputStream(ResponseBodyEmitter emitter, MediaType mediaType) {
+            this.emitter = emitter;
+            this.mediaType = mediaType;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (length > 0) {
+                emitter.send(Arrays.copyOfRange(bytes, offset, offset + length), mediaType);
+            }
+        }
+    }
+}
@@ -69,7 +69,8 @@ public class JwtValidationFilter extends OncePerRequestFilter {
         String path = request.getRequestURI();
         String method = request.getMethod();
         return path.equals("/api/users/login") || 
+               path.equals("/api/users/refresh") || path.equals("/api/users/logout") || // Usan el refresh token
                (path.equals("/api/users") && "POST".equals(method)) || // Crear usuario (POST)
-               path.startsWith("/h2-console");
+               path.startsWith("/h2-console") || path.equals("/actuator/health");
     }
 }
@@ -0,0 +1,39 @@
+package com.microservices.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executor dedicado a BCrypt. El hashing es CPU intensivo y deliberadamente lento: ejecutarlo en
+ * un pool acotado evita que una ráfaga de logins ocupe todos los hilos de Tomcat. Con el pool y la
+ * cola llenos la tarea se rechaza y el login responde 429 en lugar de esperar.
+ */
+@Configuration
+@Slf4j
+public class PasswordHashingConfig {
+
+    @Value("${password-hashing.pool-size:0}") // 0 = un hilo por núcleo
+    private int poolSize;
+
+    @Value("${password-hashing.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor() {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hashing-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+
+        log.info("Executor de BCrypt configurado con {} hilos y cola de {}", threads, queueCapacity);
+        return executor;
+    }
+}
@@ -1,6 +1,7 @@
 package com.microservices.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -26,7 +27,10 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/users/login").permitAll() // Permitir login sin autenticación
+                .requestMatchers("/api/users/refresh", "/api/users/logout").permitAll() // Autenticadas con el refresh token
                 .requestMatchers("/h2-console/**").permitAll() // Permitir acceso a H2 console
+                .requestMatchers("/actuator/health").permitAll() // Salud
+                .requestMatchers("/actuator/**").hasRole("ADMIN") // Métricas y el resto de actuator, solo ADMIN
                 .requestMatchers(HttpMethod.POST, "/api/users").permitAll() // Permitir registro de usuarios (POST)
                 .anyRequest().authenticated() // Todas las demás rutas requieren autenticación
             )
@@ -43,7 +47,7 @@ public class SecurityConfig {
 
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${password-hashing.bcrypt-strength:10}") int bcryptStrength) {
+        return new BCryptPasswordEncoder(bcryptStrength); // Los hashes con otro coste se recalculan en el login
     }
 }
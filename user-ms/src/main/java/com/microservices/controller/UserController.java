@@ -1,20 +1,33 @@
 package com.microservices.controller;
 
+import com.microservices.config.ExportResponseStreamer;
 import com.microservices.dto.LoginDTO;
 import com.microservices.dto.LoginResponseDTO;
+import com.microservices.dto.RefreshTokenRequestDTO;
+import com.microservices.dto.UserFilterDTO;
+import com.microservices.dto.UserPageDTO;
 import com.microservices.dto.UserRequestDTO;
 import com.microservices.dto.UserResponseDTO;
 import com.microservices.dto.UserUpdateDTO;
+import com.microservices.entity.UserRole;
+import com.microservices.exception.InvalidCredentialsException;
 import com.microservices.service.AuthorizationService;
+import com.microservices.service.LoginThrottleService;
+import com.microservices.service.UserExportService;
 import com.microservices.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -25,6 +38,9 @@ public class UserController {
 
     private final UserService userService;
     private final AuthorizationService authorizationService; 
+    private final LoginThrottleService loginThrottleService; // Límite de logins fallidos por usuario e IP
+    private final UserExportService userExportService; // Exportación del listado en streaming
+    private final ExportResponseStreamer exportResponseStreamer; // Escribe las exportaciones en su pool dedicado
 
     @PostMapping
     public ResponseEntity<UserResponseDTO> createUser(@Valid @RequestBody UserRequestDTO userRequestDTO) {
@@ -101,6 +117,64 @@ public class UserController {
         return ResponseEntity.ok(users); // Retorna 200 OK
     }
 
+    /**
+     * Listado paginado por keyset (solo ADMIN)
+     * GET /api/users/page?afterId=100&size=50&role=USER&registeredFrom=2024-01-01T00:00:00&namePrefix=ana
+     * Parámetros:
+     * - afterId: nextAfterId de la página anterior (omitir en la primera página)
+     * - size: Elementos por página (default: 50, máximo user-listing.max-page-size)
+     * - role, registeredFrom (inclusive), registeredTo (exclusive), namePrefix (prefijo del userName): Filtros opcionales
+     * Retorna: UserPageDTO con los usuarios ordenados por id y el afterId de la página siguiente
+     */
+    @GetMapping("/page")
+    public ResponseEntity<UserPageDTO> getUsersPage(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) UserRole role,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime registeredFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime registeredTo,
+            @RequestParam(required = false) String namePrefix,
+            HttpServletRequest request) {
+        
+        if (!authorizationService.canPerformAdminOperations(request)) {
+            log.warn("Access denied for user {} to admin operations", request.getAttribute("userId"));
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        
+        UserFilterDTO filter = new UserFilterDTO(role, registeredFrom, registeredTo, namePrefix);
+        return ResponseEntity.ok(userService.getUsersPage(filter, afterId, size)); // Retorna 200 OK
+    }
+
+    /**
+     * Exportar el listado completo (o filtrado) en streaming (solo ADMIN)
+     * GET /api/users/export?role=USER&registeredFrom=...&registeredTo=...&namePrefix=...
+     * Retorna: Usuarios en NDJSON ordenados por id, leídos por lotes sin cargar la tabla completa en memoria.
+     * Se ejecuta en el executor de exportación.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<ResponseBodyEmitter> exportUsers(
+            @RequestParam(required = false) UserRole role,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime registeredFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime registeredTo,
+            @RequestParam(required = false) String namePrefix,
+            HttpServletRequest request) {
+        
+        if (!authorizationService.canPerformAdminOperations(request)) {
+            log.warn("Access denied for user {} to admin operations", request.getAttribute("userId"));
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        
+        UserFilterDTO filter = new UserFilterDTO(role, registeredFrom, registeredTo, namePrefix);
+        MediaType mediaType = MediaType.parseMediaType("application/x-ndjson");
+        ResponseBodyEmitter body = exportResponseStreamer.stream(mediaType,
+                outputStream -> userExportService.exportUsers(filter, outputStream));
+        
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.ndjson\"")
+                .body(body);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id, HttpServletRequest request) {
         log.debug("=== DELETE /api/users/{} ===", id);
@@ -124,8 +198,33 @@ public class UserController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponseDTO> login(@Valid @RequestBody LoginDTO loginDTO) {
-        LoginResponseDTO loginResponse = userService.login(loginDTO); // Autentica usuario y devuelve JWT
+    public ResponseEntity<LoginResponseDTO> login(@Valid @RequestBody LoginDTO loginDTO, HttpServletRequest request) {
+        String clientIp = loginThrottleService.resolveClientIp(request);
+        loginThrottleService.reserve(loginDTO.getUserName(), clientIp); // Cuenta el intento (429 si no quedan) antes de tocar la BD y BCrypt
+        
+        LoginResponseDTO loginResponse;
+        try {
+            loginResponse = userService.login(loginDTO); // Autentica usuario y devuelve JWT
+        } catch (InvalidCredentialsException e) {
+            loginThrottleService.recordFailure(); // El intento reservado queda contado como fallo
+            throw e;
+        } catch (RuntimeException e) {
+            loginThrottleService.release(loginDTO.getUserName(), clientIp); // No se comprobaron las credenciales
+            throw e;
+        }
+        loginThrottleService.recordSuccess(loginDTO.getUserName(), clientIp);
         return ResponseEntity.ok(loginResponse); // Retorna 200 OK con JWT y datos del usuario
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponseDTO> refresh(@Valid @RequestBody RefreshTokenRequestDTO refreshTokenRequestDTO) {
+        LoginResponseDTO loginResponse = userService.refresh(refreshTokenRequestDTO); // Rota el refresh token y emite un nuevo JWT
+        return ResponseEntity.ok(loginResponse); // Retorna 200 OK con el nuevo par de tokens
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequestDTO refreshTokenRequestDTO) {
+        userService.logout(refreshTokenRequestDTO); // Revoca la sesión del refresh token
+        return ResponseEntity.noContent().build(); // Retorna 204 No Content
+    }
 }
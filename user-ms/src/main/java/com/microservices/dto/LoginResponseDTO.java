@@ -16,7 +16,9 @@ public class LoginResponseDTO {
 
     private String token; // JWT Token
     private String tokenType; // "Bearer"
-    private Long expiresIn; // Tiempo de expiración en milisegundos
+    private Long expiresIn; // Tiempo de expiración del access token en milisegundos
+    private String refreshToken; // Refresh token de un solo uso para POST /api/users/refresh
+    private Long refreshExpiresIn; // Tiempo de expiración del refresh token en milisegundos
     
     // Datos del usuario
     private Long userId;
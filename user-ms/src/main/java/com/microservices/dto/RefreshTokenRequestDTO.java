@@ -0,0 +1,17 @@
+package com.microservices.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshTokenRequestDTO {
+
+    @NotBlank(message = "El refresh token es obligatorio")
+    private String refreshToken;
+}
@@ -0,0 +1,21 @@
+package com.microservices.dto;
+
+import com.microservices.entity.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserFilterDTO {
+
+    private UserRole role; // Rol exacto (opcional)
+    private LocalDateTime registeredFrom; // Fecha de registro desde, inclusive (opcional)
+    private LocalDateTime registeredTo; // Fecha de registro hasta, exclusive (opcional)
+    private String namePrefix; // Prefijo del nombre de usuario (opcional)
+}
@@ -0,0 +1,18 @@
+package com.microservices.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserPageDTO {
+
+    private List<UserResponseDTO> users;
+    private Long nextAfterId; // afterId a enviar para la página siguiente (null si es la última)
+}
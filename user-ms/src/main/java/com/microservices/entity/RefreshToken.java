@@ -0,0 +1,56 @@
+package com.microservices.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Refresh token persistido. Solo se guarda el hash SHA-256 del token (nunca el valor en claro).
+ * Todos los tokens obtenidos por rotación desde un mismo login comparten familyId, de modo que
+ * la reutilización de un token ya rotado revoca la familia completa.
+ */
+@Entity
+@Table(name = "refresh_tokens",
+       indexes = {
+           @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+           @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "id")
+@ToString(exclude = {"user"})
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash; // SHA-256 en hexadecimal del token entregado al cliente
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId; // Identificador de la cadena de rotaciones iniciada en un login
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE) // Al eliminar el usuario se eliminan sus sesiones
+    private User user;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "used_at")
+    private LocalDateTime usedAt; // Momento en que se rotó; un token usado no puede volver a usarse
+
+    @Column(name = "revoked", nullable = false)
+    private boolean revoked; // Revocado por logout o por reutilización detectada en su familia
+}
@@ -11,8 +11,12 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "users", 
        uniqueConstraints = {
-           @UniqueConstraint(columnNames = "email"),
-           @UniqueConstraint(columnNames = "user_name")
+           @UniqueConstraint(name = "uk_users_email", columnNames = "email"),
+           @UniqueConstraint(name = "uk_users_user_name", columnNames = "user_name")
+       },
+       indexes = {
+           @Index(name = "idx_users_role_id", columnList = "role, user_id"), // Listado por rol en orden de keyset
+           @Index(name = "idx_users_register_date", columnList = "register_date") // Filtro por fecha de registro
        })
 @EntityListeners(AuditingEntityListener.class)
 @Data
@@ -29,13 +33,13 @@ public class User {
     @Column(name = "user_id")
     private Long userId; // Identificador único auto-generado
 
-    @Column(name = "user_name", nullable = false, unique = true, length = 50)
+    @Column(name = "user_name", nullable = false, length = 50)
     @NotBlank(message = "El nombre de usuario es obligatorio")
     @Size(min = 3, max = 50, message = "El nombre de usuario debe tener entre 3 y 50 caracteres")
     @Pattern(regexp = "^[a-zA-Z0-9_]+$", message = "El nombre de usuario solo puede contener letras, números y guiones bajos")
     private String userName;
 
-    @Column(name = "email", nullable = false, unique = true, length = 100)
+    @Column(name = "email", nullable = false, length = 100)
     @NotBlank(message = "El correo electrónico es obligatorio")
     @Email(message = "El formato del correo electrónico no es válido")
     @Size(max = 100, message = "El correo electrónico no puede exceder 100 caracteres")
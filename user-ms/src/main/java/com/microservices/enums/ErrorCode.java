@@ -13,9 +13,12 @@ public enum ErrorCode {
     USER_NOT_FOUND("USER_001", "Usuario no encontrado"),
     USER_ALREADY_EXISTS("USER_002", "Usuario ya existe"),
     INVALID_CREDENTIALS("USER_003", "Credenciales inválidas"),
+    INVALID_REFRESH_TOKEN("USER_004", "Refresh token inválido"),
+    TOO_MANY_LOGIN_ATTEMPTS("USER_005", "Demasiados intentos de login"),
     VALIDATION_ERROR("VAL_001", "Error de validación"),
     DATABASE_ERROR("DB_001", "Error de base de datos"),
-    INTERNAL_ERROR("SYS_001", "Error interno del servidor");
+    INTERNAL_ERROR("SYS_001", "Error interno del servidor"),
+    SERVICE_BUSY("SYS_002", "Servicio saturado");
     
     private final String code; // Código único del error
     private final String message; // Mensaje del error
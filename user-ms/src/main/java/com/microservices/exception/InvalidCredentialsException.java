@@ -21,4 +21,8 @@ public class InvalidCredentialsException extends RuntimeException {
     public static InvalidCredentialsException invalidLogin() {
         return new InvalidCredentialsException("Credenciales inválidas. Usuario o contraseña incorrectos.", ErrorCode.INVALID_CREDENTIALS);
     }
+
+    public static InvalidCredentialsException invalidRefreshToken() {
+        return new InvalidCredentialsException("Refresh token inválido, expirado o revocado. Inicie sesión nuevamente.", ErrorCode.INVALID_REFRESH_TOKEN);
+    }
 }
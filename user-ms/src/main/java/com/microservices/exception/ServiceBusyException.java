@@ -0,0 +1,38 @@
+package com.microservices.exception;
+
+import com.microservices.enums.ErrorCode;
+
+/**
+ * Excepción lanzada cuando un recurso acotado está saturado y la petición debe reintentarse más tarde
+ */
+public class ServiceBusyException extends RuntimeException {
+    
+    private final ErrorCode errorCode;
+    private final long retryAfterSeconds;
+    
+    public ServiceBusyException(String message, ErrorCode errorCode, long retryAfterSeconds) {
+        super(message);
+        this.errorCode = errorCode;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+    
+    public static ServiceBusyException passwordHashingSaturated() {
+        return new ServiceBusyException("Demasiadas autenticaciones en curso. Intente nuevamente en unos segundos.", ErrorCode.SERVICE_BUSY, 1);
+    }
+    
+    public static ServiceBusyException tooManyLoginAttempts(long retryAfterSeconds) {
+        return new ServiceBusyException("Demasiados intentos de login fallidos. Intente nuevamente más tarde.", ErrorCode.TOO_MANY_LOGIN_ATTEMPTS, retryAfterSeconds);
+    }
+    
+    public static ServiceBusyException exportPoolSaturated() {
+        return new ServiceBusyException("Demasiadas exportaciones en curso. Intente nuevamente en unos segundos.", ErrorCode.SERVICE_BUSY, 5);
+    }
+}
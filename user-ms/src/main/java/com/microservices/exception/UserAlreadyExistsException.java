@@ -25,4 +25,8 @@ public class UserAlreadyExistsException extends RuntimeException {
     public static UserAlreadyExistsException byEmail(String email) {
         return new UserAlreadyExistsException("Ya existe un usuario con el email: " + email, ErrorCode.USER_ALREADY_EXISTS);
     }
+    
+    public static UserAlreadyExistsException byUserNameOrEmail() {
+        return new UserAlreadyExistsException("Ya existe un usuario con ese nombre de usuario o email", ErrorCode.USER_ALREADY_EXISTS);
+    }
 }
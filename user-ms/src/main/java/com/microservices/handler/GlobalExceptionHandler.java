@@ -3,10 +3,12 @@ package com.microservices.handler;
 import com.microservices.dto.error.ErrorDetailDTO;
 import com.microservices.enums.ErrorCode;
 import com.microservices.exception.InvalidCredentialsException;
+import com.microservices.exception.ServiceBusyException;
 import com.microservices.exception.UserAlreadyExistsException;
 import com.microservices.exception.UserNotFoundException;
 import com.microservices.exception.ValidationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -62,6 +64,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
     }
     
+    /**
+     * Maneja excepciones de saturación (backpressure): 429 con Retry-After
+     */
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<Map<String, Object>> handleServiceBusyException(ServiceBusyException ex) {
+        log.warn("Servicio saturado: {}", ex.getMessage());
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", ex.getErrorCode().getCode());
+        response.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+    
     /**
      * Maneja excepciones de validación personalizadas
      */
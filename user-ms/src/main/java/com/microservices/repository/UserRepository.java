@@ -3,14 +3,20 @@ package com.microservices.repository;
 import com.microservices.entity.User;
 import com.microservices.entity.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
     // Repositorio JPA para operaciones de base de datos con métodos de búsqueda personalizados
+    // Los listados filtrados y paginados por keyset usan UserSpecifications con findBy(spec, ...)
 
     Optional<User> findByUserName(String userName); 
 
@@ -21,5 +27,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email); 
 
+    // Usuarios que ya usan el userName o el email (como mucho dos filas): una sola consulta para ambas comprobaciones
+    List<UserIdentity> findByUserNameOrEmail(String userName, String email);
+
     List<User> findByRole(UserRole role); 
+
+    // Rehash tras el login en su propia transacción corta: solo sustituye el hash si sigue siendo el leído,
+    // así no pisa un cambio de contraseña concurrente ni el resto de columnas de la fila
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.userId = :userId AND u.password = :oldHash")
+    int updatePasswordIfUnchanged(@Param("userId") Long userId, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+    // Proyección con solo las columnas necesarias para detectar conflictos de unicidad
+    interface UserIdentity {
+        Long getUserId();
+        String getUserName();
+        String getEmail();
+    }
 }
@@ -0,0 +1,53 @@
+package com.microservices.repository;
+
+import com.microservices.dto.UserFilterDTO;
+import com.microservices.entity.User;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filtros del listado de usuarios traducidos a predicados SQL.
+ * Solo se añaden los filtros informados, de modo que la consulta generada no lleva
+ * condiciones "IS NULL OR ..." que impidan usar los índices.
+ */
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    /**
+     * Usuarios que cumplen el filtro con id mayor que afterId (paginación por keyset)
+     * @param filter filtros opcionales (puede ser null)
+     * @param afterId último id de la página anterior (null para la primera página)
+     */
+    public static Specification<User> matching(UserFilterDTO filter, Long afterId) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (afterId != null) {
+                predicates.add(cb.greaterThan(root.get("userId"), afterId));
+            }
+            if (filter != null) {
+                if (filter.getRole() != null) {
+                    predicates.add(cb.equal(root.get("role"), filter.getRole()));
+                }
+                if (filter.getRegisteredFrom() != null) {
+                    predicates.add(cb.greaterThanOrEqualTo(root.get("registerDate"), filter.getRegisteredFrom()));
+                }
+                if (filter.getRegisteredTo() != null) {
+                    predicates.add(cb.lessThan(root.get("registerDate"), filter.getRegisteredTo()));
+                }
+                if (filter.getNamePrefix() != null && !filter.getNamePrefix().isEmpty()) {
+                    predicates.add(cb.like(root.get("userName"), escapeLike(filter.getNamePrefix()) + "%", '\\'));
+                }
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
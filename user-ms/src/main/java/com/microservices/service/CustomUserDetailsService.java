@@ -1,7 +1,5 @@
 package com.microservices.service;
 
-import com.microservices.entity.User;
-import com.microservices.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,21 +9,27 @@ import org.springframework.stereotype.Service;
 
 import java.util.Collections;
 
+/**
+ * Carga usuarios desde la caché de perfiles; se invoca en cada petición autenticada.
+ * La caché no guarda credenciales, así que el UserDetails devuelto lleva la contraseña vacía:
+ * sirve para identidad y roles, y cualquier comprobación de contraseña contra él falla.
+ * El login verifica la contraseña contra la base de datos (UserService.login).
+ */
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
-    private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
 
     @Override
     public UserDetails loadUserByUsername(String userName) throws UsernameNotFoundException {
-        User user = userRepository.findByUserName(userName)
+        UserProfileCache.UserProfile profile = userProfileCache.getByUserName(userName)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + userName));
 
         return new org.springframework.security.core.userdetails.User(
-                user.getUserName(),
-                user.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
+                profile.userName(),
+                "",
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + profile.role().name()))
         );
     }
 }
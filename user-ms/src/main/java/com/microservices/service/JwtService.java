@@ -1,30 +1,41 @@
 package com.microservices.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class JwtService {
 
-    @Value("${jwt.secret:404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970}")
-    private String secretKey;
+    // Firma con la clave privada activa (EdDSA o RS256); los verificadores solo necesitan las públicas (JWKS)
+    private final SigningKeyService signingKeyService;
 
-    @Value("${jwt.expiration:86400000}") // 24 horas por defecto
+    @Value("${jwt.expiration:900000}") // 15 minutos por defecto; la sesión se extiende con refresh tokens
     private long jwtExpiration;
 
+    // La clave se resuelve por el kid del header en cada token; el parser se construye una sola vez
+    private volatile JwtParser jwtParser;
+
+    /**
+     * Duración de los access tokens en milisegundos
+     */
+    public long getJwtExpiration() {
+        return jwtExpiration;
+    }
+
     /**
      * Extrae el nombre de usuario del token JWT
      */
@@ -79,13 +90,16 @@ public class JwtService {
             UserDetails userDetails,
             long expiration
     ) {
+        SigningKeyService.SigningKey signingKey = signingKeyService.activeKey();
         return Jwts
                 .builder()
+                .header().keyId(signingKey.kid()).and() // kid: los verificadores eligen la clave pública del JWKS
                 .claims(extraClaims)
+                .id(UUID.randomUUID().toString()) // jti: permite revocar el token en auth-ms
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey())
+                .signWith(signingKey.privateKey(), signingKey.algorithm())
                 .compact();
     }
 
@@ -97,13 +111,16 @@ public class JwtService {
             com.microservices.entity.User user,
             long expiration
     ) {
+        SigningKeyService.SigningKey signingKey = signingKeyService.activeKey();
         return Jwts
                 .builder()
+                .header().keyId(signingKey.kid()).and() // kid: los verificadores eligen la clave pública del JWKS
                 .claims(extraClaims)
+                .id(UUID.randomUUID().toString()) // jti: permite revocar el token en auth-ms
                 .subject(user.getUserName())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey())
+                .signWith(signingKey.privateKey(), signingKey.algorithm())
                 .compact();
     }
 
@@ -133,19 +150,22 @@ public class JwtService {
      * Extrae todas las claims del token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSignInKey())
-                .build()
+        return getParser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
     /**
-     * Obtiene la clave de firma
+     * Obtiene el parser reutilizable (se construye la primera vez)
      */
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private JwtParser getParser() {
+        JwtParser parser = jwtParser;
+        if (parser == null) {
+            parser = Jwts.parser()
+                    .keyLocator(signingKeyService::locate)
+                    .build();
+            jwtParser = parser;
+        }
+        return parser;
     }
 }
@@ -0,0 +1,170 @@
+package com.microservices.service;
+
+import com.microservices.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Limita los intentos de login fallidos por nombre de usuario y por IP con contadores de ventana
+ * deslizante en memoria. Cada intento se reserva (se cuenta como fallo) antes de consultar la base de
+ * datos y BCrypt, y se devuelve si resulta correcto: así los intentos en paralelo también consumen
+ * el límite y un atacante no puede forzar ese trabajo una vez superado el umbral.
+ */
+@Service
+@Slf4j
+public class LoginThrottleService {
+
+    private final SlidingWindowCounter userFailures;
+    private final SlidingWindowCounter ipFailures;
+    private final long windowMillis;
+    private final int maxFailuresPerUser;
+    private final int maxFailuresPerIp;
+    private final List<IpAddressMatcher> trustedProxies;
+    private final Counter failedCounter;
+    private final Counter rejectedByUserCounter;
+    private final Counter rejectedByIpCounter;
+
+    public LoginThrottleService(MeterRegistry meterRegistry,
+                                @Value("${login-throttle.window-ms:300000}") long windowMillis,
+                                @Value("${login-throttle.max-failures-per-user:5}") int maxFailuresPerUser,
+                                @Value("${login-throttle.max-failures-per-ip:50}") int maxFailuresPerIp,
+                                @Value("${login-throttle.shards:32}") int shards,
+                                @Value("${login-throttle.trusted-proxies:}") List<String> trustedProxies) {
+        this.userFailures = new SlidingWindowCounter(windowMillis, shards);
+        this.ipFailures = new SlidingWindowCounter(windowMillis, shards);
+        this.windowMillis = windowMillis;
+        this.maxFailuresPerUser = maxFailuresPerUser;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.trustedProxies = trustedProxies.stream()
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+
+        this.failedCounter = Counter.builder("login.attempts.failed")
+                .description("Intentos de login con credenciales inválidas")
+                .register(meterRegistry);
+        this.rejectedByUserCounter = Counter.builder("login.throttle.rejected")
+                .description("Logins rechazados por superar el límite de fallos")
+                .tag("scope", "user")
+                .register(meterRegistry);
+        this.rejectedByIpCounter = Counter.builder("login.throttle.rejected")
+                .description("Logins rechazados por superar el límite de fallos")
+                .tag("scope", "ip")
+                .register(meterRegistry);
+        Gauge.builder("login.throttle.tracked", userFailures, SlidingWindowCounter::size)
+                .description("Claves con fallos recientes en memoria")
+                .tag("scope", "user")
+                .register(meterRegistry);
+        Gauge.builder("login.throttle.tracked", ipFailures, SlidingWindowCounter::size)
+                .description("Claves con fallos recientes en memoria")
+                .tag("scope", "ip")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserva un intento para el usuario y la IP contándolo ya como fallo; la comprobación del límite y
+     * el conteo son atómicos, de modo que los logins en paralelo no pueden superar el límite entre ambos
+     * @throws ServiceBusyException (429) si el usuario o la IP ya alcanzaron su límite
+     */
+    public void reserve(String userName, String clientIp) {
+        long now = System.currentTimeMillis();
+        if (clientIp != null && !ipFailures.tryIncrement(clientIp, now, maxFailuresPerIp)) {
+            rejectedByIpCounter.increment();
+            log.warn("Login bloqueado temporalmente para IP {}", clientIp);
+            throw ServiceBusyException.tooManyLoginAttempts(retryAfterSeconds(now));
+        }
+        if (userName != null && !userFailures.tryIncrement(userKey(userName), now, maxFailuresPerUser)) {
+            if (clientIp != null) {
+                ipFailures.decrement(clientIp, now); // El intento rechazado no llega a ejecutarse
+            }
+            rejectedByUserCounter.increment();
+            log.warn("Login bloqueado temporalmente para usuario {}", userName);
+            throw ServiceBusyException.tooManyLoginAttempts(retryAfterSeconds(now));
+        }
+    }
+
+    /**
+     * El intento reservado fue un login fallido: ya está contado, solo se registra la métrica
+     */
+    public void recordFailure() {
+        failedCounter.increment();
+    }
+
+    /**
+     * Un login correcto limpia los fallos del usuario y devuelve el intento reservado de la IP
+     * (sus fallos anteriores se conservan porque la IP puede ser compartida)
+     */
+    public void recordSuccess(String userName, String clientIp) {
+        if (userName != null) {
+            userFailures.reset(userKey(userName));
+        }
+        if (clientIp != null) {
+            ipFailures.decrement(clientIp, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Devuelve el intento reservado cuando el login no llegó a comprobar las credenciales
+     * (pool de BCrypt saturado u otro error), para no penalizarlo como fallo
+     */
+    public void release(String userName, String clientIp) {
+        long now = System.currentTimeMillis();
+        if (userName != null) {
+            userFailures.decrement(userKey(userName), now);
+        }
+        if (clientIp != null) {
+            ipFailures.decrement(clientIp, now);
+        }
+    }
+
+    /**
+     * IP del cliente. X-Forwarded-For solo se tiene en cuenta si la petición llega desde un proxy de confianza
+     * (login-throttle.trusted-proxies); en ese caso se usa su última entrada, la que añadió el proxy, porque
+     * las anteriores las puede fijar el propio cliente. Cualquier otra petición se identifica por remoteAddr
+     */
+    public String resolveClientIp(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor != null && !forwardedFor.isBlank() && isTrustedProxy(remoteAddr)) {
+            String[] hops = forwardedFor.split(",");
+            return hops[hops.length - 1].trim();
+        }
+        return remoteAddr;
+    }
+
+    /**
+     * Libera periódicamente las claves sin fallos recientes
+     */
+    @Scheduled(fixedDelayString = "${login-throttle.window-ms:300000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        userFailures.evictIdle(now);
+        ipFailures.evictIdle(now);
+    }
+
+    private boolean isTrustedProxy(String remoteAddr) {
+        return remoteAddr != null && trustedProxies.stream().anyMatch(proxy -> proxy.matches(remoteAddr));
+    }
+
+    private String userKey(String userName) {
+        return userName.trim().toLowerCase(Locale.ROOT); // Evita esquivar el límite cambiando mayúsculas
+    }
+
+    private long retryAfterSeconds(long now) {
+        // El estimado decrece a medida que la ventana anterior deja de solaparse; se sugiere reintentar
+        // al final de la ventana actual
+        long remainingMillis = windowMillis - Math.floorMod(now, windowMillis);
+        return Math.max(1L, (remainingMillis + 999) / 1000);
+    }
+}
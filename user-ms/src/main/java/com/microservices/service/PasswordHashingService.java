@@ -0,0 +1,99 @@
+package com.microservices.service;
+
+import com.microservices.exception.ServiceBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hashing y verificación de contraseñas en el executor acotado de BCrypt.
+ * Si el executor está saturado o la tarea espera demasiado se lanza ServiceBusyException (429).
+ * También indica qué hashes almacenados deben recalcularse con el coste configurado.
+ */
+@Service
+@Slf4j
+public class PasswordHashingService {
+
+    // $2a$10$... / $2b$12$...: el segundo campo es el coste (log2 de las rondas)
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abyx]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final Executor executor;
+    private final long timeoutMs;
+    private final int bcryptStrength;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Qualifier("passwordHashingExecutor") Executor executor,
+                                  @Value("${password-hashing.timeout-ms:5000}") long timeoutMs,
+                                  @Value("${password-hashing.bcrypt-strength:10}") int bcryptStrength) {
+        this.passwordEncoder = passwordEncoder;
+        this.executor = executor;
+        this.timeoutMs = timeoutMs;
+        this.bcryptStrength = bcryptStrength;
+    }
+
+    /**
+     * Verifica la contraseña contra el hash almacenado
+     * @throws ServiceBusyException si el executor de BCrypt está saturado
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Calcula el hash de la contraseña con el coste configurado
+     * @throws ServiceBusyException si el executor de BCrypt está saturado
+     */
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Indica si el hash se generó con un coste distinto del configurado (más bajo tras subirlo,
+     * o más alto tras bajarlo para recuperar capacidad) y debe recalcularse en el próximo login
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != bcryptStrength;
+    }
+
+    private <T> T run(Supplier<T> task) {
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            throw ServiceBusyException.passwordHashingSaturated();
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false); // Si aún no empezó, no llega a ejecutarse
+            log.warn("Hashing de contraseña sin completar en {} ms", timeoutMs);
+            throw ServiceBusyException.passwordHashingSaturated();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ServiceBusyException.passwordHashingSaturated();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Error en el hashing de contraseña", e.getCause());
+        }
+    }
+}
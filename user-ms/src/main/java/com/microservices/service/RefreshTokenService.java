@@ -0,0 +1,139 @@
+package com.microservices.service;
+
+import com.microservices.entity.RefreshToken;
+import com.microservices.entity.User;
+import com.microservices.exception.InvalidCredentialsException;
+import com.microservices.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Emisión y rotación de refresh tokens.
+ * Cada refresh token es opaco, de un solo uso y se reemplaza por uno nuevo al usarse. Si un token
+ * ya rotado vuelve a presentarse (robado o reenviado), se revoca toda su familia y el usuario
+ * debe volver a hacer login.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt.refresh-expiration:604800000}") // 7 días por defecto
+    private long refreshExpiration;
+
+    /**
+     * Crea el primer refresh token de una nueva familia (login)
+     * @return token en claro para entregar al cliente
+     */
+    @Transactional
+    public String issue(User user) {
+        return create(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Consume el refresh token y emite su sucesor en la misma familia
+     * @throws InvalidCredentialsException si el token no existe, expiró, fue revocado o ya se había usado
+     */
+    @Transactional(noRollbackFor = InvalidCredentialsException.class) // La revocación por reutilización debe persistir
+    public RotatedRefreshToken rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHashForUpdate(hash(rawToken))
+                .orElseThrow(InvalidCredentialsException::invalidRefreshToken);
+
+        if (current.getUsedAt() != null || current.isRevoked()) {
+            int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId());
+            log.warn("Reutilización de refresh token del usuario {}: familia {} revocada ({} tokens)",
+                    current.getUser().getUserName(), current.getFamilyId(), revoked);
+            throw InvalidCredentialsException.invalidRefreshToken();
+        }
+        if (current.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw InvalidCredentialsException.invalidRefreshToken();
+        }
+
+        current.setUsedAt(LocalDateTime.now());
+        String next = create(current.getUser(), current.getFamilyId());
+        return new RotatedRefreshToken(current.getUser(), next);
+    }
+
+    /**
+     * Revoca la familia del refresh token (logout). Un token desconocido se ignora.
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    /**
+     * Revoca todas las sesiones del usuario (por ejemplo, tras cambiar la contraseña)
+     */
+    @Transactional
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.revokeAllByUserId(userId);
+    }
+
+    public long getRefreshExpiration() {
+        return refreshExpiration;
+    }
+
+    /**
+     * Elimina los refresh tokens expirados; los revocados se conservan hasta expirar para
+     * seguir detectando su reutilización
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-purge-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("Refresh tokens expirados eliminados: {}", deleted);
+        }
+    }
+
+    private String create(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(rawToken))
+                .familyId(familyId)
+                .user(user)
+                .createdAt(now)
+                .expiresAt(now.plusNanos(refreshExpiration * 1_000_000L))
+                .revoked(false)
+                .build());
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Resultado de una rotación: el usuario dueño de la sesión y el nuevo refresh token en claro
+     */
+    public record RotatedRefreshToken(User user, String refreshToken) {
+    }
+}
@@ -0,0 +1,256 @@
+package com.microservices.service;
+
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Conjunto rotativo de claves asimétricas (EdDSA o RS256) con las que user-ms firma los JWT.
+ * Cada clave se guarda como {kid}.key (privada, PKCS#8) en jwt.keys.dir, que solo monta user-ms,
+ * y como {kid}.pub (pública, X.509) en jwt.keys.public-dir, que auth-ms lee y publica como JWKS.
+ * El kid codifica el instante de activación: la clave siguiente se genera y publica antes de
+ * usarse, para que los verificadores ya la tengan en caché cuando aparezcan los primeros tokens.
+ */
+@Service
+@Slf4j
+public class SigningKeyService {
+
+    private final Path directory;
+    private final Path publicDirectory;
+    private final String algorithm;
+    private final long rotationPeriodMs;
+    private final long publishAheadMs;
+    private final long retentionMs;
+
+    // Claves cargadas, ordenadas por activación; se reemplaza completa en cada recarga
+    private volatile List<SigningKey> keys = List.of();
+
+    public SigningKeyService(@Value("${jwt.keys.dir:data/jwt-keys}") Path directory,
+                             @Value("${jwt.keys.public-dir:data/jwt-public-keys}") Path publicDirectory,
+                             @Value("${jwt.keys.algorithm:EdDSA}") String algorithm,
+                             @Value("${jwt.keys.rotation-period-ms:604800000}") long rotationPeriodMs,
+                             @Value("${jwt.keys.publish-ahead-ms:3600000}") long publishAheadMs,
+                             @Value("${jwt.keys.retention-ms:86400000}") long retentionMs) {
+        if (!"EdDSA".equals(algorithm) && !"RS256".equals(algorithm)) {
+            throw new IllegalArgumentException("Algoritmo de firma no soportado: " + algorithm + " (use EdDSA o RS256)");
+        }
+        this.directory = directory;
+        this.publicDirectory = publicDirectory;
+        this.algorithm = algorithm;
+        this.rotationPeriodMs = rotationPeriodMs;
+        this.publishAheadMs = publishAheadMs;
+        this.retentionMs = retentionMs;
+    }
+
+    @PostConstruct
+    void init() {
+        rotateIfNeeded();
+        log.info("Claves de firma JWT cargadas: {} (activa: {})", keys.size(), activeKey().kid());
+    }
+
+    /**
+     * Recarga el directorio (otras instancias pueden haber rotado), genera la clave actual o la
+     * siguiente si hace falta y elimina las claves retiradas hace más de jwt.keys.retention-ms
+     */
+    @Scheduled(fixedDelayString = "${jwt.keys.check-ms:60000}")
+    public synchronized void rotateIfNeeded() {
+        long now = System.currentTimeMillis();
+        List<SigningKey> loaded = load();
+
+        if (loaded.stream().noneMatch(key -> key.activatesAt() <= now)) {
+            loaded = append(loaded, generate(now));
+        }
+        SigningKey newest = loaded.get(loaded.size() - 1);
+        long nextActivation = newest.activatesAt() + rotationPeriodMs;
+        if (newest.activatesAt() <= now && nextActivation - publishAheadMs <= now) {
+            loaded = append(loaded, generate(Math.max(now, nextActivation)));
+            log.info("Nueva clave de firma publicada; se activará en {} ms", Math.max(0, nextActivation - now));
+        }
+
+        keys = removeRetired(loaded, now);
+    }
+
+    /**
+     * Clave con la que se firman los tokens nuevos: la de activación más reciente ya alcanzada
+     */
+    public SigningKey activeKey() {
+        long now = System.currentTimeMillis();
+        List<SigningKey> current = keys;
+        for (int i = current.size() - 1; i >= 0; i--) {
+            if (current.get(i).activatesAt() <= now) {
+                return current.get(i);
+            }
+        }
+        throw new IllegalStateException("No hay clave de firma activa en " + directory);
+    }
+
+    /**
+     * Localiza la clave pública por el kid del header, para verificar tokens propios
+     * @return null si el kid no corresponde a ninguna clave vigente
+     */
+    public Key locate(Header header) {
+        if (!(header instanceof ProtectedHeader protectedHeader) || protectedHeader.getKeyId() == null) {
+            return null;
+        }
+        String kid = protectedHeader.getKeyId();
+        for (SigningKey key : keys) {
+            if (key.kid().equals(kid)) {
+                return key.publicKey();
+            }
+        }
+        return null;
+    }
+
+    private List<SigningKey> load() {
+        try {
+            Files.createDirectories(directory);
+            Files.createDirectories(publicDirectory);
+            try (Stream<Path> files = Files.list(directory)) {
+                return files.filter(file -> file.getFileName().toString().endsWith(".key"))
+                        .map(this::read)
+                        .filter(key -> key != null)
+                        .sorted(Comparator.comparingLong(SigningKey::activatesAt))
+                        .toList();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el directorio de claves " + directory, e);
+        }
+    }
+
+    private SigningKey read(Path privateFile) {
+        String kid = privateFile.getFileName().toString().replace(".key", "");
+        Path publicFile = publicDirectory.resolve(kid + ".pub");
+        try {
+            String[] parts = kid.split("-");
+            long activatesAt = Long.parseLong(parts[0]);
+            String keyAlgorithm = parts[1];
+            KeyFactory factory = KeyFactory.getInstance("EdDSA".equals(keyAlgorithm) ? "Ed25519" : "RSA");
+            PrivateKey privateKey = factory.generatePrivate(new PKCS8EncodedKeySpec(readPem(privateFile)));
+            PublicKey publicKey = factory.generatePublic(new X509EncodedKeySpec(readPem(publicFile)));
+            return new SigningKey(kid, activatesAt, signatureAlgorithm(keyAlgorithm), privateKey, publicKey);
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            // Archivo a medio escribir por otra instancia o ajeno al formato: se reintenta en la próxima recarga
+            log.warn("Clave de firma ignorada {}: {}", privateFile.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private SigningKey generate(long activatesAt) {
+        String kid = activatesAt + "-" + algorithm + "-" + HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextInt());
+        try {
+            KeyPairGenerator generator;
+            if ("EdDSA".equals(algorithm)) {
+                generator = KeyPairGenerator.getInstance("Ed25519");
+            } else {
+                generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(2048);
+            }
+            KeyPair pair = generator.generateKeyPair();
+
+            // La pública se escribe primero: la privada (que es lo que se carga) nunca aparece sin su pública
+            writePem(publicDirectory.resolve(kid + ".pub"), "PUBLIC KEY", pair.getPublic().getEncoded(), false);
+            writePem(directory.resolve(kid + ".key"), "PRIVATE KEY", pair.getPrivate().getEncoded(), true);
+            return new SigningKey(kid, activatesAt, signatureAlgorithm(algorithm), pair.getPrivate(), pair.getPublic());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo generar la clave de firma " + algorithm, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo guardar la clave de firma en " + directory, e);
+        }
+    }
+
+    /**
+     * Una clave deja de ser necesaria cuando fue reemplazada hace más de retentionMs
+     * (más que la vida de cualquier token firmado con ella)
+     */
+    private List<SigningKey> removeRetired(List<SigningKey> loaded, long now) {
+        List<SigningKey> kept = new ArrayList<>();
+        for (int i = 0; i < loaded.size(); i++) {
+            SigningKey key = loaded.get(i);
+            boolean retired = i + 1 < loaded.size()
+                    && loaded.get(i + 1).activatesAt() <= now
+                    && now - loaded.get(i + 1).activatesAt() > retentionMs;
+            if (!retired) {
+                kept.add(key);
+                continue;
+            }
+            try {
+                Files.deleteIfExists(directory.resolve(key.kid() + ".key"));
+                Files.deleteIfExists(publicDirectory.resolve(key.kid() + ".pub"));
+                log.info("Clave de firma retirada: {}", key.kid());
+            } catch (IOException e) {
+                log.warn("No se pudo eliminar la clave retirada {}: {}", key.kid(), e.getMessage());
+                kept.add(key);
+            }
+        }
+        return List.copyOf(kept);
+    }
+
+    private static List<SigningKey> append(List<SigningKey> keys, SigningKey key) {
+        return Stream.concat(keys.stream(), Stream.of(key))
+                .sorted(Comparator.comparingLong(SigningKey::activatesAt))
+                .toList();
+    }
+
+    private static SignatureAlgorithm signatureAlgorithm(String algorithm) {
+        return "EdDSA".equals(algorithm) ? Jwts.SIG.EdDSA : Jwts.SIG.RS256;
+    }
+
+    private static byte[] readPem(Path file) throws IOException {
+        String base64 = Files.readAllLines(file, StandardCharsets.US_ASCII).stream()
+                .filter(line -> !line.startsWith("-----"))
+                .collect(Collectors.joining());
+        return Base64.getDecoder().decode(base64);
+    }
+
+    private void writePem(Path file, String type, byte[] der, boolean ownerOnly) throws IOException {
+        String pem = "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+        Path temp = Files.createTempFile(file.getParent(), "jwt-key", ".tmp");
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            // La privada solo para el propietario; la pública legible por auth-ms
+            Files.setPosixFilePermissions(temp, PosixFilePermissions.fromString(ownerOnly ? "rw-------" : "rw-r--r--"));
+        }
+        Files.writeString(temp, pem, StandardCharsets.US_ASCII);
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Clave de firma con su identificador (kid) e instante de activación
+     */
+    public record SigningKey(String kid, long activatesAt, SignatureAlgorithm algorithm,
+                             PrivateKey privateKey, PublicKey publicKey) {
+    }
+}
@@ -0,0 +1,173 @@
+package com.microservices.service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Contador de eventos por clave en una ventana deslizante aproximada: se guardan el conteo de la
+ * ventana fija actual y el de la anterior, y el estimado pondera la anterior por la fracción que
+ * aún se solapa con la ventana deslizante. Memoria constante por clave.
+ * Las claves se reparten en shards, cada uno con su propio lock, para que los logins concurrentes
+ * de distintos usuarios o IPs no compitan por un único monitor.
+ */
+class SlidingWindowCounter {
+
+    private final long windowMillis;
+    private final Shard[] shards;
+
+    SlidingWindowCounter(long windowMillis, int shardCount) {
+        if (windowMillis <= 0 || shardCount <= 0) {
+            throw new IllegalArgumentException("windowMillis y shardCount deben ser positivos");
+        }
+        this.windowMillis = windowMillis;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    /**
+     * Número estimado de eventos de la clave en los últimos windowMillis
+     */
+    double estimate(String key, long nowMillis) {
+        Shard shard = shardFor(key);
+        synchronized (shard) {
+            Window window = shard.windows.get(key);
+            return window != null ? window.estimate(nowMillis) : 0.0;
+        }
+    }
+
+    /**
+     * Registra un evento y devuelve el nuevo estimado
+     */
+    double increment(String key, long nowMillis) {
+        Shard shard = shardFor(key);
+        synchronized (shard) {
+            Window window = shard.windows.computeIfAbsent(key, k -> new Window(windowStart(nowMillis)));
+            window.advance(nowMillis);
+            window.current++;
+            return window.estimate(nowMillis);
+        }
+    }
+
+    /**
+     * Registra un evento solo si el estimado no alcanzó el límite. Comprobar y contar bajo el mismo lock
+     * impide que peticiones concurrentes pasen todas la comprobación antes de que se cuente ninguna
+     */
+    boolean tryIncrement(String key, long nowMillis, int limit) {
+        Shard shard = shardFor(key);
+        synchronized (shard) {
+            Window window = shard.windows.get(key);
+            if ((window != null ? window.estimate(nowMillis) : 0.0) >= limit) {
+                return false;
+            }
+            if (window == null) {
+                window = new Window(windowStart(nowMillis));
+                shard.windows.put(key, window);
+            }
+            window.advance(nowMillis);
+            window.current++;
+            return true;
+        }
+    }
+
+    /**
+     * Devuelve un evento contado con tryIncrement; si la ventana ya cambió, lo descuenta de la anterior
+     */
+    void decrement(String key, long nowMillis) {
+        Shard shard = shardFor(key);
+        synchronized (shard) {
+            Window window = shard.windows.get(key);
+            if (window == null) {
+                return;
+            }
+            window.advance(nowMillis);
+            if (window.current > 0) {
+                window.current--;
+            } else if (window.previous > 0) {
+                window.previous--;
+            }
+        }
+    }
+
+    void reset(String key) {
+        Shard shard = shardFor(key);
+        synchronized (shard) {
+            shard.windows.remove(key);
+        }
+    }
+
+    /**
+     * Elimina las claves sin eventos en las dos últimas ventanas (su estimado ya es 0)
+     */
+    void evictIdle(long nowMillis) {
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                Iterator<Map.Entry<String, Window>> iterator = shard.windows.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().getValue().estimate(nowMillis) == 0.0) {
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                size += shard.windows.size();
+            }
+        }
+        return size;
+    }
+
+    private Shard shardFor(String key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return shards[Math.floorMod(hash, shards.length)];
+    }
+
+    private long windowStart(long nowMillis) {
+        return nowMillis - Math.floorMod(nowMillis, windowMillis);
+    }
+
+    private static final class Shard {
+        private final Map<String, Window> windows = new HashMap<>();
+    }
+
+    private final class Window {
+        private long start;
+        private int previous;
+        private int current;
+
+        private Window(long start) {
+            this.start = start;
+        }
+
+        private void advance(long nowMillis) {
+            long nowStart = windowStart(nowMillis);
+            if (nowStart == start) {
+                return;
+            }
+            previous = nowStart - start == windowMillis ? current : 0;
+            current = 0;
+            start = nowStart;
+        }
+
+        private double estimate(long nowMillis) {
+            long nowStart = windowStart(nowMillis);
+            int currentCount = current;
+            int previousCount = previous;
+            if (nowStart != start) {
+                // Sin eventos desde entonces: la ventana guardada pasa a ser la anterior o caduca
+                previousCount = nowStart - start == windowMillis ? current : 0;
+                currentCount = 0;
+            }
+            double overlap = 1.0 - (double) (nowMillis - nowStart) / windowMillis;
+            return previousCount * overlap + currentCount;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.microservices.service;
+
+import com.microservices.dto.UserFilterDTO;
+
+import java.io.OutputStream;
+
+/**
+ * Servicio de exportación masiva del listado de usuarios
+ */
+public interface UserExportService {
+
+    /**
+     * Escribe en NDJSON los usuarios que cumplan el filtro, en orden de id, leyendo la tabla por
+     * lotes de keyset sin materializar el listado completo en memoria
+     * @param filter filtros opcionales (rol, rango de fecha de registro, prefijo del nombre de usuario)
+     * @param outputStream stream donde se escriben los usuarios
+     * @return cantidad de usuarios exportados
+     */
+    long exportUsers(UserFilterDTO filter, OutputStream outputStream);
+}
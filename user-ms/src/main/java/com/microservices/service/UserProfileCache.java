@@ -0,0 +1,144 @@
+package com.microservices.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.microservices.dto.UserResponseDTO;
+import com.microservices.entity.User;
+import com.microservices.entity.UserRole;
+import com.microservices.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Caché local y acotada de perfiles de usuario, indexada por id y por userName.
+ * Solo guarda campos no sensibles (nunca el hash de la contraseña), por lo que el login sigue
+ * leyendo las credenciales de la base de datos. Las entradas se invalidan al actualizar o borrar
+ * el usuario, y de nuevo tras el commit para no dejar en caché una lectura concurrente previa.
+ */
+@Component
+@Slf4j
+public class UserProfileCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, UserProfile> byId;
+    private final Cache<String, UserProfile> byUserName;
+
+    public UserProfileCache(UserRepository userRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${user-cache.max-size:10000}") long maxSize,
+                            @Value("${user-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.byUserName = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "userProfileById");
+        CaffeineCacheMetrics.monitor(meterRegistry, byUserName, "userProfileByUserName");
+    }
+
+    /**
+     * Perfil del usuario por id; en un fallo se consulta la base de datos y se indexa por ambas claves,
+     * de modo que una lectura por id sirve a la siguiente por userName (y viceversa)
+     */
+    public Optional<UserProfile> getById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(byId.get(id, key -> userRepository.findById(key)
+                .map(UserProfile::from)
+                .map(profile -> { byUserName.put(profile.userName(), profile); return profile; })
+                .orElse(null)));
+    }
+
+    /**
+     * Perfil del usuario por userName; en un fallo se consulta la base de datos y se indexa por ambas claves
+     */
+    public Optional<UserProfile> getByUserName(String userName) {
+        if (userName == null || userName.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(byUserName.get(userName, key -> userRepository.findByUserName(key)
+                .map(UserProfile::from)
+                .map(profile -> { byId.put(profile.userId(), profile); return profile; })
+                .orElse(null)));
+    }
+
+    /**
+     * Guarda el perfil de un usuario ya leído (por ejemplo, tras un login correcto)
+     */
+    public void put(User user) {
+        UserProfile profile = UserProfile.from(user);
+        byId.put(profile.userId(), profile);
+        byUserName.put(profile.userName(), profile);
+    }
+
+    /**
+     * Elimina el usuario de ambos índices, incluido cualquier userName anterior a un renombrado
+     */
+    public void invalidate(Long id) {
+        log.debug("Invalidando perfil en caché del usuario {}", id);
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    public CacheStats statsById() {
+        return byId.stats();
+    }
+
+    public CacheStats statsByUserName() {
+        return byUserName.stats();
+    }
+
+    private void evict(Long id) {
+        byId.invalidate(id);
+        byUserName.asMap().values().removeIf(profile -> profile.userId().equals(id));
+    }
+
+    /**
+     * Vista inmutable y sin credenciales de un usuario
+     */
+    public record UserProfile(Long userId, String userName, String email, String name, String lastName,
+                              UserRole role, LocalDateTime registerDate) {
+
+        static UserProfile from(User user) {
+            return new UserProfile(user.getUserId(), user.getUserName(), user.getEmail(), user.getName(),
+                    user.getLastName(), user.getRole(), user.getRegisterDate());
+        }
+
+        public UserResponseDTO toResponseDTO() {
+            return UserResponseDTO.builder()
+                    .userId(userId)
+                    .userName(userName)
+                    .email(email)
+                    .name(name)
+                    .lastName(lastName)
+                    .role(role)
+                    .registerDate(registerDate)
+                    .build();
+        }
+    }
+}
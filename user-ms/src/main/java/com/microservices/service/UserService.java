@@ -2,6 +2,9 @@ package com.microservices.service;
 
 import com.microservices.dto.LoginDTO;
 import com.microservices.dto.LoginResponseDTO;
+import com.microservices.dto.RefreshTokenRequestDTO;
+import com.microservices.dto.UserFilterDTO;
+import com.microservices.dto.UserPageDTO;
 import com.microservices.dto.UserRequestDTO;
 import com.microservices.dto.UserResponseDTO;
 import com.microservices.dto.UserUpdateDTO;
@@ -18,7 +21,13 @@ public interface UserService {
 
     List<UserResponseDTO> getAllUsers(); 
 
+    UserPageDTO getUsersPage(UserFilterDTO filter, Long afterId, int size); // Página por keyset ordenada por id, con filtros en SQL
+
     void deleteUser(Long id); 
 
     LoginResponseDTO login(LoginDTO loginDTO); // Autenticar usuario y devolver JWT
+
+    LoginResponseDTO refresh(RefreshTokenRequestDTO refreshTokenRequestDTO); // Rotar refresh token y emitir nuevo JWT
+
+    void logout(RefreshTokenRequestDTO refreshTokenRequestDTO); // Revocar la sesión del refresh token
 }
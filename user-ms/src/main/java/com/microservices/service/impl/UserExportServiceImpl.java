@@ -0,0 +1,82 @@
+package com.microservices.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.dto.UserFilterDTO;
+import com.microservices.entity.User;
+import com.microservices.mapper.UserMapper;
+import com.microservices.repository.UserRepository;
+import com.microservices.repository.UserSpecifications;
+import com.microservices.service.UserExportService;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Implementación de la exportación de usuarios por lotes de keyset (WHERE user_id > ? ORDER BY user_id LIMIT ?).
+ * Cada lote es una consulta corta, así que no se mantiene una conexión ni una transacción abiertas
+ * mientras el cliente lee; el contexto de persistencia se limpia tras cada lote para que la memoria
+ * no crezca con el tamaño de la tabla.
+ */
+@Service
+@Slf4j
+public class UserExportServiceImpl implements UserExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    public UserExportServiceImpl(UserRepository userRepository,
+                                 UserMapper userMapper,
+                                 ObjectMapper objectMapper,
+                                 EntityManager entityManager,
+                                 @Value("${user-listing.export-batch-size:500}") int batchSize) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public long exportUsers(UserFilterDTO filter, OutputStream outputStream) {
+        BufferedOutputStream out = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+        long count = 0;
+        Long afterId = null;
+
+        try {
+            List<User> batch;
+            do {
+                batch = userRepository.findBy(UserSpecifications.matching(filter, afterId),
+                        query -> query.sortBy(Sort.by("userId")).limit(batchSize).all());
+                for (User user : batch) {
+                    out.write(objectMapper.writeValueAsBytes(userMapper.toResponseDTO(user)));
+                    out.write('\n');
+                }
+                count += batch.size();
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).getUserId();
+                }
+                entityManager.clear(); // Con open-in-view el EntityManager sigue ligado al hilo de la exportación
+            } while (batch.size() == batchSize);
+
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        log.info("Exportación de usuarios finalizada: {} usuarios", count);
+        return count;
+    }
+}
@@ -2,62 +2,91 @@ package com.microservices.service.impl;
 
 import com.microservices.dto.LoginDTO;
 import com.microservices.dto.LoginResponseDTO;
+import com.microservices.dto.RefreshTokenRequestDTO;
+import com.microservices.dto.UserFilterDTO;
+import com.microservices.dto.UserPageDTO;
 import com.microservices.dto.UserRequestDTO;
 import com.microservices.dto.UserResponseDTO;
 import com.microservices.dto.UserUpdateDTO;
 import com.microservices.entity.User;
 import com.microservices.enums.ErrorCode;
 import com.microservices.exception.InvalidCredentialsException;
+import com.microservices.exception.ServiceBusyException;
 import com.microservices.exception.UserAlreadyExistsException;
 import com.microservices.exception.UserNotFoundException;
 import com.microservices.exception.ValidationException;
 import com.microservices.mapper.UserMapper;
 import com.microservices.repository.UserRepository;
+import com.microservices.repository.UserSpecifications;
 import com.microservices.service.JwtService;
+import com.microservices.service.PasswordHashingService;
+import com.microservices.service.RefreshTokenService;
+import com.microservices.service.UserProfileCache;
 import com.microservices.service.UserService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
 import java.util.List;
+import java.util.Locale;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
     // Implementación del servicio de usuarios con lógica de negocio CRUD
 
     private final UserRepository userRepository; // Repositorio para operaciones de base de datos
     private final UserMapper userMapper; // Mapper para conversión entre DTOs y entidades
-    private final PasswordEncoder passwordEncoder; // Encriptador de contraseñas
+    private final PasswordHashingService passwordHashingService; // BCrypt en un executor acotado (429 si está saturado)
     private final JwtService jwtService; // Servicio para manejo de JWT
+    private final RefreshTokenService refreshTokenService; // Emisión y rotación de refresh tokens
+    private final UserProfileCache userProfileCache; // Perfiles sin credenciales indexados por id y userName
+    private final TransactionTemplate transactionTemplate; // Transacción de la actualización, abierta después de BCrypt
+
+    private static final String UNIQUE_VIOLATION = "23505"; // SQLState estándar de clave duplicada (PostgreSQL, H2)
+
+    @Value("${user-listing.max-page-size:500}")
+    private int maxPageSize; // Tamaño máximo de página del listado por keyset
+
+    public UserServiceImpl(UserRepository userRepository,
+                           UserMapper userMapper,
+                           PasswordHashingService passwordHashingService,
+                           JwtService jwtService,
+                           RefreshTokenService refreshTokenService,
+                           UserProfileCache userProfileCache,
+                           PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.passwordHashingService = passwordHashingService;
+        this.jwtService = jwtService;
+        this.refreshTokenService = refreshTokenService;
+        this.userProfileCache = userProfileCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     @Override
-    @Transactional
+    // Sin transacción envolvente y con open-in-view desactivado: la comprobación y el insert usan cada uno
+    // su conexión y no se retiene ninguna mientras BCrypt calcula el hash; la atomicidad la aporta la restricción única
     public UserResponseDTO createUser(UserRequestDTO userRequestDTO) {
         try {
-            // Verificar si ya existe un usuario con el mismo userName
-            if (userRepository.existsByUserName(userRequestDTO.getUserName())) {
-                throw UserAlreadyExistsException.byUserName(userRequestDTO.getUserName());
-            }
-            
-            // Verificar si ya existe un usuario con el mismo email
-            if (userRepository.existsByEmail(userRequestDTO.getEmail())) {
-                throw UserAlreadyExistsException.byEmail(userRequestDTO.getEmail());
-            }
+            // Verificar userName y email en una sola consulta, antes de gastar BCrypt en un registro duplicado
+            checkAvailable(userRequestDTO.getUserName(), userRequestDTO.getEmail(), null);
             
             User user = userMapper.toEntity(userRequestDTO); // Convierte DTO a entidad
             // Encriptar la contraseña antes de guardar
-            user.setPassword(passwordEncoder.encode(user.getPassword()));
+            user.setPassword(passwordHashingService.encode(user.getPassword()));
             // Siempre crear como USER (ADMIN se crea/modifica en base de datos)
             user.setRole(com.microservices.entity.UserRole.USER);
-            User savedUser = userRepository.save(user); // Guarda en base de datos
+            User savedUser = saveUnique(user); // Guarda en base de datos; las restricciones únicas cubren registros concurrentes
             return userMapper.toResponseDTO(savedUser); // Convierte entidad a DTO de respuesta
             
-        } catch (UserAlreadyExistsException e) {
+        } catch (UserAlreadyExistsException | ServiceBusyException e) {
             // Re-lanzar excepciones de negocio sin envolver
             throw e;
         } catch (Exception e) {
@@ -70,9 +99,9 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserResponseDTO getUser(Long id) {
         try {
-            User user = userRepository.findById(id)
+            return userProfileCache.getById(id)
+                    .map(UserProfileCache.UserProfile::toResponseDTO)
                     .orElseThrow(() -> UserNotFoundException.byId(id)); // Lanza excepción si no encuentra el usuario
-            return userMapper.toResponseDTO(user);
             
         } catch (UserNotFoundException e) {
             // Re-lanzar excepciones de negocio sin envolver
@@ -85,41 +114,14 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @Transactional
+    // El hash se calcula antes de abrir la transacción para no retener una conexión mientras BCrypt trabaja
     public UserResponseDTO updateUser(Long id, UserUpdateDTO userUpdateDTO) {
         try {
-            // Verificar si el usuario existe
-            User existingUser = userRepository.findById(id)
-                    .orElseThrow(() -> UserNotFoundException.byId(id));
+            String encodedPassword = userUpdateDTO.getPassword() != null
+                    ? passwordHashingService.encode(userUpdateDTO.getPassword()) : null;
+            return transactionTemplate.execute(status -> applyUpdate(id, userUpdateDTO, encodedPassword));
             
-            // Verificar si el nuevo userName ya existe (si se está actualizando)
-            if (userUpdateDTO.getUserName() != null && 
-                !userUpdateDTO.getUserName().equals(existingUser.getUserName()) &&
-                userRepository.existsByUserName(userUpdateDTO.getUserName())) {
-                throw UserAlreadyExistsException.byUserName(userUpdateDTO.getUserName());
-            }
-            
-            // Verificar si el nuevo email ya existe (si se está actualizando)
-            if (userUpdateDTO.getEmail() != null && 
-                !userUpdateDTO.getEmail().equals(existingUser.getEmail()) &&
-                userRepository.existsByEmail(userUpdateDTO.getEmail())) {
-                throw UserAlreadyExistsException.byEmail(userUpdateDTO.getEmail());
-            }
-            
-            // Actualizar la entidad con los nuevos datos
-            userMapper.updateEntity(userUpdateDTO, existingUser);
-            
-            // Encriptar la contraseña si se está actualizando
-            if (userUpdateDTO.getPassword() != null) {
-                existingUser.setPassword(passwordEncoder.encode(userUpdateDTO.getPassword()));
-            }
-            
-            // Guardar los cambios
-            User updatedUser = userRepository.save(existingUser);
-            
-            return userMapper.toResponseDTO(updatedUser);
-            
-        } catch (UserNotFoundException | UserAlreadyExistsException e) {
+        } catch (UserNotFoundException | UserAlreadyExistsException | ServiceBusyException e) {
             // Re-lanzar excepciones de negocio sin envolver
             throw e;
         } catch (Exception e) {
@@ -129,6 +131,40 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    /**
+     * Parte transaccional de updateUser: lectura, comprobación de unicidad y guardado con la contraseña ya encriptada
+     */
+    private UserResponseDTO applyUpdate(Long id, UserUpdateDTO userUpdateDTO, String encodedPassword) {
+        // Verificar si el usuario existe
+        User existingUser = userRepository.findById(id)
+                .orElseThrow(() -> UserNotFoundException.byId(id));
+        
+        // Verificar en una sola consulta solo los campos únicos que cambian
+        String newUserName = userUpdateDTO.getUserName() != null
+                && !userUpdateDTO.getUserName().equals(existingUser.getUserName()) ? userUpdateDTO.getUserName() : null;
+        String newEmail = userUpdateDTO.getEmail() != null
+                && !userUpdateDTO.getEmail().equals(existingUser.getEmail()) ? userUpdateDTO.getEmail() : null;
+        if (newUserName != null || newEmail != null) {
+            checkAvailable(newUserName, newEmail, id);
+        }
+        
+        // Actualizar la entidad con los nuevos datos
+        userMapper.updateEntity(userUpdateDTO, existingUser);
+        
+        // Aplicar la contraseña ya encriptada si se está actualizando
+        if (encodedPassword != null) {
+            existingUser.setPassword(encodedPassword);
+            // Cerrar las sesiones abiertas con la contraseña anterior
+            refreshTokenService.revokeAll(id);
+        }
+        
+        // Guardar los cambios
+        User updatedUser = saveUnique(existingUser);
+        userProfileCache.invalidate(id);
+        
+        return userMapper.toResponseDTO(updatedUser);
+    }
+
     @Override
     public List<UserResponseDTO> getAllUsers() {
         try {
@@ -144,6 +180,30 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    @Override
+    public UserPageDTO getUsersPage(UserFilterDTO filter, Long afterId, int size) {
+        if (size < 1 || size > maxPageSize) {
+            throw new ValidationException("El tamaño de página debe estar entre 1 y " + maxPageSize, ErrorCode.VALIDATION_ERROR);
+        }
+        try {
+            // Se pide un elemento de más para saber si hay página siguiente sin ejecutar un COUNT
+            List<User> users = userRepository.findBy(UserSpecifications.matching(filter, afterId),
+                    query -> query.sortBy(Sort.by("userId")).limit(size + 1).all());
+            boolean hasMore = users.size() > size;
+            List<User> page = hasMore ? users.subList(0, size) : users;
+            
+            return UserPageDTO.builder()
+                    .users(page.stream().map(userMapper::toResponseDTO).toList())
+                    .nextAfterId(hasMore ? page.get(page.size() - 1).getUserId() : null)
+                    .build();
+                    
+        } catch (Exception e) {
+            // Envolver errores inesperados en excepciones de negocio
+            log.error("Error inesperado al obtener la página de usuarios: {}", e.getMessage(), e);
+            throw new ValidationException("Error interno al obtener usuarios: " + e.getMessage(), ErrorCode.DATABASE_ERROR);
+        }
+    }
+
     @Override
     @Transactional
     public void deleteUser(Long id) {
@@ -153,6 +213,7 @@ public class UserServiceImpl implements UserService {
                 throw UserNotFoundException.byId(id);
             }
             userRepository.deleteById(id);
+            userProfileCache.invalidate(id);
             
         } catch (UserNotFoundException e) {
             // Re-lanzar excepciones de negocio sin envolver
@@ -165,36 +226,30 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    // Sin transacción envolvente: la búsqueda usa la transacción de lectura del repositorio y BCrypt
+    // se ejecuta sin ninguna conexión retenida; el rehash y el refresh token abren cada uno la suya
     public LoginResponseDTO login(LoginDTO loginDTO) {
         try {
             // Buscar usuario por nombre de usuario
             User user = userRepository.findByUserName(loginDTO.getUserName())
                     .orElseThrow(() -> InvalidCredentialsException.invalidLogin());
             
-            // Verificar la contraseña usando BCrypt
-            if (!passwordEncoder.matches(loginDTO.getPassword(), user.getPassword())) {
+            // Verificar la contraseña usando BCrypt en el executor acotado (429 si está saturado)
+            if (!passwordHashingService.matches(loginDTO.getPassword(), user.getPassword())) {
                 throw InvalidCredentialsException.invalidLogin();
             }
             
-            // Generar JWT token
+            // Recalcular el hash si se generó con un coste distinto del configurado
+            rehashIfNeeded(user, loginDTO.getPassword());
+            userProfileCache.put(user); // Las peticiones autenticadas siguientes leerán el perfil de la caché
+            
+            // Generar access token de corta duración y refresh token de una nueva sesión
             String token = jwtService.generateToken(user);
-            log.debug("Token generado completo: {}", token);
+            String refreshToken = refreshTokenService.issue(user);
             
-            // Crear respuesta con JWT y datos del usuario
-            return LoginResponseDTO.builder()
-                    .token(token)
-                    .tokenType("Bearer")
-                    .expiresIn(86400000L) // 24 horas en milisegundos
-                    .userId(user.getUserId())
-                    .userName(user.getUserName())
-                    .email(user.getEmail())
-                    .name(user.getName())
-                    .lastName(user.getLastName())
-                    .role(user.getRole())
-                    .registerDate(user.getRegisterDate())
-                    .build();
+            return buildLoginResponse(user, token, refreshToken);
             
-        } catch (InvalidCredentialsException e) {
+        } catch (InvalidCredentialsException | ServiceBusyException e) {
             // Re-lanzar excepciones de negocio sin envolver
             throw e;
         } catch (Exception e) {
@@ -203,4 +258,106 @@ public class UserServiceImpl implements UserService {
             throw new InvalidCredentialsException("Error interno durante autenticación: " + e.getMessage(), ErrorCode.DATABASE_ERROR);
         }
     }
+
+    @Override
+    public LoginResponseDTO refresh(RefreshTokenRequestDTO refreshTokenRequestDTO) {
+        try {
+            // Rotar el refresh token: el recibido queda usado y se entrega su sucesor
+            RefreshTokenService.RotatedRefreshToken rotated = refreshTokenService.rotate(refreshTokenRequestDTO.getRefreshToken());
+            String token = jwtService.generateToken(rotated.user());
+            
+            return buildLoginResponse(rotated.user(), token, rotated.refreshToken());
+            
+        } catch (InvalidCredentialsException e) {
+            // Re-lanzar excepciones de negocio sin envolver
+            throw e;
+        } catch (Exception e) {
+            // Envolver errores inesperados en excepciones de negocio
+            log.error("Error inesperado al renovar token: {}", e.getMessage(), e);
+            throw new InvalidCredentialsException("Error interno durante renovación de token: " + e.getMessage(), ErrorCode.DATABASE_ERROR);
+        }
+    }
+
+    @Override
+    public void logout(RefreshTokenRequestDTO refreshTokenRequestDTO) {
+        // Revoca la sesión; el access token vigente expira por sí solo en pocos minutos
+        refreshTokenService.revoke(refreshTokenRequestDTO.getRefreshToken());
+    }
+
+    /**
+     * Lanza UserAlreadyExistsException si otro usuario ya usa el userName o el email (null = no comprobar)
+     */
+    private void checkAvailable(String userName, String email, Long excludedUserId) {
+        for (UserRepository.UserIdentity existing : userRepository.findByUserNameOrEmail(userName, email)) {
+            if (existing.getUserId().equals(excludedUserId)) {
+                continue;
+            }
+            if (userName != null && userName.equals(existing.getUserName())) {
+                throw UserAlreadyExistsException.byUserName(userName);
+            }
+            if (email != null && email.equals(existing.getEmail())) {
+                throw UserAlreadyExistsException.byEmail(email);
+            }
+        }
+    }
+
+    /**
+     * Guarda forzando el flush para que una violación de unicidad (un registro concurrente que ganó la
+     * carrera tras la comprobación previa) se detecte aquí y se traduzca a UserAlreadyExistsException
+     */
+    private User saveUnique(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            String sqlState = e.getMostSpecificCause() instanceof SQLException sqlException ? sqlException.getSQLState() : null;
+            if (!UNIQUE_VIOLATION.equals(sqlState)) {
+                throw e;
+            }
+            // Nombre de la restricción o, si la tabla es anterior a nombrarlas, la columna: "(user_name" / "(email"
+            String detail = e.getMostSpecificCause().getMessage().toLowerCase(Locale.ROOT);
+            if (detail.contains("uk_users_user_name") || detail.contains("(user_name")) {
+                throw UserAlreadyExistsException.byUserName(user.getUserName());
+            }
+            if (detail.contains("uk_users_email") || detail.contains("(email")) {
+                throw UserAlreadyExistsException.byEmail(user.getEmail());
+            }
+            throw UserAlreadyExistsException.byUserNameOrEmail();
+        }
+    }
+
+    private void rehashIfNeeded(User user, String rawPassword) {
+        if (!passwordHashingService.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            String newHash = passwordHashingService.encode(rawPassword);
+            if (userRepository.updatePasswordIfUnchanged(user.getUserId(), user.getPassword(), newHash) == 0) {
+                // La contraseña cambió mientras tanto; se conserva la nueva
+                return;
+            }
+            user.setPassword(newHash);
+            log.debug("Hash de contraseña actualizado al coste configurado para usuario {}", user.getUserName());
+        } catch (ServiceBusyException e) {
+            // El login ya es válido; se reintentará en el próximo
+            log.debug("Rehash pospuesto por saturación para usuario {}", user.getUserName());
+        }
+    }
+
+    private LoginResponseDTO buildLoginResponse(User user, String token, String refreshToken) {
+        // Crear respuesta con JWT, refresh token y datos del usuario
+        return LoginResponseDTO.builder()
+                .token(token)
+                .tokenType("Bearer")
+                .expiresIn(jwtService.getJwtExpiration())
+                .refreshToken(refreshToken)
+                .refreshExpiresIn(refreshTokenService.getRefreshExpiration())
+                .userId(user.getUserId())
+                .userName(user.getUserName())
+                .email(user.getEmail())
+                .name(user.getName())
+                .lastName(user.getLastName())
+                .role(user.getRole())
+                .registerDate(user.getRegisterDate())
+                .build();
+    }
 }
@@ -0,0 +1,149 @@
+package com.microservices.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Benchmark JMH del registro de usuarios: registros por segundo con las comprobaciones de unicidad
+ * anteriores (existsByUserName + existsByEmail + insert) frente a una sola consulta de conflictos
+ * seguida del insert, y frente a confiar solo en las restricciones únicas.
+ * Mide únicamente el acceso a datos: BCrypt se excluye porque su coste es idéntico en las tres
+ * variantes y ocultaría la diferencia. roundTripMicros simula la latencia de red por sentencia,
+ * que en H2 en memoria es nula; con -Dbenchmark.jdbc-url se puede apuntar a un PostgreSQL real.
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegistrationBenchmark {
+
+    private static final String INSERT = "INSERT INTO users (user_name, email, password, first_name, last_name, role, register_date) "
+            + "VALUES (?, ?, ?, 'Bench', 'User', 'USER', CURRENT_TIMESTAMP)";
+
+    @Param({"0", "500"})
+    private long roundTripMicros;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private Connection connection;
+    private PreparedStatement existsByUserName;
+    private PreparedStatement existsByEmail;
+    private PreparedStatement findByUserNameOrEmail;
+    private PreparedStatement insert;
+
+    @Setup
+    public void setUp() throws SQLException {
+        String url = System.getProperty("benchmark.jdbc-url", "jdbc:h2:mem:registration;DB_CLOSE_DELAY=-1");
+        connection = DriverManager.getConnection(url,
+                System.getProperty("benchmark.jdbc-user", "sa"),
+                System.getProperty("benchmark.jdbc-password", ""));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS users");
+            statement.execute("CREATE TABLE users ("
+                    + "user_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "user_name VARCHAR(50) NOT NULL, "
+                    + "email VARCHAR(100) NOT NULL, "
+                    + "password VARCHAR(255) NOT NULL, "
+                    + "first_name VARCHAR(50) NOT NULL, "
+                    + "last_name VARCHAR(50) NOT NULL, "
+                    + "role VARCHAR(20) NOT NULL, "
+                    + "register_date TIMESTAMP NOT NULL, "
+                    + "CONSTRAINT uk_users_email UNIQUE (email), "
+                    + "CONSTRAINT uk_users_user_name UNIQUE (user_name))");
+        }
+        existsByUserName = connection.prepareStatement("SELECT 1 FROM users WHERE user_name = ? FETCH FIRST 1 ROWS ONLY");
+        existsByEmail = connection.prepareStatement("SELECT 1 FROM users WHERE email = ? FETCH FIRST 1 ROWS ONLY");
+        findByUserNameOrEmail = connection.prepareStatement("SELECT user_id, user_name, email FROM users WHERE user_name = ? OR email = ?");
+        insert = connection.prepareStatement(INSERT);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS users");
+        }
+        connection.close();
+    }
+
+    /**
+     * Registro antes del cambio: dos consultas exists y el insert
+     */
+    @Benchmark
+    public int legacyTwoExistsThenInsert() throws SQLException {
+        long n = sequence.incrementAndGet();
+        if (exists(existsByUserName, "user" + n) || exists(existsByEmail, "user" + n + "@example.com")) {
+            return 0;
+        }
+        return insert(n);
+    }
+
+    /**
+     * Registro actual: una consulta para userName y email, y el insert con las restricciones como red de seguridad
+     */
+    @Benchmark
+    public int singleConflictQueryThenInsert() throws SQLException {
+        long n = sequence.incrementAndGet();
+        findByUserNameOrEmail.setString(1, "user" + n);
+        findByUserNameOrEmail.setString(2, "user" + n + "@example.com");
+        roundTrip();
+        try (ResultSet resultSet = findByUserNameOrEmail.executeQuery()) {
+            if (resultSet.next()) {
+                return 0;
+            }
+        }
+        return insert(n);
+    }
+
+    /**
+     * Límite inferior: solo el insert, delegando toda la comprobación en las restricciones únicas
+     */
+    @Benchmark
+    public int insertOnlyConstraintCheck() throws SQLException {
+        return insert(sequence.incrementAndGet());
+    }
+
+    private boolean exists(PreparedStatement statement, String value) throws SQLException {
+        statement.setString(1, value);
+        roundTrip();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next();
+        }
+    }
+
+    private int insert(long n) throws SQLException {
+        insert.setString(1, "user" + n);
+        insert.setString(2, "user" + n + "@example.com");
+        insert.setString(3, "$2a$10$benchmark");
+        roundTrip();
+        return insert.executeUpdate();
+    }
+
+    private void roundTrip() {
+        if (roundTripMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(roundTripMicros));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RegistrationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,61 @@
+package com.microservices.config;
+
+import com.microservices.exception.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para ExportResponseStreamer - rechazo de exportaciones con el pool saturado
+ */
+@DisplayName("ExportResponseStreamer Tests")
+class ExportResponseStreamerTest {
+
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject export with ServiceBusyException when pool and queue are full")
+    void shouldRejectExportWhenPoolSaturated() throws Exception {
+        // Given
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.initialize();
+        ExportResponseStreamer streamer = new ExportResponseStreamer(executor, 60000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MediaType mediaType = MediaType.parseMediaType("application/x-ndjson");
+        streamer.stream(mediaType, outputStream -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        ServiceBusyException exception = assertThrows(ServiceBusyException.class,
+                () -> streamer.stream(mediaType, outputStream -> { }));
+
+        // Then
+        assertTrue(exception.getRetryAfterSeconds() > 0);
+        release.countDown();
+    }
+}
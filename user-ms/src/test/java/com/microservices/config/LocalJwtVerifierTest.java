@@ -0,0 +1,115 @@
+package com.microservices.config;
+
+import com.microservices.client.TokenValidationResponse;
+import com.microservices.entity.User;
+import com.microservices.entity.UserRole;
+import com.microservices.service.JwtService;
+import com.microservices.service.SigningKeyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para LocalJwtVerifier - Verificación local de tokens sin auth-ms
+ */
+@DisplayName("LocalJwtVerifier Tests")
+class LocalJwtVerifierTest {
+
+    @TempDir
+    Path keysDir;
+
+    private LocalJwtVerifier localJwtVerifier;
+    private JwtService jwtService;
+    private User testUser;
+
+    private SigningKeyService signingKeyService(String name) {
+        SigningKeyService signingKeyService = new SigningKeyService(
+                keysDir.resolve(name).resolve("private"), keysDir.resolve(name).resolve("public"),
+                "EdDSA", 604800000L, 3600000L, 86400000L);
+        signingKeyService.rotateIfNeeded();
+        return signingKeyService;
+    }
+
+    @BeforeEach
+    void setUp() {
+        SigningKeyService signingKeyService = signingKeyService("main");
+        localJwtVerifier = new LocalJwtVerifier(signingKeyService);
+
+        jwtService = new JwtService(signingKeyService);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3600000L);
+
+        testUser = User.builder()
+                .userId(7L)
+                .userName("testuser")
+                .email("test@example.com")
+                .password("password123")
+                .name("Test")
+                .lastName("User")
+                .role(UserRole.ADMIN)
+                .registerDate(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should accept valid token and extract its claims")
+    void shouldAcceptValidTokenAndExtractClaims() {
+        // Given
+        String token = jwtService.generateToken(testUser);
+
+        // When
+        TokenValidationResponse response = localJwtVerifier.verify(token);
+
+        // Then
+        assertTrue(response.isValid());
+        assertEquals("testuser", response.getUserName());
+        assertEquals("ADMIN", response.getRole());
+        assertEquals(7L, response.getUserId());
+    }
+
+    @Test
+    @DisplayName("Should reject token signed with another key")
+    void shouldRejectTokenSignedWithAnotherKey() {
+        // Given
+        JwtService otherJwtService = new JwtService(signingKeyService("other"));
+        ReflectionTestUtils.setField(otherJwtService, "jwtExpiration", 3600000L);
+        String token = otherJwtService.generateToken(testUser);
+
+        // When
+        TokenValidationResponse response = localJwtVerifier.verify(token);
+
+        // Then
+        assertFalse(response.isValid());
+        assertNull(response.getUserName());
+    }
+
+    @Test
+    @DisplayName("Should reject expired token")
+    void shouldRejectExpiredToken() {
+        // Given
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", -1000L);
+        String token = jwtService.generateToken(testUser);
+
+        // When
+        TokenValidationResponse response = localJwtVerifier.verify(token);
+
+        // Then
+        assertFalse(response.isValid());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed token")
+    void shouldRejectMalformedToken() {
+        // When
+        TokenValidationResponse response = localJwtVerifier.verify("not-a-jwt");
+
+        // Then
+        assertFalse(response.isValid());
+    }
+}
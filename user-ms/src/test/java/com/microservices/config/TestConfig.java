@@ -1,6 +1,7 @@
 package com.microservices.config;
 
 import com.microservices.service.JwtService;
+import com.microservices.service.SigningKeyService;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
@@ -23,7 +24,7 @@ public class TestConfig {
 
     @Bean
     @Primary
-    public JwtService testJwtService() {
-        return new JwtService();
+    public JwtService testJwtService(SigningKeyService signingKeyService) {
+        return new JwtService(signingKeyService);
     }
 }
@@ -3,12 +3,16 @@ package com.microservices.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microservices.dto.LoginDTO;
 import com.microservices.dto.LoginResponseDTO;
+import com.microservices.dto.RefreshTokenRequestDTO;
 import com.microservices.dto.UserRequestDTO;
 import com.microservices.dto.UserResponseDTO;
 import com.microservices.entity.UserRole;
 import com.microservices.enums.ErrorCode;
 import com.microservices.exception.InvalidCredentialsException;
+import com.microservices.exception.ServiceBusyException;
 import com.microservices.service.AuthorizationService;
+import com.microservices.service.LoginThrottleService;
+import com.microservices.service.UserExportService;
 import com.microservices.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,15 +22,25 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -47,6 +61,12 @@ class UserControllerTest {
     @MockBean
     private AuthorizationService authorizationService;
 
+    @MockBean
+    private LoginThrottleService loginThrottleService;
+
+    @MockBean
+    private UserExportService userExportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -151,6 +171,37 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.userId").value(1L))
                 .andExpect(jsonPath("$.userName").value("testuser"))
                 .andExpect(jsonPath("$.email").value("test@example.com"));
+        verify(loginThrottleService).reserve(eq("testuser"), isNull());
+        verify(loginThrottleService).recordSuccess(eq("testuser"), isNull());
+    }
+
+    @Test
+    @DisplayName("Should refresh tokens successfully")
+    void shouldRefreshTokensSuccessfully() throws Exception {
+        // Given
+        when(userService.refresh(any(RefreshTokenRequestDTO.class))).thenReturn(loginResponseDTO);
+
+        // When & Then
+        mockMvc.perform(post("/api/users/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequestDTO("refresh-token"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tokenType").value("Bearer"));
+    }
+
+    @Test
+    @DisplayName("Should return unauthorized for reused refresh token")
+    void shouldReturnUnauthorizedForReusedRefreshToken() throws Exception {
+        // Given
+        when(userService.refresh(any(RefreshTokenRequestDTO.class)))
+                .thenThrow(InvalidCredentialsException.invalidRefreshToken());
+
+        // When & Then
+        mockMvc.perform(post("/api/users/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequestDTO("reused-token"))))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value(ErrorCode.INVALID_REFRESH_TOKEN.getCode()));
     }
 
     @Test
@@ -165,6 +216,41 @@ class UserControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginDTO)))
                 .andExpect(status().isUnauthorized());
+        verify(loginThrottleService).reserve(eq("testuser"), isNull());
+        verify(loginThrottleService).recordFailure();
+        verify(loginThrottleService, never()).release(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should release the reserved attempt when the hashing pool is saturated")
+    void shouldReleaseReservedAttemptWhenHashingPoolIsSaturated() throws Exception {
+        // Given
+        when(userService.login(any(LoginDTO.class))).thenThrow(ServiceBusyException.passwordHashingSaturated());
+
+        // When & Then
+        mockMvc.perform(post("/api/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginDTO)))
+                .andExpect(status().isTooManyRequests());
+        verify(loginThrottleService).release(eq("testuser"), isNull());
+        verify(loginThrottleService, never()).recordFailure();
+    }
+
+    @Test
+    @DisplayName("Should return too many requests when login is throttled")
+    void shouldReturnTooManyRequestsWhenLoginIsThrottled() throws Exception {
+        // Given
+        doThrow(ServiceBusyException.tooManyLoginAttempts(120L))
+                .when(loginThrottleService).reserve(eq("testuser"), isNull());
+
+        // When & Then
+        mockMvc.perform(post("/api/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginDTO)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "120"))
+                .andExpect(jsonPath("$.error").value(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS.getCode()));
+        verify(userService, never()).login(any(LoginDTO.class));
     }
 
     @Test
@@ -193,6 +279,12 @@ class UserControllerTest {
         mockMvc.perform(get("/api/users"))
                 .andExpect(status().isForbidden());
 
+        mockMvc.perform(get("/api/users/page"))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/users/export"))
+                .andExpect(status().isForbidden());
+
         mockMvc.perform(put("/api/users/1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{}"))
@@ -250,4 +342,29 @@ class UserControllerTest {
                         .content(""))
                 .andExpect(status().isInternalServerError());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should stream the export from the dedicated export executor")
+    void shouldStreamExportFromExportExecutor() throws Exception {
+        // Given
+        AtomicReference<String> exportThread = new AtomicReference<>();
+        when(authorizationService.canPerformAdminOperations(any())).thenReturn(true);
+        when(userExportService.exportUsers(any(), any())).thenAnswer(invocation -> {
+            exportThread.set(Thread.currentThread().getName());
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write("{\"userId\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(5000);
+
+        // Then
+        assertTrue(exportThread.get().startsWith("user-export-"), "Hilo: " + exportThread.get());
+        assertTrue(result.getResponse().getContentAsString().contains("\"userId\":1"));
+    }
+}
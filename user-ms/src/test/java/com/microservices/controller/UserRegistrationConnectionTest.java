@@ -0,0 +1,91 @@
+package com.microservices.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.dto.UserRequestDTO;
+import com.microservices.repository.UserRepository;
+import com.microservices.service.PasswordHashingService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Comprueba a través de la cadena MVC completa (con open-in-view desactivado) que el registro
+ * no retiene ninguna conexión del pool mientras BCrypt calcula el hash
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("User registration connection Tests")
+class UserRegistrationConnectionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private PasswordHashingService passwordHashingService;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should not hold a pooled connection or transaction while hashing the password on registration")
+    void shouldReleaseConnectionWhileHashingOnRegistration() throws Exception {
+        // Given
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        AtomicInteger activeConnectionsWhileHashing = new AtomicInteger(-1);
+        AtomicBoolean transactionWhileHashing = new AtomicBoolean(true);
+        when(passwordHashingService.encode(anyString())).thenAnswer(invocation -> {
+            activeConnectionsWhileHashing.set(pool.getHikariPoolMXBean().getActiveConnections());
+            transactionWhileHashing.set(TransactionSynchronizationManager.isActualTransactionActive());
+            return "$2a$10$encodedForConnectionTest";
+        });
+        UserRequestDTO userRequestDTO = UserRequestDTO.builder()
+                .userName("pooluser")
+                .email("pool@example.com")
+                .password("password123")
+                .name("Pool")
+                .lastName("User")
+                .build();
+
+        // When
+        mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userRequestDTO)))
+                .andExpect(status().isCreated());
+
+        // Then
+        assertEquals(0, activeConnectionsWhileHashing.get());
+        assertFalse(transactionWhileHashing.get());
+    }
+}
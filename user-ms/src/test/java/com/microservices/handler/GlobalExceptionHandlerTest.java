@@ -2,6 +2,7 @@ package com.microservices.handler;
 
 import com.microservices.enums.ErrorCode;
 import com.microservices.exception.InvalidCredentialsException;
+import com.microservices.exception.ServiceBusyException;
 import com.microservices.exception.UserAlreadyExistsException;
 import com.microservices.exception.UserNotFoundException;
 import com.microservices.exception.ValidationException;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -248,4 +250,21 @@ class GlobalExceptionHandlerTest {
         assertEquals(ErrorCode.INTERNAL_ERROR.getCode(), body.get("error"));
         assertEquals("Error interno del servidor", body.get("message"));
     }
+
+    @Test
+    @DisplayName("Should handle ServiceBusyException with 429 and Retry-After")
+    void shouldHandleServiceBusyExceptionCorrectly() {
+        // Given
+        ServiceBusyException exception = ServiceBusyException.passwordHashingSaturated();
+
+        // When
+        ResponseEntity<Map<String, Object>> response = globalExceptionHandler.handleServiceBusyException(exception);
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        Map<String, Object> body = response.getBody();
+        assertNotNull(body);
+        assertEquals(ErrorCode.SERVICE_BUSY.getCode(), body.get("error"));
+    }
 }
@@ -1,5 +1,6 @@
 package com.microservices.repository;
 
+import com.microservices.dto.UserFilterDTO;
 import com.microservices.entity.User;
 import com.microservices.entity.UserRole;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,9 +9,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -97,6 +102,42 @@ class UserRepositoryTest {
         assertFalse(userRepository.existsByEmail("nonexistent@example.com"));
     }
 
+    @Test
+    @DisplayName("Should find every user holding the userName or the email in one query")
+    void shouldFindUsersByUserNameOrEmail() {
+        // When
+        List<UserRepository.UserIdentity> conflicts = userRepository.findByUserNameOrEmail("testuser", "admin@example.com");
+        List<UserRepository.UserIdentity> none = userRepository.findByUserNameOrEmail("nonexistent", "nonexistent@example.com");
+
+        // Then
+        assertEquals(2, conflicts.size());
+        assertTrue(conflicts.stream().anyMatch(u -> u.getUserName().equals("testuser")));
+        assertTrue(conflicts.stream().anyMatch(u -> u.getEmail().equals("admin@example.com")));
+        assertTrue(none.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject a duplicate email through the named unique constraint")
+    void shouldRejectDuplicateEmailThroughNamedConstraint() {
+        // Given
+        User duplicate = User.builder()
+                .userName("otheruser")
+                .email("test@example.com")
+                .password("password123")
+                .name("Other")
+                .lastName("User")
+                .role(UserRole.USER)
+                .registerDate(LocalDateTime.now())
+                .build();
+
+        // When & Then
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.saveAndFlush(duplicate));
+        SQLException cause = assertInstanceOf(SQLException.class, exception.getMostSpecificCause());
+        assertEquals("23505", cause.getSQLState());
+        assertTrue(cause.getMessage().toLowerCase(Locale.ROOT).contains("uk_users_email"));
+    }
+
     @Test
     @DisplayName("Should find users by role")
     void shouldFindUsersByRole() {
@@ -167,4 +208,52 @@ class UserRepositoryTest {
         // Then
         assertFalse(found.isPresent());
     }
+
+    private List<User> findPage(UserFilterDTO filter, Long afterId, int limit) {
+        return userRepository.findBy(UserSpecifications.matching(filter, afterId),
+                query -> query.sortBy(Sort.by("userId")).limit(limit).all());
+    }
+
+    @Test
+    @DisplayName("Should page users by keyset in id order")
+    void shouldPageUsersByKeyset() {
+        // When
+        List<User> firstPage = findPage(null, null, 1);
+        List<User> secondPage = findPage(null, firstPage.get(0).getUserId(), 1);
+        List<User> thirdPage = findPage(null, secondPage.get(0).getUserId(), 1);
+
+        // Then
+        assertEquals(testUser.getUserId(), firstPage.get(0).getUserId());
+        assertEquals(adminUser.getUserId(), secondPage.get(0).getUserId());
+        assertTrue(thirdPage.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should filter users by role, registration date and name prefix")
+    void shouldFilterUsersByRoleDateAndNamePrefix() {
+        // Given
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+
+        // When
+        List<User> admins = findPage(UserFilterDTO.builder().role(UserRole.ADMIN).build(), null, 10);
+        List<User> byPrefix = findPage(UserFilterDTO.builder().namePrefix("test").build(), null, 10);
+        List<User> registeredSinceYesterday = findPage(UserFilterDTO.builder().registeredFrom(yesterday).build(), null, 10);
+        List<User> registeredBeforeYesterday = findPage(UserFilterDTO.builder().registeredTo(yesterday).build(), null, 10);
+
+        // Then
+        assertEquals(List.of("adminuser"), admins.stream().map(User::getUserName).toList());
+        assertEquals(List.of("testuser"), byPrefix.stream().map(User::getUserName).toList());
+        assertEquals(2, registeredSinceYesterday.size());
+        assertTrue(registeredBeforeYesterday.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should treat LIKE wildcards in name prefix literally")
+    void shouldTreatLikeWildcardsInNamePrefixLiterally() {
+        // When
+        List<User> found = findPage(UserFilterDTO.builder().namePrefix("%user").build(), null, 10);
+
+        // Then
+        assertTrue(found.isEmpty());
+    }
 }
@@ -2,7 +2,6 @@ package com.microservices.service;
 
 import com.microservices.entity.User;
 import com.microservices.entity.UserRole;
-import com.microservices.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -28,7 +27,7 @@ import static org.mockito.Mockito.*;
 class CustomUserDetailsServiceTest {
 
     @Mock
-    private UserRepository userRepository;
+    private UserProfileCache userProfileCache;
 
     @InjectMocks
     private CustomUserDetailsService customUserDetailsService;
@@ -53,7 +52,7 @@ class CustomUserDetailsServiceTest {
     @DisplayName("Should load user by username successfully")
     void shouldLoadUserByUsernameSuccessfully() {
         // Given
-        when(userRepository.findByUserName("testuser")).thenReturn(Optional.of(testUser));
+        when(userProfileCache.getByUserName("testuser")).thenReturn(Optional.of(UserProfileCache.UserProfile.from(testUser)));
 
         // When
         UserDetails userDetails = customUserDetailsService.loadUserByUsername("testuser");
@@ -61,14 +60,14 @@ class CustomUserDetailsServiceTest {
         // Then
         assertNotNull(userDetails);
         assertEquals("testuser", userDetails.getUsername());
-        assertEquals("encodedPassword", userDetails.getPassword());
+        assertEquals("", userDetails.getPassword()); // La caché no guarda credenciales
         assertTrue(userDetails.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_USER")));
         assertTrue(userDetails.isEnabled());
         assertTrue(userDetails.isAccountNonExpired());
         assertTrue(userDetails.isAccountNonLocked());
         assertTrue(userDetails.isCredentialsNonExpired());
         
-        verify(userRepository).findByUserName("testuser");
+        verify(userProfileCache).getByUserName("testuser");
     }
 
     @Test
@@ -86,7 +85,7 @@ class CustomUserDetailsServiceTest {
                 .registerDate(LocalDateTime.now())
                 .build();
         
-        when(userRepository.findByUserName("admin")).thenReturn(Optional.of(adminUser));
+        when(userProfileCache.getByUserName("admin")).thenReturn(Optional.of(UserProfileCache.UserProfile.from(adminUser)));
 
         // When
         UserDetails userDetails = customUserDetailsService.loadUserByUsername("admin");
@@ -94,18 +93,18 @@ class CustomUserDetailsServiceTest {
         // Then
         assertNotNull(userDetails);
         assertEquals("admin", userDetails.getUsername());
-        assertEquals("adminPassword", userDetails.getPassword());
+        assertEquals("", userDetails.getPassword()); // La caché no guarda credenciales
         assertTrue(userDetails.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_ADMIN")));
         assertTrue(userDetails.isEnabled());
         
-        verify(userRepository).findByUserName("admin");
+        verify(userProfileCache).getByUserName("admin");
     }
 
     @Test
     @DisplayName("Should throw UsernameNotFoundException when user not found")
     void shouldThrowUsernameNotFoundExceptionWhenUserNotFound() {
         // Given
-        when(userRepository.findByUserName("nonexistent")).thenReturn(Optional.empty());
+        when(userProfileCache.getByUserName("nonexistent")).thenReturn(Optional.empty());
 
         // When & Then
         UsernameNotFoundException exception = assertThrows(
@@ -114,14 +113,14 @@ class CustomUserDetailsServiceTest {
         );
 
         assertEquals("Usuario no encontrado: nonexistent", exception.getMessage());
-        verify(userRepository).findByUserName("nonexistent");
+        verify(userProfileCache).getByUserName("nonexistent");
     }
 
     @Test
     @DisplayName("Should throw UsernameNotFoundException when username is null")
     void shouldThrowUsernameNotFoundExceptionWhenUsernameIsNull() {
         // Given
-        when(userRepository.findByUserName(null)).thenReturn(Optional.empty());
+        when(userProfileCache.getByUserName(null)).thenReturn(Optional.empty());
 
         // When & Then
         UsernameNotFoundException exception = assertThrows(
@@ -130,14 +129,14 @@ class CustomUserDetailsServiceTest {
         );
 
         assertEquals("Usuario no encontrado: null", exception.getMessage());
-        verify(userRepository).findByUserName(null);
+        verify(userProfileCache).getByUserName(null);
     }
 
     @Test
     @DisplayName("Should throw UsernameNotFoundException when username is empty")
     void shouldThrowUsernameNotFoundExceptionWhenUsernameIsEmpty() {
         // Given
-        when(userRepository.findByUserName("")).thenReturn(Optional.empty());
+        when(userProfileCache.getByUserName("")).thenReturn(Optional.empty());
 
         // When & Then
         UsernameNotFoundException exception = assertThrows(
@@ -146,7 +145,7 @@ class CustomUserDetailsServiceTest {
         );
 
         assertEquals("Usuario no encontrado: ", exception.getMessage());
-        verify(userRepository).findByUserName("");
+        verify(userProfileCache).getByUserName("");
     }
 
     @Test
@@ -164,7 +163,7 @@ class CustomUserDetailsServiceTest {
                 .registerDate(LocalDateTime.now())
                 .build();
         
-        when(userRepository.findByUserName("roleuser")).thenReturn(Optional.of(userWithRole));
+        when(userProfileCache.getByUserName("roleuser")).thenReturn(Optional.of(UserProfileCache.UserProfile.from(userWithRole)));
 
         // When
         UserDetails userDetails = customUserDetailsService.loadUserByUsername("roleuser");
@@ -172,10 +171,10 @@ class CustomUserDetailsServiceTest {
         // Then
         assertNotNull(userDetails);
         assertEquals("roleuser", userDetails.getUsername());
-        assertEquals("rolePassword", userDetails.getPassword());
+        assertEquals("", userDetails.getPassword()); // La caché no guarda credenciales
         assertEquals(1, userDetails.getAuthorities().size());
         assertTrue(userDetails.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_USER")));
         
-        verify(userRepository).findByUserName("roleuser");
+        verify(userProfileCache).getByUserName("roleuser");
     }
 }
@@ -2,15 +2,20 @@ package com.microservices.service;
 
 import com.microservices.entity.User;
 import com.microservices.entity.UserRole;
+import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,15 +28,20 @@ import static org.junit.jupiter.api.Assertions.*;
 @DisplayName("JwtService Tests")
 class JwtServiceTest {
 
+    @TempDir
+    Path keysDir;
+
     private JwtService jwtService;
     private User testUser;
 
     @BeforeEach
     void setUp() {
-        jwtService = new JwtService();
+        SigningKeyService signingKeyService = new SigningKeyService(
+                keysDir.resolve("private"), keysDir.resolve("public"), "EdDSA", 604800000L, 3600000L, 86400000L);
+        signingKeyService.rotateIfNeeded();
+        jwtService = new JwtService(signingKeyService);
         
         // Configurar valores de test usando ReflectionTestUtils
-        ReflectionTestUtils.setField(jwtService, "secretKey", "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
         ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3600000L); // 1 hora para tests
         
         testUser = User.builder()
@@ -62,6 +72,32 @@ class JwtServiceTest {
     }
 
 
+    @Test
+    @DisplayName("Should assign a distinct jti to every token")
+    void shouldAssignDistinctJtiToEveryToken() {
+        // When
+        String first = jwtService.generateToken(testUser);
+        String second = jwtService.generateToken(testUser);
+
+        // Then
+        String firstId = jwtService.extractClaim(first, Claims::getId);
+        String secondId = jwtService.extractClaim(second, Claims::getId);
+        assertNotNull(firstId);
+        assertNotEquals(firstId, secondId);
+    }
+
+    @Test
+    @DisplayName("Should sign token with EdDSA and active key id")
+    void shouldSignTokenWithEdDsaAndActiveKeyId() {
+        // When
+        String token = jwtService.generateToken(testUser);
+
+        // Then
+        String header = new String(Base64.getUrlDecoder().decode(token.split("\\.")[0]), StandardCharsets.UTF_8);
+        assertTrue(header.contains("\"alg\":\"EdDSA\""));
+        assertTrue(header.contains("\"kid\":\""));
+    }
+
     @Test
     @DisplayName("Should extract username from token")
     void shouldExtractUsernameFromToken() {
@@ -0,0 +1,155 @@
+package com.microservices.service;
+
+import com.microservices.dto.LoginDTO;
+import com.microservices.dto.LoginResponseDTO;
+import com.microservices.entity.User;
+import com.microservices.entity.UserRole;
+import com.microservices.exception.ServiceBusyException;
+import com.microservices.mapper.UserMapper;
+import com.microservices.repository.UserRepository;
+import com.microservices.service.impl.UserServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Prueba de carga del login: 500 peticiones concurrentes contra UserServiceImpl con BCrypt real
+ * y un executor de hashing pequeño. Cada login termina con éxito o con 429 (ServiceBusyException),
+ * y nunca hay más hashes simultáneos que hilos en el pool.
+ */
+@DisplayName("Login Load Tests")
+class LoginLoadTest {
+
+    private static final int CONCURRENT_LOGINS = 500;
+    private static final int POOL_SIZE = 4;
+    private static final int QUEUE_CAPACITY = 20;
+
+    private final AtomicInteger activeHashes = new AtomicInteger();
+    private final AtomicInteger maxActiveHashes = new AtomicInteger();
+
+    private ThreadPoolTaskExecutor hashingExecutor;
+    private ExecutorService clients;
+    private UserServiceImpl userService;
+
+    @BeforeEach
+    void setUp() {
+        hashingExecutor = new ThreadPoolTaskExecutor();
+        hashingExecutor.setCorePoolSize(POOL_SIZE);
+        hashingExecutor.setMaxPoolSize(POOL_SIZE);
+        hashingExecutor.setQueueCapacity(QUEUE_CAPACITY);
+        hashingExecutor.initialize();
+
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+        PasswordHashingService passwordHashingService = new PasswordHashingService(
+                countingEncoder(bcrypt), hashingExecutor, 5000L, 4);
+
+        User user = User.builder()
+                .userId(1L)
+                .userName("testuser")
+                .email("test@example.com")
+                .password(bcrypt.encode("password123"))
+                .name("Test")
+                .lastName("User")
+                .role(UserRole.USER)
+                .registerDate(LocalDateTime.now())
+                .build();
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByUserName("testuser")).thenReturn(Optional.of(user));
+        JwtService jwtService = mock(JwtService.class);
+        when(jwtService.generateToken(any(User.class))).thenReturn("test-jwt-token");
+        RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+        when(refreshTokenService.issue(any(User.class))).thenReturn("test-refresh-token");
+
+        userService = new UserServiceImpl(userRepository, mock(UserMapper.class),
+                passwordHashingService, jwtService, refreshTokenService, mock(UserProfileCache.class),
+                mock(PlatformTransactionManager.class));
+        clients = Executors.newFixedThreadPool(100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+        hashingExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should answer 500 concurrent logins with success or busy without exceeding the pool")
+    void shouldHandleConcurrentLoginsWithBoundedHashing() throws Exception {
+        // Given
+        LoginDTO loginDTO = LoginDTO.builder().userName("testuser").password("password123").build();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < CONCURRENT_LOGINS; i++) {
+            futures.add(clients.submit(() -> {
+                start.await();
+                try {
+                    LoginResponseDTO response = userService.login(loginDTO);
+                    assertEquals("test-jwt-token", response.getToken());
+                    succeeded.incrementAndGet();
+                } catch (ServiceBusyException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS); // Propaga cualquier excepción distinta de 429
+        }
+
+        // Then
+        assertEquals(CONCURRENT_LOGINS, succeeded.get() + rejected.get());
+        assertTrue(succeeded.get() > 0);
+        assertTrue(maxActiveHashes.get() <= POOL_SIZE,
+                "Hashes simultáneos: " + maxActiveHashes.get());
+    }
+
+    private PasswordEncoder countingEncoder(PasswordEncoder delegate) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return counted(() -> delegate.encode(rawPassword));
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return counted(() -> delegate.matches(rawPassword, encodedPassword));
+            }
+        };
+    }
+
+    private <T> T counted(Supplier<T> hashing) {
+        maxActiveHashes.accumulateAndGet(activeHashes.incrementAndGet(), Math::max);
+        try {
+            return hashing.get();
+        } finally {
+            activeHashes.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.microservices.service;
+
+import com.microservices.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para LoginThrottleService - Límite de logins fallidos por usuario e IP
+ */
+@DisplayName("LoginThrottleService Tests")
+class LoginThrottleServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginThrottleService loginThrottleService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loginThrottleService = new LoginThrottleService(meterRegistry, 300000L, 3, 5, 4, List.of("172.18.0.0/16"));
+    }
+
+    @Test
+    @DisplayName("Should throttle user after reaching failure threshold")
+    void shouldThrottleUserAfterThreshold() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            loginThrottleService.reserve("testuser", "10.0.0." + i);
+            loginThrottleService.recordFailure();
+        }
+
+        // When & Then
+        ServiceBusyException exception = assertThrows(ServiceBusyException.class,
+                () -> loginThrottleService.reserve("TestUser", "10.0.0.9"));
+        assertTrue(exception.getRetryAfterSeconds() >= 1);
+        assertDoesNotThrow(() -> loginThrottleService.reserve("otheruser", "10.0.0.9"));
+        assertEquals(3.0, meterRegistry.get("login.attempts.failed").counter().count());
+        assertEquals(1.0, meterRegistry.get("login.throttle.rejected").tag("scope", "user").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should count in-flight attempts so parallel guesses cannot exceed the user limit")
+    void shouldCountInFlightAttemptsAgainstUserLimit() {
+        // Given: tres intentos reservados cuyo resultado aún no se conoce
+        for (int i = 0; i < 3; i++) {
+            loginThrottleService.reserve("testuser", "10.0.0." + i);
+        }
+
+        // When & Then
+        assertThrows(ServiceBusyException.class, () -> loginThrottleService.reserve("testuser", "10.0.0.9"));
+        assertEquals(0.0, meterRegistry.get("login.attempts.failed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should throttle IP that fails across many usernames")
+    void shouldThrottleIpAcrossUsernames() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            loginThrottleService.reserve("user" + i, "10.0.0.1");
+            loginThrottleService.recordFailure();
+        }
+
+        // When & Then
+        assertThrows(ServiceBusyException.class, () -> loginThrottleService.reserve("newuser", "10.0.0.1"));
+        assertDoesNotThrow(() -> loginThrottleService.reserve("newuser", "10.0.0.2"));
+        assertEquals(1.0, meterRegistry.get("login.throttle.rejected").tag("scope", "ip").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should not charge the IP for an attempt rejected by the user limit")
+    void shouldRefundIpWhenUserLimitRejects() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            loginThrottleService.reserve("testuser", "10.0.0." + i);
+        }
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertThrows(ServiceBusyException.class, () -> loginThrottleService.reserve("testuser", "10.0.0.1"));
+        }
+
+        // Then
+        assertDoesNotThrow(() -> loginThrottleService.reserve("otheruser", "10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Should clear user failures after successful login")
+    void shouldClearUserFailuresAfterSuccess() {
+        // Given
+        loginThrottleService.reserve("testuser", "10.0.0.1");
+        loginThrottleService.recordFailure();
+        loginThrottleService.reserve("testuser", "10.0.0.1");
+        loginThrottleService.recordFailure();
+
+        // When
+        loginThrottleService.reserve("testuser", "10.0.0.1");
+        loginThrottleService.recordSuccess("testuser", "10.0.0.1");
+        loginThrottleService.reserve("testuser", "10.0.0.1");
+        loginThrottleService.recordFailure();
+
+        // Then
+        assertDoesNotThrow(() -> loginThrottleService.reserve("testuser", "10.0.0.1"));
+        assertEquals(1.0, meterRegistry.get("login.throttle.tracked").tag("scope", "user").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should refund successful and released attempts to the IP")
+    void shouldRefundSuccessfulAndReleasedAttemptsToIp() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            loginThrottleService.reserve("user" + i, "10.0.0.1");
+            if (i % 2 == 0) {
+                loginThrottleService.recordSuccess("user" + i, "10.0.0.1");
+            } else {
+                loginThrottleService.release("user" + i, "10.0.0.1");
+            }
+        }
+
+        // When & Then
+        assertDoesNotThrow(() -> loginThrottleService.reserve("newuser", "10.0.0.1"));
+        assertEquals(0.0, meterRegistry.get("login.attempts.failed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should resolve client IP from last X-Forwarded-For hop only behind a trusted proxy")
+    void shouldResolveClientIpFromLastForwardedHop() {
+        // Given
+        MockHttpServletRequest fromGateway = new MockHttpServletRequest();
+        fromGateway.setRemoteAddr("172.18.0.5");
+        fromGateway.addHeader("X-Forwarded-For", "1.2.3.4, 203.0.113.7");
+        MockHttpServletRequest direct = new MockHttpServletRequest();
+        direct.setRemoteAddr("198.51.100.20");
+        direct.addHeader("X-Forwarded-For", "203.0.113.7");
+
+        // When & Then
+        assertEquals("203.0.113.7", loginThrottleService.resolveClientIp(fromGateway));
+        assertEquals("198.51.100.20", loginThrottleService.resolveClientIp(direct));
+        assertEquals("127.0.0.1", loginThrottleService.resolveClientIp(new MockHttpServletRequest()));
+    }
+
+    @Test
+    @DisplayName("Should ignore X-Forwarded-For when no trusted proxies are configured")
+    void shouldIgnoreForwardedForWithoutTrustedProxies() {
+        // Given
+        LoginThrottleService untrusting = new LoginThrottleService(new SimpleMeterRegistry(), 300000L, 3, 5, 4, List.of());
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("172.18.0.5");
+        request.addHeader("X-Forwarded-For", "203.0.113.7");
+
+        // When & Then
+        assertEquals("172.18.0.5", untrusting.resolveClientIp(request));
+    }
+}
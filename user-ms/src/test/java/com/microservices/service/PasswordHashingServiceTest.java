@@ -0,0 +1,112 @@
+package com.microservices.service;
+
+import com.microservices.exception.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para PasswordHashingService - BCrypt en executor acotado y rehash adaptativo
+ */
+@DisplayName("PasswordHashingService Tests")
+class PasswordHashingServiceTest {
+
+    private ThreadPoolTaskExecutor executor;
+
+    private PasswordHashingService passwordHashingService(int poolSize, int queueCapacity, long timeoutMs) {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        return new PasswordHashingService(new BCryptPasswordEncoder(4), executor, timeoutMs, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should encode and match password on the hashing executor")
+    void shouldEncodeAndMatchPassword() {
+        // Given
+        PasswordHashingService service = passwordHashingService(2, 10, 5000L);
+
+        // When
+        String encoded = service.encode("password123");
+
+        // Then
+        assertTrue(encoded.startsWith("$2a$04$"));
+        assertTrue(service.matches("password123", encoded));
+        assertFalse(service.matches("wrong", encoded));
+    }
+
+    @Test
+    @DisplayName("Should request rehash only when stored cost differs from configured one")
+    void shouldRequestRehashOnlyWhenCostDiffers() {
+        // Given
+        PasswordHashingService service = passwordHashingService(1, 1, 5000L);
+        String sameCost = new BCryptPasswordEncoder(4).encode("password123");
+        String otherCost = new BCryptPasswordEncoder(5).encode("password123");
+
+        // When & Then
+        assertFalse(service.needsRehash(sameCost));
+        assertTrue(service.needsRehash(otherCost));
+        assertFalse(service.needsRehash("not-a-bcrypt-hash"));
+        assertFalse(service.needsRehash(null));
+    }
+
+    @Test
+    @DisplayName("Should reject with busy exception when pool and queue are full")
+    void shouldRejectWhenPoolAndQueueAreFull() throws Exception {
+        // Given
+        PasswordHashingService service = passwordHashingService(1, 1, 5000L);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        executor.execute(() -> awaitQuietly(release));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When & Then
+        ServiceBusyException exception = assertThrows(ServiceBusyException.class, () -> service.encode("password123"));
+        assertEquals(1L, exception.getRetryAfterSeconds());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should fail with busy exception when queued task exceeds the timeout")
+    void shouldFailWhenQueuedTaskExceedsTimeout() throws Exception {
+        // Given
+        PasswordHashingService service = passwordHashingService(1, 10, 50L);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+
+        // When & Then
+        try {
+            assertThrows(ServiceBusyException.class, () -> service.matches("password123", "$2a$04$invalid"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.microservices.service;
+
+import com.microservices.entity.RefreshToken;
+import com.microservices.entity.User;
+import com.microservices.entity.UserRole;
+import com.microservices.exception.InvalidCredentialsException;
+import com.microservices.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para RefreshTokenService - Emisión, rotación y detección de reutilización
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RefreshTokenService Tests")
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(refreshTokenService, "refreshExpiration", 604800000L);
+
+        testUser = User.builder()
+                .userId(1L)
+                .userName("testuser")
+                .email("test@example.com")
+                .password("password123")
+                .name("Test")
+                .lastName("User")
+                .role(UserRole.USER)
+                .registerDate(LocalDateTime.now())
+                .build();
+    }
+
+    private RefreshToken storedToken(String familyId, LocalDateTime usedAt, boolean revoked, LocalDateTime expiresAt) {
+        return RefreshToken.builder()
+                .id(10L)
+                .tokenHash("hash")
+                .familyId(familyId)
+                .user(testUser)
+                .createdAt(LocalDateTime.now().minusMinutes(5))
+                .expiresAt(expiresAt)
+                .usedAt(usedAt)
+                .revoked(revoked)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should persist only the hash of issued refresh token")
+    void shouldPersistOnlyHashOfIssuedRefreshToken() {
+        // When
+        String rawToken = refreshTokenService.issue(testUser);
+
+        // Then
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        RefreshToken saved = captor.getValue();
+        assertNotNull(rawToken);
+        assertNotEquals(rawToken, saved.getTokenHash());
+        assertEquals(64, saved.getTokenHash().length());
+        assertNotNull(saved.getFamilyId());
+        assertTrue(saved.getExpiresAt().isAfter(LocalDateTime.now().plusDays(6)));
+    }
+
+    @Test
+    @DisplayName("Should rotate refresh token within the same family")
+    void shouldRotateRefreshTokenWithinSameFamily() {
+        // Given
+        RefreshToken current = storedToken("family-1", null, false, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHashForUpdate(anyString())).thenReturn(Optional.of(current));
+
+        // When
+        RefreshTokenService.RotatedRefreshToken rotated = refreshTokenService.rotate("raw-token");
+
+        // Then
+        assertSame(testUser, rotated.user());
+        assertNotEquals("raw-token", rotated.refreshToken());
+        assertNotNull(current.getUsedAt());
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertEquals("family-1", captor.getValue().getFamilyId());
+        verify(refreshTokenRepository, never()).revokeFamily(anyString());
+    }
+
+    @Test
+    @DisplayName("Should revoke whole family when a used refresh token is reused")
+    void shouldRevokeFamilyWhenUsedRefreshTokenIsReused() {
+        // Given
+        RefreshToken used = storedToken("family-1", LocalDateTime.now().minusMinutes(1), false, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHashForUpdate(anyString())).thenReturn(Optional.of(used));
+
+        // When & Then
+        assertThrows(InvalidCredentialsException.class, () -> refreshTokenService.rotate("raw-token"));
+        verify(refreshTokenRepository).revokeFamily("family-1");
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    @DisplayName("Should reject expired refresh token")
+    void shouldRejectExpiredRefreshToken() {
+        // Given
+        RefreshToken expired = storedToken("family-1", null, false, LocalDateTime.now().minusMinutes(1));
+        when(refreshTokenRepository.findByTokenHashForUpdate(anyString())).thenReturn(Optional.of(expired));
+
+        // When & Then
+        assertThrows(InvalidCredentialsException.class, () -> refreshTokenService.rotate("raw-token"));
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown refresh token")
+    void shouldRejectUnknownRefreshToken() {
+        // Given
+        when(refreshTokenRepository.findByTokenHashForUpdate(anyString())).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(InvalidCredentialsException.class, () -> refreshTokenService.rotate("unknown"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.microservices.service;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para SigningKeyService - Generación, carga y rotación de claves de firma
+ */
+@DisplayName("SigningKeyService Tests")
+class SigningKeyServiceTest {
+
+    @TempDir
+    Path keysDir;
+
+    private SigningKeyService signingKeyService(String algorithm, long rotationPeriodMs, long publishAheadMs, long retentionMs) {
+        SigningKeyService signingKeyService = new SigningKeyService(
+                keysDir.resolve("private"), keysDir.resolve("public"), algorithm, rotationPeriodMs, publishAheadMs, retentionMs);
+        signingKeyService.rotateIfNeeded();
+        return signingKeyService;
+    }
+
+    private long count(String directory) throws IOException {
+        try (Stream<Path> files = Files.list(keysDir.resolve(directory))) {
+            return files.count();
+        }
+    }
+
+    @Test
+    @DisplayName("Should generate active key with private and public files in separate directories")
+    void shouldGenerateActiveKeyInSeparateDirectories() throws IOException {
+        // When
+        SigningKeyService signingKeyService = signingKeyService("EdDSA", 604800000L, 3600000L, 86400000L);
+
+        // Then
+        String kid = signingKeyService.activeKey().kid();
+        assertTrue(kid.contains("-EdDSA-"));
+        assertTrue(Files.exists(keysDir.resolve("private").resolve(kid + ".key")));
+        assertTrue(Files.exists(keysDir.resolve("public").resolve(kid + ".pub")));
+        assertFalse(Files.exists(keysDir.resolve("public").resolve(kid + ".key")));
+    }
+
+    @Test
+    @DisplayName("Should reuse keys written by another instance")
+    void shouldReuseKeysWrittenByAnotherInstance() {
+        // Given
+        SigningKeyService first = signingKeyService("EdDSA", 604800000L, 3600000L, 86400000L);
+
+        // When
+        SigningKeyService second = signingKeyService("EdDSA", 604800000L, 3600000L, 86400000L);
+
+        // Then
+        assertEquals(first.activeKey().kid(), second.activeKey().kid());
+        assertEquals(first.activeKey().publicKey(), second.activeKey().publicKey());
+    }
+
+    @Test
+    @DisplayName("Should publish next key before activating it")
+    void shouldPublishNextKeyBeforeActivatingIt() throws IOException {
+        // Given - la siguiente rotación cae dentro de la ventana de publicación anticipada
+        SigningKeyService signingKeyService = signingKeyService("EdDSA", 60000L, 120000L, 86400000L);
+        String activeKid = signingKeyService.activeKey().kid();
+
+        // Then
+        assertEquals(2, count("public"));
+        assertEquals(activeKid, signingKeyService.activeKey().kid());
+    }
+
+    @Test
+    @DisplayName("Should remove keys superseded longer than retention")
+    void shouldRemoveKeysSupersededLongerThanRetention() throws Exception {
+        // Given - claves de 50 ms retenidas 0 ms tras ser reemplazadas
+        SigningKeyService signingKeyService = signingKeyService("EdDSA", 50L, 0L, 0L);
+        String firstKid = signingKeyService.activeKey().kid();
+
+        // When
+        Thread.sleep(120L);
+        signingKeyService.rotateIfNeeded();
+        Thread.sleep(20L);
+        signingKeyService.rotateIfNeeded();
+
+        // Then
+        assertNotEquals(firstKid, signingKeyService.activeKey().kid());
+        assertFalse(Files.exists(keysDir.resolve("public").resolve(firstKid + ".pub")));
+        assertFalse(Files.exists(keysDir.resolve("private").resolve(firstKid + ".key")));
+    }
+
+    @Test
+    @DisplayName("Should sign and verify with RS256 keys")
+    void shouldSignAndVerifyWithRs256Keys() {
+        // Given
+        SigningKeyService signingKeyService = signingKeyService("RS256", 604800000L, 3600000L, 86400000L);
+        SigningKeyService.SigningKey key = signingKeyService.activeKey();
+
+        // When
+        String token = Jwts.builder()
+                .header().keyId(key.kid()).and()
+                .subject("testuser")
+                .signWith(key.privateKey(), key.algorithm())
+                .compact();
+
+        // Then
+        String subject = Jwts.parser()
+                .keyLocator(signingKeyService::locate)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+        assertEquals("testuser", subject);
+    }
+
+    @Test
+    @DisplayName("Should reject unsupported algorithm")
+    void shouldRejectUnsupportedAlgorithm() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> new SigningKeyService(
+                keysDir.resolve("private"), keysDir.resolve("public"), "HS256", 604800000L, 3600000L, 86400000L));
+    }
+}
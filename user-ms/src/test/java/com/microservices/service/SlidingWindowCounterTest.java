@@ -0,0 +1,141 @@
+package com.microservices.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para SlidingWindowCounter - Contadores de ventana deslizante particionados
+ */
+@DisplayName("SlidingWindowCounter Tests")
+class SlidingWindowCounterTest {
+
+    private static final long WINDOW = 1000L;
+
+    @Test
+    @DisplayName("Should count events within the current window")
+    void shouldCountEventsWithinCurrentWindow() {
+        // Given
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, 4);
+
+        // When
+        counter.increment("user", 10_000L);
+        counter.increment("user", 10_100L);
+        double estimate = counter.increment("user", 10_200L);
+
+        // Then
+        assertEquals(3.0, estimate);
+        assertEquals(0.0, counter.estimate("other", 10_200L));
+    }
+
+    @Test
+    @DisplayName("Should weight previous window by its remaining overlap")
+    void shouldWeightPreviousWindowByOverlap() {
+        // Given
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, 4);
+        for (int i = 0; i < 4; i++) {
+            counter.increment("user", 10_500L);
+        }
+
+        // When & Then
+        assertEquals(3.0, counter.estimate("user", 11_250L), 0.0001); // 75% de solape con la ventana anterior
+        assertEquals(0.0, counter.estimate("user", 12_000L)); // Dos ventanas después ya no cuenta
+    }
+
+    @Test
+    @DisplayName("Should reset key and evict idle keys")
+    void shouldResetAndEvictIdleKeys() {
+        // Given
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, 4);
+        counter.increment("a", 10_000L);
+        counter.increment("b", 10_000L);
+        counter.increment("c", 12_500L);
+
+        // When
+        counter.reset("a");
+        counter.evictIdle(12_500L);
+
+        // Then
+        assertEquals(1, counter.size());
+        assertEquals(1.0, counter.estimate("c", 12_500L));
+    }
+
+    @Test
+    @DisplayName("Should only count an event while the estimate is below the limit and refund it on decrement")
+    void shouldCountUpToLimitAndRefundOnDecrement() {
+        // Given
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, 4);
+        assertTrue(counter.tryIncrement("user", 10_000L, 2));
+        assertTrue(counter.tryIncrement("user", 10_100L, 2));
+
+        // When
+        boolean rejected = !counter.tryIncrement("user", 10_200L, 2);
+        counter.decrement("user", 10_300L);
+
+        // Then
+        assertTrue(rejected);
+        assertEquals(1.0, counter.estimate("user", 10_300L));
+        assertTrue(counter.tryIncrement("user", 10_400L, 2));
+    }
+
+    @Test
+    @DisplayName("Should not admit more than the limit under concurrent reservations")
+    void shouldNotExceedLimitUnderConcurrentReservations() throws Exception {
+        // Given
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, 4);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < 200; i++) {
+            executor.submit(() -> {
+                start.await();
+                if (counter.tryIncrement("user", 10_000L, 5)) {
+                    admitted.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(5, admitted.get());
+    }
+
+    @Test
+    @DisplayName("Should not lose increments under concurrent access")
+    void shouldNotLoseIncrementsUnderConcurrency() throws Exception {
+        // Given
+        SlidingWindowCounter counter = new SlidingWindowCounter(60_000L, 8);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch done = new CountDownLatch(8);
+        long now = 120_000L;
+
+        // When
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    counter.increment("key-" + (i % 10), now);
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        // Then
+        for (int k = 0; k < 10; k++) {
+            assertEquals(800.0, counter.estimate("key-" + k, now));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.microservices.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.microservices.dto.UserFilterDTO;
+import com.microservices.dto.UserResponseDTO;
+import com.microservices.entity.User;
+import com.microservices.entity.UserRole;
+import com.microservices.mapper.UserMapper;
+import com.microservices.repository.UserRepository;
+import com.microservices.service.impl.UserExportServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para UserExportServiceImpl - Exportación NDJSON por lotes de keyset
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserExportService Tests")
+class UserExportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private UserExportServiceImpl userExportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        userExportService = new UserExportServiceImpl(userRepository, userMapper, objectMapper, entityManager, 2);
+        when(userMapper.toResponseDTO(any(User.class))).thenAnswer(inv -> {
+            User user = inv.getArgument(0);
+            return UserResponseDTO.builder().userId(user.getUserId()).userName(user.getUserName()).build();
+        });
+    }
+
+    private static User user(long id) {
+        return User.builder().userId(id).userName("user" + id).role(UserRole.USER).build();
+    }
+
+    @Test
+    @DisplayName("Should write every user as one NDJSON line reading in keyset batches")
+    void shouldWriteUsersInKeysetBatches() {
+        // Given
+        when(userRepository.findBy(any(Specification.class), any()))
+                .thenReturn(List.of(user(1L), user(2L)))
+                .thenReturn(List.of(user(3L)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long count = userExportService.exportUsers(UserFilterDTO.builder().role(UserRole.USER).build(), out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3L, count);
+        assertEquals(3, lines.length);
+        assertTrue(lines[2].contains("\"userName\":\"user3\""));
+        verify(userRepository, times(2)).findBy(any(Specification.class), any());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    @DisplayName("Should stop after a full batch followed by an empty one")
+    void shouldStopAfterEmptyBatch() {
+        // Given
+        when(userRepository.findBy(any(Specification.class), any()))
+                .thenReturn(List.of(user(1L), user(2L)))
+                .thenReturn(List.of());
+
+        // When
+        long count = userExportService.exportUsers(null, new ByteArrayOutputStream());
+
+        // Then
+        assertEquals(2L, count);
+        verify(userRepository, times(2)).findBy(any(Specification.class), any());
+    }
+}
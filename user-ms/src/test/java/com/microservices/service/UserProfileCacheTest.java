@@ -0,0 +1,162 @@
+package com.microservices.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.microservices.entity.User;
+import com.microservices.entity.UserRole;
+import com.microservices.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para UserProfileCache - Caché de perfiles indexada por id y userName
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserProfileCache Tests")
+class UserProfileCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserProfileCache userProfileCache;
+
+    @BeforeEach
+    void setUp() {
+        userProfileCache = new UserProfileCache(userRepository, new SimpleMeterRegistry(), 1000L, 300L);
+    }
+
+    private static User user(long id, String userName) {
+        return User.builder()
+                .userId(id)
+                .userName(userName)
+                .email(userName + "@example.com")
+                .password("$2a$10$hash")
+                .name("Test")
+                .lastName("User")
+                .role(UserRole.USER)
+                .registerDate(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should serve userName lookup from an entry loaded by id")
+    void shouldServeUserNameLookupFromEntryLoadedById() {
+        // Given
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L, "testuser")));
+
+        // When
+        userProfileCache.getById(1L);
+        userProfileCache.getById(1L);
+        Optional<UserProfileCache.UserProfile> byName = userProfileCache.getByUserName("testuser");
+
+        // Then
+        assertTrue(byName.isPresent());
+        assertEquals(1L, byName.get().userId());
+        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, never()).findByUserName(anyString());
+    }
+
+    @Test
+    @DisplayName("Should not cache credentials")
+    void shouldNotCacheCredentials() {
+        // Given
+        when(userRepository.findByUserName("testuser")).thenReturn(Optional.of(user(1L, "testuser")));
+
+        // When
+        UserProfileCache.UserProfile profile = userProfileCache.getByUserName("testuser").orElseThrow();
+
+        // Then
+        assertFalse(profile.toString().contains("$2a$"));
+        assertEquals("testuser@example.com", profile.toResponseDTO().getEmail());
+    }
+
+    @Test
+    @DisplayName("Should evict both indexes including a previous userName on invalidate")
+    void shouldEvictBothIndexesOnInvalidate() {
+        // Given
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(user(1L, "oldname")))
+                .thenReturn(Optional.of(user(1L, "newname")));
+        when(userRepository.findByUserName("oldname")).thenReturn(Optional.empty());
+        userProfileCache.getById(1L);
+
+        // When
+        userProfileCache.invalidate(1L);
+
+        // Then
+        assertTrue(userProfileCache.getByUserName("oldname").isEmpty());
+        assertEquals("newname", userProfileCache.getById(1L).orElseThrow().userName());
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should not cache missing users")
+    void shouldNotCacheMissingUsers() {
+        // Given
+        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // When
+        userProfileCache.getById(99L);
+        userProfileCache.getById(99L);
+
+        // Then
+        verify(userRepository, times(2)).findById(99L);
+    }
+
+    @Test
+    @DisplayName("Should cut user queries under a read-heavy profile")
+    void shouldCutQueriesUnderReadHeavyProfile() {
+        // Given: 100 usuarios, 10.000 operaciones, 1 de cada 100 es una actualización que invalida
+        int users = 100;
+        int operations = 10_000;
+        when(userRepository.findById(anyLong())).thenAnswer(inv -> {
+            Long id = inv.getArgument(0);
+            return Optional.of(user(id, "user" + id));
+        });
+        when(userRepository.findByUserName(anyString())).thenAnswer(inv -> {
+            String userName = inv.getArgument(0);
+            return Optional.of(user(Long.parseLong(userName.substring(4)), userName));
+        });
+
+        // When
+        int reads = 0;
+        for (int i = 0; i < operations; i++) {
+            long id = (i % users) + 1;
+            if (i % 100 == 99) {
+                userProfileCache.invalidate(((i / 100) % users) + 1L);
+            } else if (i % 2 == 0) {
+                userProfileCache.getById(id); // GET /api/users/{id}
+                reads++;
+            } else {
+                userProfileCache.getByUserName("user" + id); // loadUserByUsername en cada petición autenticada
+                reads++;
+            }
+        }
+
+        // Then
+        int queries = Mockito.mockingDetails(userRepository).getInvocations().size();
+        CacheStats byId = userProfileCache.statsById();
+        CacheStats byUserName = userProfileCache.statsByUserName();
+        double hitRate = (double) (byId.hitCount() + byUserName.hitCount())
+                / (byId.requestCount() + byUserName.requestCount());
+        double queryReduction = 1.0 - (double) queries / reads;
+
+        // Sin caché cada lectura es una consulta; con caché solo la primera de cada usuario y la siguiente a cada invalidación
+        assertTrue(queries <= 2 * users, "Consultas: " + queries + " de " + reads + " lecturas");
+        assertTrue(hitRate > 0.97, "Tasa de aciertos: " + hitRate);
+        assertTrue(queryReduction > 0.97, "Reducción de consultas: " + queryReduction);
+    }
+}
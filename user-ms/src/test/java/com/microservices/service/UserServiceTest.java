@@ -2,26 +2,37 @@ package com.microservices.service;
 
 import com.microservices.dto.LoginDTO;
 import com.microservices.dto.LoginResponseDTO;
+import com.microservices.dto.RefreshTokenRequestDTO;
+import com.microservices.dto.UserFilterDTO;
+import com.microservices.dto.UserPageDTO;
 import com.microservices.dto.UserRequestDTO;
 import com.microservices.dto.UserResponseDTO;
 import com.microservices.dto.UserUpdateDTO;
 import com.microservices.entity.User;
 import com.microservices.entity.UserRole;
 import com.microservices.exception.InvalidCredentialsException;
+import com.microservices.exception.ServiceBusyException;
 import com.microservices.exception.UserAlreadyExistsException;
 import com.microservices.exception.UserNotFoundException;
+import com.microservices.exception.ValidationException;
 import com.microservices.mapper.UserMapper;
 import com.microservices.repository.UserRepository;
 import com.microservices.service.impl.UserServiceImpl;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -44,11 +55,20 @@ class UserServiceTest {
     private UserMapper userMapper;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private UserProfileCache userProfileCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -93,17 +113,18 @@ class UserServiceTest {
                 .userName("testuser")
                 .password("password123")
                 .build();
+
+        ReflectionTestUtils.setField(userService, "maxPageSize", 500);
     }
 
     @Test
     @DisplayName("Should create user successfully")
     void shouldCreateUserSuccessfully() {
         // Given
-        when(userRepository.existsByUserName("testuser")).thenReturn(false);
-        when(userRepository.existsByEmail("test@example.com")).thenReturn(false);
+        when(userRepository.findByUserNameOrEmail("testuser", "test@example.com")).thenReturn(List.of());
         when(userMapper.toEntity(userRequestDTO)).thenReturn(testUser);
-        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
-        when(userRepository.save(testUser)).thenReturn(testUser);
+        when(passwordHashingService.encode("password123")).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(testUser)).thenReturn(testUser);
         when(userMapper.toResponseDTO(testUser)).thenReturn(userResponseDTO);
 
         // When
@@ -117,10 +138,9 @@ class UserServiceTest {
         assertEquals("Test", result.getName());
         assertEquals("User", result.getLastName());
         assertEquals(UserRole.USER, result.getRole());
-        verify(userRepository).existsByUserName("testuser");
-        verify(userRepository).existsByEmail("test@example.com");
-        verify(passwordEncoder).encode("password123");
-        verify(userRepository).save(testUser);
+        verify(userRepository).findByUserNameOrEmail("testuser", "test@example.com");
+        verify(passwordHashingService).encode("password123");
+        verify(userRepository).saveAndFlush(testUser);
         verify(userMapper).toResponseDTO(testUser);
     }
 
@@ -128,8 +148,7 @@ class UserServiceTest {
     @DisplayName("Should get user by id")
     void shouldGetUserById() {
         // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userMapper.toResponseDTO(testUser)).thenReturn(userResponseDTO);
+        when(userProfileCache.getById(1L)).thenReturn(Optional.of(UserProfileCache.UserProfile.from(testUser)));
 
         // When
         UserResponseDTO result = userService.getUser(1L);
@@ -138,7 +157,8 @@ class UserServiceTest {
         assertNotNull(result);
         assertEquals(1L, result.getUserId());
         assertEquals("testuser", result.getUserName());
-        verify(userRepository).findById(1L);
+        verify(userProfileCache).getById(1L);
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
@@ -159,6 +179,48 @@ class UserServiceTest {
         verify(userRepository).findAll();
     }
 
+    @Test
+    @DisplayName("Should return keyset page with next cursor when more users exist")
+    void shouldReturnKeysetPageWithNextCursor() {
+        // Given
+        User secondUser = User.builder().userId(2L).userName("second").role(UserRole.USER).build();
+        User thirdUser = User.builder().userId(3L).userName("third").role(UserRole.USER).build();
+        when(userRepository.findBy(any(Specification.class), any())).thenReturn(List.of(testUser, secondUser, thirdUser));
+        when(userMapper.toResponseDTO(any(User.class))).thenReturn(userResponseDTO);
+
+        // When
+        UserPageDTO result = userService.getUsersPage(UserFilterDTO.builder().role(UserRole.USER).build(), null, 2);
+
+        // Then
+        assertEquals(2, result.getUsers().size());
+        assertEquals(2L, result.getNextAfterId());
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should return last keyset page without next cursor")
+    void shouldReturnLastKeysetPageWithoutNextCursor() {
+        // Given
+        when(userRepository.findBy(any(Specification.class), any())).thenReturn(List.of(testUser));
+        when(userMapper.toResponseDTO(testUser)).thenReturn(userResponseDTO);
+
+        // When
+        UserPageDTO result = userService.getUsersPage(null, 0L, 2);
+
+        // Then
+        assertEquals(1, result.getUsers().size());
+        assertNull(result.getNextAfterId());
+    }
+
+    @Test
+    @DisplayName("Should reject page size out of range")
+    void shouldRejectPageSizeOutOfRange() {
+        // When & Then
+        assertThrows(ValidationException.class, () -> userService.getUsersPage(null, null, 0));
+        assertThrows(ValidationException.class, () -> userService.getUsersPage(null, null, 501));
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     @DisplayName("Should delete user successfully")
     void shouldDeleteUserSuccessfully() {
@@ -171,6 +233,7 @@ class UserServiceTest {
         // Then
         verify(userRepository).existsById(1L);
         verify(userRepository).deleteById(1L);
+        verify(userProfileCache).invalidate(1L);
     }
 
     @Test
@@ -178,8 +241,10 @@ class UserServiceTest {
     void shouldLoginUserSuccessfully() {
         // Given
         when(userRepository.findByUserName("testuser")).thenReturn(Optional.of(testUser));
-        when(passwordEncoder.matches("password123", "password123")).thenReturn(true);
+        when(passwordHashingService.matches("password123", "password123")).thenReturn(true);
         when(jwtService.generateToken(testUser)).thenReturn("test-jwt-token");
+        when(jwtService.getJwtExpiration()).thenReturn(900000L);
+        when(refreshTokenService.issue(testUser)).thenReturn("test-refresh-token");
 
         // When
         LoginResponseDTO result = userService.login(loginDTO);
@@ -188,11 +253,43 @@ class UserServiceTest {
         assertNotNull(result);
         assertEquals("test-jwt-token", result.getToken());
         assertEquals("Bearer", result.getTokenType());
+        assertEquals(900000L, result.getExpiresIn());
+        assertEquals("test-refresh-token", result.getRefreshToken());
         assertEquals(1L, result.getUserId());
         assertEquals("testuser", result.getUserName());
         verify(userRepository).findByUserName("testuser");
-        verify(passwordEncoder).matches("password123", "password123");
+        verify(passwordHashingService).matches("password123", "password123");
         verify(jwtService).generateToken(testUser);
+        verify(userProfileCache).put(testUser);
+    }
+
+    @Test
+    @DisplayName("Should rotate refresh token and issue new access token")
+    void shouldRotateRefreshTokenAndIssueNewAccessToken() {
+        // Given
+        when(refreshTokenService.rotate("old-refresh-token"))
+                .thenReturn(new RefreshTokenService.RotatedRefreshToken(testUser, "new-refresh-token"));
+        when(jwtService.generateToken(testUser)).thenReturn("new-jwt-token");
+
+        // When
+        LoginResponseDTO result = userService.refresh(new RefreshTokenRequestDTO("old-refresh-token"));
+
+        // Then
+        assertEquals("new-jwt-token", result.getToken());
+        assertEquals("new-refresh-token", result.getRefreshToken());
+        assertEquals(1L, result.getUserId());
+    }
+
+    @Test
+    @DisplayName("Should reject refresh with reused or invalid refresh token")
+    void shouldRejectRefreshWithInvalidRefreshToken() {
+        // Given
+        when(refreshTokenService.rotate("reused-refresh-token")).thenThrow(InvalidCredentialsException.invalidRefreshToken());
+
+        // When & Then
+        assertThrows(InvalidCredentialsException.class,
+                () -> userService.refresh(new RefreshTokenRequestDTO("reused-refresh-token")));
+        verify(jwtService, never()).generateToken(any(User.class));
     }
 
     @Test
@@ -211,38 +308,143 @@ class UserServiceTest {
     void shouldThrowExceptionWhenPasswordIsIncorrect() {
         // Given
         when(userRepository.findByUserName("testuser")).thenReturn(Optional.of(testUser));
-        when(passwordEncoder.matches("password123", "password123")).thenReturn(false);
+        when(passwordHashingService.matches("password123", "password123")).thenReturn(false);
 
         // When & Then
         assertThrows(InvalidCredentialsException.class, () -> userService.login(loginDTO));
         verify(userRepository).findByUserName("testuser");
-        verify(passwordEncoder).matches("password123", "password123");
+        verify(passwordHashingService).matches("password123", "password123");
+    }
+
+    @Test
+    @DisplayName("Should rehash password on login when stored cost differs from configured one")
+    void shouldRehashPasswordOnLoginWhenCostDiffers() {
+        // Given
+        when(userRepository.findByUserName("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordHashingService.matches("password123", "password123")).thenReturn(true);
+        when(passwordHashingService.needsRehash("password123")).thenReturn(true);
+        when(passwordHashingService.encode("password123")).thenReturn("rehashedPassword");
+        when(userRepository.updatePasswordIfUnchanged(1L, "password123", "rehashedPassword")).thenReturn(1);
+        when(jwtService.generateToken(testUser)).thenReturn("test-jwt-token");
+
+        // When
+        userService.login(loginDTO);
+
+        // Then
+        assertEquals("rehashedPassword", testUser.getPassword());
+        verify(userRepository).updatePasswordIfUnchanged(1L, "password123", "rehashedPassword");
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Should keep a concurrently changed password instead of overwriting it with the rehash")
+    void shouldNotOverwriteConcurrentPasswordChangeOnRehash() {
+        // Given
+        when(userRepository.findByUserName("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordHashingService.matches("password123", "password123")).thenReturn(true);
+        when(passwordHashingService.needsRehash("password123")).thenReturn(true);
+        when(passwordHashingService.encode("password123")).thenReturn("rehashedPassword");
+        when(userRepository.updatePasswordIfUnchanged(1L, "password123", "rehashedPassword")).thenReturn(0);
+        when(jwtService.generateToken(testUser)).thenReturn("test-jwt-token");
+
+        // When
+        LoginResponseDTO result = userService.login(loginDTO);
+
+        // Then
+        assertEquals("test-jwt-token", result.getToken());
+        assertEquals("password123", testUser.getPassword());
+    }
+
+    @Test
+    @DisplayName("Should complete login when rehash is skipped because hashing pool is busy")
+    void shouldCompleteLoginWhenRehashIsSkipped() {
+        // Given
+        when(userRepository.findByUserName("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordHashingService.matches("password123", "password123")).thenReturn(true);
+        when(passwordHashingService.needsRehash("password123")).thenReturn(true);
+        when(passwordHashingService.encode("password123")).thenThrow(ServiceBusyException.passwordHashingSaturated());
+        when(jwtService.generateToken(testUser)).thenReturn("test-jwt-token");
+
+        // When
+        LoginResponseDTO result = userService.login(loginDTO);
+
+        // Then
+        assertEquals("test-jwt-token", result.getToken());
+        assertEquals("password123", testUser.getPassword());
+        verify(userRepository, never()).updatePasswordIfUnchanged(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should propagate busy exception when hashing pool is saturated")
+    void shouldPropagateBusyExceptionWhenHashingPoolIsSaturated() {
+        // Given
+        when(userRepository.findByUserName("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordHashingService.matches("password123", "password123"))
+                .thenThrow(ServiceBusyException.passwordHashingSaturated());
+
+        // When & Then
+        assertThrows(ServiceBusyException.class, () -> userService.login(loginDTO));
+        verify(jwtService, never()).generateToken(any(User.class));
     }
 
     @Test
     @DisplayName("Should throw exception when creating user with existing userName")
     void shouldThrowExceptionWhenCreatingUserWithExistingUserName() {
         // Given
-        when(userRepository.existsByUserName("testuser")).thenReturn(true);
+        when(userRepository.findByUserNameOrEmail("testuser", "test@example.com"))
+                .thenReturn(List.of(identity(2L, "testuser", "other@example.com")));
 
         // When & Then
-        assertThrows(UserAlreadyExistsException.class, () -> userService.createUser(userRequestDTO));
-        verify(userRepository).existsByUserName("testuser");
-        verify(userRepository, never()).save(any());
+        UserAlreadyExistsException exception = assertThrows(UserAlreadyExistsException.class,
+                () -> userService.createUser(userRequestDTO));
+        assertTrue(exception.getMessage().contains("testuser"));
+        verify(passwordHashingService, never()).encode(anyString());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
     @Test
     @DisplayName("Should throw exception when creating user with existing email")
     void shouldThrowExceptionWhenCreatingUserWithExistingEmail() {
         // Given
-        when(userRepository.existsByUserName("testuser")).thenReturn(false);
-        when(userRepository.existsByEmail("test@example.com")).thenReturn(true);
+        when(userRepository.findByUserNameOrEmail("testuser", "test@example.com"))
+                .thenReturn(List.of(identity(2L, "otheruser", "test@example.com")));
 
         // When & Then
-        assertThrows(UserAlreadyExistsException.class, () -> userService.createUser(userRequestDTO));
-        verify(userRepository).existsByUserName("testuser");
-        verify(userRepository).existsByEmail("test@example.com");
-        verify(userRepository, never()).save(any());
+        UserAlreadyExistsException exception = assertThrows(UserAlreadyExistsException.class,
+                () -> userService.createUser(userRequestDTO));
+        assertTrue(exception.getMessage().contains("test@example.com"));
+        verify(passwordHashingService, never()).encode(anyString());
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Should map a unique violation from a concurrent registration to user already exists")
+    void shouldMapUniqueViolationToUserAlreadyExists() {
+        // Given
+        when(userRepository.findByUserNameOrEmail("testuser", "test@example.com")).thenReturn(List.of());
+        when(userMapper.toEntity(userRequestDTO)).thenReturn(testUser);
+        when(passwordHashingService.encode("password123")).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(testUser)).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("Unique index or primary key violation: \"PUBLIC.UK_USERS_EMAIL\"", "23505")));
+
+        // When & Then
+        UserAlreadyExistsException exception = assertThrows(UserAlreadyExistsException.class,
+                () -> userService.createUser(userRequestDTO));
+        assertTrue(exception.getMessage().contains("test@example.com"));
+    }
+
+    @Test
+    @DisplayName("Should not map other integrity violations to user already exists")
+    void shouldRethrowOtherIntegrityViolations() {
+        // Given
+        when(userRepository.findByUserNameOrEmail("testuser", "test@example.com")).thenReturn(List.of());
+        when(userMapper.toEntity(userRequestDTO)).thenReturn(testUser);
+        when(passwordHashingService.encode("password123")).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(testUser)).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("NULL not allowed for column \"NAME\"", "23502")));
+
+        // When & Then
+        assertThrows(ValidationException.class, () -> userService.createUser(userRequestDTO));
     }
 
     @Test
@@ -306,9 +508,8 @@ class UserServiceTest {
                 .build();
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userRepository.existsByUserName("newuser")).thenReturn(false);
-        when(userRepository.existsByEmail("new@example.com")).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(updatedUser);
+        when(userRepository.findByUserNameOrEmail("newuser", "new@example.com")).thenReturn(List.of());
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(updatedUser);
         when(userMapper.toResponseDTO(updatedUser)).thenReturn(updatedResponseDTO);
 
         // When
@@ -322,8 +523,89 @@ class UserServiceTest {
         assertEquals("New", result.getName());
         assertEquals("Name", result.getLastName());
         verify(userRepository).findById(1L);
-        verify(userRepository).existsByUserName("newuser");
-        verify(userRepository).existsByEmail("new@example.com");
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).findByUserNameOrEmail("newuser", "new@example.com");
+        verify(userRepository).saveAndFlush(any(User.class));
+        verify(userProfileCache).invalidate(1L);
+    }
+
+    @Test
+    @DisplayName("Should only check changed fields and ignore the user's own row on update")
+    void shouldOnlyCheckChangedFieldsOnUpdate() {
+        // Given
+        UserUpdateDTO updateDTO = UserUpdateDTO.builder()
+                .userName("testuser")
+                .email("new@example.com")
+                .build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.findByUserNameOrEmail(null, "new@example.com"))
+                .thenReturn(List.of(identity(1L, "testuser", "test@example.com")));
+        when(userRepository.saveAndFlush(testUser)).thenReturn(testUser);
+        when(userMapper.toResponseDTO(testUser)).thenReturn(userResponseDTO);
+
+        // When
+        userService.updateUser(1L, updateDTO);
+
+        // Then
+        verify(userRepository).findByUserNameOrEmail(null, "new@example.com");
+        verify(userRepository).saveAndFlush(testUser);
+    }
+
+    @Test
+    @DisplayName("Should hash the new password before opening the update transaction")
+    void shouldHashPasswordBeforeOpeningUpdateTransaction() {
+        // Given
+        UserUpdateDTO updateDTO = UserUpdateDTO.builder()
+                .password("newPassword123")
+                .build();
+        when(passwordHashingService.encode("newPassword123")).thenReturn("newEncodedPassword");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.saveAndFlush(testUser)).thenReturn(testUser);
+        when(userMapper.toResponseDTO(testUser)).thenReturn(userResponseDTO);
+
+        // When
+        userService.updateUser(1L, updateDTO);
+
+        // Then
+        assertEquals("newEncodedPassword", testUser.getPassword());
+        InOrder inOrder = inOrder(passwordHashingService, transactionManager, userRepository, refreshTokenService);
+        inOrder.verify(passwordHashingService).encode("newPassword123");
+        inOrder.verify(transactionManager).getTransaction(any(TransactionDefinition.class));
+        inOrder.verify(userRepository).findById(1L);
+        inOrder.verify(refreshTokenService).revokeAll(1L);
+        inOrder.verify(userRepository).saveAndFlush(testUser);
+    }
+
+    @Test
+    @DisplayName("Should not open the update transaction when the hashing pool is saturated")
+    void shouldNotOpenUpdateTransactionWhenHashingPoolIsSaturated() {
+        // Given
+        UserUpdateDTO updateDTO = UserUpdateDTO.builder()
+                .password("newPassword123")
+                .build();
+        when(passwordHashingService.encode("newPassword123")).thenThrow(ServiceBusyException.passwordHashingSaturated());
+
+        // When & Then
+        assertThrows(ServiceBusyException.class, () -> userService.updateUser(1L, updateDTO));
+        verifyNoInteractions(transactionManager);
+        verify(userRepository, never()).findById(any());
+    }
+
+    private static UserRepository.UserIdentity identity(Long userId, String userName, String email) {
+        return new UserRepository.UserIdentity() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public String getUserName() {
+                return userName;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
     }
 }